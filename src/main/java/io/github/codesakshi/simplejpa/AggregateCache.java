@@ -0,0 +1,373 @@
+package io.github.codesakshi.simplejpa;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.github.codesakshi.simplejpa.EntityProcessor.AssociationMetaInfo;
+import io.github.codesakshi.simplejpa.EntityProcessor.ColumnJoinInfo;
+import io.github.codesakshi.simplejpa.EntityProcessor.ManyToManyMetaInfo;
+import io.github.codesakshi.simplejpa.EntityProcessor.OneToManyMetaInfo;
+import io.github.codesakshi.simplejpa.EntityProcessor.SingleTargetMetaInfo;
+import io.github.codesakshi.simplejpa.EntityProcessor.TableMetaInfo;
+import io.github.codesakshi.simplejpa.TableChangeNotifier.TableChangeEvent;
+
+/**
+ * Cache of aggregate roots ( fully loaded entity graphs ) by Id, with dependency tracking.
+ *
+ * EntityCache removes all entities when a row of any child table is modified.
+ * AggregateCache records the rows each cached graph depends on, and removes only the dependent graphs.
+ *
+ * A graph depends on
+ *
+ * 	1. ( table, id ) of every entity in the graph. Update or delete of the row removes the graph.
+ * 	2. ( child table, join column, parent value ) of every association of every entity in the graph.
+ * 	   Insert of a new child row ( or bridge row ) for a parent in the graph removes the graph.
+ *
+ * Changes without row details ( example: DbQuery.update ) remove all graphs, as in EntityCache.
+ *
+ * <pre>
+ * 	repository.setEntityCache( new AggregateCache&lt;School&gt;( School.class, new EntityCache.Configuration() ) );
+ * </pre>
+ *
+ * @author anilalps
+ *
+ * @param <T> Entity Type
+ */
+public class AggregateCache<T> extends EntityCache<T> {
+
+	/** Cached graph and the rows it depends on **/
+	private static final class Dependent {
+
+		private Object idValue;
+
+		private List<String> dependencyKeyList;
+
+		protected Dependent( Object idValue, List<String> dependencyKeyList ) {
+			this.idValue = idValue;
+			this.dependencyKeyList = dependencyKeyList;
+		}
+	}
+
+	/** Table name ( case insensitive ) -> Columns used as dependency keys **/
+	protected Map<String,Set<String>> dependencyColumnMap = new TreeMap<String,Set<String>>( String.CASE_INSENSITIVE_ORDER );
+
+	/** Dependency key -> Cached graphs depending on it **/
+	protected Map<String,Set<Dependent>> dependentMap = new ConcurrentHashMap<String,Set<Dependent>>();
+
+	/** Cached copy -> Its dependencies. Identity, because entities may override equals **/
+	private Map<Object,Dependent> valueDependentMap = Collections.synchronizedMap( new IdentityHashMap<Object,Dependent>() );
+
+	/**
+	 * Constructor
+	 *
+	 * @param entityClass Class of the entity. EntityProcessor should be already created for this class.
+	 * @param configuration Cache settings
+	 */
+	public AggregateCache( Class<T> entityClass, Configuration configuration ) {
+
+		super( entityClass, configuration );
+
+		for( String reachableTableName : reachableTableNames ) {
+
+			TableMetaInfo tableMetaInfo = EntityProcessor.getTableMetaInfo( reachableTableName );
+
+			// Bridge tables have no TableMetaInfo. Their columns are added by the parent tables
+			if( null != tableMetaInfo ) {
+
+				addDependencyColumn( tableMetaInfo.getTableName(), tableMetaInfo.getIdColumnName() );
+
+				for( AssociationMetaInfo associationInfo : tableMetaInfo.getAssociations() ) {
+
+					String childTableName = getDependencyTableName( associationInfo );
+
+					for( ColumnJoinInfo columnJoinInfo : getDependencyJoinList( associationInfo ) ) {
+
+						addDependencyColumn( childTableName, columnJoinInfo.getChildColumn() );
+					}
+				}
+			}
+		}
+
+		// Remove dependencies of evicted, expired, invalidated and replaced graphs
+		cache.setRemovalListener( (key,value)-> removeDependent( value ) );
+	}
+
+	@Override
+	public void put( Object idValue, T entity ) {
+
+		T copy = copy( entity );
+
+		addDependent( idValue, copy );
+
+		cache.put( idValue, copy );
+	}
+
+	@Override
+	public void putIfCurrent( Object idValue, T entity, long expectedGeneration ) {
+
+		T copy = copy( entity );
+
+		if( expectedGeneration == generation.get() ) {
+
+			// Add dependencies before put. So a change notified while putting finds this graph
+			addDependent( idValue, copy );
+
+			cache.put( idValue, copy );
+
+			// Invalidated while putting. Value may be stale
+			if( expectedGeneration != generation.get() ) {
+				cache.invalidate( idValue );
+			}
+		}
+	}
+
+	@Override
+	public void tableChanged( TableChangeEvent event ) {
+
+		if( null == event.getTableName() ) {
+
+			// Modified table is not known
+			invalidateAll();
+
+		}else if( reachableTableNames.contains( event.getTableName() ) ) {
+
+			// Discard graphs being loaded. They may not be registered yet.
+			// Generation is incremented once for each change. See getCommittedGeneration
+			generation.incrementAndGet();
+
+			Set<String> columnSet = dependencyColumnMap.get( event.getTableName() );
+
+			if( null == columnSet ) {
+
+				cache.invalidateAll();
+
+			}else if( null != event.getRowData() ) {
+
+				Map<String,Object> rowData = new TreeMap<String,Object>( String.CASE_INSENSITIVE_ORDER );
+				rowData.putAll( event.getRowData() );
+
+				for( String columnName : columnSet ) {
+
+					invalidateDependents( getDependencyKey( event.getTableName(), columnName, rowData.get( columnName ) ) );
+				}
+
+			}else if( null != event.getIdValue() && 1 == columnSet.size() ) {
+
+				// Only the id column is used as dependency key for this table
+				invalidateDependents( getDependencyKey( event.getTableName(), columnSet.iterator().next(), event.getIdValue() ) );
+
+			}else {
+
+				// Modified rows are not known
+				cache.invalidateAll();
+			}
+		}
+	}
+
+	/**
+	 * Get number of dependency keys of the cached graphs
+	 *
+	 * @return Number of dependency keys
+	 */
+	public long getDependencyKeyCount() {
+		return dependentMap.size();
+	}
+
+	private void invalidateDependents( String dependencyKey ) {
+
+		if( null != dependencyKey ) {
+
+			Set<Dependent> dependentSet = dependentMap.get( dependencyKey );
+
+			if( null != dependentSet ) {
+
+				for( Dependent dependent : dependentSet ) {
+
+					cache.invalidate( dependent.idValue );
+				}
+			}
+		}
+	}
+
+	private void addDependent( Object idValue, T copy ) {
+
+		List<String> dependencyKeyList = new ArrayList<String>();
+
+		collectDependencyKeys( copy, dependencyKeyList, Collections.newSetFromMap( new IdentityHashMap<Object,Boolean>() ) );
+
+		Dependent dependent = new Dependent( idValue, dependencyKeyList );
+
+		valueDependentMap.put( copy, dependent );
+
+		for( String dependencyKey : dependencyKeyList ) {
+
+			// Add inside compute. So the set is not removed by removeDependent, while adding
+			dependentMap.compute( dependencyKey, (key,dependentSet)->{
+
+				Set<Dependent> newDependentSet = null != dependentSet ? dependentSet : ConcurrentHashMap.<Dependent>newKeySet();
+
+				newDependentSet.add( dependent );
+
+				return newDependentSet;
+			});
+		}
+	}
+
+	private void removeDependent( Object value ) {
+
+		Dependent dependent = valueDependentMap.remove( value );
+
+		if( null != dependent ) {
+
+			for( String dependencyKey : dependent.dependencyKeyList ) {
+
+				dependentMap.computeIfPresent( dependencyKey, (key,dependentSet)->{
+
+					dependentSet.remove( dependent );
+
+					return dependentSet.isEmpty() ? null : dependentSet;
+				});
+			}
+		}
+	}
+
+	private void collectDependencyKeys( Object entity, List<String> dependencyKeyList, Set<Object> visitedSet ) {
+
+		if( null != entity && visitedSet.add( entity ) ) {
+
+			try {
+
+				TableMetaInfo tableMetaInfo = EntityProcessor.getTableMetaInfo( entity );
+
+				String tableName = tableMetaInfo.getTableName();
+
+				String idColumnName = tableMetaInfo.getIdColumnName();
+
+				addDependencyKey( dependencyKeyList, tableName, idColumnName,
+						Repository.getEntityFieldValueInSqlType( tableMetaInfo, idColumnName, entity ) );
+
+				for( AssociationMetaInfo associationInfo : tableMetaInfo.getAssociations() ) {
+
+					String childTableName = getDependencyTableName( associationInfo );
+
+					for( ColumnJoinInfo columnJoinInfo : getDependencyJoinList( associationInfo ) ) {
+
+						addDependencyKey( dependencyKeyList, childTableName, columnJoinInfo.getChildColumn(),
+								Repository.getEntityFieldValueInSqlType( tableMetaInfo, columnJoinInfo.getParentColumn(), entity ) );
+					}
+
+					Field field = associationInfo.getParentField();
+					field.setAccessible(true);
+
+					Object value = field.get( entity );
+
+					if( value instanceof Collection ) {
+
+						for( Object child : (Collection<?>) value ) {
+							collectDependencyKeys( child, dependencyKeyList, visitedSet );
+						}
+
+					}else {
+
+						collectDependencyKeys( value, dependencyKeyList, visitedSet );
+					}
+				}
+
+			}catch( Exception ex ) {
+
+				throw new RuntimeException( "Could not read dependencies of " + entity.getClass(), ex );
+			}
+		}
+	}
+
+	private void addDependencyColumn( String tableName, String columnName ) {
+
+		dependencyColumnMap.computeIfAbsent( tableName, (key)-> new TreeSet<String>( String.CASE_INSENSITIVE_ORDER ) ).add( columnName );
+	}
+
+	private static void addDependencyKey( List<String> dependencyKeyList, String tableName, String columnName, Object value ) {
+
+		String dependencyKey = getDependencyKey( tableName, columnName, value );
+
+		if( null != dependencyKey ) {
+			dependencyKeyList.add( dependencyKey );
+		}
+	}
+
+	/** Table having the join column of the association. Bridge table for ManyToMany **/
+	private static String getDependencyTableName( AssociationMetaInfo associationInfo ) {
+
+		return associationInfo instanceof ManyToManyMetaInfo
+				? ((ManyToManyMetaInfo) associationInfo).getBridgeTableName()
+				: associationInfo.getChildTableName();
+	}
+
+	/** Joins from parent columns to the columns of dependency table **/
+	private static List<ColumnJoinInfo> getDependencyJoinList( AssociationMetaInfo associationInfo ) {
+
+		List<ColumnJoinInfo> joinList = null;
+
+		if( associationInfo instanceof ManyToManyMetaInfo ) {
+
+			joinList = ((ManyToManyMetaInfo) associationInfo).getParentToBridgeJoinList();
+
+		}else if( associationInfo instanceof OneToManyMetaInfo ) {
+
+			joinList = ((OneToManyMetaInfo) associationInfo).getColumnJoinList();
+
+		}else {
+
+			joinList = Collections.singletonList( ((SingleTargetMetaInfo) associationInfo).getColumnJoin() );
+		}
+
+		return joinList;
+	}
+
+	/**
+	 * Key of a column value. Numbers are normalized, because the column may be read as Integer, Long or BigDecimal.
+	 *
+	 * @return Key. null if value is null ( no row can be joined )
+	 */
+	private static String getDependencyKey( String tableName, String columnName, Object value ) {
+
+		String dependencyKey = null;
+
+		if( null != value ) {
+
+			String valueText = null;
+
+			if( value instanceof BigDecimal ) {
+
+				valueText = ((BigDecimal) value).stripTrailingZeros().toPlainString();
+
+			}else if( value instanceof BigInteger || value instanceof Long || value instanceof Integer
+					|| value instanceof Short || value instanceof Byte ) {
+
+				valueText = value.toString();
+
+			}else if( value instanceof Number ) {
+
+				valueText = new BigDecimal( value.toString() ).stripTrailingZeros().toPlainString();
+
+			}else {
+
+				valueText = value.toString();
+			}
+
+			dependencyKey = tableName.toUpperCase() + '\u0000' + columnName.toUpperCase() + '\u0000' + valueText;
+		}
+
+		return dependencyKey;
+	}
+}
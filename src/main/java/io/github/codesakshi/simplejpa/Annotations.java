@@ -19,4 +19,19 @@ public class Annotations {
 	public @interface UpdateTimeStamp{
 		
 	}
+
+/**
+ * Specify shared entity cache settings.
+ * Entity having this Annotation ( or javax.persistence.Cacheable ) is cached in EntityCache
+ */
+	@Target(ElementType.TYPE)
+	@Retention( RetentionPolicy.RUNTIME)
+	public @interface CacheConfig{
+
+		/** Maximum number of entities in cache **/
+		long maximumSize() default 10000;
+
+		/** Entities expire after this duration from last write. 0 to disable expiry **/
+		long expireAfterWriteSeconds() default 0;
+	}
 }
@@ -0,0 +1,118 @@
+package io.github.codesakshi.simplejpa;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import io.github.codesakshi.simplejpa.DbQuery.ThrowableFunction;
+
+/**
+ * Asynchronous facade of DbQuery. Each method runs the DbQuery method on AsyncExecutor, with a new Connection.
+ *
+ * <pre>
+ * 	AsyncDbQuery asyncQuery = new AsyncDbQuery( new DbQuery(), asyncExecutor );
+ *
+ * 	asyncQuery.update( "UPDATE ORDERS SET STATUS = ? WHERE ID = ?", "SHIPPED", orderId );
+ * </pre>
+ *
+ * @author anilalps
+ *
+ */
+public class AsyncDbQuery {
+
+	protected DbQuery dbQuery;
+
+	protected AsyncExecutor asyncExecutor;
+
+	/**
+	 * Constructor
+	 *
+	 * @param dbQuery DbQuery to be executed
+	 * @param asyncExecutor Executor and Connection supplier
+	 */
+	public AsyncDbQuery( DbQuery dbQuery, AsyncExecutor asyncExecutor ) {
+		this.dbQuery = dbQuery;
+		this.asyncExecutor = asyncExecutor;
+	}
+
+	/**
+	 * Query the Database. See DbQuery.query
+	 *
+	 * @param <T> Type of Mapped Object
+	 * @param sql SQL Query
+	 * @param rsh ResultSet Handler Function
+	 * @param params Query Parameters
+	 * @return Future of the Java Object mapped using rsh
+	 */
+	public <T> CompletableFuture<T> query( String sql, ThrowableFunction<ResultSet,T> rsh, Object... params ) {
+
+		return asyncExecutor.submit( (conn)-> dbQuery.query( conn, sql, rsh, params ) );
+	}
+
+	/**
+	 * Query the Database. See DbQuery.query
+	 *
+	 * @param <T> Type of Mapped Object
+	 * @param sql SQL Query
+	 * @param rsh ResultSet Handler Function
+	 * @param varMap Query Parameter Map
+	 * @return Future of the Java Object mapped using rsh
+	 */
+	public <T> CompletableFuture<T> query( String sql, ThrowableFunction<ResultSet,T> rsh, Map<String,Object> varMap ) {
+
+		return asyncExecutor.submit( (conn)-> dbQuery.query( conn, sql, rsh, varMap ) );
+	}
+
+	/**
+	 * Execute INSERT, UPDATE or DELETE query. See DbQuery.update
+	 *
+	 * @param sql SQL Query
+	 * @param params Query Parameters
+	 * @return Future of the number of rows modified
+	 */
+	public CompletableFuture<Integer> update( String sql, Object... params ) {
+
+		return asyncExecutor.submit( (conn)-> dbQuery.update( conn, sql, params ) );
+	}
+
+	/**
+	 * Execute INSERT, UPDATE or DELETE query. See DbQuery.update
+	 *
+	 * @param sql SQL Query
+	 * @param varMap Query Parameter Map
+	 * @return Future of the number of rows modified
+	 */
+	public CompletableFuture<Integer> update( String sql, Map<String,Object> varMap ) {
+
+		return asyncExecutor.submit( (conn)-> dbQuery.update( conn, sql, varMap ) );
+	}
+
+	/**
+	 * Execute a batch of INSERT, UPDATE or DELETE queries. See DbQuery.batch
+	 *
+	 * @param sql SQL Query
+	 * @param params Query Parameters of each statement of the batch
+	 * @return Future of the number of rows modified by each statement
+	 */
+	public CompletableFuture<int[]> batch( String sql, Object[][] params ) {
+
+		return asyncExecutor.submit( (conn)-> dbQuery.batch( conn, sql, params ) );
+	}
+
+	/**
+	 * Run any action with DbQuery and a Connection
+	 *
+	 * @param <R> Type of the result
+	 * @param action Action to be executed
+	 * @return Future of the result of the action
+	 */
+	public <R> CompletableFuture<R> execute( ThrowableFunction<Connection,R> action ) {
+
+		return asyncExecutor.submit( action );
+	}
+
+	public DbQuery getDbQuery() {
+		return dbQuery;
+	}
+}
@@ -0,0 +1,227 @@
+package io.github.codesakshi.simplejpa;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.github.codesakshi.simplejpa.DbQuery.ThrowableFunction;
+import io.github.codesakshi.simplejpa.DbQuery.ThrowableSupplier;
+
+/**
+ * Executor of AsyncRepository and AsyncDbQuery.
+ *
+ * Each action runs on the executor with a new Connection from the supplier, in auto commit mode.
+ * So the writes of an action are committed by the action. Connection is closed after the action.
+ *
+ * At most maxConcurrency actions hold a Connection at a time. Other actions wait for a permit.
+ * So the connection pool is not oversubscribed, even with unbounded executors.
+ *
+ * Default executor runs each action on a virtual thread when running on Java 21 or later,
+ * and on a fixed pool of maxConcurrency threads otherwise.
+ *
+ * <pre>
+ * 	AsyncExecutor asyncExecutor = new AsyncExecutor( dataSource::getConnection, 20 );
+ *
+ * 	AsyncRepository&lt;Order,Long&gt; orders = new AsyncRepository&lt;Order,Long&gt;( orderRepository, asyncExecutor );
+ *
+ * 	orders.findById( orderId ).thenAccept( (order)-> respond( order ) );
+ * </pre>
+ *
+ * @author anilalps
+ *
+ */
+public class AsyncExecutor implements AutoCloseable {
+
+	private static Logger logger  = LoggerFactory.getLogger(AsyncExecutor.class);
+
+	protected ThrowableSupplier<Connection> connectionSupplier;
+
+	protected ExecutorService executor;
+
+	/** Executor is created by this class, and shut down on close **/
+	private boolean ownExecutor;
+
+	/** One permit for each Connection in use **/
+	private Semaphore permits;
+
+	/**
+	 * Constructor with default executor
+	 *
+	 * @param connectionSupplier Supplier of a new Connection ( example: dataSource::getConnection ). Connection is closed after use.
+	 * @param maxConcurrency Maximum actions holding a Connection at a time. Should not be more than the connection pool size.
+	 */
+	public AsyncExecutor( ThrowableSupplier<Connection> connectionSupplier, int maxConcurrency ) {
+
+		this( connectionSupplier, newDefaultExecutor( maxConcurrency ), maxConcurrency );
+
+		this.ownExecutor = true;
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param connectionSupplier Supplier of a new Connection ( example: dataSource::getConnection ). Connection is closed after use.
+	 * @param executor Executor of the actions. Not shut down by this class.
+	 * @param maxConcurrency Maximum actions holding a Connection at a time. Should not be more than the connection pool size.
+	 */
+	public AsyncExecutor( ThrowableSupplier<Connection> connectionSupplier, ExecutorService executor, int maxConcurrency ) {
+
+		if( maxConcurrency < 1 ) {
+			throw new IllegalArgumentException( "maxConcurrency should be positive : " + maxConcurrency );
+		}
+
+		this.connectionSupplier = connectionSupplier;
+		this.executor = executor;
+		this.permits = new Semaphore( maxConcurrency, true );
+	}
+
+	/**
+	 * Create the default executor. Virtual thread per task executor if available ( Java 21 or later ),
+	 * otherwise a fixed pool of daemon threads.
+	 *
+	 * @param threads Number of threads of the fixed pool
+	 * @return Executor
+	 */
+	public static ExecutorService newDefaultExecutor( int threads ) {
+
+		ExecutorService executor = null;
+
+		try {
+
+			// Java 21 API. Read by reflection, because the library is compiled for Java 8
+			Method method = Executors.class.getMethod( "newVirtualThreadPerTaskExecutor" );
+
+			executor = (ExecutorService) method.invoke( null );
+
+		}catch( ReflectiveOperationException ex ) {
+
+			logger.debug( "Virtual threads are not available. Using fixed thread pool" );
+		}
+
+		if( null == executor ) {
+
+			AtomicInteger threadCount = new AtomicInteger();
+
+			executor = Executors.newFixedThreadPool( Math.max( 1, threads ), (runnable)->{
+
+				Thread thread = new Thread( runnable, "async-db-" + threadCount.incrementAndGet() );
+				thread.setDaemon( true );
+				return thread;
+			});
+		}
+
+		return executor;
+	}
+
+	/**
+	 * Run the action with a Connection, on the executor
+	 *
+	 * @param <R> Type of the result
+	 * @param action Action to be executed
+	 * @return Future completed with the result of the action, or exceptionally with its failure
+	 */
+	public <R> CompletableFuture<R> submit( ThrowableFunction<Connection,R> action ) {
+
+		CompletableFuture<R> future = new CompletableFuture<R>();
+
+		try {
+
+			executor.execute( ()-> run( action, future ) );
+
+		}catch( RuntimeException ex ) {
+
+			// Rejected. Executor is shut down
+			future.completeExceptionally( ex );
+		}
+
+		return future;
+	}
+
+	/**
+	 * Get number of actions, which can get a Connection now
+	 *
+	 * @return Available permits
+	 */
+	public int getAvailablePermits() {
+		return permits.availablePermits();
+	}
+
+	public ExecutorService getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * Shut down the default executor, after the submitted actions complete.
+	 * Actions still running after a minute are interrupted. If interrupted, the interrupt flag is restored and close returns.
+	 * Executor given to the constructor is not shut down.
+	 */
+	@Override
+	public void close() {
+
+		if( ownExecutor ) {
+
+			executor.shutdown();
+
+			try {
+
+				if( ! executor.awaitTermination( 1, TimeUnit.MINUTES ) ) {
+
+					logger.warn( "Actions are still running after close. Interrupting them" );
+
+					executor.shutdownNow();
+				}
+
+			}catch( InterruptedException ex ) {
+
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private <R> void run( ThrowableFunction<Connection,R> action, CompletableFuture<R> future ) {
+
+		try {
+
+			permits.acquire();
+
+		}catch( InterruptedException ex ) {
+
+			Thread.currentThread().interrupt();
+
+			future.completeExceptionally( ex );
+
+			return;
+		}
+
+		try {
+
+			// Cancelled while waiting in executor or for a permit. Connection is not taken
+			if( future.isDone() ) {
+				return;
+			}
+
+			try( Connection conn = connectionSupplier.getThrows() ){
+
+				conn.setAutoCommit( true );
+
+				future.complete( action.applyThrows( conn ) );
+			}
+
+		}catch( Throwable ex ) {
+
+			future.completeExceptionally( ex );
+
+		}finally {
+
+			permits.release();
+		}
+	}
+}
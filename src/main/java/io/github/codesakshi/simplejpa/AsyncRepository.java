@@ -0,0 +1,181 @@
+package io.github.codesakshi.simplejpa;
+
+import java.sql.Connection;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import io.github.codesakshi.simplejpa.DbQuery.ThrowableFunction;
+
+/**
+ * Asynchronous facade of Repository. Each method runs the Repository method on AsyncExecutor, with a new Connection.
+ * Each save and delete is committed in its own transaction.
+ *
+ * <pre>
+ * 	AsyncRepository&lt;Order,Long&gt; orders = new AsyncRepository&lt;Order,Long&gt;( orderRepository, asyncExecutor );
+ *
+ * 	orders.save( order ).thenCompose( (saved)-> orders.findById( saved.getId() ) );
+ * </pre>
+ *
+ * @author anilalps
+ *
+ * @param <T> Entity Type
+ * @param <ID> ID Type
+ */
+public class AsyncRepository<T,ID> {
+
+	protected Repository<T,ID> repository;
+
+	protected AsyncExecutor asyncExecutor;
+
+	/**
+	 * Constructor
+	 *
+	 * @param repository Repository of the entity
+	 * @param asyncExecutor Executor and Connection supplier
+	 */
+	public AsyncRepository( Repository<T,ID> repository, AsyncExecutor asyncExecutor ) {
+		this.repository = repository;
+		this.asyncExecutor = asyncExecutor;
+	}
+
+	/**
+	 * Get an entity by id. See Repository.findById
+	 *
+	 * @param inId Id of the entity
+	 * @return Future of the entity. null if not found
+	 */
+	public CompletableFuture<T> findById( ID inId ) {
+
+		return asyncExecutor.submit( (conn)-> repository.findById( conn, inId ) );
+	}
+
+	/**
+	 * Get entities by ids. See Repository.findAllById
+	 *
+	 * @param inIds Ids of the entities
+	 * @return Future of the entities found
+	 */
+	public CompletableFuture<List<T>> findAllById( Collection<ID> inIds ) {
+
+		return asyncExecutor.submit( (conn)-> repository.findAllById( conn, inIds ) );
+	}
+
+	/**
+	 * Get all records. See Repository.findAll
+	 *
+	 * @return Future of all records
+	 */
+	public CompletableFuture<List<T>> findAll() {
+
+		return asyncExecutor.submit( (conn)-> repository.findAll( conn ) );
+	}
+
+	/**
+	 * Get a single record. See Repository.findSingleWithWhere
+	 *
+	 * @param whereClause WHERE Criteria for the query
+	 * @param params Query Parameters
+	 * @return Future of the record. null if not found
+	 */
+	public CompletableFuture<T> findSingleWithWhere( String whereClause, Object... params ) {
+
+		return asyncExecutor.submit( (conn)-> repository.findSingleWithWhere( conn, whereClause, params ) );
+	}
+
+	/**
+	 * Get a list of records. See Repository.findMultipleWithWhere
+	 *
+	 * @param whereClause WHERE Criteria for the query
+	 * @param params Query Parameters
+	 * @return Future of the records
+	 */
+	public CompletableFuture<List<T>> findMultipleWithWhere( String whereClause, Object... params ) {
+
+		return asyncExecutor.submit( (conn)-> repository.findMultipleWithWhere( conn, whereClause, params ) );
+	}
+
+	/**
+	 * Get a list of records. See Repository.findMultiple
+	 *
+	 * @param selectSql Query for Selecting the entity
+	 * @param params Query Parameters
+	 * @return Future of the records
+	 */
+	public CompletableFuture<List<T>> findMultiple( String selectSql, Object... params ) {
+
+		return asyncExecutor.submit( (conn)-> repository.findMultiple( conn, selectSql, params ) );
+	}
+
+	/**
+	 * Check whether an entity is present. See Repository.hasId
+	 *
+	 * @param inId Id of the entity
+	 * @return Future of true if present
+	 */
+	public CompletableFuture<Boolean> hasId( ID inId ) {
+
+		return asyncExecutor.submit( (conn)-> repository.hasId( conn, inId ) );
+	}
+
+	/**
+	 * Save an Entity. See Repository.save
+	 *
+	 * @param inItem Entity Object to be saved
+	 * @return Future of the saved entity
+	 */
+	public CompletableFuture<T> save( T inItem ) {
+
+		return asyncExecutor.submit( (conn)-> repository.save( conn, inItem ) );
+	}
+
+	/**
+	 * Save entities in a transaction. See Repository.saveAll
+	 *
+	 * @param entities Entities to be saved
+	 * @return Future of the saved entities
+	 */
+	public CompletableFuture<List<T>> saveAll( Iterable<T> entities ) {
+
+		return asyncExecutor.submit( (conn)-> repository.saveAll( conn, entities ) );
+	}
+
+	/**
+	 * Delete an entity by id. See Repository.deleteById
+	 *
+	 * @param inId Id of the entity
+	 * @return Future of the number of entities deleted
+	 */
+	public CompletableFuture<Integer> deleteById( ID inId ) {
+
+		return asyncExecutor.submit( (conn)-> repository.deleteById( conn, inId ) );
+	}
+
+	/**
+	 * Delete entities matching the criteria. See Repository.delete
+	 *
+	 * @param whereClause WHERE Criteria for the query
+	 * @param params Query Parameters
+	 * @return Future of the number of entities deleted
+	 */
+	public CompletableFuture<Integer> delete( String whereClause, Object... params ) {
+
+		return asyncExecutor.submit( (conn)-> repository.delete( conn, whereClause, params ) );
+	}
+
+	/**
+	 * Run any action with the Repository and a Connection
+	 *
+	 * @param <R> Type of the result
+	 * @param action Action to be executed
+	 * @return Future of the result of the action
+	 */
+	public <R> CompletableFuture<R> execute( ThrowableFunction<Connection,R> action ) {
+
+		return asyncExecutor.submit( action );
+	}
+
+	public Repository<T,ID> getRepository() {
+		return repository;
+	}
+}
@@ -0,0 +1,315 @@
+package io.github.codesakshi.simplejpa;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.github.codesakshi.simplejpa.DbQuery.ThrowableSupplier;
+
+/**
+ * Loader which collects findById requests of several threads and reads them in one query.
+ *
+ * 	1. Requested Ids are collected for batchWindow, or until maximumBatchSize Ids are collected.
+ * 	2. Ids are read by Repository.findAllById ( IN query, in chunks ) on a Connection from the supplier.
+ * 	3. Future of each request is completed with the entity, or null if not found.
+ *
+ * Requests of the same Id in a batch are read once, and get the same entity instance.
+ *
+ * <pre>
+ * 	BatchingLoader&lt;Author,Long&gt; authorLoader = new BatchingLoader&lt;Author,Long&gt;( authorRepository, dataSource::getConnection,
+ * 		new BatchingLoader.Configuration().setBatchWindow( 2, TimeUnit.MILLISECONDS ) );
+ *
+ * 	CompletableFuture&lt;Author&gt; author = authorLoader.load( book.getAuthorId() );
+ * </pre>
+ *
+ * @author anilalps
+ *
+ * @param <T> Entity Type
+ * @param <ID> ID Type
+ */
+public class BatchingLoader<T,ID> implements AutoCloseable {
+
+	private static Logger logger  = LoggerFactory.getLogger(BatchingLoader.class);
+
+	/** Loader settings **/
+	public static class Configuration {
+
+		private int maximumBatchSize = 500;
+
+		private long batchWindowMicros = 2000;
+
+		private int threads = 2;
+
+		public Configuration() {
+
+		}
+
+		/** Batch is read immediately when it has this number of Ids **/
+		public Configuration setMaximumBatchSize(int maximumBatchSize) {
+			this.maximumBatchSize = maximumBatchSize;
+			return this;
+		}
+
+		/** Ids are collected for this duration from the first request of the batch **/
+		public Configuration setBatchWindow(long duration, TimeUnit unit) {
+			this.batchWindowMicros = unit.toMicros( duration );
+			return this;
+		}
+
+		/** Number of threads reading the batches. Batches are read concurrently up to this number **/
+		public Configuration setThreads(int threads) {
+			this.threads = threads;
+			return this;
+		}
+
+		public int getMaximumBatchSize() {
+			return maximumBatchSize;
+		}
+
+		public long getBatchWindowMicros() {
+			return batchWindowMicros;
+		}
+
+		public int getThreads() {
+			return threads;
+		}
+	}
+
+	protected Repository<T,ID> repository;
+
+	protected ThrowableSupplier<Connection> connectionSupplier;
+
+	protected Configuration configuration;
+
+	/** Ids of the current batch -> Futures of the requests **/
+	private Map<ID,CompletableFuture<T>> pendingMap = new LinkedHashMap<ID,CompletableFuture<T>>();
+
+	/** Timer of the current batch. null if the batch is empty **/
+	private ScheduledFuture<?> pendingTimer;
+
+	private ScheduledThreadPoolExecutor executor;
+
+	private volatile boolean closed = false;
+
+	private AtomicInteger batchCount = new AtomicInteger();
+
+	/**
+	 * Constructor
+	 *
+	 * @param repository Repository of the entity
+	 * @param connectionSupplier Supplier of a Connection for each batch ( example: dataSource::getConnection ). Connection is closed after use.
+	 * @param configuration Loader settings
+	 */
+	public BatchingLoader( Repository<T,ID> repository, ThrowableSupplier<Connection> connectionSupplier, Configuration configuration ) {
+
+		this.repository = repository;
+		this.connectionSupplier = connectionSupplier;
+		this.configuration = configuration;
+
+		AtomicInteger threadCount = new AtomicInteger();
+
+		this.executor = new ScheduledThreadPoolExecutor( Math.max( 1, configuration.getThreads() ), (runnable)->{
+
+			Thread thread = new Thread( runnable, "batching-loader-" + repository.processor.getTableName() + "-" + threadCount.incrementAndGet() );
+			thread.setDaemon( true );
+			return thread;
+		});
+
+		// Cancelled timers of dispatched batches are not kept
+		this.executor.setRemoveOnCancelPolicy( true );
+	}
+
+	/**
+	 * Request an entity by Id
+	 *
+	 * @param inId Id of the entity
+	 * @return Future completed with the entity, or null if not found. Completed exceptionally if the query fails.
+	 */
+	public CompletableFuture<T> load( ID inId ) {
+
+		if( null == inId ) {
+			throw new IllegalArgumentException( "Id should not be null for load of " + repository.processor.getTableName() );
+		}
+
+		if( closed ) {
+			throw new IllegalStateException( "BatchingLoader is closed for " + repository.processor.getTableName() );
+		}
+
+		CompletableFuture<T> future = null;
+
+		Map<ID,CompletableFuture<T>> fullBatch = null;
+
+		synchronized( this ) {
+
+			// Closed after the check above. Pending requests are already dispatched by close
+			if( closed ) {
+				throw new IllegalStateException( "BatchingLoader is closed for " + repository.processor.getTableName() );
+			}
+
+			future = pendingMap.get( inId );
+
+			if( null == future ) {
+
+				future = new CompletableFuture<T>();
+
+				pendingMap.put( inId, future );
+
+				if( pendingMap.size() >= configuration.getMaximumBatchSize() ) {
+
+					fullBatch = takeBatch();
+
+				}else if( null == pendingTimer ) {
+
+					pendingTimer = executor.schedule( this::dispatchPending, configuration.getBatchWindowMicros(), TimeUnit.MICROSECONDS );
+				}
+			}
+		}
+
+		if( null != fullBatch ) {
+
+			Map<ID,CompletableFuture<T>> batch = fullBatch;
+
+			executor.execute( ()-> dispatch( batch ) );
+		}
+
+		return future;
+	}
+
+	/**
+	 * Request entities by Ids
+	 *
+	 * @param inIds Ids of the entities
+	 * @return Future completed with the found entities, in the order of Ids
+	 */
+	public CompletableFuture<List<T>> loadAll( Iterable<ID> inIds ) {
+
+		List<CompletableFuture<T>> futureList = new ArrayList<CompletableFuture<T>>();
+
+		for( ID inId : inIds ) {
+			futureList.add( load( inId ) );
+		}
+
+		return CompletableFuture.allOf( futureList.toArray( new CompletableFuture<?>[0] ) ).thenApply( (ignore)->{
+
+			List<T> result = new ArrayList<T>( futureList.size() );
+
+			for( CompletableFuture<T> future : futureList ) {
+
+				T entity = future.join();
+
+				if( null != entity ) {
+					result.add( entity );
+				}
+			}
+
+			return result;
+		});
+	}
+
+	/**
+	 * Get number of batches read
+	 *
+	 * @return Number of batches
+	 */
+	public int getBatchCount() {
+		return batchCount.get();
+	}
+
+	/**
+	 * Read the pending requests and stop the loader threads.
+	 * Waits up to a minute for the batches being read. If interrupted, the interrupt flag is restored and close returns.
+	 */
+	@Override
+	public void close() {
+
+		closed = true;
+
+		dispatchPending();
+
+		executor.shutdown();
+
+		try {
+
+			if( ! executor.awaitTermination( 1, TimeUnit.MINUTES ) ) {
+
+				logger.warn( "Batches are still being read after close for " + repository.processor.getTableName() );
+			}
+
+		}catch( InterruptedException ex ) {
+
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/** Take the current batch. Should be called holding the lock **/
+	private Map<ID,CompletableFuture<T>> takeBatch() {
+
+		Map<ID,CompletableFuture<T>> batch = pendingMap;
+
+		pendingMap = new LinkedHashMap<ID,CompletableFuture<T>>();
+
+		if( null != pendingTimer ) {
+
+			pendingTimer.cancel( false );
+			pendingTimer = null;
+		}
+
+		return batch;
+	}
+
+	private void dispatchPending() {
+
+		Map<ID,CompletableFuture<T>> batch = null;
+
+		synchronized( this ) {
+			batch = takeBatch();
+		}
+
+		if( ! batch.isEmpty() ) {
+			dispatch( batch );
+		}
+	}
+
+	private void dispatch( Map<ID,CompletableFuture<T>> batch ) {
+
+		batchCount.incrementAndGet();
+
+		try( Connection conn = connectionSupplier.getThrows() ){
+
+			List<T> entityList = repository.findAllById( conn, new ArrayList<ID>( batch.keySet() ) );
+
+			for( T entity : entityList ) {
+
+				CompletableFuture<T> future = batch.get( repository.readIdValue( entity ) );
+
+				if( null != future ) {
+					future.complete( entity );
+				}
+			}
+
+			// Not found
+			for( CompletableFuture<T> future : batch.values() ) {
+				future.complete( null );
+			}
+
+		}catch( Throwable ex ) {
+
+			logger.error( "Batch load failed for " + repository.processor.getTableName(), ex );
+
+			for( Entry<ID,CompletableFuture<T>> entry : batch.entrySet() ) {
+				entry.getValue().completeExceptionally( ex );
+			}
+		}
+	}
+}
@@ -0,0 +1,65 @@
+package io.github.codesakshi.simplejpa;
+
+import java.sql.Connection;
+import java.util.List;
+
+/**
+ * Chunk of entities passed to the consumer of Repository.forEachChunk.
+ *
+ * Chunk is processed in a transaction of its Connection, which is committed after the consumer returns.
+ * Writes of the consumer on the Connection are committed with the chunk. So the checkpoint can be stored
+ * in the same transaction, and a restarted job continues from the last committed chunk.
+ *
+ * <pre>
+ * 	Long checkpoint = jobRepository.readCheckpoint( conn, "reindex" );
+ *
+ * 	orderRepository.forEachChunk( dataSource::getConnection, " 1 = 1 ", null, 500, checkpoint, (chunk)->{
+ *
+ * 		indexer.index( chunk.getEntities() );
+ *
+ * 		jobRepository.writeCheckpoint( chunk.getConnection(), "reindex", chunk.getCheckpoint() );
+ * 	});
+ * </pre>
+ *
+ * @author anilalps
+ *
+ * @param <T> Entity Type
+ * @param <ID> ID Type
+ */
+public class Chunk<T,ID> {
+
+	private long index;
+
+	private List<T> entities;
+
+	private Connection conn;
+
+	private ID checkpoint;
+
+	protected Chunk( long index, List<T> entities, Connection conn, ID checkpoint ) {
+		this.index = index;
+		this.entities = entities;
+		this.conn = conn;
+		this.checkpoint = checkpoint;
+	}
+
+	/** Number of the chunk in this run, from 0 **/
+	public long getIndex() {
+		return index;
+	}
+
+	/** Entities of the chunk, ordered by Id, with nested entities **/
+	public List<T> getEntities() {
+		return entities;
+	}
+
+	/** Connection of the chunk transaction **/
+	public Connection getConnection() {
+		return conn;
+	}
+
+	/** Largest Id of the chunk. Pass it to forEachChunk to continue after this chunk **/
+	public ID getCheckpoint() {
+		return checkpoint;
+	}
+}
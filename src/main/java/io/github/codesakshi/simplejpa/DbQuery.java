@@ -16,6 +16,12 @@ import java.util.Map;
 import java.util.TreeMap;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.github.codesakshi.simplejpa.TableChangeNotifier.ChangeType;
+import io.github.codesakshi.simplejpa.TableChangeNotifier.TableChangeEvent;
 
 /**
  * 
@@ -56,6 +62,22 @@ public class DbQuery {
 
 	}
 
+	@FunctionalInterface
+	public static interface ThrowableSupplier<T> extends Supplier<T> {
+
+		@Override
+		default T get() {
+			try {
+				return getThrows();
+			}catch( final Exception e ) {
+				throw new RuntimeException( e);
+			}
+		}
+
+		T getThrows() throws Exception;
+
+	}
+
 	/**
 	 * 
 	 * PreparedStatement configuration
@@ -133,6 +155,11 @@ public class DbQuery {
 
 	protected StatementConfiguration statementConfiguration = null;
 
+	/** Find the table modified by INSERT, UPDATE, DELETE, MERGE statements. Group 1 -> Verb, Group 2 -> Table name **/
+	private static final Pattern MODIFIED_TABLE_PATTERN = Pattern.compile(
+			"^\\s*(INSERT\\s+INTO|UPDATE|DELETE\\s+FROM|DELETE|MERGE\\s+INTO|REPLACE\\s+INTO|UPSERT\\s+INTO|TRUNCATE\\s+TABLE)\\s+([\\w$#.\"`\\[\\]]+)",
+			Pattern.CASE_INSENSITIVE );
+
 	/**
 	 * Constructor for DbQuery.
 	 */
@@ -238,6 +265,54 @@ public class DbQuery {
 	public <T> T insert(final Connection conn, final String sql, 
 			final ThrowableFunction<ResultSet,T> rsh, final Object... params) throws SQLException {
 
+		T generatedKey = executeInsert( conn, sql, null, rsh, params );
+
+		notifyTableChanged( conn, sql );
+
+		return generatedKey;
+	}
+
+	/**
+	 * Insert Single row to the database. TableChangeNotifier is not notified.
+	 * Used by Repository, which notifies the inserted rows.
+	 * 
+	 * @param <T> Type of Generated Key
+	 * @param conn SQL Connection
+	 * @param sql SQL Query
+	 * @param autoGenColumnNames Autogenerated column Names. null if not known
+	 * @param rsh ResultSet Handler Function
+	 * @param varMap Query Parameter Map
+	 * @return Mapped Generated Key
+	 * @throws SQLException if the query is malformed or cannot be executed
+	 */
+	protected <T> T executeInsert(final Connection conn, final String sql, final String[] autoGenColumnNames, 
+			final ThrowableFunction<ResultSet,T> rsh, Map<String,Object> varMap) throws SQLException {
+
+		List<Object> paramList = new ArrayList<Object>();
+
+		String parsedQuery = parseNamedParameterQuery(sql, varMap, paramList);
+
+		Object[] params = paramList.toArray(new Object[0]);
+
+		return executeInsert( conn, parsedQuery, autoGenColumnNames, rsh, params );
+	}
+
+	/**
+	 * Insert Single row to the database. TableChangeNotifier is not notified.
+	 * Used by Repository, which notifies the inserted rows.
+	 * 
+	 * @param <T> Type of Generated Key
+	 * @param conn SQL Connection
+	 * @param sql SQL Query
+	 * @param autoGenColumnNames Autogenerated column Names. null if not known
+	 * @param rsh ResultSet Handler Function
+	 * @param params Query Parameters
+	 * @return Mapped Generated Key
+	 * @throws SQLException if the query is malformed or cannot be executed
+	 */
+	protected <T> T executeInsert(final Connection conn, final String sql, final String[] autoGenColumnNames, 
+			final ThrowableFunction<ResultSet,T> rsh, final Object... params) throws SQLException {
+
 		if (conn == null) {
 			throw new SQLException("Null connection");
 		}
@@ -246,7 +321,8 @@ public class DbQuery {
 			throw new SQLException("Null SQL statement");
 		}
 
-		try( PreparedStatement stmt = conn.prepareStatement(sql)){
+		try( PreparedStatement stmt = null != autoGenColumnNames
+				? conn.prepareStatement(sql, autoGenColumnNames) : conn.prepareStatement(sql)){
 
 			if( null != params) {
 
@@ -331,42 +407,11 @@ public class DbQuery {
 	public <T> T insert(final Connection conn, final String sql, final String[] autoGenColumnNames, 
 			final ThrowableFunction<ResultSet,T> rsh, final Object... params) throws SQLException {
 
-		if (conn == null) {
-			throw new SQLException("Null connection");
-		}
-
-		if (sql == null) {
-			throw new SQLException("Null SQL statement");
-		}
-
-		try( PreparedStatement stmt = conn.prepareStatement(sql, autoGenColumnNames)){
-
-			if( null != params) {
-
-				for( int i = 0; i < params.length; i ++) {
-
-					stmt.setObject( i+1, params[i] );
-
-				}
-			}
-
-			stmt.executeUpdate();
-
-			T generatedKey = null;
-
-			// Get generatedKey
-
-			if( null != rsh ) {
-
-				try( ResultSet resultSet = stmt.getGeneratedKeys() ){
-					generatedKey = rsh.apply(resultSet);
-				}
-			}
-
-			return generatedKey;
+		T generatedKey = executeInsert( conn, sql, autoGenColumnNames, rsh, params );
 
-		}
+		notifyTableChanged( conn, sql );
 
+		return generatedKey;
 	}
 
 	/**
@@ -453,6 +498,28 @@ public class DbQuery {
 	public <T> List<T> insertBatch( final Connection conn, final String sql, 
 			final ThrowableFunction<ResultSet,List<T>> rsh, final Object[][] params)throws SQLException {
 
+		List<T> genertedKeyList = executeInsertBatch( conn, sql, rsh, params );
+
+		notifyTableChanged( conn, sql );
+
+		return genertedKeyList;
+	}
+
+	/**
+	 * Insert Multiple rows to Database. TableChangeNotifier is not notified.
+	 * Used by Repository, which notifies the inserted rows.
+	 * 
+	 * @param <T> Type of Generated Key
+	 * @param conn SQL Connection
+	 * @param sql SQL Query
+	 * @param rsh ResultSet Handler Function
+	 * @param params Query Parameters
+	 * @return Mapped Generated Key List
+	 * @throws SQLException if the query is malformed or cannot be executed
+	 */
+	protected <T> List<T> executeInsertBatch( final Connection conn, final String sql, 
+			final ThrowableFunction<ResultSet,List<T>> rsh, final Object[][] params)throws SQLException {
+
 		if (conn == null) {
 			throw new SQLException("Null connection");
 		}
@@ -517,6 +584,25 @@ public class DbQuery {
 	 */
 	public int[] batch(final Connection conn, final String sql, final Object[][] params) throws SQLException {
 
+		int[] rows = executeBatch( conn, sql, params );
+
+		notifyTableChanged( conn, sql );
+
+		return rows;
+	}
+
+	/**
+	 * Execute Batch Query. TableChangeNotifier is not notified.
+	 * Used by Repository, which notifies the modified rows.
+	 * 
+	 * @param conn SQL Connection
+	 * @param sql SQL Query
+	 * @param params Query Parameters
+	 * @return Number of rows modified
+	 * @throws SQLException if the query is malformed or cannot be executed
+	 */
+	protected int[] executeBatch(final Connection conn, final String sql, final Object[][] params) throws SQLException {
+
 		if (conn == null) {
 			throw new SQLException("Null connection");
 		}
@@ -525,7 +611,8 @@ public class DbQuery {
 			throw new SQLException("Null SQL statement");
 		}
 
-		try( PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS )){
+		// Generated keys are not read. Some drivers do not support them for MERGE statements
+		try( PreparedStatement stmt = conn.prepareStatement( sql )){
 
 			if( null != params) {
 
@@ -636,6 +723,53 @@ public class DbQuery {
 
 	}
 
+	/**
+	 * Query the Database
+	 * 
+	 * Parameters are bound by the binder. So primitive values can be set with out boxing
+	 * ( example: PreparedStatement.setLong ). 
+	 * 'IS NULL' conversion is not done for this method.
+	 * 
+	 * @param <T> Type of Mapped Object  
+	 * @param conn SQL Connection
+	 * @param sql SQL Query
+	 * @param rsh ResultSet Handler Function
+	 * @param binder Statement Handler to bind the Query Parameters
+	 * @return Java Object mapped using rsh
+	 * @throws SQLException if the query is malformed or cannot be executed
+	 */
+	public <T> T query(final Connection conn, final String sql, 
+			final ThrowableFunction<ResultSet,T> rsh, final ThrowableConsumer<PreparedStatement> binder) throws SQLException {
+
+		if (conn == null) {
+			throw new SQLException("Null connection");
+		}
+
+		if (sql == null) {
+			throw new SQLException("Null SQL statement");
+		}
+
+		T result = null;
+
+		try( PreparedStatement stmt = conn.prepareStatement( sql )){
+
+			configureStatement(stmt);
+
+			if( null != binder ) {
+				binder.accept(stmt);
+			}
+
+			try( ResultSet resultSet = stmt.executeQuery() ){
+
+				if( null != rsh ) {
+					result = rsh.apply(resultSet);
+				}
+			}
+		}
+
+		return result;
+	}
+
 	/**
 	 * Change SQL query to 'IS NULL' if parameter is NULL
 	 *  
@@ -760,6 +894,46 @@ public class DbQuery {
 	 */
 	public int update(final Connection conn, final String sql, final Object... params) throws SQLException {
 
+		int rows = executeUpdate( conn, sql, params );
+
+		notifyTableChanged( conn, sql );
+
+		return rows;
+	}
+
+	/**
+	 * Update the Database. TableChangeNotifier is not notified.
+	 * Used by Repository, which notifies the modified rows.
+	 * 
+	 * @param conn SQL Connection
+	 * @param sql SQL Query
+	 * @param varMap Query Parameter Map
+	 * @return Number of rows modified
+	 * @throws SQLException if the query is malformed or cannot be executed
+	 */
+	protected int executeUpdate(final Connection conn, final String sql, Map<String,Object> varMap) throws SQLException {
+
+		List<Object> paramList = new ArrayList<Object>();
+
+		String parsedQuery = parseNamedParameterQuery(sql, varMap, paramList);
+
+		Object[] params = paramList.toArray(new Object[0]);
+
+		return executeUpdate( conn, parsedQuery, params );
+	}
+
+	/**
+	 * Update the Database. TableChangeNotifier is not notified.
+	 * Used by Repository, which notifies the modified rows.
+	 * 
+	 * @param conn SQL Connection
+	 * @param sql SQL Query
+	 * @param params Query Parameters
+	 * @return Number of rows modified
+	 * @throws SQLException if the query is malformed or cannot be executed
+	 */
+	protected int executeUpdate(final Connection conn, final String sql, final Object... params) throws SQLException {
+
 		if (conn == null) {
 			throw new SQLException("Null connection");
 		}
@@ -788,6 +962,115 @@ public class DbQuery {
 
 	}
 
+	/**
+	 * Update the Database
+	 * 
+	 * Parameters are bound by the binder. So primitive values can be set with out boxing
+	 * ( example: PreparedStatement.setLong ).
+	 * 
+	 * @param conn SQL Connection
+	 * @param sql SQL Query
+	 * @param binder Statement Handler to bind the Query Parameters
+	 * @return Number of rows modified
+	 * @throws SQLException if the query is malformed or cannot be executed
+	 */
+	public int update(final Connection conn, final String sql, final ThrowableConsumer<PreparedStatement> binder) throws SQLException {
+
+		if (conn == null) {
+			throw new SQLException("Null connection");
+		}
+
+		if (sql == null) {
+			throw new SQLException("Null SQL statement");
+		}
+
+		try( PreparedStatement stmt = conn.prepareStatement( sql )){
+
+			configureStatement(stmt);
+
+			if( null != binder ) {
+				binder.accept(stmt);
+			}
+
+			int rows = stmt.executeUpdate();
+
+			notifyTableChanged( conn, sql );
+
+			return rows;
+		}
+
+	}
+
+	/**
+	 * Notify the table modified by the statement to TableChangeNotifier.
+	 * If the table could not be found from the statement, table name will be null ( all tables may be modified ).
+	 * 
+	 * @param conn SQL Connection
+	 * @param sql SQL Statement executed
+	 * @throws SQLException If the transaction state of the Connection could not be read
+	 */
+	protected static void notifyTableChanged( Connection conn, String sql ) throws SQLException {
+
+		if( TableChangeNotifier.hasListeners() ) {
+
+			String tableName = getModifiedTableName( sql );
+
+			ChangeType changeType = null;
+
+			String verb = sql.trim().toUpperCase();
+
+			if( verb.startsWith( "INSERT" ) ) {
+				changeType = ChangeType.INSERT;
+			}else if( verb.startsWith( "DELETE" ) || verb.startsWith( "TRUNCATE" ) ) {
+				changeType = ChangeType.DELETE;
+			}else {
+				changeType = ChangeType.UPDATE;
+			}
+
+			TableChangeNotifier.fireTableChanged( conn, new TableChangeEvent( tableName, null, null, changeType ) );
+		}
+	}
+
+	/**
+	 * Notify TableChangeNotifier, that any table may be modified ( table name null ).
+	 * Used for procedures, because the tables modified by a procedure are not known.
+	 * 
+	 * @param conn SQL Connection
+	 * @throws SQLException If the transaction state of the Connection could not be read
+	 */
+	protected static void notifyUnknownTablesChanged( Connection conn ) throws SQLException {
+
+		if( TableChangeNotifier.hasListeners() ) {
+
+			TableChangeNotifier.fireTableChanged( conn, new TableChangeEvent( null, null, null, ChangeType.UPDATE ) );
+		}
+	}
+
+	/**
+	 * Get name of the table modified by INSERT, UPDATE, DELETE, MERGE statement. Schema and quotes are removed.
+	 * 
+	 * @param sql SQL Statement
+	 * @return Table name. null if the statement is not recognized
+	 */
+	public static String getModifiedTableName( String sql ) {
+
+		String tableName = null;
+
+		Matcher matcher = MODIFIED_TABLE_PATTERN.matcher( sql );
+
+		if( matcher.find() ) {
+
+			tableName = matcher.group( 2 );
+
+			// Remove schema
+			tableName = tableName.substring( tableName.lastIndexOf( '.' ) + 1 );
+
+			tableName = tableName.replaceAll( "[\"`\\[\\]]", "" );
+		}
+
+		return tableName;
+	}
+
 	/**
 	 * Execute SQL Procedure 
 	 * 
@@ -853,6 +1136,8 @@ public class DbQuery {
 				sth.accept(stmt);
 			}
 
+			notifyUnknownTablesChanged( conn );
+
 			return rows;
 		}
 
@@ -931,6 +1216,8 @@ public class DbQuery {
 				sth.accept(stmt);
 			}
 
+			notifyUnknownTablesChanged( conn );
+
 			return result;
 		}
 
@@ -0,0 +1,496 @@
+package io.github.codesakshi.simplejpa;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * SQL statements, syntax of which is different for each database.
+ *
+ * Dialect is detected from DatabaseMetaData of the Connection ( See detect ).
+ * Extend this class to support other databases and set it with Repository.setDialect.
+ *
+ * @author anilalps
+ *
+ */
+public abstract class Dialect {
+
+	/** INSERT ... ON CONFLICT ( id ) DO UPDATE **/
+	public static final Dialect POSTGRESQL = new Dialect() {
+
+		@Override
+		public String getUpsertSql( String tableName, String idColumnName, List<String> columnList ) {
+
+			String upsertSql = "INSERT INTO " + tableName + " (" + String.join( ", ", columnList ) + ") VALUES ("
+					+ getPlaceHolders( columnList.size() ) + ") ON CONFLICT (" + idColumnName + ") ";
+
+			List<String> updateList = getUpdateList( idColumnName, columnList, "EXCLUDED." );
+
+			if( updateList.isEmpty() ) {
+
+				upsertSql += "DO NOTHING";
+
+			}else {
+
+				upsertSql += "DO UPDATE SET " + String.join( ", ", updateList );
+			}
+
+			return upsertSql;
+		}
+
+		@Override
+		public String getCreateStagingTableSql( String stagingTableName, String tableName, String idColumnName, List<String> columnList ) {
+
+			return "CREATE TEMPORARY TABLE " + stagingTableName + " ON COMMIT DROP AS SELECT " + String.join( ", ", columnList )
+					+ " FROM " + tableName + " WHERE 1 = 0";
+		}
+
+		@Override
+		public String getMergeFromStagingSql( String tableName, String idColumnName, List<String> columnList, String stagingTableName ) {
+
+			String mergeSql = "INSERT INTO " + tableName + " (" + String.join( ", ", columnList ) + ") SELECT "
+					+ String.join( ", ", columnList ) + " FROM " + stagingTableName + " ON CONFLICT (" + idColumnName + ") ";
+
+			List<String> updateList = getUpdateList( idColumnName, columnList, "EXCLUDED." );
+
+			if( updateList.isEmpty() ) {
+
+				mergeSql += "DO NOTHING";
+
+			}else {
+
+				mergeSql += "DO UPDATE SET " + String.join( ", ", updateList );
+			}
+
+			return mergeSql;
+		}
+
+		@Override
+		public String getSequenceNextValueSql( String sequenceName ) {
+
+			return "SELECT nextval('" + sequenceName + "')";
+		}
+
+		@Override
+		public int getMaximumParameters() {
+
+			return 32767;
+		}
+	};
+
+	/** INSERT ... ON DUPLICATE KEY UPDATE. Also used for MariaDB **/
+	public static final Dialect MYSQL = new Dialect() {
+
+		@Override
+		public String getUpsertSql( String tableName, String idColumnName, List<String> columnList ) {
+
+			return "INSERT INTO " + tableName + " (" + String.join( ", ", columnList ) + ") VALUES ("
+					+ getPlaceHolders( columnList.size() ) + ") ON DUPLICATE KEY UPDATE " + String.join( ", ", getDuplicateKeyUpdateList( idColumnName, columnList ) );
+		}
+
+		@Override
+		public String getMergeFromStagingSql( String tableName, String idColumnName, List<String> columnList, String stagingTableName ) {
+
+			return "INSERT INTO " + tableName + " (" + String.join( ", ", columnList ) + ") SELECT " + String.join( ", ", columnList )
+					+ " FROM " + stagingTableName + " ON DUPLICATE KEY UPDATE " + String.join( ", ", getDuplicateKeyUpdateList( idColumnName, columnList ) );
+		}
+
+		@Override
+		public String getDropStagingTableSql( String stagingTableName ) {
+
+			return "DROP TEMPORARY TABLE " + stagingTableName;
+		}
+
+		@Override
+		public String getLimitSql( String sql, int limit ) {
+
+			return sql + " LIMIT " + limit;
+		}
+
+		private List<String> getDuplicateKeyUpdateList( String idColumnName, List<String> columnList ) {
+
+			List<String> updateList = new ArrayList<String>();
+
+			for( String columnName : columnList ) {
+
+				if( ! columnName.equalsIgnoreCase( idColumnName ) ) {
+					updateList.add( columnName + " = VALUES(" + columnName + ")" );
+				}
+			}
+
+			// Only Id column. Nothing to update
+			if( updateList.isEmpty() ) {
+				updateList.add( idColumnName + " = " + idColumnName );
+			}
+
+			return updateList;
+		}
+
+		/** MariaDB. MySQL does not have sequences **/
+		@Override
+		public String getSequenceNextValueSql( String sequenceName ) {
+
+			return "SELECT NEXTVAL(" + sequenceName + ")";
+		}
+
+		@Override
+		public int getMaximumParameters() {
+
+			return 65535;
+		}
+	};
+
+	/** MERGE INTO ... KEY ( id ) **/
+	public static final Dialect H2 = new Dialect() {
+
+		@Override
+		public String getUpsertSql( String tableName, String idColumnName, List<String> columnList ) {
+
+			return "MERGE INTO " + tableName + " (" + String.join( ", ", columnList ) + ") KEY (" + idColumnName + ") VALUES ("
+					+ getPlaceHolders( columnList.size() ) + ")";
+		}
+
+		@Override
+		public String getCreateStagingTableSql( String stagingTableName, String tableName, String idColumnName, List<String> columnList ) {
+
+			/** TRANSACTIONAL. So the open transaction is not committed.
+			 * DROP TABLE commits the open transaction in H2. So the table is dropped on commit, and cleared after each merge.
+			 * IF NOT EXISTS, because the table of a previous merge in the same transaction is not yet dropped. **/
+			return "CREATE LOCAL TEMPORARY TABLE IF NOT EXISTS " + stagingTableName + " ON COMMIT DROP TRANSACTIONAL AS SELECT "
+					+ String.join( ", ", columnList ) + " FROM " + tableName + " WHERE 1 = 0";
+		}
+
+		@Override
+		public String getDropStagingTableSql( String stagingTableName ) {
+
+			return "DELETE FROM " + stagingTableName;
+		}
+
+		@Override
+		public String getMergeFromStagingSql( String tableName, String idColumnName, List<String> columnList, String stagingTableName ) {
+
+			return "MERGE INTO " + tableName + " (" + String.join( ", ", columnList ) + ") KEY (" + idColumnName + ") SELECT "
+					+ String.join( ", ", columnList ) + " FROM " + stagingTableName;
+		}
+
+		@Override
+		public int getMaximumParameters() {
+
+			return 32767;
+		}
+	};
+
+	/** MERGE INTO ... USING ( SELECT ... FROM DUAL ) **/
+	public static final Dialect ORACLE = new Dialect() {
+
+		@Override
+		public String getUpsertSql( String tableName, String idColumnName, List<String> columnList ) {
+
+			List<String> selectList = new ArrayList<String>();
+
+			for( String columnName : columnList ) {
+				selectList.add( "? " + columnName );
+			}
+
+			return "MERGE INTO " + tableName + " t USING ( SELECT " + String.join( ", ", selectList ) + " FROM DUAL ) s"
+					+ " ON ( t." + idColumnName + " = s." + idColumnName + " )"
+					+ getMergeActions( idColumnName, columnList );
+		}
+
+		/** Private temporary table ( Oracle 18c ). Name should start with ORA$PTT_ **/
+		@Override
+		public String getStagingTableName( String tableName ) {
+
+			return "ORA$PTT_" + tableName;
+		}
+
+		@Override
+		public String getCreateStagingTableSql( String stagingTableName, String tableName, String idColumnName, List<String> columnList ) {
+
+			return "CREATE PRIVATE TEMPORARY TABLE " + stagingTableName + " ON COMMIT DROP DEFINITION AS SELECT "
+					+ String.join( ", ", columnList ) + " FROM " + tableName + " WHERE 1 = 0";
+		}
+
+		@Override
+		public String getMergeFromStagingSql( String tableName, String idColumnName, List<String> columnList, String stagingTableName ) {
+
+			return "MERGE INTO " + tableName + " t USING " + stagingTableName + " s"
+					+ " ON ( t." + idColumnName + " = s." + idColumnName + " )"
+					+ getMergeActions( idColumnName, columnList );
+		}
+
+		@Override
+		public String getSequenceNextValueSql( String sequenceName ) {
+
+			return "SELECT " + sequenceName + ".NEXTVAL FROM DUAL";
+		}
+
+		/** INSERT ALL. Multi row VALUES is not available before Oracle 23 **/
+		@Override
+		public String getMultiRowInsertSql( String tableName, List<String> columnList, int rowCount ) {
+
+			String rowInsert = " INTO " + tableName + " (" + String.join( ", ", columnList ) + ") VALUES (" + getPlaceHolders( columnList.size() ) + ")";
+
+			return "INSERT ALL" + String.join( "", Collections.nCopies( rowCount, rowInsert ) ) + " SELECT 1 FROM DUAL";
+		}
+
+		@Override
+		public int getMaximumParameters() {
+
+			return 65535;
+		}
+	};
+
+	/** MERGE INTO ... USING ( VALUES ... ). HOLDLOCK, because MERGE is not atomic in SQL Server **/
+	public static final Dialect SQLSERVER = new Dialect() {
+
+		@Override
+		public String getUpsertSql( String tableName, String idColumnName, List<String> columnList ) {
+
+			return "MERGE INTO " + tableName + " WITH (HOLDLOCK) t USING ( VALUES (" + getPlaceHolders( columnList.size() ) + ") )"
+					+ " s (" + String.join( ", ", columnList ) + ")"
+					+ " ON ( t." + idColumnName + " = s." + idColumnName + " )"
+					+ getMergeActions( idColumnName, columnList ) + ";";
+		}
+
+		/** Local temporary table. Visible only to the Connection **/
+		@Override
+		public String getStagingTableName( String tableName ) {
+
+			return "#" + tableName + "_STAGING";
+		}
+
+		@Override
+		public String getCreateStagingTableSql( String stagingTableName, String tableName, String idColumnName, List<String> columnList ) {
+
+			List<String> selectList = new ArrayList<String>();
+
+			for( String columnName : columnList ) {
+
+				// SELECT INTO copies IDENTITY property of a plain column. Then the Ids could not be inserted. Not for an expression.
+				if( columnName.equalsIgnoreCase( idColumnName ) ) {
+
+					selectList.add( "ISNULL(" + columnName + ", " + columnName + ") AS " + columnName );
+
+				}else {
+
+					selectList.add( columnName );
+				}
+			}
+
+			return "SELECT " + String.join( ", ", selectList ) + " INTO " + stagingTableName + " FROM " + tableName + " WHERE 1 = 0";
+		}
+
+		@Override
+		public String getMergeFromStagingSql( String tableName, String idColumnName, List<String> columnList, String stagingTableName ) {
+
+			return "MERGE INTO " + tableName + " WITH (HOLDLOCK) t USING " + stagingTableName + " s"
+					+ " ON ( t." + idColumnName + " = s." + idColumnName + " )"
+					+ getMergeActions( idColumnName, columnList ) + ";";
+		}
+
+		@Override
+		public String getLimitSql( String sql, int limit ) {
+
+			return sql + " OFFSET 0 ROWS FETCH NEXT " + limit + " ROWS ONLY";
+		}
+	};
+
+	protected Dialect() {
+
+	}
+
+	/**
+	 * Get the Dialect of the database
+	 *
+	 * @param conn SQL Connection
+	 * @return Dialect. null if the database is not known
+	 * @throws SQLException If DatabaseMetaData could not be read
+	 */
+	public static Dialect detect( Connection conn ) throws SQLException {
+
+		String productName = conn.getMetaData().getDatabaseProductName().toLowerCase();
+
+		Dialect dialect = null;
+
+		if( productName.contains( "postgresql" ) ) {
+
+			dialect = POSTGRESQL;
+
+		}else if( productName.contains( "mysql" ) || productName.contains( "mariadb" ) ) {
+
+			dialect = MYSQL;
+
+		}else if( productName.equals( "h2" ) ) {
+
+			dialect = H2;
+
+		}else if( productName.contains( "oracle" ) ) {
+
+			dialect = ORACLE;
+
+		}else if( productName.contains( "sql server" ) ) {
+
+			dialect = SQLSERVER;
+		}
+
+		return dialect;
+	}
+
+	/**
+	 * Get SQL to insert a row, or update it if a row with the same Id exists. In a single statement.
+	 *
+	 * @param tableName Name of the table
+	 * @param idColumnName Name of the Id column
+	 * @param columnList Columns to be written, including Id column. Parameters are bound in the same order.
+	 * @return Upsert SQL with a '?' for each column
+	 */
+	public abstract String getUpsertSql( String tableName, String idColumnName, List<String> columnList );
+
+	/**
+	 * Get name of the temporary table used to stage the rows of a table
+	 *
+	 * @param tableName Name of the table
+	 * @return Name of the staging table
+	 */
+	public String getStagingTableName( String tableName ) {
+
+		return tableName + "_STAGING";
+	}
+
+	/**
+	 * Get SQL to create an empty temporary table, visible only to the Connection, with the columns of a table.
+	 * Creating the table should not commit the open transaction.
+	 * Id column should not be an identity column in the staging table, because the Ids are inserted.
+	 *
+	 * @param stagingTableName Name of the staging table
+	 * @param tableName Name of the table
+	 * @param idColumnName Name of the Id column
+	 * @param columnList Columns of the table to be staged
+	 * @return Create SQL
+	 */
+	public String getCreateStagingTableSql( String stagingTableName, String tableName, String idColumnName, List<String> columnList ) {
+
+		return "CREATE TEMPORARY TABLE " + stagingTableName + " AS SELECT " + String.join( ", ", columnList )
+				+ " FROM " + tableName + " WHERE 1 = 0";
+	}
+
+	/**
+	 * Get SQL to drop the staging table. Dropping the table should not commit the open transaction.
+	 * Databases, which commit on DROP TABLE, may clear the table instead and drop it on commit.
+	 *
+	 * @param stagingTableName Name of the staging table
+	 * @return Drop SQL
+	 */
+	public String getDropStagingTableSql( String stagingTableName ) {
+
+		return "DROP TABLE " + stagingTableName;
+	}
+
+	/**
+	 * Get SQL to insert the rows of the staging table, or update the rows with the same Id. In a single statement.
+	 *
+	 * @param tableName Name of the table
+	 * @param idColumnName Name of the Id column
+	 * @param columnList Columns to be written, including Id column
+	 * @param stagingTableName Name of the staging table
+	 * @return Merge SQL
+	 */
+	public abstract String getMergeFromStagingSql( String tableName, String idColumnName, List<String> columnList, String stagingTableName );
+
+	/**
+	 * Get SQL to insert multiple rows in a single statement
+	 *
+	 * @param tableName Name of the table
+	 * @param columnList Columns to be inserted
+	 * @param rowCount Number of rows
+	 * @return Insert SQL with a '?' for each column of each row. Parameters are bound row by row.
+	 */
+	public String getMultiRowInsertSql( String tableName, List<String> columnList, int rowCount ) {
+
+		String rowValues = "(" + getPlaceHolders( columnList.size() ) + ")";
+
+		return "INSERT INTO " + tableName + " (" + String.join( ", ", columnList ) + ") VALUES "
+				+ String.join( ", ", Collections.nCopies( rowCount, rowValues ) );
+	}
+
+	/**
+	 * Get maximum number of parameters in a statement
+	 *
+	 * @return Maximum parameters
+	 */
+	public int getMaximumParameters() {
+
+		// SQL Server allows 2100
+		return 2000;
+	}
+
+	/**
+	 * Limit the rows of a select query
+	 *
+	 * @param sql Select SQL, with ORDER BY clause
+	 * @param limit Maximum rows
+	 * @return Select SQL returning at most limit rows
+	 */
+	public String getLimitSql( String sql, int limit ) {
+
+		return sql + " FETCH FIRST " + limit + " ROWS ONLY";
+	}
+
+	/**
+	 * Get SQL to read the next value of a sequence
+	 *
+	 * @param sequenceName Name of the sequence
+	 * @return Select SQL, returning the value in first column
+	 */
+	public String getSequenceNextValueSql( String sequenceName ) {
+
+		return "SELECT NEXT VALUE FOR " + sequenceName;
+	}
+
+	protected static String getPlaceHolders( int count ) {
+
+		return String.join( ", ", Collections.nCopies( count, "?" ) );
+	}
+
+	/** column = prefix + column, for the columns except Id column **/
+	protected static List<String> getUpdateList( String idColumnName, List<String> columnList, String prefix ) {
+
+		List<String> updateList = new ArrayList<String>();
+
+		for( String columnName : columnList ) {
+
+			if( ! columnName.equalsIgnoreCase( idColumnName ) ) {
+				updateList.add( columnName + " = " + prefix + columnName );
+			}
+		}
+
+		return updateList;
+	}
+
+	/** WHEN MATCHED / WHEN NOT MATCHED of MERGE. Source alias is 's' and target alias is 't' **/
+	protected static String getMergeActions( String idColumnName, List<String> columnList ) {
+
+		StringBuilder actionBuff = new StringBuilder();
+
+		List<String> updateList = getUpdateList( idColumnName, columnList, "s." );
+
+		if( ! updateList.isEmpty() ) {
+
+			actionBuff.append( " WHEN MATCHED THEN UPDATE SET t." ).append( String.join( ", t.", updateList ) );
+		}
+
+		List<String> valueList = new ArrayList<String>();
+
+		for( String columnName : columnList ) {
+			valueList.add( "s." + columnName );
+		}
+
+		actionBuff.append( " WHEN NOT MATCHED THEN INSERT (" ).append( String.join( ", ", columnList ) )
+			.append( ") VALUES (" ).append( String.join( ", ", valueList ) ).append( ")" );
+
+		return actionBuff.toString();
+	}
+}
@@ -0,0 +1,414 @@
+package io.github.codesakshi.simplejpa;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.persistence.Cacheable;
+
+import io.github.codesakshi.simplejpa.Annotations.CacheConfig;
+import io.github.codesakshi.simplejpa.TableChangeNotifier.TableChangeEvent;
+import io.github.codesakshi.simplejpa.TableChangeNotifier.TableChangeListener;
+import io.github.codesakshi.simplejpa.TinyLfuCache.Weigher;
+
+/**
+ * Process wide ( second level ) cache of entities by Id.
+ *
+ * Entities are stored as copies and a copy is returned on every read. So callers can not modify the cached entity.
+ * Eviction is done by W-TinyLFU policy ( See TinyLfuCache ).
+ *
+ * Cache is invalidated through TableChangeNotifier
+ *
+ * 	1. Change of a row in entity table removes that entity.
+ * 	2. Change of a row in other tables of the entity graph removes all entities.
+ *
+ * Changes done outside this library ( or by other processes ) are not detected. Use expireAfterWrite to limit staleness.
+ *
+ * AggregateCache tracks the child rows of each cached entity, and removes only the dependent entities.
+ * Shared cache of an entity having associations is an AggregateCache.
+ *
+ * Entity class can be configured to use a shared cache by Annotation
+ *
+ * <pre>
+ * 	&#64;Entity
+ * 	&#64;Cacheable
+ * 	&#64;CacheConfig( maximumSize = 5000, expireAfterWriteSeconds = 600 )
+ * 	public class Subject {
+ * 	}
+ * </pre>
+ *
+ * or per Repository
+ *
+ * <pre>
+ * 	repository.setEntityCache( new EntityCache&lt;Subject&gt;( Subject.class,
+ * 		new EntityCache.Configuration().setMaximumSize( 5000 ) ) );
+ * </pre>
+ *
+ * @author anilalps
+ *
+ * @param <T> Entity Type
+ */
+public class EntityCache<T> implements TableChangeListener, AutoCloseable {
+
+	/** Cache settings **/
+	public static class Configuration {
+
+		private long maximumSize = 10000;
+
+		private long maximumWeight = 0;
+
+		private Weigher<Object,Object> weigher;
+
+		private long expireAfterWriteMillis = 0;
+
+		public Configuration() {
+
+		}
+
+		/** Maximum number of entities. Not used if weigher is set **/
+		public Configuration setMaximumSize(long maximumSize) {
+			this.maximumSize = maximumSize;
+			return this;
+		}
+
+		/** Maximum total weight of entities **/
+		public Configuration setMaximumWeight(long maximumWeight, Weigher<Object,Object> weigher) {
+			this.maximumWeight = maximumWeight;
+			this.weigher = weigher;
+			return this;
+		}
+
+		/** Entities expire after this duration from last write. 0 to disable expiry **/
+		public Configuration setExpireAfterWrite(long duration, TimeUnit unit) {
+			this.expireAfterWriteMillis = unit.toMillis( duration );
+			return this;
+		}
+
+		public long getMaximumSize() {
+			return maximumSize;
+		}
+
+		public long getMaximumWeight() {
+			return maximumWeight;
+		}
+
+		public Weigher<Object,Object> getWeigher() {
+			return weigher;
+		}
+
+		public long getExpireAfterWriteMillis() {
+			return expireAfterWriteMillis;
+		}
+	}
+
+	/** Shared caches configured by Annotation. Key -> Entity Class **/
+	private static Map<Class<?>,EntityCache<?>> sharedCacheMap = new ConcurrentHashMap<Class<?>,EntityCache<?>>();
+
+	/**
+	 * Get shared cache for the entity class.
+	 * Entity should have javax.persistence.Cacheable or CacheConfig Annotation
+	 *
+	 * @param <T> Entity Type
+	 * @param entityClass Class of the entity
+	 * @return Shared cache if caching is enabled for the entity, null otherwise
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> EntityCache<T> getSharedCache( Class<T> entityClass ) {
+
+		EntityCache<T> entityCache = null;
+
+		Cacheable cacheable = entityClass.getAnnotation( Cacheable.class );
+
+		CacheConfig cacheConfig = entityClass.getAnnotation( CacheConfig.class );
+
+		boolean enabled = null != cacheable ? cacheable.value() : null != cacheConfig;
+
+		if( enabled ) {
+
+			entityCache = (EntityCache<T>) sharedCacheMap.computeIfAbsent( entityClass, (clazz)->{
+
+				Configuration configuration = new Configuration();
+
+				if( null != cacheConfig ) {
+
+					configuration.setMaximumSize( cacheConfig.maximumSize() )
+						.setExpireAfterWrite( cacheConfig.expireAfterWriteSeconds(), TimeUnit.SECONDS );
+				}
+
+				// Entity graph is cached with its dependencies. So a child change removes only the dependent entities
+				boolean hasAssociations = ! EntityProcessor.getTableMetaInfo( entityClass ).getAssociations().isEmpty();
+
+				return hasAssociations ? new AggregateCache<T>( entityClass, configuration )
+						: new EntityCache<T>( entityClass, configuration );
+			});
+		}
+
+		return entityCache;
+	}
+
+	protected Class<T> entityClass;
+
+	protected String tableName;
+
+	/** Type of @Id field. Ids of TableChangeEvent are converted to this type, because cache keys are of this type **/
+	protected Class<?> idType;
+
+	/** Tables, modification of which may change the cached entities **/
+	protected Set<String> reachableTableNames;
+
+	/** Id -> Copy of the entity **/
+	protected TinyLfuCache<Object,T> cache;
+
+	/** Incremented on every invalidation. Used to discard the values read before an invalidation **/
+	protected AtomicLong generation = new AtomicLong();
+
+	/**
+	 * Constructor
+	 *
+	 * @param entityClass Class of the entity. EntityProcessor should be already created for this class.
+	 * @param configuration Cache settings
+	 */
+	@SuppressWarnings("unchecked")
+	public EntityCache( Class<T> entityClass, Configuration configuration ) {
+
+		this.entityClass = entityClass;
+
+		this.tableName = EntityProcessor.getTableName( entityClass );
+
+		this.idType = EntityProcessor.getTableMetaInfo( tableName ).getIdField().getType();
+
+		this.reachableTableNames = EntityProcessor.getReachableTableNames( tableName );
+
+		if( null != configuration.getWeigher() ) {
+
+			this.cache = new TinyLfuCache<Object,T>( configuration.getMaximumWeight(),
+					(Weigher<Object,T>) (Weigher<Object,?>) configuration.getWeigher(),
+					configuration.getExpireAfterWriteMillis(), TimeUnit.MILLISECONDS );
+
+		}else {
+
+			this.cache = new TinyLfuCache<Object,T>( configuration.getMaximumSize(), null,
+					configuration.getExpireAfterWriteMillis(), TimeUnit.MILLISECONDS );
+		}
+
+		TableChangeNotifier.addListener( this );
+	}
+
+	/**
+	 * Get copy of the cached entity
+	 *
+	 * @param idValue Id of the entity
+	 * @return Copy of the entity if cached, null otherwise
+	 */
+	public T get( Object idValue ) {
+
+		return copy( cache.get( idValue ) );
+	}
+
+	/**
+	 * Put copy of the entity to cache
+	 *
+	 * @param idValue Id of the entity
+	 * @param entity Entity Object
+	 */
+	public void put( Object idValue, T entity ) {
+
+		cache.put( idValue, copy( entity ) );
+	}
+
+	/**
+	 * Get current generation. Pass it to putIfCurrent, to put a value read from database
+	 *
+	 * @return Current generation
+	 */
+	public long getGeneration() {
+
+		return generation.get();
+	}
+
+	/**
+	 * Put copy of the entity to cache, only if there is no invalidation after the given generation.
+	 * So the values read before a modification are not cached.
+	 *
+	 * @param idValue Id of the entity
+	 * @param entity Entity Object
+	 * @param expectedGeneration Generation read before reading the entity from database
+	 */
+	public void putIfCurrent( Object idValue, T entity, long expectedGeneration ) {
+
+		T copy = copy( entity );
+
+		if( expectedGeneration == generation.get() ) {
+
+			cache.put( idValue, copy );
+
+			// Invalidated while putting. Value may be stale
+			if( expectedGeneration != generation.get() ) {
+				cache.invalidate( idValue );
+			}
+		}
+	}
+
+	/**
+	 * Get the generation to put the entities saved by a committed transaction ( write through ).
+	 * Generation is incremented by the changes of the transaction, notified again on afterCommit.
+	 * Any other change after generation was read gives a different value. So the saved entities are not put over it.
+	 *
+	 * @param generation Generation read before commit of the transaction
+	 * @param committedEvents Changes of the transaction, returned by TableChangeNotifier.afterCommit
+	 * @return Generation to pass to putIfCurrent
+	 */
+	public long getCommittedGeneration( long generation, List<TableChangeEvent> committedEvents ) {
+
+		long committedGeneration = generation;
+
+		for( TableChangeEvent event : committedEvents ) {
+
+			if( isInvalidatedBy( event ) ) {
+				committedGeneration++;
+			}
+		}
+
+		return committedGeneration;
+	}
+
+	/**
+	 * Remove the entity from cache
+	 *
+	 * @param idValue Id of the entity
+	 */
+	public void invalidate( Object idValue ) {
+
+		generation.incrementAndGet();
+
+		cache.invalidate( idValue );
+	}
+
+	/**
+	 * Remove all entities from cache
+	 */
+	public void invalidateAll() {
+
+		generation.incrementAndGet();
+
+		cache.invalidateAll();
+	}
+
+	@Override
+	public void tableChanged( TableChangeEvent event ) {
+
+		if( null == event.getTableName() ) {
+
+			// Modified table is not known
+			invalidateAll();
+
+		}else if( tableName.equalsIgnoreCase( event.getTableName() ) && null != event.getIdValue() ) {
+
+			Object idValue = toIdValue( event.getIdValue() );
+
+			if( null != idValue ) {
+
+				invalidate( idValue );
+
+			}else {
+
+				invalidateAll();
+			}
+
+		}else if( reachableTableNames.contains( event.getTableName() ) ) {
+
+			invalidateAll();
+		}
+	}
+
+	/**
+	 * Check whether the change invalidates the cache. Each such change increments generation once.
+	 *
+	 * @param event Details of the modified row
+	 * @return true if the change invalidates any entity
+	 */
+	protected boolean isInvalidatedBy( TableChangeEvent event ) {
+
+		return null == event.getTableName() || reachableTableNames.contains( event.getTableName() );
+	}
+
+	/** Check whether this is the shared cache of the entity, configured by Annotation **/
+	protected boolean isShared() {
+
+		return this == sharedCacheMap.get( entityClass );
+	}
+
+	/**
+	 * Convert Id of TableChangeEvent to type of @Id field.
+	 * Id is read from database as SQL type ( example: BigDecimal or Long for Integer field ).
+	 *
+	 * @return Id of type of @Id field. null if it could not be converted
+	 */
+	private Object toIdValue( Object idValue ) {
+
+		Object value = null;
+
+		try {
+
+			value = DataConverter.convertToCompatibleType( idValue, idType );
+
+		}catch( Exception ex ) {
+
+			value = null;
+		}
+
+		return value;
+	}
+
+	/**
+	 * Stop listening the table changes and remove all entities
+	 */
+	@Override
+	public void close() {
+
+		TableChangeNotifier.removeListener( this );
+
+		sharedCacheMap.remove( entityClass, this );
+
+		invalidateAll();
+	}
+
+	public Class<T> getEntityClass() {
+		return entityClass;
+	}
+
+	public long size() {
+		return cache.size();
+	}
+
+	public long getHitCount() {
+		return cache.getHitCount();
+	}
+
+	public long getMissCount() {
+		return cache.getMissCount();
+	}
+
+	public long getEvictionCount() {
+		return cache.getEvictionCount();
+	}
+
+	public double getHitRate() {
+		return cache.getHitRate();
+	}
+
+	protected static <E> E copy( E entity ) {
+
+		try {
+
+			return EntityCopier.copy( entity );
+
+		}catch( Exception ex ) {
+
+			throw new RuntimeException( "Could not copy entity", ex );
+		}
+	}
+}
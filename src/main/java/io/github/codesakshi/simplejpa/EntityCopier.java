@@ -0,0 +1,167 @@
+package io.github.codesakshi.simplejpa;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import io.github.codesakshi.simplejpa.EntityProcessor.AssociationMetaInfo;
+import io.github.codesakshi.simplejpa.EntityProcessor.TableMetaInfo;
+
+/**
+ * Deep copy of entities, including nested entities.
+ *
+ * Only the fields known to EntityProcessor ( @Id, columns and associations ) are copied.
+ * Mutable values ( Date, Calendar and byte[] ) are cloned. Other values are shared.
+ * An entity referred multiple times in the graph is copied only once. So cycles are preserved.
+ *
+ * @author anilalps
+ *
+ */
+public class EntityCopier {
+
+	// Only static methods
+	private EntityCopier() {}
+
+	/**
+	 * Copy an entity
+	 *
+	 * @param <E> Entity Type
+	 * @param entity Entity Object
+	 * @return Copy of the entity. null if entity is null
+	 * @throws Exception If the entity could not be created or the fields could not be accessed
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E> E copy( E entity ) throws Exception {
+
+		E copy = null;
+
+		if( null != entity ) {
+
+			copy = (E) copyEntity( entity, new IdentityHashMap<Object,Object>() );
+		}
+
+		return copy;
+	}
+
+	/**
+	 * Copy a list of entities. Entity referred from multiple entities of the list is copied only once.
+	 *
+	 * @param <E> Entity Type
+	 * @param entities Entity Objects
+	 * @return List of copies. null if entities is null
+	 * @throws Exception If the entity could not be created or the fields could not be accessed
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E> List<E> copyAll( List<E> entities ) throws Exception {
+
+		List<E> copyList = null;
+
+		if( null != entities ) {
+
+			Map<Object,Object> copiedEntityMap = new IdentityHashMap<Object,Object>();
+
+			copyList = new ArrayList<E>( entities.size() );
+
+			for( E entity : entities ) {
+
+				copyList.add( null != entity ? (E) copyEntity( entity, copiedEntityMap ) : null );
+			}
+		}
+
+		return copyList;
+	}
+
+	private static Object copyEntity( Object entity, Map<Object,Object> copiedEntityMap ) throws Exception {
+
+		Object copy = copiedEntityMap.get( entity );
+
+		if( null == copy ) {
+
+			TableMetaInfo tableMetaInfo = EntityProcessor.getTableMetaInfo( entity );
+
+			if( null == tableMetaInfo ) {
+				throw new RuntimeException( entity.getClass() + " is not an Entity class");
+			}
+
+			copy = Repository.constructEntityObject( tableMetaInfo );
+
+			// Register before copying associations. So cycles refer to this copy
+			copiedEntityMap.put( entity, copy );
+
+			copyField( tableMetaInfo.getIdField(), entity, copy );
+
+			for( Entry<String,Field> entry : tableMetaInfo.getPrimitiveFieldMap().entrySet() ) {
+
+				copyField( entry.getValue(), entity, copy );
+			}
+
+			for( AssociationMetaInfo associationInfo : tableMetaInfo.getAssociations() ) {
+
+				Field field = associationInfo.getParentField();
+				field.setAccessible(true);
+
+				Object value = field.get( entity );
+
+				if( null == value ) {
+
+					field.set( copy, null );
+
+				}else if( null != associationInfo.getParentContainerClass() ) {
+
+					@SuppressWarnings("unchecked")
+					Collection<Object> collection = (Collection<Object>) value;
+
+					Collection<Object> copyCollection = Repository.createCollectionObject( collection.getClass() );
+
+					for( Object collectionEntry : collection ) {
+
+						copyCollection.add( null != collectionEntry ? copyEntity( collectionEntry, copiedEntityMap ) : null );
+					}
+
+					field.set( copy, copyCollection );
+
+				}else {
+
+					field.set( copy, copyEntity( value, copiedEntityMap ) );
+				}
+			}
+		}
+
+		return copy;
+	}
+
+	private static void copyField( Field field, Object source, Object target ) throws IllegalAccessException {
+
+		field.setAccessible(true);
+
+		field.set( target, copyValue( field.get( source ) ) );
+	}
+
+	/** Clone mutable values **/
+	private static Object copyValue( Object value ) {
+
+		Object copy = value;
+
+		if( value instanceof Date ) {
+
+			// Clone keeps the sub class ( java.sql.Timestamp etc. )
+			copy = ((Date) value).clone();
+
+		}else if( value instanceof Calendar ) {
+
+			copy = ((Calendar) value).clone();
+
+		}else if( value instanceof byte[] ) {
+
+			copy = ((byte[]) value).clone();
+		}
+
+		return copy;
+	}
+}
@@ -6,6 +6,7 @@ import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
@@ -17,6 +18,7 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
+import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
@@ -28,8 +30,10 @@ import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
 import javax.persistence.Table;
 import javax.persistence.Transient;
+import javax.persistence.Version;
 
 import io.github.codesakshi.simplejpa.Annotations.UpdateTimeStamp;
+import io.github.codesakshi.simplejpa.DataConverter.ConverterType;
 
 /**
  * Parse the entity to generate select SQL and Association detailss 
@@ -48,6 +52,10 @@ public class EntityProcessor<T,ID> {
 		}
 	};
 	
+	/** Supported types of @Version field **/
+	private static final Set<Class<?>> VERSION_TYPES = new HashSet<Class<?>>( Arrays.asList(
+			Integer.class, Integer.TYPE, Long.class, Long.TYPE, Short.class, Short.TYPE ) );
+
 	/** class to store Column Join Information*/
 	public static class ColumnJoinInfo{
 
@@ -210,6 +218,12 @@ public class EntityProcessor<T,ID> {
 		
 		protected Set<String> autoUpdateColumnSet;
 
+		/** Generator of @Id values. null if generated by database **/
+		protected IdGenerator idGenerator;
+
+		/** Column of @Version field. null if entity is not versioned **/
+		protected String versionColumnName;
+
 		public String getTableName() {
 			return tableName;
 		}
@@ -246,6 +260,22 @@ public class EntityProcessor<T,ID> {
 			this.idField = idField;
 		}
 
+		/**
+		 * Check whether @Id field is Integer or Long without any converter.
+		 * Such id values can be read and hashed as primitive long values.
+		 *
+		 * @return true if @Id field is an integral type
+		 */
+		public boolean isIntegralId() {
+
+			Class<?> type = idField.getType();
+
+			boolean integralType = Long.class == type || Integer.class == type;
+
+			return integralType && ! idField.isAnnotationPresent( Convert.class )
+					&& ! idField.isAnnotationPresent( ConverterType.class );
+		}
+
 		public Map<String, Field> getPrimitiveFieldMap() {
 			return columnFieldMap;
 		}
@@ -303,6 +333,22 @@ public class EntityProcessor<T,ID> {
 		public void setAutoUpdateColumnSet(Set<String> autoUpdateColumnList) {
 			this.autoUpdateColumnSet = autoUpdateColumnList;
 		}
+
+		public IdGenerator getIdGenerator() {
+			return idGenerator;
+		}
+
+		public void setIdGenerator(IdGenerator idGenerator) {
+			this.idGenerator = idGenerator;
+		}
+
+		public String getVersionColumnName() {
+			return versionColumnName;
+		}
+
+		public void setVersionColumnName(String versionColumnName) {
+			this.versionColumnName = versionColumnName;
+		}
 	}
 
 	/** Singleton Manager class to store all entity details for application ***/
@@ -372,6 +418,43 @@ public class EntityProcessor<T,ID> {
 		TableMetaInfoManager.getInstance().addTableMetaInfoMap( tableName, tableMetaInfo);
 	}
 
+	/**
+	 * Get names of the tables reachable from the given table through associations.
+	 * Includes the given table and Bridge tables of ManyToMany associations.
+	 * 
+	 * @param tableName name of the table
+	 * @return Table names reachable from the given table
+	 */
+	public static Set<String> getReachableTableNames( String tableName ) {
+
+		Set<String> tableNameSet = new TreeSet<String>( String.CASE_INSENSITIVE_ORDER );
+
+		collectReachableTableNames( tableName, tableNameSet );
+
+		return tableNameSet;
+	}
+
+	private static void collectReachableTableNames( String tableName, Set<String> tableNameSet ) {
+
+		if( tableNameSet.add( tableName ) ) {
+
+			TableMetaInfo tableMetaInfo = getTableMetaInfo( tableName );
+
+			if( null != tableMetaInfo ) {
+
+				for( AssociationMetaInfo associationInfo : tableMetaInfo.getAssociations() ) {
+
+					if( associationInfo instanceof ManyToManyMetaInfo ) {
+
+						tableNameSet.add( ((ManyToManyMetaInfo)associationInfo).getBridgeTableName() );
+					}
+
+					collectReachableTableNames( associationInfo.getChildTableName(), tableNameSet );
+				}
+			}
+		}
+	}
+
 	/** END static methods to access TableMetaInfoManager **/
 	
 	
@@ -380,7 +463,13 @@ public class EntityProcessor<T,ID> {
 
 	protected List<AssociationMetaInfo> associationList = new ArrayList<AssociationMetaInfo>();
 
+	/** Indexes in associationList, child entities of which are loaded without some of their associations ( cut by the cycle check ) **/
+	protected BitSet partialAssociations = new BitSet();
+
 	protected String fullSelectSql;
+
+	/** FROM clause of fullSelectSql, including joins **/
+	protected String fromSql;
 	
 	/**
 	 * Constructor
@@ -444,6 +533,8 @@ public class EntityProcessor<T,ID> {
 
 			tableMetaInfo.setIdColumnName(columnName);
 
+			tableMetaInfo.setIdGenerator( IdGenerators.getIdGenerator( field, tableName ) );
+
 			for( int i = 1; i < fieldList.size(); i ++ ) {
 
 				field = fieldList.get(i);
@@ -713,6 +804,23 @@ public class EntityProcessor<T,ID> {
 		}
 
 		tableMetaInfo.setAutoUpdateColumnSet( autoUpdateColumnSet );
+
+		// Set @Version column. Used for optimistic locking
+		for( Field field : fieldList ) {
+
+			if( field.isAnnotationPresent( Version.class ) ) {
+
+				if( null != tableMetaInfo.getVersionColumnName() ) {
+					throw new RuntimeException( "Multiple @Version fields in entity : " + entityClass.getName() );
+				}
+
+				if( ! VERSION_TYPES.contains( field.getType() ) ) {
+					throw new RuntimeException( "@Version field should be int, long or short in entity : " + entityClass.getName() );
+				}
+
+				tableMetaInfo.setVersionColumnName( getColumnName( field ) );
+			}
+		}
 	}
 	
 	private static List<ColumnJoinInfo> getColumnJoins( JoinColumn[] joinColumnArr, String parentDefaultRefColumn ){
@@ -873,22 +981,22 @@ public class EntityProcessor<T,ID> {
 		cycleCheckSet.add(rootTableName);
 
 		generateAssociationListAndSql(rootTableName, rootTableName, 
-				selectColumnBuff, joinOperationBuff, associationList, cycleCheckSet, new HashSet<String>() );
+				selectColumnBuff, joinOperationBuff, associationList, partialAssociations, cycleCheckSet, new HashSet<String>() );
 
 		// Remove ',' at last position.
 		selectColumnBuff.setLength( selectColumnBuff.length() - 1);
 
-		selectColumnBuff.append( " from " + rootTableName );
+		fromSql = " from " + rootTableName + joinOperationBuff;
 
-		selectColumnBuff.append( joinOperationBuff );
+		selectColumnBuff.append( fromSql );
 
 		fullSelectSql = String.valueOf( selectColumnBuff );		
 	}
 
 	/***  Generate Association Information and Query. Starting from root, Removing cycle  * */
 	private static void generateAssociationListAndSql( String parentTableName, String parentTableAlias, 
-			StringBuilder selectColumnBuff, StringBuilder joinOperationBuff,
-			List<AssociationMetaInfo> associationList, Set<String> cycleCheckSet, Set<String> aliasSet ){
+			StringBuilder selectColumnBuff, StringBuilder joinOperationBuff, List<AssociationMetaInfo> associationList,
+			BitSet partialAssociations, Set<String> cycleCheckSet, Set<String> aliasSet ){
 
 		TableMetaInfo tableMetaInfo = getTableMetaInfo(parentTableName);
 
@@ -946,10 +1054,22 @@ public class EntityProcessor<T,ID> {
 
 				associationList.add(associationInfo);
 
+				// Associations of the child leading back to a table in this path are not loaded
+				Set<String> reachableTableNames = getReachableTableNames( childTableName );
+
+				for( String pathTableName : cycleCheckSet ) {
+
+					if( reachableTableNames.contains( pathTableName ) ) {
+
+						partialAssociations.set( associationList.size() - 1 );
+						break;
+					}
+				}
+
 				cycleCheckSet.add(childTableName);
 
 				generateAssociationListAndSql( childTableName, childTableAlias, 
-						selectColumnBuff, joinOperationBuff, associationList, cycleCheckSet, aliasSet );
+						selectColumnBuff, joinOperationBuff, associationList, partialAssociations, cycleCheckSet, aliasSet );
 
 				cycleCheckSet.remove(childTableName);
 			}
@@ -996,6 +1116,17 @@ public class EntityProcessor<T,ID> {
 	public List<AssociationMetaInfo> getAssociationList() {
 		return associationList;
 	}
+
+	/**
+	 * Check whether child entities of an association are loaded without some of their own associations.
+	 * Associations leading back to a table in the path from root are cut by the cycle check.
+	 *
+	 * @param index Index of the association in getAssociationList
+	 * @return true if child entities are partially populated
+	 */
+	public boolean isPartialAssociation( int index ) {
+		return partialAssociations.get( index );
+	}
 	
 	/**
 	 *  
@@ -1005,6 +1136,17 @@ public class EntityProcessor<T,ID> {
 
 		return fullSelectSql;
 	}
+
+	/**
+	 * Get FROM clause of the select sql, including joins of all associations.
+	 * Used to select root table columns with the WHERE criteria of fullSelectSql
+	 *  
+	 * @return from clause with join table details
+	 */
+	public String getFromSql() {
+
+		return fromSql;
+	}
 	
 	/**
 	 * 
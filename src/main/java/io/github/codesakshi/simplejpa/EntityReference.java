@@ -0,0 +1,105 @@
+package io.github.codesakshi.simplejpa;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registry of reference stubs created by Repository.getReference.
+ *
+ * A reference stub has only @Id set. Its state is not loaded. On save, only its Id is used for the join columns.
+ * The stub is not read, inserted or updated.
+ *
+ * Stubs are weakly referenced and compared by identity, because entities may override equals.
+ *
+ * @author anilalps
+ *
+ */
+final class EntityReference {
+
+	/** Weak reference compared by identity of the referent **/
+	private static final class IdentityWeakReference extends WeakReference<Object> {
+
+		private int hash;
+
+		protected IdentityWeakReference( Object referent, ReferenceQueue<Object> queue ) {
+			super( referent, queue );
+			this.hash = System.identityHashCode( referent );
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof IdentityWeakReference))
+				return false;
+			Object referent = get();
+			return null != referent && referent == ((IdentityWeakReference) obj).get();
+		}
+	}
+
+	private static ReferenceQueue<Object> queue = new ReferenceQueue<Object>();
+
+	private static Set<IdentityWeakReference> referenceSet = new HashSet<IdentityWeakReference>();
+
+	/** Number of live stubs. Used to skip the lookup when no stub is created **/
+	private static AtomicInteger referenceCount = new AtomicInteger();
+
+	private EntityReference() {
+
+	}
+
+	/**
+	 * Mark the entity as reference stub
+	 *
+	 * @param entity Entity Object with only @Id set
+	 */
+	protected static synchronized void mark( Object entity ) {
+
+		expunge();
+
+		if( referenceSet.add( new IdentityWeakReference( entity, queue ) ) ) {
+			referenceCount.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Check whether the entity is a reference stub
+	 *
+	 * @param entity Entity Object
+	 * @return true if the entity is created by Repository.getReference
+	 */
+	protected static boolean isReference( Object entity ) {
+
+		if( null == entity || 0 == referenceCount.get() ) {
+			return false;
+		}
+
+		synchronized( EntityReference.class ) {
+
+			expunge();
+
+			return referenceSet.contains( new IdentityWeakReference( entity, null ) );
+		}
+	}
+
+	/** Remove the stubs collected by garbage collector **/
+	private static void expunge() {
+
+		Object reference = null;
+
+		while( null != ( reference = queue.poll() ) ) {
+
+			if( referenceSet.remove( reference ) ) {
+				referenceCount.decrementAndGet();
+			}
+		}
+	}
+}
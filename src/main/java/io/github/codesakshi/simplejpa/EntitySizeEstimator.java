@@ -0,0 +1,140 @@
+package io.github.codesakshi.simplejpa;
+
+import java.lang.reflect.Field;
+import java.util.Collection;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import io.github.codesakshi.simplejpa.EntityProcessor.AssociationMetaInfo;
+import io.github.codesakshi.simplejpa.EntityProcessor.TableMetaInfo;
+
+/**
+ * Approximate heap size of entities, including nested entities.
+ * Used as weigher for memory bounded caches.
+ *
+ * Size is estimated for a 64 bit JVM with compressed references. It is not exact.
+ *
+ * @author anilalps
+ *
+ */
+public class EntitySizeEstimator {
+
+	private static final int OBJECT_HEADER = 16;
+
+	private static final int REFERENCE = 4;
+
+	// Only static methods
+	private EntitySizeEstimator() {}
+
+	/**
+	 * Estimate the size of an entity, a collection of entities or a value
+	 *
+	 * @param value Entity, Collection or value
+	 * @return Approximate size in bytes
+	 */
+	public static long estimate( Object value ) {
+
+		return estimate( value, new IdentityHashMap<Object,Boolean>() );
+	}
+
+	/**
+	 * Estimate the size as int. Used by TinyLfuCache.Weigher
+	 *
+	 * @param value Entity, Collection or value
+	 * @return Approximate size in bytes, limited to Integer.MAX_VALUE
+	 */
+	public static int weigh( Object value ) {
+
+		return (int) Math.min( Integer.MAX_VALUE, estimate( value ) );
+	}
+
+	private static long estimate( Object value, Map<Object,Boolean> visitedMap ) {
+
+		long size = 0;
+
+		if( null == value || null != visitedMap.put( value, Boolean.TRUE ) ) {
+
+			// Already counted
+			size = 0;
+
+		}else if( value instanceof String ) {
+
+			size = OBJECT_HEADER + 24 + 2L * ((String) value).length();
+
+		}else if( value instanceof byte[] ) {
+
+			size = OBJECT_HEADER + ((byte[]) value).length;
+
+		}else if( value instanceof Number || value instanceof Boolean || value instanceof Character ) {
+
+			size = OBJECT_HEADER + 8;
+
+		}else if( value instanceof Date ) {
+
+			size = OBJECT_HEADER + 16;
+
+		}else if( value instanceof Collection ) {
+
+			Collection<?> collection = (Collection<?>) value;
+
+			// Collection object, backing array and ( for hash based collections ) one node per element
+			size = OBJECT_HEADER * 2 + collection.size() * (long) ( REFERENCE + OBJECT_HEADER + 16 );
+
+			for( Object element : collection ) {
+
+				size += estimate( element, visitedMap );
+			}
+
+		}else {
+
+			TableMetaInfo tableMetaInfo = EntityProcessor.getTableMetaInfo( value );
+
+			if( null != tableMetaInfo ) {
+
+				size = estimateEntity( value, tableMetaInfo, visitedMap );
+
+			}else {
+
+				// Unknown value
+				size = OBJECT_HEADER + 16;
+			}
+		}
+
+		return size;
+	}
+
+	private static long estimateEntity( Object entity, TableMetaInfo tableMetaInfo, Map<Object,Boolean> visitedMap ) {
+
+		try {
+
+			long size = OBJECT_HEADER + REFERENCE;
+
+			Field idField = tableMetaInfo.getIdField();
+			idField.setAccessible(true);
+
+			size += estimate( idField.get( entity ), visitedMap );
+
+			for( Field field : tableMetaInfo.getPrimitiveFieldMap().values() ) {
+
+				field.setAccessible(true);
+
+				size += REFERENCE + estimate( field.get( entity ), visitedMap );
+			}
+
+			for( AssociationMetaInfo associationInfo : tableMetaInfo.getAssociations() ) {
+
+				Field field = associationInfo.getParentField();
+				field.setAccessible(true);
+
+				size += REFERENCE + estimate( field.get( entity ), visitedMap );
+			}
+
+			return size;
+
+		}catch( IllegalAccessException ex ) {
+
+			throw new RuntimeException( "Could not read fields of " + entity.getClass(), ex );
+		}
+	}
+}
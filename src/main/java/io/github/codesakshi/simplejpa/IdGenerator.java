@@ -0,0 +1,31 @@
+package io.github.codesakshi.simplejpa;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import io.github.codesakshi.simplejpa.EntityProcessor.TableMetaInfo;
+
+/**
+ * Generates @Id values in memory, before the row is inserted.
+ * So the Id is known before the statement is built, and inserts can be batched ( See Session, upsertAll and mergeAll ).
+ *
+ * Generator of an entity is selected from javax.persistence.GeneratedValue of the @Id field ( See IdGenerators ).
+ * Entities without GeneratedValue ( or with GenerationType.IDENTITY ) use auto increment of the database.
+ *
+ * Implementations should be thread safe.
+ *
+ * @author anilalps
+ *
+ */
+public interface IdGenerator {
+
+	/**
+	 * Generate a new Id
+	 *
+	 * @param conn SQL Connection of the insert. Used by generators reading the database.
+	 * @param tableMetaInfo TableMetaInfo of the entity
+	 * @return Id in the type of @Id field
+	 * @throws SQLException If the Id could not be generated
+	 */
+	Object generate( Connection conn, TableMetaInfo tableMetaInfo ) throws SQLException;
+}
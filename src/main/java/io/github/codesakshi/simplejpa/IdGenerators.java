@@ -0,0 +1,192 @@
+package io.github.codesakshi.simplejpa;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.SequenceGenerator;
+
+import io.github.codesakshi.simplejpa.EntityProcessor.TableMetaInfo;
+
+/**
+ * Registry of named IdGenerators and selection of the generator for an @Id field.
+ *
+ * 	1. GenerationType.SEQUENCE uses PooledSequenceIdGenerator. Sequence name and allocation size are read from
+ * 	   javax.persistence.SequenceGenerator ( default : generator name or TABLE_SEQ, 50 ).
+ * 	2. Other strategies with a generator name use the IdGenerator registered with that name. "uuid7" is registered by default.
+ * 	3. GenerationType.AUTO without generator name uses UuidV7IdGenerator for UUID fields, auto increment of database otherwise.
+ * 	4. GenerationType.IDENTITY uses auto increment of database.
+ *
+ * <pre>
+ * 	IdGenerators.register( "snowflake", new SnowflakeIdGenerator( nodeId ) );
+ *
+ * 	&#64;Id &#64;GeneratedValue( generator = "snowflake" )
+ * 	private Long id;
+ * </pre>
+ *
+ * @author anilalps
+ *
+ */
+public class IdGenerators {
+
+	/** Resolves the registered generator on each use. So it may be registered after the entity is processed **/
+	private static class NamedIdGenerator implements IdGenerator {
+
+		private String name;
+
+		protected NamedIdGenerator( String name ) {
+			this.name = name;
+		}
+
+		@Override
+		public Object generate( Connection conn, TableMetaInfo tableMetaInfo ) throws SQLException {
+
+			IdGenerator idGenerator = generatorMap.get( name );
+
+			if( null == idGenerator ) {
+				throw new SQLException( "IdGenerator " + name + " is not registered for " + tableMetaInfo.getTableName() );
+			}
+
+			return idGenerator.generate( conn, tableMetaInfo );
+		}
+	}
+
+	/** Name -> Generator **/
+	private static Map<String,IdGenerator> generatorMap = new ConcurrentHashMap<String,IdGenerator>();
+
+	static {
+		generatorMap.put( "uuid7", new UuidV7IdGenerator() );
+	}
+
+	// Only static methods
+	private IdGenerators() {}
+
+	/**
+	 * Register a generator, to be used by GeneratedValue( generator = name )
+	 *
+	 * @param name Name of the generator
+	 * @param idGenerator Generator
+	 */
+	public static void register( String name, IdGenerator idGenerator ) {
+
+		generatorMap.put( name, idGenerator );
+	}
+
+	/**
+	 * Get a registered generator
+	 *
+	 * @param name Name of the generator
+	 * @return Generator. null if not registered
+	 */
+	public static IdGenerator get( String name ) {
+
+		return generatorMap.get( name );
+	}
+
+	/**
+	 * Get the generator for an @Id field
+	 *
+	 * @param idField @Id field
+	 * @param tableName Name of the table
+	 * @return Generator. null if the Id is generated by database ( or assigned by application )
+	 */
+	public static IdGenerator getIdGenerator( Field idField, String tableName ) {
+
+		IdGenerator idGenerator = null;
+
+		GeneratedValue generatedValue = idField.getAnnotation( GeneratedValue.class );
+
+		if( null != generatedValue ) {
+
+			String generatorName = generatedValue.generator();
+
+			if( GenerationType.SEQUENCE == generatedValue.strategy() ) {
+
+				SequenceGenerator sequenceGenerator = getSequenceGenerator( idField, generatorName );
+
+				String sequenceName = null != sequenceGenerator && ! sequenceGenerator.sequenceName().isEmpty()
+						? sequenceGenerator.sequenceName()
+						: ( generatorName.isEmpty() ? tableName + "_SEQ" : generatorName );
+
+				int allocationSize = null != sequenceGenerator ? sequenceGenerator.allocationSize() : 50;
+
+				idGenerator = new PooledSequenceIdGenerator( sequenceName, allocationSize );
+
+			}else if( GenerationType.IDENTITY != generatedValue.strategy() ) {
+
+				if( ! generatorName.isEmpty() ) {
+
+					idGenerator = new NamedIdGenerator( generatorName );
+
+				}else if( UUID.class == idField.getType() ) {
+
+					idGenerator = generatorMap.get( "uuid7" );
+				}
+			}
+		}
+
+		return idGenerator;
+	}
+
+	/**
+	 * Convert a generated number to the type of @Id field
+	 *
+	 * @param value Generated number
+	 * @param idType Type of @Id field
+	 * @return Id value
+	 */
+	public static Object toIdType( long value, Class<?> idType ) {
+
+		Object idValue = null;
+
+		if( Long.class == idType || long.class == idType ) {
+
+			idValue = value;
+
+		}else if( Integer.class == idType || int.class == idType ) {
+
+			idValue = Math.toIntExact( value );
+
+		}else if( BigInteger.class == idType ) {
+
+			idValue = BigInteger.valueOf( value );
+
+		}else if( BigDecimal.class == idType ) {
+
+			idValue = BigDecimal.valueOf( value );
+
+		}else if( String.class == idType ) {
+
+			idValue = String.valueOf( value );
+
+		}else {
+
+			throw new IllegalArgumentException( "Generated number can not be set to Id of type " + idType.getName() );
+		}
+
+		return idValue;
+	}
+
+	/** SequenceGenerator of the field or the entity class, matching the generator name **/
+	private static SequenceGenerator getSequenceGenerator( Field idField, String generatorName ) {
+
+		SequenceGenerator sequenceGenerator = idField.getAnnotation( SequenceGenerator.class );
+
+		if( null == sequenceGenerator ) {
+			sequenceGenerator = idField.getDeclaringClass().getAnnotation( SequenceGenerator.class );
+		}
+
+		if( null != sequenceGenerator && ! generatorName.isEmpty() && ! generatorName.equals( sequenceGenerator.name() ) ) {
+			sequenceGenerator = null;
+		}
+
+		return sequenceGenerator;
+	}
+}
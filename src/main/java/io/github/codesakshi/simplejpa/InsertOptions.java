@@ -0,0 +1,62 @@
+package io.github.codesakshi.simplejpa;
+
+/**
+ * Settings of Repository.insertAll
+ *
+ * <pre>
+ * 	repository.insertAll( conn, events, new InsertOptions().setRowsPerStatement( 500 ).setReturnGeneratedIds( true ) );
+ * </pre>
+ *
+ * @author anilalps
+ *
+ */
+public class InsertOptions {
+
+	private int rowsPerStatement = 1000;
+
+	private boolean useBatch = false;
+
+	private boolean returnGeneratedIds = false;
+
+	public InsertOptions() {
+
+	}
+
+	/**
+	 * Maximum rows in a multi row INSERT statement, or in a JDBC batch.
+	 * Multi row statements are also limited by Dialect.getMaximumParameters.
+	 **/
+	public InsertOptions setRowsPerStatement(int rowsPerStatement) {
+
+		if( rowsPerStatement < 1 ) {
+			throw new IllegalArgumentException( "rowsPerStatement should be positive : " + rowsPerStatement );
+		}
+
+		this.rowsPerStatement = rowsPerStatement;
+		return this;
+	}
+
+	/** true to insert with JDBC batches of single row INSERT, instead of multi row INSERT statements **/
+	public InsertOptions setUseBatch(boolean useBatch) {
+		this.useBatch = useBatch;
+		return this;
+	}
+
+	/** true to read the Ids generated by database and set them to the entities **/
+	public InsertOptions setReturnGeneratedIds(boolean returnGeneratedIds) {
+		this.returnGeneratedIds = returnGeneratedIds;
+		return this;
+	}
+
+	public int getRowsPerStatement() {
+		return rowsPerStatement;
+	}
+
+	public boolean isUseBatch() {
+		return useBatch;
+	}
+
+	public boolean isReturnGeneratedIds() {
+		return returnGeneratedIds;
+	}
+}
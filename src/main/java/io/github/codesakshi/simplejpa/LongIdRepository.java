@@ -0,0 +1,227 @@
+package io.github.codesakshi.simplejpa;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.github.codesakshi.simplejpa.DbQuery.ThrowableConsumer;
+
+/**
+ *
+ * Repository for entities with Long @Id field.
+ *
+ * Id values are passed as primitive long values and bound using PreparedStatement.setLong.
+ * So the ids are not boxed for lookups.
+ *
+ * Repository can be instantiated by passing the entity class
+ *
+ * <pre>
+ * 	LongIdRepository&lt;Subject&gt; repository = new LongIdRepository&lt;Subject&gt;(Subject.class);
+ * </pre>
+ *
+ * or by extending LongIdRepository
+ *
+ * <pre>
+ * 	public class SubjectRepository extends LongIdRepository&lt;Subject&gt; {
+ * 	}
+ * </pre>
+ *
+ * @author anilalps
+ *
+ * @param <T> Entity Type
+ */
+public class LongIdRepository<T> extends Repository<T,Long> {
+
+	private static Logger logger  = LoggerFactory.getLogger(LongIdRepository.class);
+
+	/**
+	 * Default Constructor
+	 */
+	public LongIdRepository() {
+		super();
+	}
+
+	/**
+	 * Construct the entity with Class of the entity
+	 *
+	 * @param entityClazz Class of the entity
+	 */
+	public LongIdRepository(Class<T> entityClazz) {
+		super( entityClazz, Long.class );
+	}
+
+	/**
+	 * Get an entity by id.
+	 *
+	 * @param conn SQL Connection
+	 * @param inId Id of the entity
+	 * @return Single Entity Object if found. null otherwise
+	 * @throws SQLException If the query is malformed or cannot be executed
+	 */
+	public T findById(Connection conn, long inId) throws SQLException {
+
+		T value = null;
+
+		// Id is boxed only when a PersistenceContext is open or caching is enabled
+		if( null != PersistenceContext.get( conn ) || null != entityCache ) {
+
+			value = findById( conn, Long.valueOf( inId ) );
+
+		}else {
+
+			String sql = " SELECT " + processor.getFullSelectSql() + " WHERE "
+					+ processor.getTableName() + "." + processor.getIdColumnName() + " = ? ";
+
+			value = findSingle( conn, sql, (stmt)->{ stmt.setLong( 1, inId ); } );
+		}
+
+		return value;
+	}
+
+	/**
+	 * Get entities by ids.
+	 *
+	 * @param conn SQL Connection
+	 * @param inIds Ids of the entities
+	 * @return Entities found, in the order of ids given. Missing ids are skipped.
+	 * @throws SQLException If the query is malformed or cannot be executed
+	 */
+	public List<T> findAllById(Connection conn, long[] inIds) throws SQLException {
+
+		if( null != PersistenceContext.get( conn ) || null != entityCache ) {
+
+			List<Long> idList = new ArrayList<Long>( inIds.length );
+
+			for( long inId : inIds ) {
+				idList.add( inId );
+			}
+
+			return findAllById( conn, idList );
+		}
+
+		LongObjectMap<T> idToEntityMap = new LongObjectMap<T>( inIds.length );
+
+		for( int start = 0; start < inIds.length; start += IN_CLAUSE_CHUNK_SIZE ) {
+
+			int end = Math.min( inIds.length, start + IN_CLAUSE_CHUNK_SIZE );
+
+			String sql = " SELECT " + processor.getFullSelectSql() + " WHERE " + getIdInClause( end - start );
+
+			List<T> entities = findMultiple( conn, sql, bindIds( inIds, start, end ) );
+
+			for( T entity : entities ) {
+
+				Long idValue = (Long) readIdValue( entity );
+
+				idToEntityMap.put( idValue.longValue(), entity );
+			}
+		}
+
+		// Arrange the result in the order of ids
+		List<T> result = new ArrayList<T>( idToEntityMap.size() );
+
+		for( long inId : inIds ) {
+
+			T entity = idToEntityMap.get( inId );
+
+			if( null != entity ) {
+
+				result.add( entity );
+
+				// Duplicate ids will be added only once
+				idToEntityMap.put( inId, null );
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Check whether the ids are present in Database
+	 *
+	 * @param conn SQL Connection
+	 * @param inIds Ids to be checked
+	 * @return BitSet, where bit at index i is set if inIds[i] is present in Database
+	 * @throws SQLException If the query is malformed or cannot be executed
+	 */
+	public BitSet hasIds(Connection conn, long[] inIds) throws SQLException {
+
+		LongObjectMap<Boolean> presentIdMap = new LongObjectMap<Boolean>( inIds.length );
+
+		String tableName = processor.getTableName();
+
+		for( int start = 0; start < inIds.length; start += IN_CLAUSE_CHUNK_SIZE ) {
+
+			int end = Math.min( inIds.length, start + IN_CLAUSE_CHUNK_SIZE );
+
+			String idSelectSql = " SELECT " + tableName + "." + processor.getIdColumnName()
+					+ " FROM " + tableName + " WHERE " + getIdInClause( end - start );
+
+			logger.debug( "idSelectSql : " + idSelectSql );
+
+			dbQuery.query( conn, idSelectSql, (rs)->{
+
+				while( rs.next() ) {
+					presentIdMap.put( rs.getLong( 1 ), Boolean.TRUE );
+				}
+
+				return null;
+
+			}, bindIds( inIds, start, end ) );
+		}
+
+		BitSet result = new BitSet( inIds.length );
+
+		for( int i = 0; i < inIds.length; i ++ ) {
+
+			if( presentIdMap.containsKey( inIds[i] ) ) {
+				result.set( i );
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Delete entities by ids
+	 *
+	 * @param conn SQL Connection
+	 * @param inIds Ids of entities to be deleted
+	 * @return number of entities deleted
+	 * @throws Exception If the delete operation fails
+	 */
+	public int deleteAllById(Connection conn, long[] inIds) throws Exception {
+
+		return executeInTransaction( conn, (connection)->{
+
+			int count = 0;
+
+			for( int start = 0; start < inIds.length; start += IN_CLAUSE_CHUNK_SIZE ) {
+
+				int end = Math.min( inIds.length, start + IN_CLAUSE_CHUNK_SIZE );
+
+				count += deleteWithWhere( connection, getIdInClause( end - start ), bindIds( inIds, start, end ) );
+			}
+
+			return count;
+		});
+	}
+
+	/** Bind ids from start ( inclusive ) to end ( exclusive ) **/
+	private static ThrowableConsumer<PreparedStatement> bindIds( long[] inIds, int start, int end ){
+
+		return ( (PreparedStatement stmt) -> {
+
+			for( int i = start; i < end; i ++ ) {
+
+				stmt.setLong( i - start + 1, inIds[i] );
+			}
+		});
+	}
+}
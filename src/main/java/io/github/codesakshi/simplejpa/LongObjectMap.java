@@ -0,0 +1,328 @@
+package io.github.codesakshi.simplejpa;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Insertion ordered map with primitive long keys.
+ *
+ * Keys and values are kept in dense arrays in insertion order.
+ * An open addressing ( linear probing ) hash index points in to those arrays.
+ * So there is no Entry object and no boxed key stored for a mapping.
+ *
+ * Used while converting ResultSet to entities, where entity ids are Integer or Long.
+ * Removal of mappings is not supported.
+ *
+ * @author anilalps
+ *
+ * @param <V> Value Type
+ */
+public class LongObjectMap<V> extends AbstractMap<Object,V> {
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/** Keys in insertion order */
+	private long[] keys;
+
+	/** Values in insertion order */
+	private Object[] values;
+
+	/** Hash index. Slot contains ( position in keys + 1 ). 0 means empty slot */
+	private int[] index;
+
+	private int mask;
+
+	private int size;
+
+	/**
+	 * Constructor
+	 */
+	public LongObjectMap() {
+		this( DEFAULT_CAPACITY );
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param expectedSize Expected number of mappings
+	 */
+	public LongObjectMap( int expectedSize ) {
+
+		int capacity = Math.max( DEFAULT_CAPACITY, expectedSize );
+
+		keys = new long[capacity];
+		values = new Object[capacity];
+
+		// Keep the load factor of the index below 0.5
+		int indexLength = Integer.highestOneBit( capacity * 2 - 1 ) << 1;
+
+		index = new int[indexLength];
+		mask = indexLength - 1;
+	}
+
+	private static int hash( long key ) {
+
+		long h = key * 0x9E3779B97F4A7C15L;
+
+		return (int) ( h ^ ( h >>> 32 ) );
+	}
+
+	/** Find the index slot for the key. Slot will be empty, if key is not present **/
+	private int findSlot( long key ) {
+
+		int slot = hash( key ) & mask;
+
+		while( 0 != index[slot] && keys[ index[slot] - 1 ] != key ) {
+
+			slot = ( slot + 1 ) & mask;
+		}
+
+		return slot;
+	}
+
+	/**
+	 * Get value for the key
+	 *
+	 * @param key Key to be searched
+	 * @return Value if present, null otherwise
+	 */
+	@SuppressWarnings("unchecked")
+	public V get( long key ) {
+
+		int position = index[ findSlot( key ) ];
+
+		return 0 != position ? (V) values[ position - 1 ] : null;
+	}
+
+	/**
+	 * Check whether key is present
+	 *
+	 * @param key Key to be searched
+	 * @return true if key is present
+	 */
+	public boolean containsKey( long key ) {
+
+		return 0 != index[ findSlot( key ) ];
+	}
+
+	/**
+	 * Put value for the key. Insertion order is not changed if the key is already present.
+	 *
+	 * @param key Key
+	 * @param value Value
+	 * @return Previous value if present, null otherwise
+	 */
+	@SuppressWarnings("unchecked")
+	public V put( long key, V value ) {
+
+		int slot = findSlot( key );
+
+		int position = index[slot];
+
+		if( 0 != position ) {
+
+			V oldValue = (V) values[ position - 1 ];
+			values[ position - 1 ] = value;
+
+			return oldValue;
+		}
+
+		if( size == keys.length ) {
+
+			grow();
+
+			slot = findSlot( key );
+		}
+
+		keys[size] = key;
+		values[size] = value;
+
+		size++;
+
+		index[slot] = size;
+
+		return null;
+	}
+
+	private void grow() {
+
+		int capacity = keys.length << 1;
+
+		keys = Arrays.copyOf( keys, capacity );
+		values = Arrays.copyOf( values, capacity );
+
+		int indexLength = index.length << 1;
+
+		index = new int[indexLength];
+		mask = indexLength - 1;
+
+		// Rebuild the hash index
+		for( int i = 0; i < size; i ++ ) {
+
+			int slot = hash( keys[i] ) & mask;
+
+			while( 0 != index[slot] ) {
+
+				slot = ( slot + 1 ) & mask;
+			}
+
+			index[slot] = i + 1;
+		}
+	}
+
+	/**
+	 * Get key at the given insertion position
+	 *
+	 * @param position Insertion position. 0 to size - 1
+	 * @return Key at the position
+	 */
+	public long keyAt( int position ) {
+
+		if( position >= size ) {
+			throw new IndexOutOfBoundsException( "Position : " + position + " Size : " + size );
+		}
+
+		return keys[position];
+	}
+
+	/**
+	 * Get value at the given insertion position
+	 *
+	 * @param position Insertion position. 0 to size - 1
+	 * @return Value at the position
+	 */
+	@SuppressWarnings("unchecked")
+	public V valueAt( int position ) {
+
+		if( position >= size ) {
+			throw new IndexOutOfBoundsException( "Position : " + position + " Size : " + size );
+		}
+
+		return (V) values[position];
+	}
+
+	/** Map interface. Only Integer, Long, Short and Byte keys can be present in this map **/
+	private static boolean isLongKey( Object key ) {
+
+		return key instanceof Long || key instanceof Integer
+				|| key instanceof Short || key instanceof Byte;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return 0 == size;
+	}
+
+	@Override
+	public boolean containsKey( Object key ) {
+
+		return isLongKey( key ) && containsKey( ((Number)key).longValue() );
+	}
+
+	@Override
+	public V get( Object key ) {
+
+		return isLongKey( key ) ? get( ((Number)key).longValue() ) : null;
+	}
+
+	@Override
+	public V put( Object key, V value ) {
+
+		if( ! isLongKey( key ) ) {
+			throw new IllegalArgumentException( "Key should be an integral number : " + key );
+		}
+
+		return put( ((Number)key).longValue(), value );
+	}
+
+	@Override
+	public void clear() {
+
+		Arrays.fill( values, 0, size, null );
+		Arrays.fill( index, 0 );
+
+		size = 0;
+	}
+
+	@Override
+	public Collection<V> values() {
+
+		return new AbstractCollection<V>() {
+
+			@Override
+			public Iterator<V> iterator() {
+
+				return new PositionIterator<V>() {
+
+					@Override
+					protected V get( int position ) {
+						return valueAt( position );
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	@Override
+	public Set<Entry<Object, V>> entrySet() {
+
+		return new AbstractSet<Entry<Object,V>>() {
+
+			@Override
+			public Iterator<Entry<Object,V>> iterator() {
+
+				return new PositionIterator<Entry<Object,V>>() {
+
+					@Override
+					protected Entry<Object,V> get( int position ) {
+						return new SimpleImmutableEntry<Object,V>( keyAt( position ), valueAt( position ) );
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	/** Iterate the entries in insertion order */
+	private abstract class PositionIterator<E> implements Iterator<E> {
+
+		private int position = 0;
+
+		@Override
+		public boolean hasNext() {
+			return position < size;
+		}
+
+		@Override
+		public E next() {
+
+			if( position >= size ) {
+				throw new NoSuchElementException();
+			}
+
+			return get( position++ );
+		}
+
+		protected abstract E get( int position );
+	}
+}
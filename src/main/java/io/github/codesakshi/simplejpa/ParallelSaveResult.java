@@ -0,0 +1,125 @@
+package io.github.codesakshi.simplejpa;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of Repository.saveAllParallel. Each partition is saved in its own transaction and succeeds or fails alone.
+ *
+ * <pre>
+ * 	ParallelSaveResult&lt;Order&gt; result = repository.saveAllParallel( dataSource::getConnection, orders, 16 );
+ *
+ * 	for( ParallelSaveResult.Partition&lt;Order&gt; partition : result.getFailedPartitions() ) {
+ * 		repository.retryPartition( dataSource::getConnection, partition );
+ * 	}
+ * </pre>
+ *
+ * @author anilalps
+ *
+ * @param <T> Entity Type
+ */
+public class ParallelSaveResult<T> {
+
+	/** Entities saved in one transaction **/
+	public static class Partition<T> {
+
+		private int index;
+
+		private List<T> entities;
+
+		private volatile List<T> savedEntities;
+
+		private volatile Throwable error;
+
+		protected Partition( int index, List<T> entities ) {
+			this.index = index;
+			this.entities = entities;
+		}
+
+		public int getIndex() {
+			return index;
+		}
+
+		/** Entities to be saved **/
+		public List<T> getEntities() {
+			return entities;
+		}
+
+		/** Saved entities. null if the partition is not saved **/
+		public List<T> getSavedEntities() {
+			return savedEntities;
+		}
+
+		/** Failure of the last attempt. null if the partition is saved **/
+		public Throwable getError() {
+			return error;
+		}
+
+		public boolean isSuccess() {
+			return null != savedEntities;
+		}
+
+		protected void setSaved( List<T> savedEntities ) {
+			this.savedEntities = savedEntities;
+			this.error = null;
+		}
+
+		protected void setFailed( Throwable error ) {
+			this.savedEntities = null;
+			this.error = error;
+		}
+	}
+
+	private List<Partition<T>> partitions;
+
+	protected ParallelSaveResult( List<Partition<T>> partitions ) {
+		this.partitions = partitions;
+	}
+
+	public List<Partition<T>> getPartitions() {
+		return Collections.unmodifiableList( partitions );
+	}
+
+	/**
+	 * Get the partitions not saved
+	 *
+	 * @return Failed partitions. Empty if all partitions are saved
+	 */
+	public List<Partition<T>> getFailedPartitions() {
+
+		List<Partition<T>> failedList = new ArrayList<Partition<T>>();
+
+		for( Partition<T> partition : partitions ) {
+
+			if( ! partition.isSuccess() ) {
+				failedList.add( partition );
+			}
+		}
+
+		return failedList;
+	}
+
+	public boolean isSuccess() {
+		return getFailedPartitions().isEmpty();
+	}
+
+	/**
+	 * Get saved entities of the saved partitions, in partition order
+	 *
+	 * @return Saved entities
+	 */
+	public List<T> getSavedEntities() {
+
+		List<T> savedList = new ArrayList<T>();
+
+		for( Partition<T> partition : partitions ) {
+
+			if( partition.isSuccess() ) {
+				savedList.addAll( partition.getSavedEntities() );
+			}
+		}
+
+		return savedList;
+	}
+}
@@ -0,0 +1,305 @@
+package io.github.codesakshi.simplejpa;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.sql.Connection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.github.codesakshi.simplejpa.EntityProcessor.TableMetaInfo;
+
+/**
+ * Identity map ( first level cache ) bound to a Connection.
+ *
+ * While a PersistenceContext is open for a Connection, Repository operations on that Connection
+ *
+ * 	1. Answer findById from the entities already loaded.
+ * 	2. Share the entity instances loaded, including nested entities, across query results.
+ * 	   Nested entities loaded without some of their associations ( cut by the cycle check ) are not shared.
+ * 	3. Evict the affected entities on save and delete.
+ *
+ * PersistenceContext is meant for a single unit of work ( example: one transaction ) and it is not thread safe.
+ *
+ * <pre>
+ * 	try( PersistenceContext context = PersistenceContext.open( conn ) ){
+ *
+ * 		Subject subject1 = repository.findById( conn, 1 );
+ *
+ * 		// Same instance, no query is executed
+ * 		Subject subject2 = repository.findById( conn, 1 );
+ * 	}
+ * </pre>
+ *
+ * @author anilalps
+ *
+ */
+public class PersistenceContext implements AutoCloseable {
+
+	/** Contexts bound to Connections. Connection is weakly referenced **/
+	private static Map<Connection,PersistenceContext> contextMap =
+			Collections.synchronizedMap( new WeakHashMap<Connection,PersistenceContext>() );
+
+	/** Number of open contexts. Used to skip the lookup when no context is open **/
+	private static AtomicInteger openContextCount = new AtomicInteger();
+
+	/** Connections of the open contexts, collected by garbage collector without close **/
+	private static ReferenceQueue<Connection> queue = new ReferenceQueue<Connection>();
+
+	/** References to Connections of the open contexts. Kept, so that a collected Connection is enqueued **/
+	private static Set<WeakReference<Connection>> openReferenceSet = new HashSet<WeakReference<Connection>>();
+
+	/**
+	 * Open a PersistenceContext for the Connection
+	 *
+	 * @param conn SQL Connection
+	 * @return PersistenceContext bound to the Connection
+	 */
+	public static PersistenceContext open( Connection conn ) {
+
+		PersistenceContext context = new PersistenceContext( conn );
+
+		synchronized( contextMap ) {
+
+			expunge();
+
+			if( contextMap.containsKey( conn ) ) {
+				throw new IllegalStateException( "PersistenceContext is already open for the Connection" );
+			}
+
+			contextMap.put( conn, context );
+			openReferenceSet.add( context.connRef );
+			openContextCount.incrementAndGet();
+		}
+
+		return context;
+	}
+
+	/**
+	 * Get the PersistenceContext bound to the Connection
+	 *
+	 * @param conn SQL Connection
+	 * @return PersistenceContext if open for the Connection, null otherwise
+	 */
+	public static PersistenceContext get( Connection conn ) {
+
+		PersistenceContext context = null;
+
+		if( 0 != openContextCount.get() ) {
+
+			synchronized( contextMap ) {
+
+				expunge();
+
+				context = contextMap.get( conn );
+			}
+		}
+
+		return context;
+	}
+
+	/**
+	 * Get number of open contexts. Contexts of garbage collected Connections are not counted, even if not closed.
+	 *
+	 * @return Number of open contexts
+	 */
+	public static int getOpenCount() {
+
+		synchronized( contextMap ) {
+
+			expunge();
+		}
+
+		return openContextCount.get();
+	}
+
+	/** Forget the contexts of the Connections collected by garbage collector. Should be called holding the lock **/
+	private static void expunge() {
+
+		Object reference = null;
+
+		while( null != ( reference = queue.poll() ) ) {
+
+			if( openReferenceSet.remove( reference ) ) {
+				openContextCount.decrementAndGet();
+			}
+		}
+	}
+
+	/** Connection is weakly referenced. Otherwise the entry in contextMap will never be cleared **/
+	private WeakReference<Connection> connRef;
+
+	/**
+	 * First Key -> Entity Class
+	 * Second Key -> Id of the entity
+	 * Value -> Entity Object
+	 */
+	private Map<Class<?>,Map<Object,Object>> entityMap = new HashMap<Class<?>,Map<Object,Object>>();
+
+	private boolean open = true;
+
+	// Use PersistenceContext.open
+	protected PersistenceContext( Connection conn ) {
+
+		this.connRef = new WeakReference<Connection>( conn, queue );
+	}
+
+	/**
+	 * Find an entity loaded in this context
+	 *
+	 * @param <E> Entity Type
+	 * @param entityClass Class of the entity
+	 * @param idValue Id of the entity
+	 * @return Entity if loaded in this context, null otherwise
+	 */
+	public <E> E find( Class<E> entityClass, Object idValue ) {
+
+		E entity = null;
+
+		Map<Object,Object> idMap = entityMap.get( entityClass );
+
+		if( null != idMap && null != idValue ) {
+
+			entity = entityClass.cast( idMap.get( idValue ) );
+		}
+
+		return entity;
+	}
+
+	/**
+	 * Add an entity to this context. Entity already present for the same id is not replaced.
+	 *
+	 * @param entity Entity Object
+	 * @throws Exception If the Id of the entity could not be read
+	 */
+	public void register( Object entity ) throws Exception {
+
+		TableMetaInfo tableMetaInfo = EntityProcessor.getTableMetaInfo( entity );
+
+		Object idValue = Repository.getEntityFieldValue( tableMetaInfo, tableMetaInfo.getIdColumnName(), entity );
+
+		if( null != idValue ) {
+
+			Map<Object,Object> idMap = entityMap.get( entity.getClass() );
+
+			if( null == idMap ) {
+
+				idMap = new HashMap<Object,Object>();
+				entityMap.put( entity.getClass(), idMap );
+			}
+
+			idMap.putIfAbsent( idValue, entity );
+		}
+	}
+
+	/**
+	 * Remove an entity from this context
+	 *
+	 * @param entityClass Class of the entity
+	 * @param idValue Id of the entity
+	 */
+	public void evict( Class<?> entityClass, Object idValue ) {
+
+		Map<Object,Object> idMap = entityMap.get( entityClass );
+
+		if( null != idMap ) {
+
+			idMap.remove( idValue );
+		}
+	}
+
+	/**
+	 * Remove all entities of the given Class from this context
+	 *
+	 * @param entityClass Class of the entity
+	 */
+	public void evict( Class<?> entityClass ) {
+
+		entityMap.remove( entityClass );
+	}
+
+	/**
+	 * Remove the entities which may contain data from the given tables.
+	 * An entity is removed, if any table reachable from its table is present in tableNames.
+	 *
+	 * @param tableNames Names of the modified tables
+	 */
+	public void evictTables( Set<String> tableNames ) {
+
+		Iterator<Class<?>> entityClassItr = entityMap.keySet().iterator();
+
+		while( entityClassItr.hasNext() ) {
+
+			Class<?> entityClass = entityClassItr.next();
+
+			Set<String> reachableTableNames = EntityProcessor.getReachableTableNames( EntityProcessor.getTableName( entityClass ) );
+
+			for( String tableName : tableNames ) {
+
+				if( reachableTableNames.contains( tableName ) ) {
+
+					entityClassItr.remove();
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Remove all entities from this context
+	 */
+	public void clear() {
+
+		entityMap.clear();
+	}
+
+	/**
+	 * Get number of entities in this context
+	 *
+	 * @return Number of entities
+	 */
+	public int size() {
+
+		int size = 0;
+
+		for( Map<Object,Object> idMap : entityMap.values() ) {
+			size += idMap.size();
+		}
+
+		return size;
+	}
+
+	/**
+	 * Close this context and unbind it from the Connection
+	 */
+	@Override
+	public void close() {
+
+		if( open ) {
+
+			open = false;
+
+			Connection conn = connRef.get();
+
+			synchronized( contextMap ) {
+
+				if( null != conn && this == contextMap.get( conn ) ) {
+
+					contextMap.remove( conn );
+				}
+
+				// Not counted anymore, if the Connection is already collected
+				if( openReferenceSet.remove( connRef ) ) {
+					openContextCount.decrementAndGet();
+				}
+			}
+
+			clear();
+		}
+	}
+}
@@ -0,0 +1,127 @@
+package io.github.codesakshi.simplejpa;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.github.codesakshi.simplejpa.EntityProcessor.TableMetaInfo;
+
+/**
+ * Ids from a database sequence, reserved in blocks.
+ *
+ * One sequence call reserves allocationSize Ids for this generator. Value of the sequence is the first Id of the block ( pooled-lo ).
+ * So the sequence should be created with INCREMENT BY allocationSize, same as JPA.
+ * Other generators ( nodes ) calling the same sequence get different blocks.
+ *
+ * <pre>
+ * 	CREATE SEQUENCE ORDER_SEQ START WITH 1 INCREMENT BY 50
+ *
+ * 	&#64;Id &#64;GeneratedValue( strategy = GenerationType.SEQUENCE, generator = "orderSeq" )
+ * 	&#64;SequenceGenerator( name = "orderSeq", sequenceName = "ORDER_SEQ", allocationSize = 50 )
+ * 	private Long id;
+ * </pre>
+ *
+ * @author anilalps
+ *
+ */
+public class PooledSequenceIdGenerator implements IdGenerator {
+
+	private static Logger logger  = LoggerFactory.getLogger(PooledSequenceIdGenerator.class);
+
+	private String sequenceName;
+
+	private int allocationSize;
+
+	private DbQuery dbQuery = new DbQuery();
+
+	/** Dialect for the sequence SQL. Detected from the Connection when null **/
+	private volatile Dialect dialect;
+
+	/** Next Id of the reserved block **/
+	private long nextValue;
+
+	/** End of the reserved block ( exclusive ) **/
+	private long limitValue;
+
+	/**
+	 * Constructor
+	 *
+	 * @param sequenceName Name of the database sequence
+	 * @param allocationSize Number of Ids reserved by a sequence call. Should be same as INCREMENT BY of the sequence.
+	 */
+	public PooledSequenceIdGenerator( String sequenceName, int allocationSize ) {
+
+		if( allocationSize < 1 ) {
+			throw new IllegalArgumentException( "allocationSize should be positive for sequence " + sequenceName );
+		}
+
+		this.sequenceName = sequenceName;
+		this.allocationSize = allocationSize;
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param sequenceName Name of the database sequence
+	 * @param allocationSize Number of Ids reserved by a sequence call. Should be same as INCREMENT BY of the sequence.
+	 * @param dialect Dialect of the database
+	 */
+	public PooledSequenceIdGenerator( String sequenceName, int allocationSize, Dialect dialect ) {
+
+		this( sequenceName, allocationSize );
+
+		this.dialect = dialect;
+	}
+
+	@Override
+	public synchronized Object generate( Connection conn, TableMetaInfo tableMetaInfo ) throws SQLException {
+
+		if( nextValue >= limitValue ) {
+
+			nextValue = readSequence( conn );
+
+			limitValue = nextValue + allocationSize;
+		}
+
+		return IdGenerators.toIdType( nextValue ++, tableMetaInfo.getIdField().getType() );
+	}
+
+	public String getSequenceName() {
+		return sequenceName;
+	}
+
+	public int getAllocationSize() {
+		return allocationSize;
+	}
+
+	private long readSequence( Connection conn ) throws SQLException {
+
+		Dialect currentDialect = dialect;
+
+		if( null == currentDialect ) {
+
+			currentDialect = Dialect.detect( conn );
+
+			if( null == currentDialect ) {
+				throw new SQLException( "Dialect is not known for " + conn.getMetaData().getDatabaseProductName()
+						+ ". Create PooledSequenceIdGenerator with Dialect" );
+			}
+
+			dialect = currentDialect;
+		}
+
+		String sequenceSql = currentDialect.getSequenceNextValueSql( sequenceName );
+
+		logger.debug( "sequenceSql : " + sequenceSql );
+
+		Object value = dbQuery.query( conn, sequenceSql, DbQuery.<Object>toID() );
+
+		if( ! ( value instanceof Number ) ) {
+			throw new SQLException( "Sequence " + sequenceName + " did not return a number" );
+		}
+
+		return ((Number) value).longValue();
+	}
+}
@@ -0,0 +1,383 @@
+package io.github.codesakshi.simplejpa;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.github.codesakshi.simplejpa.TableChangeNotifier.TableChangeEvent;
+import io.github.codesakshi.simplejpa.TableChangeNotifier.TableChangeListener;
+
+/**
+ * Cache of query results, keyed by SQL query and parameters.
+ *
+ * Each entry records the tables it depends on
+ *
+ * 	1. Tables reachable from the entity table through associations ( See EntityProcessor.getReachableTableNames )
+ * 	2. Tables referred after FROM / JOIN in the SQL query ( example: sub queries in WHERE clause )
+ *
+ * Every table has a version, which is incremented when TableChangeNotifier notifies a change in the table
+ * ( Repository save, delete and DbQuery.update ). Entry is valid only if the versions of its tables are not changed.
+ * So invalidation is O(1) for a change and stale entries are removed when they are read or evicted.
+ *
+ * Entries are bounded by estimated memory ( See EntitySizeEstimator ) and expire after write.
+ * Results are stored as copies and a copy is returned on every read.
+ *
+ * <pre>
+ * 	repository.setQueryCache( new QueryCache&lt;Category&gt;( Category.class,
+ * 		new QueryCache.Configuration().setMaximumBytes( 32 * 1024 * 1024 ) ) );
+ * </pre>
+ *
+ * @author anilalps
+ *
+ * @param <T> Entity Type
+ */
+public class QueryCache<T> implements TableChangeListener, AutoCloseable {
+
+	/** Cache settings **/
+	public static class Configuration {
+
+		private long maximumBytes = 16 * 1024 * 1024;
+
+		private long expireAfterWriteMillis = TimeUnit.MINUTES.toMillis( 5 );
+
+		public Configuration() {
+
+		}
+
+		/** Memory budget for the cached results **/
+		public Configuration setMaximumBytes(long maximumBytes) {
+			this.maximumBytes = maximumBytes;
+			return this;
+		}
+
+		/** Results expire after this duration from query. 0 to disable expiry **/
+		public Configuration setExpireAfterWrite(long duration, TimeUnit unit) {
+			this.expireAfterWriteMillis = unit.toMillis( duration );
+			return this;
+		}
+
+		public long getMaximumBytes() {
+			return maximumBytes;
+		}
+
+		public long getExpireAfterWriteMillis() {
+			return expireAfterWriteMillis;
+		}
+	}
+
+	/** SQL query and parameters **/
+	private static final class QueryKey {
+
+		private String sql;
+
+		private Object[] params;
+
+		private int hash;
+
+		protected QueryKey( String sql, Object[] params ) {
+			this.sql = sql;
+			this.params = null != params ? params.clone() : new Object[0];
+			this.hash = 31 * sql.hashCode() + Arrays.deepHashCode( this.params );
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null)
+				return false;
+			if (getClass() != obj.getClass())
+				return false;
+			QueryKey other = (QueryKey) obj;
+			return hash == other.hash && sql.equals( other.sql ) && Arrays.deepEquals( params, other.params );
+		}
+	}
+
+	/** Versions of the tables, read before executing a query **/
+	public static final class VersionSnapshot {
+
+		private AtomicLong[] versions;
+
+		private long[] values;
+
+		protected VersionSnapshot( AtomicLong[] versions ) {
+
+			this.versions = versions;
+			this.values = new long[versions.length];
+
+			for( int i = 0; i < versions.length; i ++ ) {
+				values[i] = versions[i].get();
+			}
+		}
+
+		protected boolean isCurrent() {
+
+			for( int i = 0; i < versions.length; i ++ ) {
+
+				if( values[i] != versions[i].get() ) {
+					return false;
+				}
+			}
+
+			return true;
+		}
+	}
+
+	private static final class CachedResult<T> {
+
+		protected List<T> result;
+
+		protected VersionSnapshot snapshot;
+
+		protected CachedResult( List<T> result, VersionSnapshot snapshot ) {
+			this.result = result;
+			this.snapshot = snapshot;
+		}
+	}
+
+	/** Table names after FROM or JOIN. Comma separated tables after FROM are included. **/
+	private static final Pattern FROM_TABLE_PATTERN = Pattern.compile(
+			"\\b(?:FROM|JOIN)\\s+([\\w$#.\"`\\[\\]]+(?:\\s+(?:AS\\s+)?\\w+)?(?:\\s*,\\s*[\\w$#.\"`\\[\\]]+(?:\\s+(?:AS\\s+)?\\w+)?)*)",
+			Pattern.CASE_INSENSITIVE );
+
+	private static final int MAXIMUM_PARSED_QUERIES = 4096;
+
+	protected Class<T> entityClass;
+
+	/** Tables reachable from entity table **/
+	protected Set<String> reachableTableNames;
+
+	/** Upper case table name -> Version **/
+	protected Map<String,AtomicLong> tableVersionMap = new ConcurrentHashMap<String,AtomicLong>();
+
+	/** Incremented when the modified table is not known **/
+	protected AtomicLong globalVersion = new AtomicLong();
+
+	/** SQL query -> Versions of its tables. Parsing SQL once per query **/
+	protected Map<String,AtomicLong[]> queryTableVersionMap = new ConcurrentHashMap<String,AtomicLong[]>();
+
+	protected TinyLfuCache<QueryKey,CachedResult<T>> cache;
+
+	/**
+	 * Constructor
+	 *
+	 * @param entityClass Class of the entity. EntityProcessor should be already created for this class.
+	 * @param configuration Cache settings
+	 */
+	public QueryCache( Class<T> entityClass, Configuration configuration ) {
+
+		this.entityClass = entityClass;
+
+		this.reachableTableNames = EntityProcessor.getReachableTableNames( EntityProcessor.getTableName( entityClass ) );
+
+		this.cache = new TinyLfuCache<QueryKey,CachedResult<T>>( configuration.getMaximumBytes(),
+				(key,value)-> EntitySizeEstimator.weigh( value.result ) + 2 * key.sql.length() + 64,
+				configuration.getExpireAfterWriteMillis(), TimeUnit.MILLISECONDS );
+
+		TableChangeNotifier.addListener( this );
+	}
+
+	/**
+	 * Get copy of the cached result
+	 *
+	 * @param sql SQL query
+	 * @param params Query parameters
+	 * @return Copy of the result if cached and valid, null otherwise
+	 */
+	public List<T> get( String sql, Object[] params ) {
+
+		List<T> result = null;
+
+		QueryKey key = new QueryKey( sql, params );
+
+		CachedResult<T> cachedResult = cache.get( key );
+
+		if( null != cachedResult ) {
+
+			if( cachedResult.snapshot.isCurrent() ) {
+
+				result = copy( cachedResult.result );
+
+			}else {
+
+				// A table is modified after the query
+				cache.invalidate( key );
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Read versions of the tables of the query. Should be called before executing the query.
+	 *
+	 * @param sql SQL query
+	 * @return Versions of the tables
+	 */
+	public VersionSnapshot snapshot( String sql ) {
+
+		// Queries with literal values may create unlimited entries. Parsed details are recreated when required
+		if( queryTableVersionMap.size() >= MAXIMUM_PARSED_QUERIES ) {
+			queryTableVersionMap.clear();
+		}
+
+		AtomicLong[] versions = queryTableVersionMap.computeIfAbsent( sql, (query)->{
+
+			Set<String> tableNames = new TreeSet<String>( reachableTableNames );
+
+			tableNames.addAll( getQueryTableNames( query ) );
+
+			AtomicLong[] tableVersions = new AtomicLong[ tableNames.size() + 1 ];
+
+			int i = 0;
+
+			for( String tableName : tableNames ) {
+
+				tableVersions[i++] = tableVersionMap.computeIfAbsent( tableName.toUpperCase(), (name)-> new AtomicLong() );
+			}
+
+			tableVersions[i] = globalVersion;
+
+			return tableVersions;
+		});
+
+		return new VersionSnapshot( versions );
+	}
+
+	/**
+	 * Put copy of the result to cache, only if the tables are not modified after the snapshot
+	 *
+	 * @param sql SQL query
+	 * @param params Query parameters
+	 * @param result Result of the query
+	 * @param snapshot Versions read before executing the query
+	 */
+	public void put( String sql, Object[] params, List<T> result, VersionSnapshot snapshot ) {
+
+		if( snapshot.isCurrent() ) {
+
+			QueryKey key = new QueryKey( sql, params );
+
+			cache.put( key, new CachedResult<T>( copy( result ), snapshot ) );
+
+			// Modified while putting. Result may be stale
+			if( ! snapshot.isCurrent() ) {
+				cache.invalidate( key );
+			}
+		}
+	}
+
+	/**
+	 * Remove all results
+	 */
+	public void invalidateAll() {
+
+		globalVersion.incrementAndGet();
+
+		cache.invalidateAll();
+	}
+
+	@Override
+	public void tableChanged( TableChangeEvent event ) {
+
+		if( null == event.getTableName() ) {
+
+			globalVersion.incrementAndGet();
+
+		}else {
+
+			AtomicLong version = tableVersionMap.get( event.getTableName().toUpperCase() );
+
+			// No query depends on the table, if version is not present
+			if( null != version ) {
+				version.incrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * Stop listening the table changes and remove all results
+	 */
+	@Override
+	public void close() {
+
+		TableChangeNotifier.removeListener( this );
+
+		invalidateAll();
+	}
+
+	public Class<T> getEntityClass() {
+		return entityClass;
+	}
+
+	public long size() {
+		return cache.size();
+	}
+
+	public long getHitCount() {
+		return cache.getHitCount();
+	}
+
+	public long getMissCount() {
+		return cache.getMissCount();
+	}
+
+	public long getEvictionCount() {
+		return cache.getEvictionCount();
+	}
+
+	/**
+	 * Get names of the tables referred after FROM / JOIN in SQL query. Schema and quotes are removed.
+	 *
+	 * @param sql SQL query
+	 * @return Table names
+	 */
+	protected static Set<String> getQueryTableNames( String sql ) {
+
+		Set<String> tableNames = new TreeSet<String>( String.CASE_INSENSITIVE_ORDER );
+
+		Matcher matcher = FROM_TABLE_PATTERN.matcher( sql );
+
+		while( matcher.find() ) {
+
+			for( String tableEntry : matcher.group( 1 ).split( "," ) ) {
+
+				// Remove alias
+				String tableName = tableEntry.trim().split( "\\s+" )[0];
+
+				// Remove schema and quotes
+				tableName = tableName.substring( tableName.lastIndexOf( '.' ) + 1 ).replaceAll( "[\"`\\[\\]]", "" );
+
+				if( ! tableName.isEmpty() ) {
+					tableNames.add( tableName );
+				}
+			}
+		}
+
+		return tableNames;
+	}
+
+	private static <E> List<E> copy( List<E> entities ) {
+
+		try {
+
+			return EntityCopier.copyAll( entities );
+
+		}catch( Exception ex ) {
+
+			throw new RuntimeException( "Could not copy entity", ex );
+		}
+	}
+}
@@ -7,16 +7,22 @@ import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
+import java.math.BigDecimal;
 import java.sql.Blob;
 import java.sql.Clob;
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -28,21 +34,31 @@ import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.persistence.AttributeConverter;
 import javax.persistence.CascadeType;
 import javax.persistence.Convert;
+import javax.persistence.OptimisticLockException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.github.codesakshi.simplejpa.DataConverter.ConverterType;
+import io.github.codesakshi.simplejpa.DbQuery.ThrowableConsumer;
 import io.github.codesakshi.simplejpa.DbQuery.ThrowableFunction;
+import io.github.codesakshi.simplejpa.DbQuery.ThrowableSupplier;
 import io.github.codesakshi.simplejpa.EntityProcessor.AssociationMetaInfo;
 import io.github.codesakshi.simplejpa.EntityProcessor.ColumnJoinInfo;
 import io.github.codesakshi.simplejpa.EntityProcessor.ManyToManyMetaInfo;
 import io.github.codesakshi.simplejpa.EntityProcessor.OneToManyMetaInfo;
 import io.github.codesakshi.simplejpa.EntityProcessor.SingleTargetMetaInfo;
 import io.github.codesakshi.simplejpa.EntityProcessor.TableMetaInfo;
+import io.github.codesakshi.simplejpa.TableChangeNotifier.ChangeType;
+import io.github.codesakshi.simplejpa.TableChangeNotifier.TableChangeEvent;
 
 /**
  * 
@@ -109,6 +125,9 @@ public class Repository<T,ID> {
 
 		protected Set<ParentEntityData> parentEntitySet = new HashSet<ParentEntityData>();
 
+		/** Entity is loaded without some of its associations. See EntityProcessor.isPartialAssociation **/
+		protected boolean partial = false;
+
 		protected ResultJoinData(Object entity) {
 			this.entity = entity;
 		}
@@ -117,6 +136,14 @@ public class Repository<T,ID> {
 			return entity;
 		}
 
+		protected boolean isPartial() {
+			return partial;
+		}
+
+		protected void setPartial(boolean partial) {
+			this.partial = partial;
+		}
+
 		protected Set<ParentEntityData> getParentEntitySet() {
 			return parentEntitySet;
 		}
@@ -127,6 +154,27 @@ public class Repository<T,ID> {
 
 	protected DbQuery dbQuery = new DbQuery();
 
+	/** Second level cache. null if caching is not enabled **/
+	protected EntityCache<T> entityCache;
+
+	/** Query result cache. null if caching is not enabled **/
+	protected QueryCache<T> queryCache;
+
+	/** Associations, rows of which are deleted by ON DELETE CASCADE of database. See detectDatabaseCascades **/
+	protected volatile Set<AssociationMetaInfo> databaseCascadeSet = Collections.emptySet();
+
+	/** De-duplication of identical concurrent queries. null if not enabled **/
+	protected volatile SingleFlight singleFlight;
+
+	/** SQL syntax of the database. Detected from the Connection when null **/
+	protected volatile Dialect dialect;
+
+	/** Maximum number of ids in a single 'IN' clause **/
+	protected static final int IN_CLAUSE_CHUNK_SIZE = 500;
+
+	/** Maximum number of rows in a single JDBC batch of mergeAll **/
+	protected static final int BATCH_CHUNK_SIZE = 1000;
+
 	@SuppressWarnings("unchecked")
 	/**
 	 * Default Constructor
@@ -158,6 +206,120 @@ public class Repository<T,ID> {
 	private void initialize( Class<T> entityClazz, Class<ID> idClazz) {
 
 		this.processor = new EntityProcessor<T,ID>(entityClazz, idClazz );
+
+		this.entityCache = EntityCache.getSharedCache( entityClazz );
+	}
+
+	/**
+	 * Get the second level cache used by this repository
+	 *
+	 * @return EntityCache. null if caching is not enabled
+	 */
+	public EntityCache<T> getEntityCache() {
+		return entityCache;
+	}
+
+	/**
+	 * Set the second level cache for this repository.
+	 * Overrides the shared cache configured by Annotation.
+	 * Cache replaced is closed ( stops listening the table changes ), unless it is the shared cache.
+	 *
+	 * @param entityCache EntityCache. null to disable caching
+	 */
+	public void setEntityCache( EntityCache<T> entityCache ) {
+
+		EntityCache<T> previousCache = this.entityCache;
+
+		this.entityCache = entityCache;
+
+		if( null != previousCache && previousCache != entityCache && ! previousCache.isShared() ) {
+
+			previousCache.close();
+		}
+	}
+
+	/**
+	 * Get the query result cache used by this repository
+	 *
+	 * @return QueryCache. null if caching is not enabled
+	 */
+	public QueryCache<T> getQueryCache() {
+		return queryCache;
+	}
+
+	/**
+	 * Set the query result cache for this repository. Results of findMultiple ( and findAll, findMultipleWithWhere ) are cached.
+	 * Cache replaced is closed ( stops listening the table changes ).
+	 *
+	 * @param queryCache QueryCache. null to disable caching
+	 */
+	public void setQueryCache( QueryCache<T> queryCache ) {
+
+		QueryCache<T> previousCache = this.queryCache;
+
+		this.queryCache = queryCache;
+
+		if( null != previousCache && previousCache != queryCache ) {
+
+			previousCache.close();
+		}
+	}
+
+	/**
+	 * Get the single flight layer used by this repository
+	 *
+	 * @return SingleFlight. null if not enabled
+	 */
+	public SingleFlight getSingleFlight() {
+		return singleFlight;
+	}
+
+	/**
+	 * Set the single flight layer for this repository. Identical concurrent queries of findMultiple
+	 * ( and findAll, findMultipleWithWhere ) are executed once. See SingleFlight.
+	 *
+	 * @param singleFlight SingleFlight. null to disable
+	 */
+	public void setSingleFlight( SingleFlight singleFlight ) {
+		this.singleFlight = singleFlight;
+	}
+
+	/**
+	 * Get the Dialect used by this repository
+	 *
+	 * @return Dialect. null if not yet detected
+	 */
+	public Dialect getDialect() {
+		return dialect;
+	}
+
+	/**
+	 * Set the Dialect for this repository. Overrides the Dialect detected from the Connection.
+	 *
+	 * @param dialect Dialect. null to detect from the Connection
+	 */
+	public void setDialect( Dialect dialect ) {
+		this.dialect = dialect;
+	}
+
+	/** Get the Dialect. Detected from the Connection on first use **/
+	protected Dialect getDialect( Connection conn ) throws SQLException {
+
+		Dialect currentDialect = dialect;
+
+		if( null == currentDialect ) {
+
+			currentDialect = Dialect.detect( conn );
+
+			if( null == currentDialect ) {
+				throw new SQLException( "Dialect is not known for " + conn.getMetaData().getDatabaseProductName()
+						+ ". Set it with Repository.setDialect" );
+			}
+
+			dialect = currentDialect;
+		}
+
+		return currentDialect;
 	}
 
 	/**
@@ -268,6 +430,54 @@ public class Repository<T,ID> {
 		}
 	}
 
+	/**
+	 * Get a reference stub of the entity. Only @Id is set and nothing is read from database.
+	 * 
+	 * Stub is used to set ManyToOne / OneToOne / ManyToMany associations to an existing entity.
+	 * On save, only its Id is used for the join columns. The referred entity is not read, inserted or updated,
+	 * even if cascade is set. In OneToMany collection, only the join columns of the referred row are updated.
+	 * 
+	 * <pre>
+	 * 	teacher.setSubject( subjectRepository.getReference( subjectId ) );
+	 * 
+	 * 	teacherRepository.save( conn, teacher );
+	 * </pre>
+	 * 
+	 * @param inId Id of the entity
+	 * @return Entity Object with only @Id set
+	 * @throws Exception If the entity could not be created
+	 */
+	@SuppressWarnings("unchecked")
+	public T getReference( ID inId ) throws Exception {
+
+		if( null == inId ) {
+			throw new IllegalArgumentException( "Id should not be null for reference of " + processor.getTableName() );
+		}
+
+		TableMetaInfo tableMetaInfo = processor.getTableMetaInfo();
+
+		T reference = (T) constructEntityObject( tableMetaInfo );
+
+		Field idField = tableMetaInfo.getIdField();
+		idField.setAccessible(true);
+		idField.set( reference, inId );
+
+		EntityReference.mark( reference );
+
+		return reference;
+	}
+
+	/**
+	 * Check whether the entity is a reference stub created by getReference
+	 * 
+	 * @param entity Entity Object
+	 * @return true if the entity is a reference stub
+	 */
+	public static boolean isReference( Object entity ) {
+
+		return EntityReference.isReference( entity );
+	}
+
 	/**
 	 * Get an entity by id.
 	 * 
@@ -278,11 +488,157 @@ public class Repository<T,ID> {
 	 */
 	public T findById(Connection conn, ID inId) throws SQLException {
 
+		// Answer from the PersistenceContext, if the entity is already loaded
+		T value = findInPersistenceContext( conn, inId );
+
+		if( null == value ) {
+
+			value = findInEntityCache( conn, inId );
+		}
+
+		if( null == value ) {
+
+			long generation = null != entityCache ? entityCache.getGeneration() : 0;
+
+			value = loadById( conn, inId );
+
+			putToEntityCache( conn, inId, value, generation );
+		}
+
+		return value;
+	}
+
+	/**
+	 * Get entities by ids.
+	 *
+	 * @param conn SQL Connection
+	 * @param inIds Ids of the entities
+	 * @return Entities found, in the order of ids given. Missing ids are skipped.
+	 * @throws SQLException If the query is malformed or cannot be executed
+	 */
+	public List<T> findAllById(Connection conn, Collection<ID> inIds) throws SQLException {
+
+		Map<Object,T> idToEntityMap = new HashMap<Object,T>();
+
+		// Ids to be read from database
+		Set<Object> missingIdSet = new LinkedHashSet<Object>();
+
+		for( ID inId : inIds ) {
+
+			if( null != inId && ! idToEntityMap.containsKey( inId ) ) {
+
+				T value = findInPersistenceContext( conn, inId );
+
+				if( null == value ) {
+
+					value = findInEntityCache( conn, inId );
+				}
+
+				if( null != value ) {
+
+					idToEntityMap.put( inId, value );
+
+				}else {
+
+					missingIdSet.add( inId );
+				}
+			}
+		}
+
+		long generation = null != entityCache ? entityCache.getGeneration() : 0;
+
+		List<Object> missingIdList = new ArrayList<Object>( missingIdSet );
+
+		for( int start = 0; start < missingIdList.size(); start += IN_CLAUSE_CHUNK_SIZE ) {
+
+			int end = Math.min( missingIdList.size(), start + IN_CLAUSE_CHUNK_SIZE );
+
+			String sql = " SELECT " + processor.getFullSelectSql() + " WHERE " + getIdInClause( end - start );
+
+			List<T> entities = findMultiple( conn, sql, missingIdList.subList( start, end ).toArray() );
+
+			for( T entity : entities ) {
+
+				Object idValue = readIdValue( entity );
+
+				idToEntityMap.put( idValue, entity );
+
+				putToEntityCache( conn, idValue, entity, generation );
+			}
+		}
+
+		// Arrange the result in the order of ids
+		List<T> result = new ArrayList<T>( idToEntityMap.size() );
+
+		for( ID inId : inIds ) {
+
+			// Duplicate ids will be added only once
+			T entity = null != inId ? idToEntityMap.remove( inId ) : null;
+
+			if( null != entity ) {
+
+				result.add( entity );
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Get an entity by id from database. PersistenceContext and EntityCache are not checked.
+	 *
+	 * @param conn SQL Connection
+	 * @param inId Id of the entity
+	 * @return Single Entity Object if found. null otherwise
+	 * @throws SQLException If the query is malformed or cannot be executed
+	 */
+	protected T loadById(Connection conn, Object inId) throws SQLException {
+
 		String whereClause =  processor.getTableName() + "." + processor.getIdColumnName() + " = ? ";
 
 		return findSingleWithWhere( conn, whereClause, inId);
 	}
 
+	/**
+	 * Read @Id field of the entity
+	 *
+	 * @param entity Entity Object
+	 * @return Value of @Id field
+	 * @throws SQLException If the field could not be read
+	 */
+	protected Object readIdValue( T entity ) throws SQLException {
+
+		Field idField = processor.getTableMetaInfo().getIdField();
+
+		try {
+
+			idField.setAccessible(true);
+
+			return idField.get( entity );
+
+		}catch( IllegalAccessException ex ) {
+
+			throw new SQLException( "Could not read Id field : " + idField.getName(), ex );
+		}
+	}
+
+	/** Generate ' table.id IN ( ?, ?, ... ) ' clause **/
+	protected String getIdInClause( int count ) {
+
+		StringBuilder buff = new StringBuilder();
+
+		buff.append( processor.getTableName() + "." + processor.getIdColumnName() + " IN (" );
+
+		for( int i = 0; i < count; i ++ ) {
+
+			buff.append( 0 == i ? "?" : ", ?" );
+		}
+
+		buff.append( ") " );
+
+		return String.valueOf( buff );
+	}
+
 	/**
 	 *  Get an entity by WHERE Criteria
 	 *  
@@ -331,7 +687,7 @@ public class Repository<T,ID> {
 
 		return dbQuery.query(conn, selectSql, (rs->{
 
-			return toEntity(rs);
+			return toEntity(rs, PersistenceContext.get( conn ));
 
 		}), params );
 	}	
@@ -351,11 +707,31 @@ public class Repository<T,ID> {
 
 		return dbQuery.query(conn, selectSql, (rs->{
 
-			return toEntity(rs);
+			return toEntity(rs, PersistenceContext.get( conn ));
 
 		}), varMap );
 	}
 
+	/**
+	 *  Get an entity by SQL query
+	 *  
+	 * @param conn SQL Connection
+	 * @param selectSql Query for Selecting the entity
+	 * @param binder Statement Handler to bind the Query Parameters
+	 * @return Single Entity Object if found. null otherwise
+	 * @throws SQLException If the query is malformed or cannot be executed
+	 */
+	protected T findSingle(Connection conn, String selectSql, ThrowableConsumer<PreparedStatement> binder) throws SQLException {
+
+		logger.debug( "selectSql : " + selectSql );
+
+		return dbQuery.query(conn, selectSql, (rs->{
+
+			return toEntity(rs, PersistenceContext.get( conn ));
+
+		}), binder );
+	}
+
 	/**
 	 * Get all records.
 	 *
@@ -387,499 +763,2240 @@ public class Repository<T,ID> {
 	}
 
 	/**
-	 * Get a list of records.
+	 * Read records in parallel, on several Connections. Used to process large tables on multiple cores.
 	 * 
-	 * @param conn SQL Connection
-	 * @param whereClause WHERE Criteria for the query
-	 * @param varMap Query Parameter Map
-	 * @return Multiple Records matching the query
-	 * @throws SQLException If the query is malformed or cannot be executed
+	 * Range of @Id ( MIN to MAX, matching the WHERE Criteria ) is split to partitions of equal width.
+	 * Each partition is read on its own Connection and thread, and the entities are passed to the consumer.
+	 * So the result mapping is also parallel. If @Id is not Integer or Long, all records are read as a single partition.
+	 * 
+	 * A partition is paged by keyset ( as in forEachChunk ), IN_CLAUSE_CHUNK_SIZE entities at a time.
+	 * So each thread holds only a page of entities, not the whole partition. Pages are read by separate queries,
+	 * so the scan is not a consistent snapshot unless the Connections are.
+	 * 
+	 * Consumer is called from several threads and should be thread safe. Order of the entities is not defined.
+	 * If a partition fails, the other partitions are cancelled.
+	 * 
+	 * <pre>
+	 * 	repository.parallelScan( dataSource::getConnection, " 1 = 1 ", null, 8, (order)-> indexer.index( order ) );
+	 * </pre>
+	 * 
+	 * @param connectionSupplier Supplier of a new Connection ( example: dataSource::getConnection ). Connections are closed after use.
+	 * @param whereClause WHERE Criteria for the query. null for all records
+	 * @param params Query Parameters
+	 * @param partitions Number of partitions and threads
+	 * @param consumer Consumer of the entities
+	 * @return Number of entities read
+	 * @throws Exception If a query or the consumer fails
 	 */
-	public List<T> findMultipleWithWhere(Connection conn, String whereClause, Map<String,Object> varMap) throws SQLException {
+	public long parallelScan( ThrowableSupplier<Connection> connectionSupplier, String whereClause, Object[] params,
+			int partitions, ThrowableConsumer<T> consumer ) throws Exception {
 
-		String sql = " SELECT " + processor.getFullSelectSql() + " WHERE " + whereClause;
+		if( partitions < 1 ) {
+			throw new IllegalArgumentException( "partitions should be positive : " + partitions );
+		}
 
-		return findMultiple( conn, sql, varMap );
-	}
+		TableMetaInfo tableMetaInfo = processor.getTableMetaInfo();
 
-	/**
-	 * Get a list of records.
-	 * 
-	 * @param conn SQL Connection
-	 * @param whereClause WHERE Criteria for the query
-	 * @param params Query Parameters
-	 * @return Multiple Records matching the query
-	 * @throws SQLException If the query is malformed or cannot be executed
-	 */
-	public List<T> findDistinctWithWhere(Connection conn, String whereClause, Object... params) throws SQLException {
+		Field idField = tableMetaInfo.getIdField();
 
-		String sql = " SELECT DISTICT " + processor.getFullSelectSql() + " WHERE " + whereClause;
+		String where = null != whereClause ? whereClause : " 1 = 1 ";
 
-		return findMultiple( conn, sql, params);
-	}
+		Object[] whereParams = null != params ? params : new Object[0];
 
-	/**
-	 * Get a list of records.
-	 * 
-	 * @param conn SQL Connection
-	 * @param whereClause WHERE Criteria for the query
-	 * @param varMap Query Parameter Map
-	 * @return Multiple Records matching the query
-	 * @throws SQLException If the query is malformed or cannot be executed
-	 */
-	public List<T> findDistinctWithWhere(Connection conn, String whereClause, Map<String,Object> varMap) throws SQLException {
+		String idColumn = tableMetaInfo.getTableName() + "." + tableMetaInfo.getIdColumnName();
 
-		String sql = " SELECT DISTICT " + processor.getFullSelectSql() + " WHERE " + whereClause;
+		// WHERE Criteria and parameters of each partition
+		List<String> partitionWhereList = new ArrayList<String>();
 
-		return findMultiple( conn, sql, varMap );
-	}
+		List<Object[]> partitionParamList = new ArrayList<Object[]>();
 
-	/**
-	 * Get a list of records.
-	 * 
-	 * @param conn SQL Connection
-	 * @param selectSql Query for Selecting the entity
-	 * @param params Query Parameters
-	 * @return Multiple Records matching the query
-	 * @throws SQLException If the query is malformed or cannot be executed
-	 */
-	public List<T> findMultiple(Connection conn, String selectSql, Object... params) throws SQLException {
+		long[] idRange = null;
 
-		logger.debug( "selectSql : " + selectSql );
+		if( tableMetaInfo.isIntegralId() ) {
 
-		return dbQuery.query(conn, selectSql, (rs->{
+			String rangeSql = " SELECT MIN( " + idColumn + " ), MAX( " + idColumn + " ) " + processor.getFromSql() + " WHERE " + where;
 
-			return toList(rs);
+			logger.debug( "rangeSql : " + rangeSql );
 
-		}), params );
-	}
+			try( Connection conn = connectionSupplier.getThrows() ){
 
-	/**
-	 * Get a list of records.
-	 * 
-	 * @param conn SQL Connection
-	 * @param selectSql Query for Selecting the entity
-	 * @param varMap Query Parameter Map
-	 * @return Multiple Records matching the query
-	 * @throws SQLException If the query is malformed or cannot be executed 
-	 */
-	public List<T> findMultiple(Connection conn, String selectSql, Map<String,Object> varMap) throws SQLException {
-
-		logger.debug( "selectSql : " + selectSql );
-
-		return dbQuery.query(conn, selectSql, (rs->{
-
-			return toList(rs);
-
-		}), varMap );
-	}
+				idRange = dbQuery.query( conn, rangeSql, (rs)->{
 
-	/**
-	 * Check whether ID is exists in Database
-	 * 
-	 * @param conn SQL Connection
-	 * @param inId Id of the Entity
-	 * @return true if id exists in database, false otherwise.
-	 * @throws SQLException If the query is malformed or cannot be executed
-	 */
-	public boolean hasId( Connection conn, ID inId ) throws SQLException {
+					long[] range = null;
 
-		return isIdPresentInDatabase(conn, processor.getTableMetaInfo(), inId);		
-	}
-	
-	/**
-	 * Convert ResultSet to Single Entity Object
-	 * 
-	 * @param rs ResultSet from database Query
-	 * @return Single Entity Object
-	 * @throws Exception IF the conversion fails
-	 */
-	private T toEntity( ResultSet rs ) throws Exception{
+					if( rs.next() ) {
 
-		/**
-		 * First Key -> Table name
-		 * Second key - > Current Entity Object ID
-		 * Value - > ResultJoinData ( contains Parent Object Set and Current Entity  )
-		 */
+						long minId = rs.getLong( 1 );
 
-		/** Use LinkedHashMap. So the insertion order is preserved . Insertion order is required in processResult**/
-		LinkedHashMap<String,Map<Object,ResultJoinData>> tableToEntityMap = new LinkedHashMap<String,Map<Object,ResultJoinData>>();
+						range = rs.wasNull() ? null : new long[] { minId, rs.getLong( 2 ) };
+					}
 
-		// rootEntityMap is used to fetch root entity.
-		// This redundant Object is used to improve performance
-		Map<ID,T> rootEntityMap = new LinkedHashMap<ID,T>();
+					return range;
 
-		//* Since it is join columns, there may be multiple rows coming from ResultSet
-		while( rs.next() ) {
+				}, whereParams );
+			}
 
-			mapRow( tableToEntityMap, rootEntityMap, rs );
-		}
+			if( null == idRange ) {
 
-		T value = null;
+				// No matching record
+				return 0;
+			}
 
-		//We need data in root Set to process final result
-		if( ! rootEntityMap.isEmpty() ) {
+			long minId = idRange[0];
 
-			// Re arrange entity values.
-			processResult(tableToEntityMap);
+			long maxId = idRange[1];
 
-			// Get first entry from result 
-			value = rootEntityMap.values().iterator().next();
-		}
+			long step = Math.max( 1, ( maxId / partitions ) - ( minId / partitions ) + 1 );
 
-		return value; 
-	}
+			for( long start = minId; ; start += step ) {
 
-	/**
-	 * Convert ResultSet to List of Entity Objects
-	 * 
-	 * @param rs ResultSet from database Query
-	 * @return List of Entity Objects
-	 * @throws Exception IF the conversion fails
-	 */
-	private List<T> toList( ResultSet rs ) throws Exception{
+				if( start > maxId - step ) {
 
-		/**
-		 * First Key -> Table name
-		 * Second key - > Current Entity Object ID
-		 * Value - > ResultJoinData ( contains Parent Object Set and Current Entity  )
-		 */
+					partitionWhereList.add( "( " + where + " ) AND " + idColumn + " >= ? AND " + idColumn + " <= ?" );
+					partitionParamList.add( appendParams( whereParams, start, maxId ) );
+					break;
+				}
 
-		/** Use LinkedHashMap. So the insertion order is preserved . Insertion order is required in processResult**/
-		LinkedHashMap<String,Map<Object,ResultJoinData>> tableToEntityMap = new LinkedHashMap<String,Map<Object,ResultJoinData>>();
+				partitionWhereList.add( "( " + where + " ) AND " + idColumn + " >= ? AND " + idColumn + " < ?" );
+				partitionParamList.add( appendParams( whereParams, start, start + step ) );
+			}
 
-		// rootEntityMap is used to fetch root entity.
-		// This redundant Object is used to improve performance
-		Map<ID,T> rootEntityMap = new LinkedHashMap<ID,T>();
+		}else {
 
-		while( rs.next() ) {
+			partitionWhereList.add( where );
+			partitionParamList.add( whereParams );
+		}
 
-			mapRow( tableToEntityMap, rootEntityMap, rs );
+		AtomicInteger threadCount = new AtomicInteger();
 
-		}
+		ExecutorService executor = Executors.newFixedThreadPool( partitionWhereList.size(), (runnable)->{
 
-		List<T> list =  null;
+			Thread thread = new Thread( runnable, "scan-parallel-" + processor.getTableName() + "-" + threadCount.incrementAndGet() );
+			thread.setDaemon( true );
+			return thread;
+		});
 
-		// We need data in root Set to process final result
-		if( ! rootEntityMap.isEmpty() ) {
+		long count = 0;
 
-			// Re arrange entity values.
-			processResult(tableToEntityMap);
+		try {
 
-			// Convert result entry to Collection 
-			list =  new ArrayList<T>(rootEntityMap.values());
+			List<Future<Integer>> futureList = new ArrayList<Future<Integer>>();
 
-		}else {
+			for( int i = 0; i < partitionWhereList.size(); i ++ ) {
 
-			list = new ArrayList<T>();
-		}
+				String partitionWhere = partitionWhereList.get( i );
 
-		return list;
-	}
+				Object[] partitionParams = partitionParamList.get( i );
 
-	private	void mapRow( Map<String,Map<Object,ResultJoinData>> tableToEntityMap, Map<ID,T> rootEntityMap, ResultSet rs ) throws Exception {
+				String firstIdSql = " SELECT DISTINCT " + idColumn + processor.getFromSql()
+						+ " WHERE " + partitionWhere + " ORDER BY " + idColumn;
 
-		/** store IDs of tables accessed in this result row */
-		Map<String,Object> tableToObjectMap = new HashMap<String,Object>();
+				String nextIdSql = " SELECT DISTINCT " + idColumn + processor.getFromSql()
+						+ " WHERE ( " + partitionWhere + " ) AND " + idColumn + " > ? ORDER BY " + idColumn;
 
-		String rootTableName = processor.getTableName(); 
-		// Root TableMetaInfo
-		TableMetaInfo tableMetaInfo = processor.getTableMetaInfo( );
+				futureList.add( executor.submit( ()->{
 
-		T rootEntity = populateRootEntity( tableMetaInfo, rootEntityMap, rs );
+					int partitionCount = 0;
 
-		tableToObjectMap.put( rootTableName, rootEntity);
+					try( Connection conn = connectionSupplier.getThrows() ){
 
-		int startIndex = 1 + tableMetaInfo.getColumnCount();
+						Dialect dialect = getDialect( conn );
 
-		for( AssociationMetaInfo associationInfo : processor.getAssociationList() ) {
+						ID lastId = null;
 
-			String tableName = associationInfo.getChildTableName();
+						List<ID> idList;
 
-			tableMetaInfo = EntityProcessor.getTableMetaInfo( tableName );
+						// Page the partition by keyset, so only a chunk of entities is held at a time
+						do {
 
-			// Get parent Object for current row
-			Object parentObject = tableToObjectMap.get( associationInfo.getParentTableName() );
+							String idSql = dialect.getLimitSql( null == lastId ? firstIdSql : nextIdSql, IN_CLAUSE_CHUNK_SIZE );
 
-			// check whether parent is available, 
-			// If parent is not available, we wont be able to save this 
-			if( null != parentObject ) {
+							logger.debug( "idSql : " + idSql );
 
-				// Id Field
-				Field idField = tableMetaInfo.getIdField();
+							idList = dbQuery.query( conn, idSql, toChunkIdList( idField, IN_CLAUSE_CHUNK_SIZE ),
+									null == lastId ? partitionParams : appendParams( partitionParams, DataConverter.convertValueToSql( idField, lastId ) ) );
 
-				// get Id value of table being processed
-				Object idValue = getValueFromResultSet( rs, startIndex, idField );
+							if( ! idList.isEmpty() ) {
 
-				if( null != idValue ) {
+								for( T entity : findAllById( conn, idList ) ) {
 
-					// We got valid id from database
-					// Check whether entity with this id is already populated or not
-					Object entityObject =  null;
+									consumer.acceptThrows( entity );
 
-					ResultJoinData resultJoinData = getResultJoinData( tableToEntityMap, tableName, idValue);
+									partitionCount ++;
+								}
 
-					if( null == resultJoinData ) {
+								lastId = idList.get( idList.size() - 1 );
+							}
 
-						// Create ResultJoinData
-						resultJoinData = createResultJoinData( tableToEntityMap, tableName, tableMetaInfo, idValue );
+							if( Thread.currentThread().isInterrupted() ) {
 
-						entityObject = resultJoinData.getEntity();
+								// Cancelled, because another partition failed
+								throw new InterruptedException( "Scan cancelled for " + processor.getTableName() );
+							}
 
-						// fill data.
-						// Set id value
-						setEntityFieldValue( tableMetaInfo, tableMetaInfo.getIdColumnName(), entityObject, idValue);
+						}while( idList.size() == IN_CLAUSE_CHUNK_SIZE );
+					}
 
-						// Fill subsequent fields for this object;
-						fillRemainingEntityValues(tableMetaInfo, tableMetaInfo.getPrimitiveFieldMap(), entityObject, rs, startIndex);
+					return partitionCount;
+				}));
+			}
 
-					}else {
+			for( Future<Integer> future : futureList ) {
 
-						entityObject = resultJoinData.getEntity();
-					}
+				try {
 
-					// Put this entry to tableToIdMap. So subsequent columnInfo can use this.
-					tableToObjectMap.put( tableName, entityObject);
+					count += future.get();
 
-					resultJoinData.getParentEntitySet().add( new ParentEntityData( associationInfo, parentObject) );
+				}catch( ExecutionException ex ) {
 
+					throw new Exception( "Scan failed for a partition of " + processor.getTableName(), ex.getCause() );
 				}
 			}
 
-			//set start index for next table;
-			startIndex += tableMetaInfo.getColumnCount();
+		}finally {
+
+			// Cancel the running partitions on failure
+			executor.shutdownNow();
 		}
 
+		return count;
 	}
 
-	@SuppressWarnings("unchecked")
-	private T populateRootEntity( TableMetaInfo tableMetaInfo, Map<ID,T> rootEntityMap, ResultSet rs  ) throws Exception {
-
-		int startIndex = 1;
-
-		// Id Field
-		Field idField = tableMetaInfo.getIdField();
+	/**
+	 * Process records in chunks, ordered by Id. Same as forEachChunk with afterId null.
+	 * 
+	 * @param connectionSupplier Supplier of a new Connection ( example: dataSource::getConnection ). Connections are closed after use.
+	 * @param whereClause WHERE Criteria for the query. null for all records
+	 * @param params Query Parameters
+	 * @param chunkSize Maximum entities in a chunk
+	 * @param consumer Consumer of the chunks
+	 * @return Checkpoint of the last chunk. null if no record is processed
+	 * @throws Exception If a query or the consumer fails
+	 */
+	public ID forEachChunk( ThrowableSupplier<Connection> connectionSupplier, String whereClause, Object[] params,
+			int chunkSize, ThrowableConsumer<Chunk<T,ID>> consumer ) throws Exception {
 
-		// get Id value of table being processed
-		ID idValue = (ID) getValueFromResultSet( rs, startIndex, idField );
+		return forEachChunk( connectionSupplier, whereClause, params, chunkSize, null, consumer );
+	}
 
-		T rootEntity = rootEntityMap.get(idValue);
-		if( null == rootEntity ) {
+	/**
+	 * Process records in chunks, ordered by Id. Used for long running jobs over large tables.
+	 * 
+	 * Chunks are read by keyset ( id &gt; last id of previous chunk ORDER BY id ), not by offset.
+	 * So every chunk is read by the primary key index and no cursor is kept open between chunks.
+	 * 
+	 * Each chunk is read with nested entities and passed to the consumer, in a transaction of a new Connection.
+	 * The transaction is committed after the consumer returns. If the consumer fails, the chunk is rolled back and the exception is thrown.
+	 * Chunk.getCheckpoint can be stored ( example: in the chunk transaction ) and passed as afterId, to continue after the committed chunks.
+	 * 
+	 * @param connectionSupplier Supplier of a new Connection ( example: dataSource::getConnection ). Connections are closed after use.
+	 * @param whereClause WHERE Criteria for the query. null for all records
+	 * @param params Query Parameters
+	 * @param chunkSize Maximum entities in a chunk
+	 * @param afterId Checkpoint to continue after. null to start from first record
+	 * @param consumer Consumer of the chunks
+	 * @return Checkpoint of the last chunk. afterId if no record is processed
+	 * @throws Exception If a query or the consumer fails
+	 */
+	public ID forEachChunk( ThrowableSupplier<Connection> connectionSupplier, String whereClause, Object[] params,
+			int chunkSize, ID afterId, ThrowableConsumer<Chunk<T,ID>> consumer ) throws Exception {
 
-			rootEntity = (T) constructEntityObject(tableMetaInfo);
+		if( chunkSize < 1 ) {
+			throw new IllegalArgumentException( "chunkSize should be positive : " + chunkSize );
+		}
 
-			rootEntityMap.put(idValue, rootEntity);
+		TableMetaInfo tableMetaInfo = processor.getTableMetaInfo();
 
-			// Set id value
-			setEntityFieldValue( tableMetaInfo, tableMetaInfo.getIdColumnName(), rootEntity, idValue);			
+		Field idField = tableMetaInfo.getIdField();
 
-			fillRemainingEntityValues( tableMetaInfo, tableMetaInfo.getPrimitiveFieldMap(), rootEntity, rs, startIndex );
-		}
+		String where = null != whereClause ? whereClause : " 1 = 1 ";
 
-		return rootEntity;
-	}
+		Object[] whereParams = null != params ? params : new Object[0];
 
-	/** Fill entries other than id ( starting from 1 ) **/
-	private static void fillRemainingEntityValues( TableMetaInfo tableMetaInfo, Map<String, Field> fieldMap,
-			Object entityObject, ResultSet rs, int startIndex) throws Exception {
+		String idColumn = tableMetaInfo.getTableName() + "." + tableMetaInfo.getIdColumnName();
 
-		Iterator<Entry<String,Field>> fieldMapIterator = fieldMap.entrySet().iterator();
+		String firstIdSql = " SELECT DISTINCT " + idColumn + processor.getFromSql()
+				+ " WHERE " + where + " ORDER BY " + idColumn;
 
-		for( int i = 1; fieldMapIterator.hasNext(); i++ ) {
+		String nextIdSql = " SELECT DISTINCT " + idColumn + processor.getFromSql()
+				+ " WHERE ( " + where + " ) AND " + idColumn + " > ? ORDER BY " + idColumn;
 
-			Entry<String,Field> entry = fieldMapIterator.next();
+		ID checkpoint = afterId;
 
-			Object value = getValueFromResultSet( rs,  startIndex + i, entry.getValue() );
+		long index = 0;
 
-			setEntityFieldValue( tableMetaInfo, entry.getKey(), entityObject, value);		
-		}
-	}
+		boolean hasMore = true;
 
-	private static void processResult( LinkedHashMap<String,Map<Object,ResultJoinData>> tableToEntityMap) throws Exception {
+		while( hasMore ) {
 
-		/**
-		 * We would be building the  result starting from the inner most child.
-		 * So Iterate the LinkedHashMap in Reverse Order */
+			ID lastId = checkpoint;
 
-		/** Create reverse iterator **/
-		Iterator<String> tableToObjMapItr = new LinkedList<String>(tableToEntityMap.keySet()).descendingIterator();
+			long chunkIndex = index;
 
-		for( ;tableToObjMapItr.hasNext();) {
+			try( Connection conn = connectionSupplier.getThrows() ){
 
-			String tableName = tableToObjMapItr.next();
+				// Chunk is committed by executeInTransaction, only if auto commit is enabled
+				conn.setAutoCommit( true );
 
-			Map<Object, ResultJoinData> entityJointMap = tableToEntityMap.get(tableName);
+				Chunk<T,ID> chunk = executeInTransaction( conn, (connection)->{
 
-			if( null != entityJointMap ) {
+					String idSql = getDialect( connection ).getLimitSql( null == lastId ? firstIdSql : nextIdSql, chunkSize );
 
-				for( ResultJoinData joinData : entityJointMap.values() ) {
+					logger.debug( "idSql : " + idSql );
 
-					Object entityObject = joinData.getEntity();
+					List<ID> idList = dbQuery.query( connection, idSql, toChunkIdList( idField, chunkSize ),
+							null == lastId ? whereParams : appendParams( whereParams, DataConverter.convertValueToSql( idField, lastId ) ) );
 
-					// Add this entityObject to parent entities
-					for( ParentEntityData parentData : joinData.getParentEntitySet() ) {
+					Chunk<T,ID> currentChunk = null;
 
-						Object parentEntity = parentData.getParentEntity();
-						AssociationMetaInfo associationInfo = parentData.getAssociationInfo();
+					if( ! idList.isEmpty() ) {
 
-						Field parentField = associationInfo.getParentField();
-						parentField.setAccessible(true);
+						currentChunk = new Chunk<T,ID>( chunkIndex, findAllById( connection, idList ), connection, idList.get( idList.size() - 1 ) );
 
-						if( null != associationInfo.getParentContainerClass() ) {
+						consumer.acceptThrows( currentChunk );
+					}
 
-							@SuppressWarnings("unchecked")
-							Collection<Object> collection = (Collection<Object>) parentField.get( parentEntity );
+					return currentChunk;
+				});
 
-							collection.add( entityObject );
+				if( null == chunk ) {
 
-						}else {
+					hasMore = false;
 
-							// It is one to one mapping. Assign the object directly.
-							// Preserve if value is already set.
+				}else {
 
-							if( null == parentField.get( parentEntity ) ) {
+					checkpoint = chunk.getCheckpoint();
 
-								parentField.set(parentEntity, entityObject);
-							}
-						}
-					}
+					index ++;
 				}
 			}
 		}
+
+		return checkpoint;
 	}
 
-	private static ResultJoinData getResultJoinData( Map<String,Map<Object,ResultJoinData>> tableToObjectMap,
-			String tableAlias, Object idValue ) {
+	/** Read at most chunkSize ids, in type of @Id field **/
+	@SuppressWarnings("unchecked")
+	private static <ID> ThrowableFunction<ResultSet,List<ID>> toChunkIdList( Field idField, int chunkSize ){
 
-		ResultJoinData resultJoinData = null;
+		return ( (ResultSet rs) -> {
 
-		Map<Object,ResultJoinData> idToObjectMap = tableToObjectMap.get( tableAlias );
+			List<ID> idList = new ArrayList<ID>();
 
-		if( null != idToObjectMap ) {
+			while( idList.size() < chunkSize && rs.next() ) {
 
-			resultJoinData = idToObjectMap.get( idValue );
-		}
+				idList.add( (ID) getValueFromResultSet( rs, 1, idField ) );
+			}
 
-		return resultJoinData;
+			return idList;
+		});
 	}
 
-	private static ResultJoinData createResultJoinData(  Map<String,Map<Object,ResultJoinData>> tableToObjectMap,
-			String tableName, TableMetaInfo tableMetaInfo, Object idValue ) throws Exception {
-
-		Map<Object,ResultJoinData> idToObjMap = tableToObjectMap.get( tableName );
-
-		if( null == idToObjMap ) {
-
-			idToObjMap = new LinkedHashMap<Object,ResultJoinData>();			
-			tableToObjectMap.put(tableName, idToObjMap);
-		}
+	private static Object[] appendParams( Object[] params, Object... extraParams ) {
 
-		ResultJoinData ResultJoinData = idToObjMap.get( idValue );
+		Object[] result = Arrays.copyOf( params, params.length + extraParams.length );
 
-		if( null == ResultJoinData ) {
+		System.arraycopy( extraParams, 0, result, params.length, extraParams.length );
 
-			Object object = constructEntityObject( tableMetaInfo );
+		return result;
+	}
 
-			ResultJoinData = new ResultJoinData( object );
+	/**
+	 * Get a list of records.
+	 * 
+	 * @param conn SQL Connection
+	 * @param whereClause WHERE Criteria for the query
+	 * @param varMap Query Parameter Map
+	 * @return Multiple Records matching the query
+	 * @throws SQLException If the query is malformed or cannot be executed
+	 */
+	public List<T> findMultipleWithWhere(Connection conn, String whereClause, Map<String,Object> varMap) throws SQLException {
 
-			idToObjMap.put(idValue, ResultJoinData);
-		}
+		String sql = " SELECT " + processor.getFullSelectSql() + " WHERE " + whereClause;
 
-		return ResultJoinData;
+		return findMultiple( conn, sql, varMap );
 	}
 
-	private static Object constructEntityObject( TableMetaInfo tableMetaInfo ) throws Exception {
+	/**
+	 * Get a list of records.
+	 * 
+	 * @param conn SQL Connection
+	 * @param whereClause WHERE Criteria for the query
+	 * @param params Query Parameters
+	 * @return Multiple Records matching the query
+	 * @throws SQLException If the query is malformed or cannot be executed
+	 */
+	public List<T> findDistinctWithWhere(Connection conn, String whereClause, Object... params) throws SQLException {
 
-		Class<?> type = tableMetaInfo.getTableClass();
+		String sql = " SELECT DISTICT " + processor.getFullSelectSql() + " WHERE " + whereClause;
 
-		if( null == type ) {
-			throw new RuntimeException( " Class Type is not available ");
-		}
+		return findMultiple( conn, sql, params);
+	}
+
+	/**
+	 * Get a list of records.
+	 * 
+	 * @param conn SQL Connection
+	 * @param whereClause WHERE Criteria for the query
+	 * @param varMap Query Parameter Map
+	 * @return Multiple Records matching the query
+	 * @throws SQLException If the query is malformed or cannot be executed
+	 */
+	public List<T> findDistinctWithWhere(Connection conn, String whereClause, Map<String,Object> varMap) throws SQLException {
+
+		String sql = " SELECT DISTICT " + processor.getFullSelectSql() + " WHERE " + whereClause;
+
+		return findMultiple( conn, sql, varMap );
+	}
+
+	/**
+	 * Get a list of records.
+	 * 
+	 * @param conn SQL Connection
+	 * @param selectSql Query for Selecting the entity
+	 * @param params Query Parameters
+	 * @return Multiple Records matching the query
+	 * @throws SQLException If the query is malformed or cannot be executed
+	 */
+	public List<T> findMultiple(Connection conn, String selectSql, Object... params) throws SQLException {
+
+		logger.debug( "selectSql : " + selectSql );
+
+		PersistenceContext context = PersistenceContext.get( conn );
+
+		List<T> result = null;
+
+		// Query cache returns copies. So it is not used while a PersistenceContext is open
+		if( null != queryCache && null == context ) {
+
+			result = queryCache.get( selectSql, params );
+
+			if( null == result ) {
+
+				result = executeSingleFlight( conn, selectSql, params, ()->{
+
+					QueryCache.VersionSnapshot snapshot = queryCache.snapshot( selectSql );
+
+					List<T> queryResult = dbQuery.query(conn, selectSql, (rs->{
+
+						return toList(rs, null);
+
+					}), params );
+
+					// Results read in a transaction may not be committed
+					if( conn.getAutoCommit() ) {
+						queryCache.put( selectSql, params, queryResult, snapshot );
+					}
+
+					return queryResult;
+				});
+			}
+
+		}else if( null == context ) {
+
+			result = executeSingleFlight( conn, selectSql, params, ()->{
+
+				return dbQuery.query(conn, selectSql, (rs->{
+
+					return toList(rs, null);
+
+				}), params );
+			});
+
+		}else {
+
+			result = dbQuery.query(conn, selectSql, (rs->{
+
+				return toList(rs, context);
+
+			}), params );
+		}
+
+		return result;
+	}
+
+	/**
+	 * Execute the query through SingleFlight, if enabled. Queries in a transaction are executed directly,
+	 * because their results depend on the Connection.
+	 */
+	private List<T> executeSingleFlight( Connection conn, String selectSql, Object[] params, ThrowableSupplier<List<T>> query ) throws SQLException {
+
+		List<T> result = null;
+
+		SingleFlight currentSingleFlight = singleFlight;
+
+		if( null != currentSingleFlight && conn.getAutoCommit() ) {
+
+			result = currentSingleFlight.execute( SingleFlight.getDatabase( conn ), processor.getTableMetaInfo().getTableClass(), selectSql, params, query );
+
+		}else {
+
+			try {
+
+				result = query.getThrows();
+
+			}catch( SQLException ex ) {
+
+				throw ex;
+
+			}catch( Exception ex ) {
+
+				throw new SQLException( ex );
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Get a list of records.
+	 * 
+	 * @param conn SQL Connection
+	 * @param selectSql Query for Selecting the entity
+	 * @param varMap Query Parameter Map
+	 * @return Multiple Records matching the query
+	 * @throws SQLException If the query is malformed or cannot be executed 
+	 */
+	public List<T> findMultiple(Connection conn, String selectSql, Map<String,Object> varMap) throws SQLException {
+
+		// Convert Named Parameter query to '?' query.
+		List<Object> paramList = new ArrayList<Object>();
+
+		String parsedSql = DbQuery.parseNamedParameterQuery( selectSql, varMap, paramList );
+
+		return findMultiple( conn, parsedSql, paramList.toArray() );
+	}
+
+	/**
+	 * Get a list of records.
+	 * 
+	 * @param conn SQL Connection
+	 * @param selectSql Query for Selecting the entity
+	 * @param binder Statement Handler to bind the Query Parameters
+	 * @return Multiple Records matching the query
+	 * @throws SQLException If the query is malformed or cannot be executed 
+	 */
+	protected List<T> findMultiple(Connection conn, String selectSql, ThrowableConsumer<PreparedStatement> binder) throws SQLException {
+
+		logger.debug( "selectSql : " + selectSql );
+
+		return dbQuery.query(conn, selectSql, (rs->{
+
+			return toList(rs, PersistenceContext.get( conn ));
+
+		}), binder );
+	}
+
+	/**
+	 * Check whether ID is exists in Database
+	 * 
+	 * @param conn SQL Connection
+	 * @param inId Id of the Entity
+	 * @return true if id exists in database, false otherwise.
+	 * @throws SQLException If the query is malformed or cannot be executed
+	 */
+	public boolean hasId( Connection conn, ID inId ) throws SQLException {
+
+		return isIdPresentInDatabase(conn, processor.getTableMetaInfo(), inId);		
+	}
+	
+	/**
+	 * Convert ResultSet to Single Entity Object
+	 * 
+	 * @param rs ResultSet from database Query
+	 * @param context PersistenceContext bound to the Connection. null if not open
+	 * @return Single Entity Object
+	 * @throws Exception IF the conversion fails
+	 */
+	private T toEntity( ResultSet rs, PersistenceContext context ) throws Exception{
+
+		/**
+		 * First Key -> Table name
+		 * Second key - > Current Entity Object ID
+		 * Value - > ResultJoinData ( contains Parent Object Set and Current Entity  )
+		 */
+
+		/** Use LinkedHashMap. So the insertion order is preserved . Insertion order is required in processResult**/
+		LinkedHashMap<String,Map<Object,ResultJoinData>> tableToEntityMap = new LinkedHashMap<String,Map<Object,ResultJoinData>>();
+
+		// rootEntityMap is used to fetch root entity.
+		// This redundant Object is used to improve performance
+		Map<Object,T> rootEntityMap = createIdMap( processor.getTableMetaInfo() );
+
+		// Entities reused from PersistenceContext. These are already fully populated
+		Set<Object> preloadedSet = null != context ? Collections.newSetFromMap( new IdentityHashMap<Object,Boolean>() ) : null;
+
+		//* Since it is join columns, there may be multiple rows coming from ResultSet
+		while( rs.next() ) {
+
+			mapRow( tableToEntityMap, rootEntityMap, context, preloadedSet, rs );
+		}
+
+		T value = null;
+
+		//We need data in root Set to process final result
+		if( ! rootEntityMap.isEmpty() ) {
+
+			// Re arrange entity values.
+			processResult(tableToEntityMap);
+
+			registerToPersistenceContext( context, tableToEntityMap, rootEntityMap );
+
+			// Get first entry from result 
+			value = rootEntityMap.values().iterator().next();
+		}
+
+		return value; 
+	}
+
+	/**
+	 * Convert ResultSet to List of Entity Objects
+	 * 
+	 * @param rs ResultSet from database Query
+	 * @param context PersistenceContext bound to the Connection. null if not open
+	 * @return List of Entity Objects
+	 * @throws Exception IF the conversion fails
+	 */
+	private List<T> toList( ResultSet rs, PersistenceContext context ) throws Exception{
+
+		/**
+		 * First Key -> Table name
+		 * Second key - > Current Entity Object ID
+		 * Value - > ResultJoinData ( contains Parent Object Set and Current Entity  )
+		 */
+
+		/** Use LinkedHashMap. So the insertion order is preserved . Insertion order is required in processResult**/
+		LinkedHashMap<String,Map<Object,ResultJoinData>> tableToEntityMap = new LinkedHashMap<String,Map<Object,ResultJoinData>>();
+
+		// rootEntityMap is used to fetch root entity.
+		// This redundant Object is used to improve performance
+		Map<Object,T> rootEntityMap = createIdMap( processor.getTableMetaInfo() );
+
+		// Entities reused from PersistenceContext. These are already fully populated
+		Set<Object> preloadedSet = null != context ? Collections.newSetFromMap( new IdentityHashMap<Object,Boolean>() ) : null;
+
+		while( rs.next() ) {
+
+			mapRow( tableToEntityMap, rootEntityMap, context, preloadedSet, rs );
+
+		}
+
+		List<T> list =  null;
+
+		// We need data in root Set to process final result
+		if( ! rootEntityMap.isEmpty() ) {
+
+			// Re arrange entity values.
+			processResult(tableToEntityMap);
+
+			registerToPersistenceContext( context, tableToEntityMap, rootEntityMap );
+
+			// Convert result entry to Collection 
+			list =  new ArrayList<T>(rootEntityMap.values());
+
+		}else {
+
+			list = new ArrayList<T>();
+		}
+
+		return list;
+	}
+
+	private	void mapRow( Map<String,Map<Object,ResultJoinData>> tableToEntityMap, Map<Object,T> rootEntityMap,
+			PersistenceContext context, Set<Object> preloadedSet, ResultSet rs ) throws Exception {
+
+		/** store IDs of tables accessed in this result row */
+		Map<String,Object> tableToObjectMap = new HashMap<String,Object>();
+
+		String rootTableName = processor.getTableName(); 
+		// Root TableMetaInfo
+		TableMetaInfo tableMetaInfo = processor.getTableMetaInfo( );
+
+		T rootEntity = populateRootEntity( tableMetaInfo, rootEntityMap, context, preloadedSet, rs );
+
+		tableToObjectMap.put( rootTableName, rootEntity);
+
+		int startIndex = 1 + tableMetaInfo.getColumnCount();
+
+		List<AssociationMetaInfo> associationList = processor.getAssociationList();
+
+		for( int index = 0; index < associationList.size(); index++ ) {
+
+			AssociationMetaInfo associationInfo = associationList.get( index );
+
+			String tableName = associationInfo.getChildTableName();
+
+			tableMetaInfo = EntityProcessor.getTableMetaInfo( tableName );
+
+			// Get parent Object for current row
+			Object parentObject = tableToObjectMap.get( associationInfo.getParentTableName() );
+
+			// check whether parent is available, 
+			// If parent is not available, we wont be able to save this 
+			if( null != parentObject ) {
+
+				// get Id value of table being processed
+				// Integral ids are read as primitive long, to avoid boxing for the rows already mapped.
+				Object idValue = null;
+
+				ResultJoinData resultJoinData = null;
+
+				if( tableMetaInfo.isIntegralId() ) {
+
+					long longIdValue = rs.getLong( startIndex );
+
+					if( ! rs.wasNull() ) {
+
+						resultJoinData = getResultJoinData( tableToEntityMap, tableName, longIdValue );
+
+						if( null == resultJoinData ) {
+
+							idValue = toIdValue( tableMetaInfo, longIdValue );
+						}
+					}
+
+				}else {
+
+					Object value = getValueFromResultSet( rs, startIndex, tableMetaInfo.getIdField() );
+
+					if( null != value ) {
+
+						resultJoinData = getResultJoinData( tableToEntityMap, tableName, value );
+
+						if( null == resultJoinData ) {
+
+							idValue = value;
+						}
+					}
+				}
+
+				if( null != idValue || null != resultJoinData ) {
+
+					// We got valid id from database
+					// Check whether entity with this id is already populated or not
+					Object entityObject =  null;
+
+					if( null == resultJoinData ) {
+
+						// Reuse the entity already loaded in PersistenceContext
+						Object preloadedEntity = null != context ? context.find( tableMetaInfo.getTableClass(), idValue ) : null;
+
+						// Create ResultJoinData
+						resultJoinData = createResultJoinData( tableToEntityMap, tableName, tableMetaInfo, idValue, preloadedEntity );
+
+						entityObject = resultJoinData.getEntity();
+
+						if( null != preloadedEntity ) {
+
+							preloadedSet.add( preloadedEntity );
+
+						}else {
+
+							resultJoinData.setPartial( processor.isPartialAssociation( index ) );
+
+							// fill data.
+							// Set id value
+							setEntityFieldValue( tableMetaInfo, tableMetaInfo.getIdColumnName(), entityObject, idValue);
+
+							// Fill subsequent fields for this object;
+							fillRemainingEntityValues(tableMetaInfo, tableMetaInfo.getPrimitiveFieldMap(), entityObject, rs, startIndex);
+						}
+
+					}else {
+
+						entityObject = resultJoinData.getEntity();
+					}
+
+					// Put this entry to tableToIdMap. So subsequent columnInfo can use this.
+					tableToObjectMap.put( tableName, entityObject);
+
+					// Preloaded parent is already linked with its children
+					if( null == preloadedSet || ! preloadedSet.contains( parentObject ) ) {
+
+						resultJoinData.getParentEntitySet().add( new ParentEntityData( associationInfo, parentObject) );
+					}
+
+				}
+			}
+
+			//set start index for next table;
+			startIndex += tableMetaInfo.getColumnCount();
+		}
+
+	}
+
+	@SuppressWarnings("unchecked")
+	private T populateRootEntity( TableMetaInfo tableMetaInfo, Map<Object,T> rootEntityMap,
+			PersistenceContext context, Set<Object> preloadedSet, ResultSet rs  ) throws Exception {
+
+		int startIndex = 1;
+
+		T rootEntity = null;
+
+		Object idValue = null;
+
+		if( rootEntityMap instanceof LongObjectMap ) {
+
+			// Root id is never null. Read as primitive long
+			long longIdValue = rs.getLong( startIndex );
+
+			rootEntity = ((LongObjectMap<T>) rootEntityMap).get( longIdValue );
+
+			if( null == rootEntity ) {
+
+				idValue = toIdValue( tableMetaInfo, longIdValue );
+			}
+
+		}else {
+
+			// get Id value of table being processed
+			idValue = getValueFromResultSet( rs, startIndex, tableMetaInfo.getIdField() );
+
+			rootEntity = rootEntityMap.get(idValue);
+		}
+
+		if( null == rootEntity && null != context ) {
+
+			// Reuse the entity already loaded in PersistenceContext
+			rootEntity = (T) context.find( tableMetaInfo.getTableClass(), idValue );
+
+			if( null != rootEntity ) {
+
+				rootEntityMap.put(idValue, rootEntity);
+
+				preloadedSet.add( rootEntity );
+			}
+		}
+
+		if( null == rootEntity ) {
+
+			rootEntity = (T) constructEntityObject(tableMetaInfo);
+
+			rootEntityMap.put(idValue, rootEntity);
+
+			// Set id value
+			setEntityFieldValue( tableMetaInfo, tableMetaInfo.getIdColumnName(), rootEntity, idValue);			
+
+			fillRemainingEntityValues( tableMetaInfo, tableMetaInfo.getPrimitiveFieldMap(), rootEntity, rs, startIndex );
+		}
+
+		return rootEntity;
+	}
+
+	/** Fill entries other than id ( starting from 1 ) **/
+	private static void fillRemainingEntityValues( TableMetaInfo tableMetaInfo, Map<String, Field> fieldMap,
+			Object entityObject, ResultSet rs, int startIndex) throws Exception {
+
+		Iterator<Entry<String,Field>> fieldMapIterator = fieldMap.entrySet().iterator();
+
+		for( int i = 1; fieldMapIterator.hasNext(); i++ ) {
+
+			Entry<String,Field> entry = fieldMapIterator.next();
+
+			Object value = getValueFromResultSet( rs,  startIndex + i, entry.getValue() );
+
+			setEntityFieldValue( tableMetaInfo, entry.getKey(), entityObject, value);		
+		}
+	}
+
+	private static void processResult( LinkedHashMap<String,Map<Object,ResultJoinData>> tableToEntityMap) throws Exception {
+
+		/**
+		 * We would be building the  result starting from the inner most child.
+		 * So Iterate the LinkedHashMap in Reverse Order */
+
+		/** Create reverse iterator **/
+		Iterator<String> tableToObjMapItr = new LinkedList<String>(tableToEntityMap.keySet()).descendingIterator();
+
+		for( ;tableToObjMapItr.hasNext();) {
+
+			String tableName = tableToObjMapItr.next();
+
+			Map<Object, ResultJoinData> entityJointMap = tableToEntityMap.get(tableName);
+
+			if( null != entityJointMap ) {
+
+				for( ResultJoinData joinData : entityJointMap.values() ) {
+
+					Object entityObject = joinData.getEntity();
+
+					// Add this entityObject to parent entities
+					for( ParentEntityData parentData : joinData.getParentEntitySet() ) {
+
+						Object parentEntity = parentData.getParentEntity();
+						AssociationMetaInfo associationInfo = parentData.getAssociationInfo();
+
+						Field parentField = associationInfo.getParentField();
+						parentField.setAccessible(true);
+
+						if( null != associationInfo.getParentContainerClass() ) {
+
+							@SuppressWarnings("unchecked")
+							Collection<Object> collection = (Collection<Object>) parentField.get( parentEntity );
+
+							collection.add( entityObject );
+
+						}else {
+
+							// It is one to one mapping. Assign the object directly.
+							// Preserve if value is already set.
+
+							if( null == parentField.get( parentEntity ) ) {
+
+								parentField.set(parentEntity, entityObject);
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/** Add the entities loaded from ResultSet to PersistenceContext **/
+	private static void registerToPersistenceContext( PersistenceContext context,
+			Map<String,Map<Object,ResultJoinData>> tableToEntityMap, Map<Object,?> rootEntityMap ) throws Exception {
+
+		if( null != context ) {
+
+			for( Object rootEntity : rootEntityMap.values() ) {
+
+				context.register( rootEntity );
+			}
+
+			for( Map<Object,ResultJoinData> entityJoinMap : tableToEntityMap.values() ) {
+
+				for( ResultJoinData joinData : entityJoinMap.values() ) {
+
+					// Partially populated entities are not shared. Later loads should populate all associations
+					if( ! joinData.isPartial() ) {
+
+						context.register( joinData.getEntity() );
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Find the entity in PersistenceContext bound to the Connection
+	 *
+	 * @param conn SQL Connection
+	 * @param inId Id of the entity
+	 * @return Entity if loaded in PersistenceContext, null otherwise
+	 */
+	@SuppressWarnings("unchecked")
+	protected T findInPersistenceContext( Connection conn, Object inId ) {
+
+		T value = null;
+
+		PersistenceContext context = PersistenceContext.get( conn );
+
+		if( null != context ) {
+
+			value = (T) context.find( processor.getTableMetaInfo().getTableClass(), inId );
+		}
+
+		return value;
+	}
+
+	/**
+	 * Find the entity in EntityCache. Entity found is added to PersistenceContext bound to the Connection
+	 *
+	 * @param conn SQL Connection
+	 * @param inId Id of the entity
+	 * @return Copy of the cached entity, null if not cached
+	 * @throws SQLException If the entity could not be added to PersistenceContext
+	 */
+	protected T findInEntityCache( Connection conn, Object inId ) throws SQLException {
+
+		T value = null;
+
+		if( null != entityCache && null != inId ) {
+
+			value = entityCache.get( inId );
+
+			PersistenceContext context = PersistenceContext.get( conn );
+
+			if( null != value && null != context ) {
+
+				try {
+
+					context.register( value );
+
+				}catch( Exception ex ) {
+
+					throw new SQLException( "Could not add entity to PersistenceContext", ex );
+				}
+			}
+		}
+
+		return value;
+	}
+
+	/**
+	 * Put the entity read from database to EntityCache.
+	 * Entity is not cached, if it is read in a transaction ( may not be committed )
+	 * or there is an invalidation after the generation.
+	 *
+	 * @param conn SQL Connection used to read the entity
+	 * @param inId Id of the entity
+	 * @param value Entity read from database. Ignored if null
+	 * @param generation Generation of EntityCache read before reading the entity
+	 * @throws SQLException If the transaction state of the Connection could not be read
+	 */
+	protected void putToEntityCache( Connection conn, Object inId, T value, long generation ) throws SQLException {
+
+		if( null != entityCache && null != value && conn.getAutoCommit() ) {
+
+			entityCache.putIfCurrent( inId, value, generation );
+		}
+	}
+
+	/**
+	 * Remove the entities which may be modified by save or delete of this entity type
+	 * from PersistenceContext bound to the Connection
+	 *
+	 * @param conn SQL Connection
+	 */
+	protected void evictFromPersistenceContext( Connection conn ) {
+
+		PersistenceContext context = PersistenceContext.get( conn );
+
+		if( null != context ) {
+
+			context.evictTables( EntityProcessor.getReachableTableNames( processor.getTableName() ) );
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static ResultJoinData getResultJoinData( Map<String,Map<Object,ResultJoinData>> tableToObjectMap,
+			String tableAlias, long idValue ) {
+
+		ResultJoinData resultJoinData = null;
+
+		Map<Object,ResultJoinData> idToObjectMap = tableToObjectMap.get( tableAlias );
+
+		if( null != idToObjectMap ) {
+
+			resultJoinData = ((LongObjectMap<ResultJoinData>) idToObjectMap).get( idValue );
+		}
+
+		return resultJoinData;
+	}
+
+	private static ResultJoinData getResultJoinData( Map<String,Map<Object,ResultJoinData>> tableToObjectMap,
+			String tableAlias, Object idValue ) {
+
+		ResultJoinData resultJoinData = null;
+
+		Map<Object,ResultJoinData> idToObjectMap = tableToObjectMap.get( tableAlias );
+
+		if( null != idToObjectMap ) {
+
+			resultJoinData = idToObjectMap.get( idValue );
+		}
+
+		return resultJoinData;
+	}
+
+	private static ResultJoinData createResultJoinData(  Map<String,Map<Object,ResultJoinData>> tableToObjectMap,
+			String tableName, TableMetaInfo tableMetaInfo, Object idValue, Object preloadedEntity ) throws Exception {
+
+		Map<Object,ResultJoinData> idToObjMap = tableToObjectMap.get( tableName );
+
+		if( null == idToObjMap ) {
+
+			idToObjMap = createIdMap( tableMetaInfo );
+			tableToObjectMap.put(tableName, idToObjMap);
+		}
+
+		ResultJoinData ResultJoinData = idToObjMap.get( idValue );
+
+		if( null == ResultJoinData ) {
+
+			Object object = null != preloadedEntity ? preloadedEntity : constructEntityObject( tableMetaInfo );
+
+			ResultJoinData = new ResultJoinData( object );
+
+			idToObjMap.put(idValue, ResultJoinData);
+		}
+
+		return ResultJoinData;
+	}
+
+	/**
+	 * Create Id to Object map for hydration.
+	 * LongObjectMap is used for Integer and Long ids. So the ids are not boxed and no Entry object is created.
+	 * Both maps preserve insertion order.
+	 */
+	private static <V> Map<Object,V> createIdMap( TableMetaInfo tableMetaInfo ) {
+
+		Map<Object,V> idMap = null;
+
+		if( tableMetaInfo.isIntegralId() ) {
+
+			idMap = new LongObjectMap<V>();
+
+		}else {
+
+			idMap = new LinkedHashMap<Object,V>();
+		}
+
+		return idMap;
+	}
+
+	/** Convert primitive id value to type of @Id field */
+	private static Object toIdValue( TableMetaInfo tableMetaInfo, long idValue ) {
+
+		Object value = null;
+
+		if( Integer.class == tableMetaInfo.getIdField().getType() ) {
+
+			value = Integer.valueOf( (int) idValue );
+
+		}else {
+
+			value = Long.valueOf( idValue );
+		}
+
+		return value;
+	}
+
+	protected static Object constructEntityObject( TableMetaInfo tableMetaInfo ) throws Exception {
+
+		Class<?> type = tableMetaInfo.getTableClass();
+
+		if( null == type ) {
+			throw new RuntimeException( " Class Type is not available ");
+		}
 
 		// Get Constructor
 		Constructor<?> constructor = type.getConstructor();
 
-		// Create Object
-		Object entity = constructor.newInstance();
+		// Create Object
+		Object entity = constructor.newInstance();
+
+		for( Field field : tableMetaInfo.getCollectionFieldList() ) {
+
+			Collection<Object> collection = (Collection<Object>)createCollectionObject( field.getType() );
+
+			field.setAccessible(true);
+			field.set(entity, collection);
+		}
+
+		return entity;
+	}
+
+	/** 
+	 * Create container class
+	 * 
+	 * Supports following container classes
+	 * 		1. TreeSet
+	 * 		2. LinkedHashSet
+	 * 		3. HashSet
+	 * 		4. Set ( creates HashSet )
+	 * 		5. ArrayList
+	 * 		6. LinkedList
+	 * 		7. List ( creates ArrayList )
+	 * 		8. Collection ( creates ArrayList )  
+	 * 	
+	 * 
+	 */
+	protected static Collection<Object> createCollectionObject( Class<?> containerClass ){
+
+		Collection<Object> container = null;
+
+		if( TreeSet.class.isAssignableFrom(containerClass) ) {
+			container = new TreeSet<Object>();
+		}else if( LinkedHashSet.class.isAssignableFrom(containerClass) ) {
+			container = new LinkedHashSet<Object>();
+		}else if( HashSet.class.isAssignableFrom(containerClass) ) {
+			container = new HashSet<Object>();
+		}else if( Set.class.isAssignableFrom(containerClass) ) {
+			container = new HashSet<Object>();
+		}else if( ArrayList.class.isAssignableFrom(containerClass) ) {
+			container = new ArrayList<Object>();
+		}else if( LinkedList.class.isAssignableFrom(containerClass) ) {
+			container = new LinkedList<Object>();
+		}else if( List.class.isAssignableFrom(containerClass) ) {
+			container = new ArrayList<Object>();
+		}else {
+			container = new ArrayList<Object>();
+		}
+
+		return container;
+	}
+	
+	/**
+	 * Update columns of the rows matching the where clause, without loading the entities.
+	 * 
+	 * Values are converted to SQL type by DataConverter. UpdateTimeStamp columns are set to current time.
+	 * Nested entities are not modified.
+	 * 
+	 * If the entity has @Version field, version of the updated rows is incremented.
+	 * So a later save of an entity loaded before this update fails with OptimisticLockException.
+	 * 
+	 * A single UPDATE statement is executed. The updated rows are not read, so a change of the whole table
+	 * is notified to TableChangeNotifier ( caches of the table are invalidated ).
+	 * 
+	 * @param conn SQL Connection
+	 * @param assignments Column name -&gt; New value. Columns should be in TableMetaInfo.getDatabaseColumnList, except Id and @Version columns.
+	 * @param whereClause WHERE Criteria on the columns of entity table ( joins of findMultipleWithWhere are not available )
+	 * @param params Query Parameters
+	 * @return number of rows updated
+	 * @throws Exception If a column is not valid or the update operation fails
+	 */
+	public int updateWhere( Connection conn, Map<String,Object> assignments, String whereClause, Object... params ) throws Exception {
+
+		TableMetaInfo tableMetaInfo = processor.getTableMetaInfo();
+
+		String tableName = tableMetaInfo.getTableName();
+
+		// Column -> Value in SQL type
+		Map<String,Object> updateDataMap = new LinkedHashMap<String,Object>();
+
+		for( Entry<String,Object> entry : assignments.entrySet() ) {
+
+			String columnName = getDatabaseColumnName( tableMetaInfo, entry.getKey() );
+
+			if( null == columnName || columnName.equalsIgnoreCase( tableMetaInfo.getIdColumnName() )
+					|| columnName.equalsIgnoreCase( tableMetaInfo.getVersionColumnName() ) ) {
+				throw new IllegalArgumentException( "Column " + entry.getKey() + " can not be updated in " + tableName );
+			}
+
+			Field field = tableMetaInfo.getPrimitiveFieldMap().get( columnName );
+
+			// Join columns of SingleTarget associations do not have field. Value should be in SQL type
+			updateDataMap.put( columnName, null != field ? DataConverter.convertValueToSql( field, entry.getValue() ) : entry.getValue() );
+		}
+
+		// Set current time to UpdateTimeStamp columns
+		for( String columnName : tableMetaInfo.getAutoUpdateColumnSet() ) {
+
+			String databaseColumnName = getDatabaseColumnName( tableMetaInfo, columnName );
+
+			Field field = null != databaseColumnName ? tableMetaInfo.getPrimitiveFieldMap().get( databaseColumnName ) : null;
+
+			if( null != field ) {
+				updateDataMap.put( databaseColumnName, DataConverter.convertValueToSql( field, null ) );
+			}
+		}
+
+		if( updateDataMap.isEmpty() ) {
+			throw new IllegalArgumentException( "No column to update in " + tableName );
+		}
+
+		List<String> columnList = new ArrayList<String>();
+
+		updateDataMap.keySet().forEach( (columnName) -> { columnList.add( columnName + " = ?" );} );
+
+		String versionColumnName = tableMetaInfo.getVersionColumnName();
+
+		if( null != versionColumnName ) {
+			columnList.add( versionColumnName + " = " + versionColumnName + " + 1" );
+		}
+
+		String updateSql = " UPDATE " + tableName + " SET " + String.join( ", ", columnList ) + " WHERE " + whereClause;
+
+		logger.debug( "updateSql : " + updateSql );
+
+		List<Object> paramList = new ArrayList<Object>( updateDataMap.values() );
+
+		if( null != params ) {
+			paramList.addAll( Arrays.asList( params ) );
+		}
+
+		int count = executeInTransaction( conn, (connection)->{
+
+			int rows = dbQuery.executeUpdate( connection, updateSql, paramList.toArray() );
+
+			// Updated rows are not known. Caches of the table are invalidated
+			if( 0 < rows && TableChangeNotifier.hasListeners() ) {
+
+				TableChangeNotifier.fireTableChanged( connection, new TableChangeEvent( tableName, null, null, ChangeType.UPDATE ) );
+			}
+
+			return rows;
+		});
+
+		evictFromPersistenceContext( conn );
+
+		return count;
+	}
+
+	/**
+	 * Update columns of the rows matching the where clause, without loading the entities.
+	 * 
+	 * @param conn SQL Connection
+	 * @param assignments Column name -&gt; New value. Columns should be in TableMetaInfo.getDatabaseColumnList, except Id and @Version columns.
+	 * @param whereClause WHERE Criteria on the columns of entity table
+	 * @param varMap Query Parameter Map
+	 * @return number of rows updated
+	 * @throws Exception If a column is not valid or the update operation fails
+	 */
+	public int updateWhere( Connection conn, Map<String,Object> assignments, String whereClause, Map<String,Object> varMap ) throws Exception {
+
+		// Convert Named Parameter query to '?' query.
+		List<Object> paramList = new ArrayList<Object>();
+
+		String parsedWhereClause = DbQuery.parseNamedParameterQuery( whereClause, varMap, paramList );
+
+		return updateWhere( conn, assignments, parsedWhereClause, paramList.toArray() );
+	}
+
+	/** Get column name as in TableMetaInfo. null if the table does not have the column **/
+	private static String getDatabaseColumnName( TableMetaInfo tableMetaInfo, String columnName ) {
+
+		String databaseColumnName = null;
+
+		for( String name : tableMetaInfo.getDatabaseColumnList() ) {
+
+			if( name.equalsIgnoreCase( columnName ) ) {
+
+				databaseColumnName = name;
+				break;
+			}
+		}
+
+		return databaseColumnName;
+	}
+
+	/**
+	 * Delete entity by Id
+	 * 
+	 * @param conn SQL Connection
+	 * @param inId Id of entity to be deleted
+	 * @return number of entities deleted
+	 * @throws Exception If the delete operation fails
+	 */
+	public int deleteById( Connection conn, ID inId) throws Exception {
+
+		String whereClause = processor.getTableName() + "." + processor.getIdColumnName() + " = ? ";
+
+		return delete( conn, whereClause, inId);
+	}
+	
+	/**
+	 * Delete entity using Where criteria
+	 * 
+	 * @param conn SQL Connection
+	 * @param whereClause WHERE Criteria for the query
+	 * @param params Query Parameters
+	 * @return number of entities deleted
+	 * @throws Exception If the delete operation fails
+	 */
+	public int delete( Connection conn, String whereClause, Object... params) throws Exception {
+
+		int count = 0;
+		
+		boolean autoCommit = conn.getAutoCommit();
+
+		if( autoCommit ) {
+			
+			try {
+				
+				// Disable Auto commits
+				conn.setAutoCommit(false);
+				
+				//Call the method
+				count = delete0( conn, whereClause, params );
+				
+				conn.commit();
+
+				TableChangeNotifier.afterCommit( conn );
+				
+			}catch(Throwable ex ) {
+
+				conn.rollback();
+
+				TableChangeNotifier.afterRollback( conn );
+
+				throw new Exception(ex);
+
+			}finally {
+
+				conn.setAutoCommit(autoCommit);
+			}
+			
+		}else {
+			
+			// Manual commit is already enabled.
+			// Call the method
+			count = delete0( conn, whereClause, params );
+		}
+
+		return count;
+	}
+		
+	private int delete0( Connection conn, String whereClause, Object... params) throws Exception {
+
+		return deleteWithWhere( conn, whereClause, params );
+	}
+
+	/**
+	 * Delete entity using Where criteria
+	 * 
+	 * @param conn SQL Connection
+	 * @param whereClause WHERE Criteria for the query
+	 * @param varMap Query Parameter Map
+	 * @return number of entities deleted
+	 * @throws Exception If the delete operation fails
+	 */
+	public int delete( Connection conn, String whereClause, Map<String,Object> varMap) throws Exception {
+		
+		int count = 0;
+		
+		boolean autoCommit = conn.getAutoCommit();
+
+		if( autoCommit ) {
+			
+			try {
+				
+				// Disable Auto commits
+				conn.setAutoCommit(false);
+				
+				//Call the method
+				count = delete0( conn, whereClause, varMap );
+				
+				conn.commit();
+
+				TableChangeNotifier.afterCommit( conn );
+				
+			}catch(Throwable ex ) {
+
+				conn.rollback();
+
+				TableChangeNotifier.afterRollback( conn );
+
+				throw new Exception(ex);
+
+			}finally {
+
+				conn.setAutoCommit(autoCommit);
+			}
+			
+		}else {
+			
+			// Manual commit is already enabled.
+			// Call the method
+			count = delete0( conn, whereClause, varMap );
+		}
+
+		return count;
+	}
+	
+	private int delete0( Connection conn, String whereClause, Map<String,Object> varMap) throws Exception {
+
+		// Convert Named Parameter query to '?' query.
+		List<Object> paramList = new ArrayList<Object>();
+
+		String parsedWhereClause = DbQuery.parseNamedParameterQuery( whereClause, varMap, paramList );
+
+		return deleteWithWhere( conn, parsedWhereClause, paramList.toArray() );
+	}
+
+	/**
+	 * Delete the entities matching the where clause, including nested entities ( if cascade is set ).
+	 * 
+	 * Entities are not loaded. Ids of the entities are selected with the where clause of findMultipleWithWhere.
+	 * Then the rows are deleted table by table, following the associations ( See deleteRowsCascade ).
+	 * 
+	 * @param conn SQL Connection
+	 * @param whereClause WHERE Criteria, same as findMultipleWithWhere
+	 * @param params Query Parameters
+	 * @return number of entities deleted
+	 * @throws Exception If the delete operation fails
+	 */
+	protected int deleteWithWhere( Connection conn, String whereClause, Object... params ) throws Exception {
+
+		List<String> idColumnList = Collections.singletonList( processor.getIdColumnName() );
+
+		String idSelectSql = getDeleteIdSelectSql( whereClause );
+
+		logger.debug( "idSelectSql : " + idSelectSql );
+
+		return deleteRowsById( conn, dbQuery.query( conn, idSelectSql, toRowMapList( idColumnList ), params ) );
+	}
+
+	/**
+	 * Delete the entities matching the where clause, including nested entities ( if cascade is set ).
+	 * Same as deleteWithWhere with Query Parameters. Parameters are bound by the binder,
+	 * so primitive values can be set without boxing ( example: PreparedStatement.setLong ).
+	 * 
+	 * @param conn SQL Connection
+	 * @param whereClause WHERE Criteria, same as findMultipleWithWhere
+	 * @param binder Statement Handler to bind the Query Parameters
+	 * @return number of entities deleted
+	 * @throws Exception If the delete operation fails
+	 */
+	protected int deleteWithWhere( Connection conn, String whereClause, ThrowableConsumer<PreparedStatement> binder ) throws Exception {
+
+		List<String> idColumnList = Collections.singletonList( processor.getIdColumnName() );
+
+		String idSelectSql = getDeleteIdSelectSql( whereClause );
+
+		logger.debug( "idSelectSql : " + idSelectSql );
+
+		return deleteRowsById( conn, dbQuery.query( conn, idSelectSql, toRowMapList( idColumnList ), binder ) );
+	}
+
+	/** Query to select the ids of the entities to be deleted by deleteWithWhere **/
+	private String getDeleteIdSelectSql( String whereClause ) {
+
+		TableMetaInfo tableMetaInfo = processor.getTableMetaInfo();
+
+		return " SELECT DISTINCT " + tableMetaInfo.getTableName() + "." + tableMetaInfo.getIdColumnName()
+				+ processor.getFromSql() + " WHERE " + whereClause;
+	}
+
+	/** Delete the entities of the selected ids, including nested entities ( if cascade is set ) **/
+	private int deleteRowsById( Connection conn, List<Map<String,Object>> idRowList ) throws Exception {
+
+		TableMetaInfo tableMetaInfo = processor.getTableMetaInfo();
+
+		String tableName = tableMetaInfo.getTableName();
+
+		List<String> idColumnList = Collections.singletonList( tableMetaInfo.getIdColumnName() );
+
+		List<Map<String,Object>> rowList = selectRowsByKeys( conn, tableMetaInfo, " FROM " + tableName, tableName,
+				idColumnList, getKeyList( idRowList, idColumnList ) );
+
+		// Same cycle check as EntityProcessor. So the entities loaded by findMultipleWithWhere are deleted
+		Set<String> pathTableSet = new HashSet<String>();
+		pathTableSet.add( tableName );
+
+		deleteRowsCascade( conn, tableMetaInfo, rowList, pathTableSet, false );
+
+		evictFromPersistenceContext( conn );
+
+		return rowList.size();
+	}
+
+	/**
+	 * Delete rows of a table, including rows of nested tables ( if cascade is set ).
+	 * 
+	 * Nested rows are selected with IN lists of the join column values and deleted before the table rows.
+	 * Rows of SingleTarget associations are deleted after the table rows, because the table refers to them.
+	 * Each statement has at most IN_CLAUSE_CHUNK_SIZE rows.
+	 * 
+	 * @param conn SQL Connection
+	 * @param tableMetaInfo TableMetaInfo of the table
+	 * @param rowList Rows to be deleted. Column values are read from database.
+	 * @param pathTableSet Tables from root to this table. Associations to these tables are not followed.
+	 * @param deletedByDatabase Rows are deleted by ON DELETE CASCADE of the parent table.
+	 * 		DELETE is not executed, unless rows of SingleTarget associations are deleted.
+	 * @throws Exception If the delete operation fails
+	 */
+	private void deleteRowsCascade( Connection conn, TableMetaInfo tableMetaInfo,
+			List<Map<String,Object>> rowList, Set<String> pathTableSet, boolean deletedByDatabase ) throws Exception {
+
+		if( ! rowList.isEmpty() ) {
+
+			// SingleTarget tables and rows, to be deleted after this table
+			List<TableMetaInfo> singleTargetTableList = new ArrayList<TableMetaInfo>();
+
+			List<List<Map<String,Object>>> singleTargetRowsList = new ArrayList<List<Map<String,Object>>>();
+
+			for( AssociationMetaInfo associationInfo : tableMetaInfo.getAssociations() ) {
+
+				String childTableName = associationInfo.getChildTableName();
+
+				TableMetaInfo childTableMetaInfo = EntityProcessor.getTableMetaInfo( childTableName );
+
+				// Nested rows are deleted only if cascade is set and they are not in a cycle
+				boolean cascade = ( associationInfo.getCascades().contains( CascadeType.ALL) 
+						|| associationInfo.getCascades().contains( CascadeType.REMOVE) ) 
+						&& ! pathTableSet.contains( childTableName );
+
+				List<Map<String,Object>> childRowList = null;
+
+				boolean childDeletedByDatabase = databaseCascadeSet.contains( associationInfo );
+
+				if( associationInfo instanceof ManyToManyMetaInfo ) {
+
+					ManyToManyMetaInfo manyToManyAssociation = (ManyToManyMetaInfo)associationInfo;
+
+					String bridgeTable = manyToManyAssociation.getBridgeTableName();
+
+					List<String> parentColumnList = new ArrayList<String>();
+
+					List<String> bridgeColumnList = new ArrayList<String>();
+
+					for( ColumnJoinInfo joinInfo : manyToManyAssociation.getParentToBridgeJoinList() ) {
+
+						parentColumnList.add( joinInfo.getParentColumn() );
+						bridgeColumnList.add( joinInfo.getChildColumn() );
+					}
+
+					Collection<List<Object>> keyList = getKeyList( rowList, parentColumnList );
+
+					if( cascade ) {
+
+						// Read child rows before deleting bridge rows
+						List<String> joinColumns = new ArrayList<String>();
+
+						for( ColumnJoinInfo joinInfo : manyToManyAssociation.getBridgeToChildJoinList() ) {
+
+							joinColumns.add( bridgeTable + "." + joinInfo.getParentColumn() + " = " + childTableName + "." + joinInfo.getChildColumn() );
+						}
+
+						String fromSql = " FROM " + childTableName + " INNER JOIN " + bridgeTable + " ON " + String.join( " AND ", joinColumns );
+
+						childRowList = selectRowsByKeys( conn, childTableMetaInfo, fromSql, bridgeTable, bridgeColumnList, keyList );
+					}
+
+					/** For ManyToMany, delete entries from bridgeTable.
+					 * If child rows are deleted, bridge rows should be deleted before them, even if database cascades the bridge rows **/
+					if( cascade || ! childDeletedByDatabase ) {
+						deleteRowsByKeys( conn, bridgeTable, bridgeColumnList, keyList );
+					}
+
+					if( TableChangeNotifier.hasListeners() ) {
+
+						for( List<Object> key : keyList ) {
+
+							TableChangeNotifier.fireTableChanged( conn, new TableChangeEvent( bridgeTable, null,
+									toKeyDataMap( bridgeColumnList, key ), ChangeType.DELETE ) );
+						}
+					}
+
+				}else if( cascade && childDeletedByDatabase && ! TableChangeNotifier.hasListeners()
+						&& isDeletedByDatabase( childTableMetaInfo, pathTableSet ) ) {
+
+					// Database deletes all nested rows. Rows need not be read, because there is no listener to notify.
+					logger.debug( "Rows of " + childTableName + " are deleted by database" );
+
+				}else if( cascade ) {
+
+					List<ColumnJoinInfo> joinInfoList = associationInfo instanceof OneToManyMetaInfo 
+							? ((OneToManyMetaInfo)associationInfo).getColumnJoinList()
+							: Collections.singletonList( ((SingleTargetMetaInfo)associationInfo).getColumnJoin() );
+
+					List<String> parentColumnList = new ArrayList<String>();
+
+					List<String> childColumnList = new ArrayList<String>();
+
+					for( ColumnJoinInfo joinInfo : joinInfoList ) {
+
+						parentColumnList.add( joinInfo.getParentColumn() );
+						childColumnList.add( joinInfo.getChildColumn() );
+					}
+
+					childRowList = selectRowsByKeys( conn, childTableMetaInfo, " FROM " + childTableName, childTableName,
+							childColumnList, getKeyList( rowList, parentColumnList ) );
+
+					if( associationInfo instanceof SingleTargetMetaInfo ) {
+
+						singleTargetTableList.add( childTableMetaInfo );
+						singleTargetRowsList.add( childRowList );
+
+						childRowList = null;
+					}
+				}
+
+				if( null != childRowList ) {
+
+					pathTableSet.add( childTableName );
+
+					deleteRowsCascade( conn, childTableMetaInfo, childRowList, pathTableSet,
+							childDeletedByDatabase && associationInfo instanceof OneToManyMetaInfo );
+
+					pathTableSet.remove( childTableName );
+				}
+			}
+
+			// Child entries deleted. Delete rows of this table
+			String tableName = tableMetaInfo.getTableName();
+
+			List<String> idColumnList = Collections.singletonList( tableMetaInfo.getIdColumnName() );
+
+			/** Rows referring to SingleTarget rows are deleted here, even if the parent table cascades them.
+			 * Otherwise SingleTarget rows are deleted while they are still referred. **/
+			if( ! deletedByDatabase || ! singleTargetTableList.isEmpty() ) {
+				deleteRowsByKeys( conn, tableName, idColumnList, getKeyList( rowList, idColumnList ) );
+			}
+
+			if( TableChangeNotifier.hasListeners() ) {
+
+				for( Map<String,Object> row : rowList ) {
+
+					TableChangeNotifier.fireTableChanged( conn, new TableChangeEvent( tableName,
+							row.get( tableMetaInfo.getIdColumnName() ), row, ChangeType.DELETE ) );
+				}
+			}
+
+			for( int i = 0; i < singleTargetTableList.size(); i ++ ) {
+
+				TableMetaInfo childTableMetaInfo = singleTargetTableList.get( i );
+
+				pathTableSet.add( childTableMetaInfo.getTableName() );
+
+				deleteRowsCascade( conn, childTableMetaInfo, singleTargetRowsList.get( i ), pathTableSet, false );
+
+				pathTableSet.remove( childTableMetaInfo.getTableName() );
+			}
+		}
+	}
+
+	/**
+	 * Check whether database deletes all nested rows of the table, when the table rows are deleted by ON DELETE CASCADE
+	 * 
+	 * @param tableMetaInfo TableMetaInfo of the table
+	 * @param pathTableSet Tables from root to the parent table
+	 * @return true if no DELETE statement is required for the nested rows
+	 */
+	private boolean isDeletedByDatabase( TableMetaInfo tableMetaInfo, Set<String> pathTableSet ) {
+
+		boolean deletedByDatabase = true;
+
+		pathTableSet.add( tableMetaInfo.getTableName() );
+
+		for( AssociationMetaInfo associationInfo : tableMetaInfo.getAssociations() ) {
+
+			boolean cascade = ( associationInfo.getCascades().contains( CascadeType.ALL) 
+					|| associationInfo.getCascades().contains( CascadeType.REMOVE) ) 
+					&& ! pathTableSet.contains( associationInfo.getChildTableName() );
+
+			if( associationInfo instanceof ManyToManyMetaInfo ) {
+
+				// Child rows of ManyToMany are not deleted by database. Only bridge rows can be cascaded.
+				deletedByDatabase = ! cascade && databaseCascadeSet.contains( associationInfo );
+
+			}else if( cascade ) {
+
+				deletedByDatabase = associationInfo instanceof OneToManyMetaInfo
+						&& databaseCascadeSet.contains( associationInfo )
+						&& isDeletedByDatabase( EntityProcessor.getTableMetaInfo( associationInfo.getChildTableName() ), pathTableSet );
+			}
+
+			if( ! deletedByDatabase ) {
+				break;
+			}
+		}
+
+		pathTableSet.remove( tableMetaInfo.getTableName() );
+
+		return deletedByDatabase;
+	}
+
+	/**
+	 * Detect the associations, rows of which are deleted by ON DELETE CASCADE foreign keys of database.
+	 * delete does not execute DELETE statements for those rows. Rows are still read, if TableChangeNotifier has listeners.
+	 * 
+	 * Foreign keys are read by DatabaseMetaData.getImportedKeys, for OneToMany child tables and ManyToMany bridge tables.
+	 * Optional. Should be called once, after creating the Repository.
+	 * 
+	 * @param conn SQL Connection
+	 * @return number of associations cascaded by database
+	 * @throws SQLException If database metadata could not be read
+	 */
+	public int detectDatabaseCascades( Connection conn ) throws SQLException {
+
+		Set<AssociationMetaInfo> cascadeSet = Collections.newSetFromMap( new IdentityHashMap<AssociationMetaInfo,Boolean>() );
+
+		DatabaseMetaData metaData = conn.getMetaData();
+
+		// Table name -> Foreign keys ( Foreign key name -> details )
+		Map<String,Collection<Map<String,Object>>> importedKeyMap = new TreeMap<String,Collection<Map<String,Object>>>( String.CASE_INSENSITIVE_ORDER );
+
+		for( String tableName : EntityProcessor.getReachableTableNames( processor.getTableName() ) ) {
+
+			TableMetaInfo tableMetaInfo = EntityProcessor.getTableMetaInfo( tableName );
+
+			// Bridge tables do not have TableMetaInfo
+			if( null != tableMetaInfo ) {
+
+				for( AssociationMetaInfo associationInfo : tableMetaInfo.getAssociations() ) {
+
+					String foreignKeyTable = null;
+
+					List<ColumnJoinInfo> joinInfoList = null;
+
+					if( associationInfo instanceof OneToManyMetaInfo ) {
+
+						foreignKeyTable = associationInfo.getChildTableName();
+						joinInfoList = ((OneToManyMetaInfo)associationInfo).getColumnJoinList();
+
+					}else if( associationInfo instanceof ManyToManyMetaInfo ) {
+
+						foreignKeyTable = ((ManyToManyMetaInfo)associationInfo).getBridgeTableName();
+						joinInfoList = ((ManyToManyMetaInfo)associationInfo).getParentToBridgeJoinList();
+					}
+
+					if( null != foreignKeyTable ) {
+
+						Collection<Map<String,Object>> importedKeyList = importedKeyMap.get( foreignKeyTable );
+
+						if( null == importedKeyList ) {
+
+							importedKeyList = readImportedKeys( conn, metaData, foreignKeyTable );
+							importedKeyMap.put( foreignKeyTable, importedKeyList );
+						}
+
+						if( isCascadedByDatabase( importedKeyList, tableMetaInfo.getTableName(), joinInfoList ) ) {
+
+							logger.debug( "ON DELETE CASCADE : " + tableMetaInfo.getTableName() + " -> " + foreignKeyTable );
+
+							cascadeSet.add( associationInfo );
+						}
+					}
+				}
+			}
+		}
+
+		databaseCascadeSet = cascadeSet;
+
+		return cascadeSet.size();
+	}
+
+	/** Check whether a foreign key from the join columns to parent table has ON DELETE CASCADE **/
+	@SuppressWarnings("unchecked")
+	private static boolean isCascadedByDatabase( Collection<Map<String,Object>> importedKeyList,
+			String parentTableName, List<ColumnJoinInfo> joinInfoList ) {
+
+		boolean cascaded = false;
+
+		Set<String> joinColumnSet = new TreeSet<String>( String.CASE_INSENSITIVE_ORDER );
+
+		for( ColumnJoinInfo joinInfo : joinInfoList ) {
+			joinColumnSet.add( joinInfo.getChildColumn() );
+		}
+
+		for( Map<String,Object> importedKey : importedKeyList ) {
+
+			Set<String> foreignKeyColumnSet = (Set<String>) importedKey.get( "FKCOLUMN_NAMES" );
+
+			if( parentTableName.equalsIgnoreCase( (String) importedKey.get( "PKTABLE_NAME" ) )
+					&& DatabaseMetaData.importedKeyCascade == ((Number) importedKey.get( "DELETE_RULE" )).intValue()
+					&& joinColumnSet.equals( foreignKeyColumnSet ) ) {
+
+				cascaded = true;
+				break;
+			}
+		}
+
+		return cascaded;
+	}
+
+	/**
+	 * Read foreign keys of the table. Table name is tried as given, in upper case and in lower case.
+	 * 
+	 * @return Foreign keys. PKTABLE_NAME, DELETE_RULE and FKCOLUMN_NAMES ( Set of columns ) for each key
+	 */
+	private static Collection<Map<String,Object>> readImportedKeys( Connection conn, DatabaseMetaData metaData, String tableName ) throws SQLException {
+
+		String schema = null;
+
+		try {
+
+			schema = conn.getSchema();
+
+		}catch( AbstractMethodError | SQLException ex ) {
+
+			// Older drivers do not support schema. Search all schemas
+			schema = null;
+		}
+
+		// Foreign key name -> details
+		Map<String,Map<String,Object>> importedKeyMap = new LinkedHashMap<String,Map<String,Object>>();
+
+		for( String name : new LinkedHashSet<String>( Arrays.asList( tableName, tableName.toUpperCase(), tableName.toLowerCase() ) ) ) {
+
+			try( ResultSet rs = metaData.getImportedKeys( conn.getCatalog(), schema, name ) ){
+
+				while( rs.next() ) {
+
+					String pkTableName = rs.getString( "PKTABLE_NAME" );
+
+					// Foreign key name is optional. Use referred table for unnamed keys
+					String fkName = null != rs.getString( "FK_NAME" ) ? rs.getString( "FK_NAME" ) : pkTableName;
+
+					Map<String,Object> importedKey = importedKeyMap.get( fkName );
+
+					if( null == importedKey ) {
+
+						importedKey = new HashMap<String,Object>();
+
+						importedKey.put( "PKTABLE_NAME", pkTableName );
+						importedKey.put( "DELETE_RULE", rs.getShort( "DELETE_RULE" ) );
+						importedKey.put( "FKCOLUMN_NAMES", new TreeSet<String>( String.CASE_INSENSITIVE_ORDER ) );
+
+						importedKeyMap.put( fkName, importedKey );
+					}
+
+					@SuppressWarnings("unchecked")
+					Set<String> columnSet = (Set<String>) importedKey.get( "FKCOLUMN_NAMES" );
+					columnSet.add( rs.getString( "FKCOLUMN_NAME" ) );
+				}
+			}
+
+			if( ! importedKeyMap.isEmpty() ) {
+				break;
+			}
+		}
 
-		for( Field field : tableMetaInfo.getCollectionFieldList() ) {
+		return importedKeyMap.values();
+	}
 
-			Collection<Object> collection = (Collection<Object>)createCollectionObject( field.getType() );
+	/**
+	 * Select rows of a table, having any of the key values. Rows are selected in chunks of IN_CLAUSE_CHUNK_SIZE keys.
+	 * 
+	 * @param conn SQL Connection
+	 * @param tableMetaInfo TableMetaInfo of the table
+	 * @param fromSql FROM clause including joins
+	 * @param keyTableName Table of the key columns
+	 * @param keyColumnList Key columns
+	 * @param keyList Key values
+	 * @return Rows, one for each id. Column values are not converted.
+	 * @throws SQLException If the query is malformed or cannot be executed
+	 */
+	private List<Map<String,Object>> selectRowsByKeys( Connection conn, TableMetaInfo tableMetaInfo, String fromSql,
+			String keyTableName, List<String> keyColumnList, Collection<List<Object>> keyList ) throws SQLException {
 
-			field.setAccessible(true);
-			field.set(entity, collection);
+		// Id -> Row. Row may be selected for multiple keys ( ManyToMany )
+		Map<Object,Map<String,Object>> rowMap = new LinkedHashMap<Object,Map<String,Object>>();
+
+		if( ! keyList.isEmpty() ) {
+
+			String tableName = tableMetaInfo.getTableName();
+
+			List<String> columnList = tableMetaInfo.getDatabaseColumnList();
+
+			List<String> selectColumnList = new ArrayList<String>();
+
+			columnList.forEach( (columnName) -> { selectColumnList.add( tableName + "." + columnName );} );
+
+			List<List<Object>> allKeyList = new ArrayList<List<Object>>( keyList );
+
+			for( int start = 0; start < allKeyList.size(); start += IN_CLAUSE_CHUNK_SIZE ) {
+
+				List<List<Object>> chunkKeyList = allKeyList.subList( start, Math.min( allKeyList.size(), start + IN_CLAUSE_CHUNK_SIZE ) );
+
+				String selectSql = " SELECT " + String.join( ", ", selectColumnList ) + fromSql
+						+ " WHERE " + getKeyInClause( keyTableName, keyColumnList, chunkKeyList.size() );
+
+				logger.debug( "selectSql : " + selectSql );
+
+				List<Map<String,Object>> chunkRowList = dbQuery.query( conn, selectSql, toRowMapList( columnList ), toKeyParams( chunkKeyList ) );
+
+				for( Map<String,Object> row : chunkRowList ) {
+
+					rowMap.putIfAbsent( row.get( tableMetaInfo.getIdColumnName() ), row );
+				}
+			}
 		}
 
-		return entity;
+		return new ArrayList<Map<String,Object>>( rowMap.values() );
 	}
 
-	/** 
-	 * Create container class
+	/** Delete rows of a table, having any of the key values. Rows are deleted in chunks of IN_CLAUSE_CHUNK_SIZE keys. **/
+	private void deleteRowsByKeys( Connection conn, String tableName, List<String> keyColumnList,
+			Collection<List<Object>> keyList ) throws SQLException {
+
+		List<List<Object>> allKeyList = new ArrayList<List<Object>>( keyList );
+
+		for( int start = 0; start < allKeyList.size(); start += IN_CLAUSE_CHUNK_SIZE ) {
+
+			List<List<Object>> chunkKeyList = allKeyList.subList( start, Math.min( allKeyList.size(), start + IN_CLAUSE_CHUNK_SIZE ) );
+
+			String deleteSql = " DELETE FROM " + tableName + " WHERE " + getKeyInClause( null, keyColumnList, chunkKeyList.size() );
+
+			logger.debug( "deleteSql : " + deleteSql );
+
+			// Execute query to delete entries from database
+			dbQuery.executeUpdate( conn, deleteSql, toKeyParams( chunkKeyList ) );
+		}
+	}
+
+	/**
+	 * Get distinct values of the columns from rows. Rows having null value in any of the columns are skipped.
 	 * 
-	 * Supports following container classes
-	 * 		1. TreeSet
-	 * 		2. LinkedHashSet
-	 * 		3. HashSet
-	 * 		4. Set ( creates HashSet )
-	 * 		5. ArrayList
-	 * 		6. LinkedList
-	 * 		7. List ( creates ArrayList )
-	 * 		8. Collection ( creates ArrayList )  
-	 * 	
+	 * @param rowList Rows
+	 * @param columnList Columns
+	 * @return Values of the columns, in order of columnList
+	 */
+	private static Collection<List<Object>> getKeyList( List<Map<String,Object>> rowList, List<String> columnList ) {
+
+		Set<List<Object>> keySet = new LinkedHashSet<List<Object>>();
+
+		for( Map<String,Object> row : rowList ) {
+
+			List<Object> key = new ArrayList<Object>( columnList.size() );
+
+			for( String columnName : columnList ) {
+
+				Object value = row.get( columnName );
+
+				if( null == value ) {
+
+					key = null;
+					break;
+				}
+
+				key.add( value );
+			}
+
+			if( null != key ) {
+				keySet.add( key );
+			}
+		}
+
+		return keySet;
+	}
+
+	/**
+	 * Get WHERE condition for the keys.
+	 * column IN ( ?, ? ) for single column, ( column1 = ? AND column2 = ? ) OR ( ... ) for multiple columns
 	 * 
+	 * @param tableName Table name to qualify the columns. null for no qualification
+	 * @param keyColumnList Key columns
+	 * @param keyCount Number of keys
+	 * @return WHERE condition
 	 */
-	private static Collection<Object> createCollectionObject( Class<?> containerClass ){
+	private static String getKeyInClause( String tableName, List<String> keyColumnList, int keyCount ) {
 
-		Collection<Object> container = null;
+		String prefix = null != tableName ? tableName + "." : "";
+
+		StringBuilder buff = new StringBuilder();
+
+		if( 1 == keyColumnList.size() ) {
+
+			buff.append( prefix + keyColumnList.get(0) + " IN (" );
+			buff.append( String.join( ", ", Collections.nCopies( keyCount, "?" ) ) );
+			buff.append( ")" );
 
-		if( TreeSet.class.isAssignableFrom(containerClass) ) {
-			container = new TreeSet<Object>();
-		}else if( LinkedHashSet.class.isAssignableFrom(containerClass) ) {
-			container = new LinkedHashSet<Object>();
-		}else if( HashSet.class.isAssignableFrom(containerClass) ) {
-			container = new HashSet<Object>();
-		}else if( Set.class.isAssignableFrom(containerClass) ) {
-			container = new HashSet<Object>();
-		}else if( ArrayList.class.isAssignableFrom(containerClass) ) {
-			container = new ArrayList<Object>();
-		}else if( LinkedList.class.isAssignableFrom(containerClass) ) {
-			container = new LinkedList<Object>();
-		}else if( List.class.isAssignableFrom(containerClass) ) {
-			container = new ArrayList<Object>();
 		}else {
-			container = new ArrayList<Object>();
+
+			List<String> columnList = new ArrayList<String>();
+
+			keyColumnList.forEach( (columnName) -> { columnList.add( prefix + columnName + " = ?" );} );
+
+			String keyCondition = "( " + String.join( " AND ", columnList ) + " )";
+
+			buff.append( "( " + String.join( " OR ", Collections.nCopies( keyCount, keyCondition ) ) + " )" );
 		}
 
-		return container;
+		return String.valueOf( buff );
 	}
-	
+
+	private static Object[] toKeyParams( List<List<Object>> keyList ) {
+
+		List<Object> paramList = new ArrayList<Object>();
+
+		for( List<Object> key : keyList ) {
+			paramList.addAll( key );
+		}
+
+		return paramList.toArray();
+	}
+
+	private static Map<String,Object> toKeyDataMap( List<String> keyColumnList, List<Object> key ) {
+
+		Map<String,Object> keyDataMap = new TreeMap<String,Object>( String.CASE_INSENSITIVE_ORDER );
+
+		for( int i = 0; i < keyColumnList.size(); i ++ ) {
+			keyDataMap.put( keyColumnList.get(i), key.get(i) );
+		}
+
+		return keyDataMap;
+	}
+
+	/** Read all rows. Column -> Value. Values are read as returned by JDBC driver ( not converted to entity type ) **/
+	private static ThrowableFunction<ResultSet,List<Map<String,Object>>> toRowMapList( List<String> columnList ){
+
+		return ( (ResultSet rs) -> {
+
+			List<Map<String,Object>> rowList = new ArrayList<Map<String,Object>>();
+
+			while( rs.next() ) {
+
+				Map<String,Object> row = new TreeMap<String,Object>( String.CASE_INSENSITIVE_ORDER );
+
+				for( int i = 0; i < columnList.size(); i ++ ) {
+
+					row.put( columnList.get(i), rs.getObject( i + 1 ) );
+				}
+
+				rowList.add( row );
+			}
+
+			return rowList;
+		} );
+	}
+
 	/**
-	 * Delete entity by Id
+	 * Execute the action in a transaction.
+	 * If auto commit is enabled, it is disabled for the action and the transaction is committed ( or rolled back on failure ).
+	 * Otherwise, the action is executed in the transaction already in progress.
 	 * 
+	 * @param <R> Type of the result
 	 * @param conn SQL Connection
-	 * @param inId Id of entity to be deleted
-	 * @return number of entities deleted
-	 * @throws Exception If the delete operation fails
+	 * @param action Action to be executed
+	 * @return Result of the action
+	 * @throws Exception If the action fails
 	 */
-	public int deleteById( Connection conn, ID inId) throws Exception {
+	protected <R> R executeInTransaction( Connection conn, ThrowableFunction<Connection,R> action ) throws Exception {
 
-		String whereClause = processor.getTableName() + "." + processor.getIdColumnName() + " = ? ";
+		R result = null;
+
+		boolean autoCommit = conn.getAutoCommit();
+
+		if( autoCommit ) {
+
+			try {
+
+				// Disable Auto commits
+				conn.setAutoCommit(false);
+
+				//Call the method
+				result = action.applyThrows( conn );
+
+				conn.commit();
+
+				TableChangeNotifier.afterCommit( conn );
+
+			}catch(Throwable ex ) {
+
+				conn.rollback();
+
+				TableChangeNotifier.afterRollback( conn );
+
+				throw new Exception(ex);
+
+			}finally {
+
+				conn.setAutoCommit(autoCommit);
+			}
+
+		}else {
+
+			// Manual commit is already enabled.
+			// Call the method
+			result = action.applyThrows( conn );
+		}
+
+		return result;
+	}
+
+
+	private void deleteEntitiesRecursive( Connection conn, Object toDelete ) throws Exception {
+
+		TableMetaInfo tableMetaInfo = EntityProcessor.getTableMetaInfo( toDelete );
+
+		if( null != tableMetaInfo  ) {
+
+			for( AssociationMetaInfo associationInfo : tableMetaInfo.getAssociations() ) {
+
+				if( associationInfo instanceof ManyToManyMetaInfo ) {
+
+					/** For ManyToMany, delete entries from bridgeTable **/
+					deleteManyToManyBridgeData(conn, toDelete, tableMetaInfo, (ManyToManyMetaInfo)associationInfo );
+				}
+
+				// Check whether cascade is set
+				if( associationInfo.getCascades().contains( CascadeType.ALL) 
+						|| associationInfo.getCascades().contains( CascadeType.REMOVE) ) {
+
+					// Get child object from Association Field.
+					Object childObject = associationInfo.getParentField().get( toDelete );
+
+					if( null != childObject ) {
+
+						if (Collection.class.isAssignableFrom( childObject.getClass() )) {
+							// It it collection
+							@SuppressWarnings("unchecked")
+							Collection<Object> collection = (Collection<Object>)childObject;
+
+							for( Object collectionEntry : collection ) {
+
+								deleteEntitiesRecursive( conn, collectionEntry );
+							}
+
+						}else {
+							deleteEntitiesRecursive( conn, childObject );
+						}
+					}
+				}
+			}
+
+			// Child entries deleted. Delete this entry
+			deleteEntityFromTable( conn, tableMetaInfo, toDelete );
+		}
+	}
+
+	private void deleteManyToManyBridgeData( Connection conn, Object entity, 
+			TableMetaInfo tableMetaInfo, ManyToManyMetaInfo manyToManyAssociation) throws Exception {
+
+		String bridgeTable = manyToManyAssociation.getBridgeTableName();
+
+		Map<String,Object> varMap = new HashMap<String,Object>();
+
+		for( ColumnJoinInfo joinInfo : manyToManyAssociation.getParentToBridgeJoinList() ) {
+
+			Object value = getEntityFieldValueInSqlType(tableMetaInfo, joinInfo.getParentColumn(), entity );
+
+			varMap.put( joinInfo.getChildColumn() , value);
+		}
+
+		List<String> columnList = new ArrayList<String>();
+
+		varMap.keySet().forEach( (columnName) -> { columnList.add( columnName + "=:" + columnName );} );
+
+		String deleteSql = " DELETE FROM " + bridgeTable + " WHERE "+ String.join( " AND ", columnList);
+
+		logger.debug( "deleteSql : " + deleteSql );
+
+		// Execute query to delete entry from database
+		dbQuery.executeUpdate( conn, deleteSql, varMap);
+
+		TableChangeNotifier.fireTableChanged( conn, new TableChangeEvent( bridgeTable, null, varMap, ChangeType.DELETE ) );
+	}
+
+
+	private void deleteEntityFromTable( Connection conn, TableMetaInfo tableMetaInfo, Object toDelete  ) throws Exception {
+
+		//DELETE FROM table_name WHERE table_name.ID = ?
+
+		String tableName = tableMetaInfo.getTableName();
+
+		String idColumnName = tableMetaInfo.getIdColumnName();
+
+		Object idValue = getIDValue(toDelete);
+
+		String deleteSql = " DELETE FROM " + tableName + " WHERE " + tableName + "." + idColumnName + " = ? ";
+
+		logger.debug( "deleteSql : " + deleteSql );
+
+		// Execute query to delete entry from database
+		dbQuery.executeUpdate( conn, deleteSql, idValue);
+
+		if( TableChangeNotifier.hasListeners() ) {
+
+			TableChangeNotifier.fireTableChanged( conn, new TableChangeEvent( tableName, idValue,
+					generateDataMapForTable( tableMetaInfo, toDelete ), ChangeType.DELETE ) );
+		}
 
-		return delete( conn, whereClause, inId);
 	}
 	
 	/**
-	 * Delete entity using Where criteria
+	 * Save an Entity
+	 * 
+	 * If the entity has @Version field, existing row is updated only if its version is same as in entity
+	 * ( UPDATE ... SET version = version + 1 WHERE id = ? AND version = ? ). Otherwise the save fails with
+	 * OptimisticLockException. Row with same values is not updated, and its version is not incremented.
+	 * Rows are compared with the entities loaded by save. So a versioned row is written by one statement,
+	 * and read again only if no row is updated.
+	 * Entity with null version is inserted with version 0. If its Id is present in database, the save fails with
+	 * OptimisticLockException when the row is loaded by save ( the entity or its cascaded parent ), otherwise with the duplicate key error of the database.
 	 * 
 	 * @param conn SQL Connection
-	 * @param whereClause WHERE Criteria for the query
-	 * @param params Query Parameters
-	 * @return number of entities deleted
-	 * @throws Exception If the delete operation fails
+	 * @param inItem Entity Object to be saved.
+	 * @return Instance of Saved entity instance 
+	 * @throws Exception If the entity save operation fails
 	 */
-	public int delete( Connection conn, String whereClause, Object... params) throws Exception {
+	public T save(Connection conn, T inItem) throws Exception {
 
-		int count = 0;
+		T value = null;
 		
 		boolean autoCommit = conn.getAutoCommit();
 
@@ -891,14 +3008,26 @@ public class Repository<T,ID> {
 				conn.setAutoCommit(false);
 				
 				//Call the method
-				count = delete0( conn, whereClause, params );
+				value = save0( conn, inItem );
+
+				// Changes of other Connections after this are detected by the generation
+				long generation = null != entityCache ? entityCache.getGeneration() : 0;
 				
 				conn.commit();
+
+				List<TableChangeEvent> committedEvents = TableChangeNotifier.afterCommit( conn );
+
+				// Write through. Saved entity is committed
+				if( null != entityCache && null != value ) {
+					entityCache.putIfCurrent( readIdValue( value ), value, entityCache.getCommittedGeneration( generation, committedEvents ) );
+				}
 				
 			}catch(Throwable ex ) {
 
 				conn.rollback();
 
+				TableChangeNotifier.afterRollback( conn );
+
 				throw new Exception(ex);
 
 			}finally {
@@ -907,41 +3036,62 @@ public class Repository<T,ID> {
 			}
 			
 		}else {
-			
 			// Manual commit is already enabled.
 			// Call the method
-			count = delete0( conn, whereClause, params );
+			value = save0( conn, inItem );
 		}
 
-		return count;
+		return value;
 	}
 		
-	private int delete0( Connection conn, String whereClause, Object... params) throws Exception {
+	@SuppressWarnings("unchecked")
+	private T save0(Connection conn, T inItem) throws Exception {
+
+		if( EntityReference.isReference( inItem ) ) {
+			throw new IllegalArgumentException( "Reference stub can not be saved. Load the entity by findById" );
+		}
+
+		// existingEntity should be read from database. Not from PersistenceContext
+		evictFromPersistenceContext( conn );
+
+		T existingEntity = null;
 
-		// Find all objects for the where clause
-		List<T> entities = findMultipleWithWhere(conn, whereClause, params);
+		ID idValue = (ID) getIDValue(inItem);
 
-		for( T entity : entities ) {
-			deleteEntitiesRecursive( conn, entity );
+		if( null != idValue ) {
+			existingEntity = loadById(conn, idValue);
 		}
 
-		int count = entities.size();
+		// Update including Nested entities
+		TableMetaInfo tableMetaInfo = EntityProcessor.getTableMetaInfo( inItem );
+
+		// Check whether PERSIST or MERGE. existingEntity is loaded, only if Id is present in database
+		CascadeType cascadeType =  null != existingEntity
+				? CascadeType.MERGE 
+						: CascadeType.PERSIST;
 
-		return count;
+		Map<String,Object> savedDataMap = updateEntityRecursive( conn, tableMetaInfo, existingEntity, inItem, cascadeType);
+
+		idValue = (ID) savedDataMap.get( tableMetaInfo.getIdColumnName() );
+
+		evictFromPersistenceContext( conn );
+
+		T value = loadById(conn, idValue);
+
+		return value;
 	}
 
 	/**
-	 * Delete entity using Where criteria
+	 * Saves list of entities.
 	 * 
 	 * @param conn SQL Connection
-	 * @param whereClause WHERE Criteria for the query
-	 * @param varMap Query Parameter Map
-	 * @return number of entities deleted
-	 * @throws Exception If the delete operation fails
+	 * @param entities List of entities to be saved to database.
+	 * @return List of saved entities.
+	 * @throws Exception If the entity save operation fails
 	 */
-	public int delete( Connection conn, String whereClause, Map<String,Object> varMap) throws Exception {
+	public List<T> saveAll( Connection conn, Iterable<T> entities) throws Exception {
 		
-		int count = 0;
+		List<T> result = null;
 		
 		boolean autoCommit = conn.getAutoCommit();
 
@@ -953,295 +3103,637 @@ public class Repository<T,ID> {
 				conn.setAutoCommit(false);
 				
 				//Call the method
-				count = delete0( conn, whereClause, varMap );
+				result = saveAll0( conn, entities );
+
+				// Changes of other Connections after this are detected by the generation
+				long generation = null != entityCache ? entityCache.getGeneration() : 0;
 				
 				conn.commit();
+
+				List<TableChangeEvent> committedEvents = TableChangeNotifier.afterCommit( conn );
+
+				// Write through. Saved entities are committed
+				if( null != entityCache ) {
+
+					long committedGeneration = entityCache.getCommittedGeneration( generation, committedEvents );
+
+					for( T value : result ) {
+						entityCache.putIfCurrent( readIdValue( value ), value, committedGeneration );
+					}
+				}
 				
 			}catch(Throwable ex ) {
 
 				conn.rollback();
 
-				throw new Exception(ex);
+				TableChangeNotifier.afterRollback( conn );
+
+				throw new Exception(ex);
+
+			}finally {
+
+				conn.setAutoCommit(autoCommit);
+			}
+			
+		}else {
+			// Manual commit is already enabled.
+			// Call the method
+			result = saveAll0( conn, entities );
+		}
+
+		return result;
+	}
+	
+	/**
+	 * Save entities in parallel, on several Connections.
+	 * 
+	 * Entities are partitioned by hash of @Id. So all entities of an Id are in the same partition.
+	 * Entities without Id are distributed round robin. Each partition is saved by saveAll on its own Connection,
+	 * in its own transaction. Partitions are saved by at most parallelism threads.
+	 * 
+	 * A failed partition is rolled back and does not stop the other partitions.
+	 * Failed partitions can be saved again by retryPartition.
+	 * 
+	 * Entities should be independent rows. Nested entities shared by entities of different partitions may be
+	 * saved concurrently by several transactions.
+	 * 
+	 * Partitions are not batched. As saveAll, each entity of a partition is saved by save ( read, write and read again ),
+	 * so only the partitions run in parallel. To write entities without nested entities and @Version in batches,
+	 * use upsertAll or insertAll.
+	 * 
+	 * @param connectionSupplier Supplier of a new Connection ( example: dataSource::getConnection ). Connections are closed after use.
+	 * @param entities Entities to be saved
+	 * @param parallelism Number of partitions and threads
+	 * @return Result of each partition
+	 * @throws Exception If the Id of an entity could not be read, or the thread is interrupted
+	 */
+	public ParallelSaveResult<T> saveAllParallel( ThrowableSupplier<Connection> connectionSupplier,
+			Iterable<T> entities, int parallelism ) throws Exception {
+
+		if( parallelism < 1 ) {
+			throw new IllegalArgumentException( "parallelism should be positive : " + parallelism );
+		}
+
+		List<List<T>> partitionEntityList = new ArrayList<List<T>>( parallelism );
+
+		for( int i = 0; i < parallelism; i ++ ) {
+			partitionEntityList.add( new ArrayList<T>() );
+		}
+
+		int nextPartition = 0;
+
+		for( T inItem : entities ) {
+
+			Object idValue = readIdValue( inItem );
+
+			int partition = null != idValue
+					? ( idValue.hashCode() & 0x7FFFFFFF ) % parallelism
+					: nextPartition++ % parallelism;
+
+			partitionEntityList.get( partition ).add( inItem );
+		}
+
+		List<ParallelSaveResult.Partition<T>> partitions = new ArrayList<ParallelSaveResult.Partition<T>>();
+
+		for( List<T> partitionEntities : partitionEntityList ) {
+
+			if( ! partitionEntities.isEmpty() ) {
+				partitions.add( new ParallelSaveResult.Partition<T>( partitions.size(), partitionEntities ) );
+			}
+		}
+
+		if( ! partitions.isEmpty() ) {
+
+			AtomicInteger threadCount = new AtomicInteger();
+
+			ExecutorService executor = Executors.newFixedThreadPool( Math.min( parallelism, partitions.size() ), (runnable)->{
+
+				Thread thread = new Thread( runnable, "save-parallel-" + processor.getTableName() + "-" + threadCount.incrementAndGet() );
+				thread.setDaemon( true );
+				return thread;
+			});
+
+			try {
+
+				List<Future<Boolean>> futureList = new ArrayList<Future<Boolean>>();
+
+				for( ParallelSaveResult.Partition<T> partition : partitions ) {
+
+					futureList.add( executor.submit( ()-> retryPartition( connectionSupplier, partition ) ) );
+				}
+
+				for( Future<Boolean> future : futureList ) {
+					future.get();
+				}
+
+			}finally {
+
+				executor.shutdownNow();
+			}
+		}
+
+		return new ParallelSaveResult<T>( partitions );
+	}
+
+	/**
+	 * Save the entities of a partition in a transaction, on a new Connection.
+	 * Used by saveAllParallel and to retry a failed partition.
+	 * Entities are saved one by one by saveAll. Statements are not batched.
+	 * 
+	 * @param connectionSupplier Supplier of a new Connection. Connection is closed after use.
+	 * @param partition Partition from ParallelSaveResult
+	 * @return true if the partition is saved. Otherwise the failure is set to the partition.
+	 */
+	public boolean retryPartition( ThrowableSupplier<Connection> connectionSupplier, ParallelSaveResult.Partition<T> partition ) {
+
+		try( Connection conn = connectionSupplier.getThrows() ) {
+
+			// saveAll commits, only if auto commit is enabled
+			conn.setAutoCommit( true );
+
+			partition.setSaved( saveAll( conn, partition.getEntities() ) );
+
+		}catch( Throwable ex ) {
+
+			logger.warn( "Save failed for partition " + partition.getIndex() + " of " + processor.getTableName(), ex );
+
+			partition.setFailed( ex );
+		}
+
+		return partition.isSuccess();
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<T> saveAll0( Connection conn, Iterable<T> entities) throws Exception {
+
+		// To use batch insert/update the we need to check 
+		// whether the input contains non null value for @Id field
+		// Based on that we need to call either insert or update.
+		// But keeping same insertion order in return list will be difficult.
+		// So we are simply calling save here.
+		// Which will take care of calling either insert or update based on @Id field value.
+		// But we will not get the benefit of BATCH operation.
+
+		List<T> result = new ArrayList<T>();
+
+		for (Object inItem : entities) {
+
+			// existingEntity should be read from database. Not from PersistenceContext
+			evictFromPersistenceContext( conn );
+
+			T existingEntity = null;
+
+			ID idValue = (ID) getIDValue(inItem);
+
+			if( null != idValue ) {
+				existingEntity = loadById(conn, idValue);
+			}
+
+			// Update including Nested entities
+			TableMetaInfo tableMetaInfo = EntityProcessor.getTableMetaInfo( inItem );
+
+			// Check whether PERSIST or MERGE
+			CascadeType cascadeType =  isIdPresentInDatabase( conn, tableMetaInfo, idValue ) 
+					? CascadeType.MERGE 
+							: CascadeType.PERSIST;
+			Map<String,Object> savedDataMap = updateEntityRecursive( conn, tableMetaInfo, existingEntity, inItem, cascadeType);
+
+			idValue = (ID) savedDataMap.get( tableMetaInfo.getIdColumnName() );
+
+			evictFromPersistenceContext( conn );
+
+			result.add( loadById(conn, idValue) );
+		}
+
+		return result;
+	}
+
+	/**
+	 * Insert the entity, or update it if a row with the same Id exists. In a single statement of the Dialect.
+	 * 
+	 * Unlike save, the existing row is not read. Only the entity table is written.
+	 * @Version is not checked. So entities with @Version field are not supported. Use save for them.
+	 * Join columns of ManyToOne / OneToOne are written, but nested entities and OneToMany / ManyToMany associations are not saved.
+	 * 
+	 * @param conn SQL Connection
+	 * @param inItem Entity Object to be saved. @Id should not be null, unless the entity has an IdGenerator.
+	 * @return number of entities upserted
+	 * @throws Exception If the Id is null, the entity has @Version field or the upsert operation fails
+	 */
+	public int upsert( Connection conn, T inItem ) throws Exception {
+
+		return upsertAll( conn, Collections.singletonList( inItem ) );
+	}
+
+	/**
+	 * Insert the entities, or update the entities having a row with the same Id. All rows are written in a single JDBC batch.
+	 * 
+	 * Unlike saveAll, the existing rows are not read. Only the entity table is written.
+	 * @Version is not checked. So entities with @Version field are not supported. Use saveAll for them.
+	 * Join columns of ManyToOne / OneToOne are written, but nested entities and OneToMany / ManyToMany associations are not saved.
+	 * 
+	 * @param conn SQL Connection
+	 * @param entities Entities to be saved. @Id should not be null, unless the entity has an IdGenerator.
+	 * @return number of entities upserted
+	 * @throws Exception If an Id is null, the entity has @Version field or the upsert operation fails
+	 */
+	public int upsertAll( Connection conn, Collection<T> entities ) throws Exception {
+
+		TableMetaInfo tableMetaInfo = processor.getTableMetaInfo();
+
+		checkNotVersioned( tableMetaInfo, "upsert" );
+
+		String tableName = tableMetaInfo.getTableName();
+
+		String idColumnName = tableMetaInfo.getIdColumnName();
+
+		List<Map<String,Object>> dataMapList = new ArrayList<Map<String,Object>>( entities.size() );
+
+		for( T inItem : entities ) {
+
+			assignGeneratedId( conn, tableMetaInfo, inItem, null );
+
+			Map<String,Object> dataMap = generateDataMapForTable( tableMetaInfo, inItem );
+
+			if( null == dataMap.get( idColumnName ) ) {
+				throw new IllegalArgumentException( "Id should not be null for upsert of " + tableName );
+			}
+
+			dataMapList.add( dataMap );
+		}
+
+		if( ! dataMapList.isEmpty() ) {
+
+			// Same columns for all entities of the table
+			List<String> columnList = new ArrayList<String>( dataMapList.get(0).keySet() );
+
+			String upsertSql = getDialect( conn ).getUpsertSql( tableName, idColumnName, columnList );
+
+			logger.debug( "upsertSql : " + upsertSql + " batch : " + dataMapList.size() );
+
+			Object[][] params = new Object[ dataMapList.size() ][];
+
+			for( int i = 0; i < params.length; i ++ ) {
+
+				params[i] = dataMapList.get(i).values().toArray();
+			}
+
+			executeInTransaction( conn, (connection)->{
+
+				dbQuery.executeBatch( connection, upsertSql, params );
+
+				// Insert or update is not known
+				for( Map<String,Object> dataMap : dataMapList ) {
+
+					TableChangeNotifier.fireTableChanged( connection, new TableChangeEvent( tableName,
+							dataMap.get( idColumnName ), dataMap, ChangeType.UPDATE ) );
+				}
+
+				return null;
+			});
+
+			evictFromPersistenceContext( conn );
+		}
+
+		return dataMapList.size();
+	}
+
+	/**
+	 * Merge the entities to the entity table with set based statements. Same as mergeAll( conn, entities, false ).
+	 * 
+	 * @param conn SQL Connection
+	 * @param entities Entities to be saved. @Id should not be null, unless the entity has an IdGenerator.
+	 * @return number of entities merged
+	 * @throws Exception If an Id is null, the entity has @Version field or the merge operation fails
+	 */
+	public int mergeAll( Connection conn, Iterable<T> entities ) throws Exception {
+
+		return mergeAll( conn, entities, false );
+	}
+
+	/**
+	 * Merge the entities to the entity table with set based statements. Used to synchronize large data sets.
+	 * 
+	 * The rows are inserted to a temporary staging table in JDBC batches of BATCH_CHUNK_SIZE rows.
+	 * Then a single statement of the Dialect inserts the new rows and updates the existing rows from the staging table.
+	 * So the existing rows are compared by the database, not loaded and compared one by one as in saveAll.
+	 * If the Connection has an open transaction, the rows are written in it. Staging table does not commit the transaction.
+	 * 
+	 * Only the entity table is written, as in upsertAll. Nested entities and OneToMany / ManyToMany associations are not saved.
+	 * @Version is not checked, as in upsertAll. So entities with @Version field are not supported.
+	 * Rows deleted by deleteMissing are deleted including nested entities ( if cascade is set ), as in delete.
+	 * 
+	 * @param conn SQL Connection
+	 * @param entities Entities to be saved. @Id should not be null, unless the entity has an IdGenerator.
+	 * @param deleteMissing true to delete the rows of entity table, Ids of which are not in entities
+	 * @return number of entities merged
+	 * @throws Exception If an Id is null, the entity has @Version field or the merge operation fails
+	 */
+	public int mergeAll( Connection conn, Iterable<T> entities, boolean deleteMissing ) throws Exception {
+
+		TableMetaInfo tableMetaInfo = processor.getTableMetaInfo();
+
+		checkNotVersioned( tableMetaInfo, "merge" );
+
+		String tableName = tableMetaInfo.getTableName();
+
+		String idColumnName = tableMetaInfo.getIdColumnName();
+
+		Dialect currentDialect = getDialect( conn );
+
+		String stagingTableName = currentDialect.getStagingTableName( tableName );
+
+		// Id, primitive and SingleTarget join columns. Same as generateDataMapForTable
+		List<String> columnList = new ArrayList<String>( tableMetaInfo.getDatabaseColumnList() );
+
+		String insertSql = "INSERT INTO " + stagingTableName + " (" + String.join( ", ", columnList ) + ") VALUES ("
+				+ String.join( ", ", Collections.nCopies( columnList.size(), "?" ) ) + ")";
 
-			}finally {
+		int count = executeInTransaction( conn, (connection)->{
 
-				conn.setAutoCommit(autoCommit);
-			}
-			
-		}else {
-			
-			// Manual commit is already enabled.
-			// Call the method
-			count = delete0( conn, whereClause, varMap );
-		}
+			String createSql = currentDialect.getCreateStagingTableSql( stagingTableName, tableName, idColumnName, columnList );
 
-		return count;
-	}
-	
-	private int delete0( Connection conn, String whereClause, Map<String,Object> varMap) throws Exception {
+			logger.debug( "createSql : " + createSql );
 
-		// Find all objects for the where clause
-		List<T> entities = findMultiple(conn, whereClause, varMap);
+			dbQuery.executeUpdate( connection, createSql );
 
-		for( T entity : entities ) {
-			deleteEntitiesRecursive( conn, entity );
-		}
+			try {
 
-		int count = entities.size();
+				int rows = 0;
 
-		return count;
-	}
+				List<Object[]> paramList = new ArrayList<Object[]>();
 
+				Iterator<T> iterator = entities.iterator();
 
-	private void deleteEntitiesRecursive( Connection conn, Object toDelete ) throws Exception {
+				while( iterator.hasNext() ) {
 
-		TableMetaInfo tableMetaInfo = EntityProcessor.getTableMetaInfo( toDelete );
+					T inItem = iterator.next();
 
-		if( null != tableMetaInfo  ) {
+					assignGeneratedId( connection, tableMetaInfo, inItem, null );
 
-			for( AssociationMetaInfo associationInfo : tableMetaInfo.getAssociations() ) {
+					Map<String,Object> dataMap = generateDataMapForTable( tableMetaInfo, inItem );
 
-				if( associationInfo instanceof ManyToManyMetaInfo ) {
+					if( null == dataMap.get( idColumnName ) ) {
+						throw new IllegalArgumentException( "Id should not be null for merge of " + tableName );
+					}
 
-					/** For ManyToMany, delete entries from bridgeTable **/
-					deleteManyToManyBridgeData(conn, toDelete, tableMetaInfo, (ManyToManyMetaInfo)associationInfo );
-				}
+					Object[] params = new Object[ columnList.size() ];
 
-				// Check whether cascade is set
-				if( associationInfo.getCascades().contains( CascadeType.ALL) 
-						|| associationInfo.getCascades().contains( CascadeType.REMOVE) ) {
+					for( int i = 0; i < params.length; i ++ ) {
+						params[i] = dataMap.get( columnList.get(i) );
+					}
 
-					// Get child object from Association Field.
-					Object childObject = associationInfo.getParentField().get( toDelete );
+					paramList.add( params );
 
-					if( null != childObject ) {
+					if( paramList.size() == BATCH_CHUNK_SIZE || ! iterator.hasNext() ) {
 
-						if (Collection.class.isAssignableFrom( childObject.getClass() )) {
-							// It it collection
-							@SuppressWarnings("unchecked")
-							Collection<Object> collection = (Collection<Object>)childObject;
+						logger.debug( "insertSql : " + insertSql + " batch : " + paramList.size() );
 
-							for( Object collectionEntry : collection ) {
+						dbQuery.executeBatch( connection, insertSql, paramList.toArray( new Object[0][] ) );
 
-								deleteEntitiesRecursive( conn, collectionEntry );
-							}
+						rows += paramList.size();
 
-						}else {
-							deleteEntitiesRecursive( conn, childObject );
-						}
+						paramList.clear();
 					}
 				}
-			}
-
-			// Child entries deleted. Delete this entry
-			deleteEntityFromTable( conn, tableMetaInfo, toDelete );
-		}
-	}
 
-	private void deleteManyToManyBridgeData( Connection conn, Object entity, 
-			TableMetaInfo tableMetaInfo, ManyToManyMetaInfo manyToManyAssociation) throws Exception {
+				String mergeSql = currentDialect.getMergeFromStagingSql( tableName, idColumnName, columnList, stagingTableName );
 
-		String bridgeTable = manyToManyAssociation.getBridgeTableName();
+				logger.debug( "mergeSql : " + mergeSql );
 
-		Map<String,Object> varMap = new HashMap<String,Object>();
+				dbQuery.executeUpdate( connection, mergeSql );
 
-		for( ColumnJoinInfo joinInfo : manyToManyAssociation.getParentToBridgeJoinList() ) {
+				// Modified rows are not known. Notified for the table
+				TableChangeNotifier.fireTableChanged( connection, new TableChangeEvent( tableName, null, null, ChangeType.UPDATE ) );
 
-			Object value = getEntityFieldValueInSqlType(tableMetaInfo, joinInfo.getParentColumn(), entity );
+				if( deleteMissing ) {
 
-			varMap.put( joinInfo.getChildColumn() , value);
-		}
+					deleteWithWhere( connection, "NOT EXISTS ( SELECT 1 FROM " + stagingTableName + " WHERE "
+							+ stagingTableName + "." + idColumnName + " = " + tableName + "." + idColumnName + " )" );
+				}
 
-		List<String> columnList = new ArrayList<String>();
+				return rows;
 
-		varMap.keySet().forEach( (columnName) -> { columnList.add( columnName + "=:" + columnName );} );
+			}finally {
 
-		String deleteSql = " DELETE FROM " + bridgeTable + " WHERE "+ String.join( ",", columnList);
+				dropStagingTable( connection, currentDialect.getDropStagingTableSql( stagingTableName ) );
+			}
+		});
 
-		logger.debug( "deleteSql : " + deleteSql );
+		evictFromPersistenceContext( conn );
 
-		// Execute query to delete entry from database
-		dbQuery.update( conn, deleteSql, varMap);
+		return count;
 	}
 
+	/** Drop the staging table. Failure is logged, because the transaction may be already failed **/
+	private void dropStagingTable( Connection conn, String dropSql ) {
 
-	private void deleteEntityFromTable( Connection conn, TableMetaInfo tableMetaInfo, Object toDelete  ) throws Exception {
-
-		//DELETE FROM table_name WHERE table_name.ID = ?
-
-		String tableName = tableMetaInfo.getTableName();
+		try {
 
-		String idColumnName = tableMetaInfo.getIdColumnName();
+			logger.debug( "dropSql : " + dropSql );
 
-		Object idValue = getIDValue(toDelete);
+			dbQuery.executeUpdate( conn, dropSql );
 
-		String deleteSql = " DELETE FROM " + tableName + " WHERE " + tableName + "." + idColumnName + " = ? ";
+		}catch( SQLException ex ) {
 
-		logger.debug( "deleteSql : " + deleteSql );
+			logger.warn( "Could not drop staging table : " + dropSql, ex );
+		}
+	}
 
-		// Execute query to delete entry from database
-		dbQuery.update( conn, deleteSql, idValue);
+	/**
+	 * Insert the entities to the entity table. Same as insertAll( conn, entities, new InsertOptions() ).
+	 * 
+	 * @param conn SQL Connection
+	 * @param entities Entities to be inserted
+	 * @return number of entities inserted
+	 * @throws Exception If the insert operation fails
+	 */
+	public long insertAll( Connection conn, Iterable<T> entities ) throws Exception {
 
+		return insertAll( conn, entities, new InsertOptions() );
 	}
-	
+
 	/**
-	 * Save an Entity
+	 * Insert the entities to the entity table, for append only tables.
+	 * 
+	 * Unlike saveAll, existing rows are not checked and inserted rows are not read back.
+	 * Rows are inserted with multi row INSERT statements ( See Dialect.getMultiRowInsertSql ), or with JDBC batches.
+	 * Rows in a statement are limited by InsertOptions.getRowsPerStatement and Dialect.getMaximumParameters.
+	 * The entities are read from the Iterable while inserting. Only the entities of a statement are kept in memory.
+	 * 
+	 * Ids should be null for all entities ( generated by IdGenerator or database ), or set for all entities.
+	 * Ids generated by database are set to the entities only if InsertOptions.isReturnGeneratedIds.
+	 * 
+	 * Only the entity table is written, as in upsertAll. Nested entities and OneToMany / ManyToMany associations are not saved.
 	 * 
 	 * @param conn SQL Connection
-	 * @param inItem Entity Object to be saved.
-	 * @return Instance of Saved entity instance 
-	 * @throws Exception If the entity save operation fails
+	 * @param entities Entities to be inserted
+	 * @param options Insert settings
+	 * @return number of entities inserted
+	 * @throws Exception If the Ids are mixed or the insert operation fails
 	 */
-	public T save(Connection conn, T inItem) throws Exception {
+	public long insertAll( Connection conn, Iterable<T> entities, InsertOptions options ) throws Exception {
 
-		T value = null;
-		
-		boolean autoCommit = conn.getAutoCommit();
+		TableMetaInfo tableMetaInfo = processor.getTableMetaInfo();
 
-		if( autoCommit ) {
-			
-			try {
-				
-				// Disable Auto commits
-				conn.setAutoCommit(false);
-				
-				//Call the method
-				value = save0( conn, inItem );
-				
-				conn.commit();
-				
-			}catch(Throwable ex ) {
+		String tableName = tableMetaInfo.getTableName();
 
-				conn.rollback();
+		String idColumnName = tableMetaInfo.getIdColumnName();
 
-				throw new Exception(ex);
+		// Multi row statements depend on Dialect
+		Dialect currentDialect = options.isUseBatch() ? null : getDialect( conn );
 
-			}finally {
+		long count = executeInTransaction( conn, (connection)->{
 
-				conn.setAutoCommit(autoCommit);
-			}
-			
-		}else {
-			// Manual commit is already enabled.
-			// Call the method
-			value = save0( conn, inItem );
-		}
+			long rows = 0;
 
-		return value;
-	}
-		
-	@SuppressWarnings("unchecked")
-	private T save0(Connection conn, T inItem) throws Exception {
+			List<String> columnList = null;
 
-		T existingEntity = null;
+			boolean databaseId = false;
 
-		ID idValue = (ID) getIDValue(inItem);
+			int rowsPerStatement = options.getRowsPerStatement();
 
-		if( null != idValue ) {
-			existingEntity = findById(conn, idValue);
-		}
+			// Entities of the statement. Only if the generated Ids are set to them
+			List<T> statementEntityList = new ArrayList<T>();
 
-		// Update including Nested entities
-		TableMetaInfo tableMetaInfo = EntityProcessor.getTableMetaInfo( inItem );
+			List<Object> paramList = new ArrayList<Object>();
 
-		// Check whether PERSIST or MERGE
-		CascadeType cascadeType =  isIdPresentInDatabase( conn, tableMetaInfo, idValue ) 
-				? CascadeType.MERGE 
-						: CascadeType.PERSIST;
+			int rowCount = 0;
 
-		Map<String,Object> savedDataMap = updateEntityRecursive( conn, tableMetaInfo, existingEntity, inItem, cascadeType);
+			Iterator<T> iterator = entities.iterator();
 
-		idValue = (ID) savedDataMap.get( tableMetaInfo.getIdColumnName() );
+			while( iterator.hasNext() ) {
 
-		T value = findById(conn, idValue);
+				T inItem = iterator.next();
 
-		return value;
+				assignGeneratedId( connection, tableMetaInfo, inItem, null );
+
+				Map<String,Object> dataMap = generateDataMapForTable( tableMetaInfo, inItem );
+
+				setInitialVersion( tableMetaInfo, dataMap );
+
+				if( null == columnList ) {
+
+					columnList = new ArrayList<String>( dataMap.keySet() );
+
+					databaseId = null == dataMap.get( idColumnName );
+
+					if( databaseId ) {
+						columnList.remove( idColumnName );
+					}
+
+					if( null != currentDialect ) {
+						rowsPerStatement = Math.max( 1, Math.min( rowsPerStatement, currentDialect.getMaximumParameters() / columnList.size() ) );
+					}
+
+				}else if( databaseId != ( null == dataMap.get( idColumnName ) ) ) {
+
+					throw new IllegalArgumentException( "Id should be null for all entities or set for all entities, for insert of " + tableName );
+				}
+
+				for( String columnName : columnList ) {
+					paramList.add( dataMap.get( columnName ) );
+				}
+
+				if( databaseId && options.isReturnGeneratedIds() ) {
+					statementEntityList.add( inItem );
+				}
+
+				rowCount ++;
+
+				if( rowCount == rowsPerStatement || ! iterator.hasNext() ) {
+
+					List<Object> generatedIdList = insertRows( connection, currentDialect, columnList, rowCount, paramList,
+							databaseId && options.isReturnGeneratedIds() );
+
+					if( null != generatedIdList ) {
+
+						if( generatedIdList.size() != statementEntityList.size() ) {
+							throw new SQLException( "Generated Ids are not returned for all rows of " + tableName
+									+ ". Use InsertOptions.setUseBatch, if the driver returns only the last Id of a statement" );
+						}
+
+						for( int i = 0; i < generatedIdList.size(); i ++ ) {
+							setEntityFieldValue( tableMetaInfo, idColumnName, statementEntityList.get(i), generatedIdList.get(i) );
+						}
+					}
+
+					rows += rowCount;
+
+					rowCount = 0;
+
+					paramList.clear();
+
+					statementEntityList.clear();
+				}
+			}
+
+			if( rows > 0 ) {
+
+				// Inserted rows are not kept. Notified for the table
+				TableChangeNotifier.fireTableChanged( connection, new TableChangeEvent( tableName, null, null, ChangeType.INSERT ) );
+			}
+
+			return rows;
+		});
+
+		evictFromPersistenceContext( conn );
+
+		return count;
 	}
 
 	/**
-	 * Saves list of entities.
+	 * Insert rows with a multi row statement, or with a JDBC batch if dialect is null
 	 * 
-	 * @param conn SQL Connection
-	 * @param entities List of entities to be saved to database.
-	 * @return List of saved entities.
-	 * @throws Exception If the entity save operation fails
+	 * @return Generated Ids if returnGeneratedIds, null otherwise
 	 */
-	public List<T> saveAll( Connection conn, Iterable<T> entities) throws Exception {
-		
-		List<T> result = null;
-		
-		boolean autoCommit = conn.getAutoCommit();
+	private List<Object> insertRows( Connection conn, Dialect currentDialect, List<String> columnList, int rowCount,
+			List<Object> paramList, boolean returnGeneratedIds ) throws SQLException {
 
-		if( autoCommit ) {
-			
-			try {
-				
-				// Disable Auto commits
-				conn.setAutoCommit(false);
-				
-				//Call the method
-				result = saveAll0( conn, entities );
-				
-				conn.commit();
-				
-			}catch(Throwable ex ) {
+		TableMetaInfo tableMetaInfo = processor.getTableMetaInfo();
 
-				conn.rollback();
+		List<Object> generatedIdList = null;
 
-				throw new Exception(ex);
+		if( null == currentDialect ) {
 
-			}finally {
+			String insertSql = "INSERT INTO " + tableMetaInfo.getTableName() + " (" + String.join( ", ", columnList ) + ") VALUES ("
+					+ String.join( ", ", Collections.nCopies( columnList.size(), "?" ) ) + ")";
 
-				conn.setAutoCommit(autoCommit);
+			logger.debug( "insertSql : " + insertSql + " batch : " + rowCount );
+
+			Object[][] params = new Object[ rowCount ][];
+
+			for( int i = 0; i < rowCount; i ++ ) {
+				params[i] = paramList.subList( i * columnList.size(), ( i + 1 ) * columnList.size() ).toArray();
 			}
-			
-		}else {
-			// Manual commit is already enabled.
-			// Call the method
-			result = saveAll0( conn, entities );
-		}
 
-		return result;
-	}
-	
-	@SuppressWarnings("unchecked")
-	private List<T> saveAll0( Connection conn, Iterable<T> entities) throws Exception {
+			if( returnGeneratedIds ) {
 
-		// To use batch insert/update the we need to check 
-		// whether the input contains non null value for @Id field
-		// Based on that we need to call either insert or update.
-		// But keeping same insertion order in return list will be difficult.
-		// So we are simply calling save here.
-		// Which will take care of calling either insert or update based on @Id field value.
-		// But we will not get the benefit of BATCH operation.
+				generatedIdList = dbQuery.executeInsertBatch( conn, insertSql, DbQuery.<Object>toIDList(), params );
 
-		List<T> result = new ArrayList<T>();
+			}else {
 
-		for (Object inItem : entities) {
+				dbQuery.executeBatch( conn, insertSql, params );
+			}
 
-			T existingEntity = null;
+		}else {
 
-			ID idValue = (ID) getIDValue(inItem);
+			String insertSql = currentDialect.getMultiRowInsertSql( tableMetaInfo.getTableName(), columnList, rowCount );
 
-			if( null != idValue ) {
-				existingEntity = findById(conn, idValue);
-			}
+			logger.debug( "insertSql : " + tableMetaInfo.getTableName() + " rows : " + rowCount );
 
-			// Update including Nested entities
-			TableMetaInfo tableMetaInfo = EntityProcessor.getTableMetaInfo( inItem );
+			if( returnGeneratedIds ) {
 
-			// Check whether PERSIST or MERGE
-			CascadeType cascadeType =  isIdPresentInDatabase( conn, tableMetaInfo, idValue ) 
-					? CascadeType.MERGE 
-							: CascadeType.PERSIST;
-			Map<String,Object> savedDataMap = updateEntityRecursive( conn, tableMetaInfo, existingEntity, inItem, cascadeType);
+				generatedIdList = dbQuery.executeInsert( conn, insertSql, new String[] { tableMetaInfo.getIdColumnName() },
+						DbQuery.<Object>toIDList(), paramList.toArray() );
 
-			idValue = (ID) savedDataMap.get( tableMetaInfo.getIdColumnName() );
+			}else {
 
-			result.add( findById(conn, idValue) );
+				dbQuery.executeUpdate( conn, insertSql, paramList.toArray() );
+			}
 		}
 
-		return result;
+		return generatedIdList;
 	}
 
 	/** Update nested entities **/
@@ -1257,6 +3749,9 @@ public class Repository<T,ID> {
 		// Generate column and data to be updated to database
 		Map<String,Object> inItemDataMap = generateDataMapForTable(tableMetaInfo, inItem);
 
+		// Id from IdGenerator is known before insert. Set it to inItem also
+		assignGeneratedId( conn, tableMetaInfo, inItem, inItemDataMap );
+
 		/** For SingleTarget Association, ID of Child entity should be set in this entity.
 		 * So save those entities before saving this entities
 		 */
@@ -1278,7 +3773,16 @@ public class Repository<T,ID> {
 						singleTargetAssociation.getParentField().get(inItem)
 						: null;
 
-				if( null != existingChildObj && null != inItemChildObj ) {
+				if( EntityReference.isReference( inItemChildObj ) ) {
+
+					// Only Id of the reference is used. Existing child is deleted, if it is a different entity
+					if( null != existingChildObj && ! getIDValue(existingChildObj).equals( getIDValue(inItemChildObj) ) ) {
+						deleteEntitiesRecursive(conn, existingChildObj);
+					}
+
+					childSaveDataMap = getReferenceDataMap( childTableMetaInfo, singleTargetAssociation.getColumnJoin(), inItemChildObj );
+
+				}else if( null != existingChildObj && null != inItemChildObj ) {
 					// Entities are present in both Database and InItem
 
 					// existing will always contain valid Id, because it is coming from database
@@ -1324,7 +3828,7 @@ public class Repository<T,ID> {
 		}
 
 		// Save inItem to inItem Table and get values for inItem Table.
-		inItemSavedDataMap = saveAndReturnTableDataMap( conn, tableMetaInfo, inItemDataMap );
+		inItemSavedDataMap = saveAndReturnTableDataMap( conn, tableMetaInfo, existing, inItemDataMap );
 
 		// set the join column values to association entity and save them
 		for( AssociationMetaInfo associationInfo : tableMetaInfo.getAssociations() ) {
@@ -1342,27 +3846,19 @@ public class Repository<T,ID> {
 
 				getAssociationCollectionObjects( associationInfo, existing, inItem, existingChildObjList, inItemChildObjList);
 
-				OneToManyMetaInfo oneToManyAssociation = (OneToManyMetaInfo)associationInfo;
-
-				TableMetaInfo childTableMetaInfo = EntityProcessor.getTableMetaInfo( associationInfo.getChildTableName() );
-
-				for( Object existingChild : existingChildObjList ) {
-
-					// existing is from Database, So ID will be never NULL.
-					Object existingIdValue = getIDValue(existingChild);
+				OneToManyMetaInfo oneToManyAssociation = (OneToManyMetaInfo)associationInfo;
 
-					Object inItemChildWithSameId = null;
+				TableMetaInfo childTableMetaInfo = EntityProcessor.getTableMetaInfo( associationInfo.getChildTableName() );
 
-					for( Object inItemChild : inItemChildObjList ) {
+				// Match children by Id. Matched items are removed from inItemChildObjList.
+				// Finally, we will save the remaining items from inItemChildObjList as new entries.
+				List<Object> inItemChildWithSameIdList = matchChildEntitiesById( childTableMetaInfo, existingChildObjList, inItemChildObjList );
 
-						Object inItemIdValue = getIDValue(inItemChild);
+				int childIndex = 0;
 
-						if( existingIdValue.equals(inItemIdValue) ) {
+				for( Object existingChild : existingChildObjList ) {
 
-							inItemChildWithSameId = inItemChild;
-							break;
-						}
-					}
+					Object inItemChildWithSameId = inItemChildWithSameIdList.get( childIndex++ );
 
 					if( null == inItemChildWithSameId ) {
 
@@ -1381,12 +3877,10 @@ public class Repository<T,ID> {
 							setEntityFieldValue( childTableMetaInfo, columnJoin.getChildColumn(), inItemChildWithSameId, parentValue );
 						}
 
-						// UPDATE items
-						updateEntityRecursive( conn, childTableMetaInfo, existingChild, inItemChildWithSameId, cascadeType );
-
-						// Remove the item from inItemChildObjList.
-						// Finally, we will save the remaining items from inItemChildObjList as new entries.
-						inItemChildObjList.remove(inItemChildWithSameId);
+						// UPDATE items. Reference is already joined to this parent
+						if( ! EntityReference.isReference( inItemChildWithSameId ) ) {
+							updateEntityRecursive( conn, childTableMetaInfo, existingChild, inItemChildWithSameId, cascadeType );
+						}
 					}
 				}
 
@@ -1401,8 +3895,16 @@ public class Repository<T,ID> {
 						setEntityFieldValue( childTableMetaInfo, columnJoin.getChildColumn(), inItemChild, parentValue );
 					}
 
-					// INSERT items
-					updateEntityRecursive( conn, childTableMetaInfo, null, inItemChild, cascadeType );
+					if( EntityReference.isReference( inItemChild ) ) {
+
+						// Join existing row to this parent
+						updateReferenceJoinColumns( conn, childTableMetaInfo, oneToManyAssociation.getColumnJoinList(), inItemChild );
+
+					}else {
+
+						// INSERT items
+						updateEntityRecursive( conn, childTableMetaInfo, null, inItemChild, cascadeType );
+					}
 				}
 
 			}else if( associationInfo instanceof ManyToManyMetaInfo ) {
@@ -1419,75 +3921,101 @@ public class Repository<T,ID> {
 
 				TableMetaInfo childTableMetaInfo = EntityProcessor.getTableMetaInfo( associationInfo.getChildTableName() );
 
-				for( Object existingChild : existingChildObjList ) {
+				// Match children by Id. Matched items are removed from inItemChildObjList.
+				// Finally, we will save the remaining items from inItemChildObjList as new entries.
+				List<Object> inItemChildWithSameIdList = matchChildEntitiesById( childTableMetaInfo, existingChildObjList, inItemChildObjList );
 
-					// existing is from Database, So ID will be never NULL.
-					Object existingIdValue = getIDValue(existingChild);
+				boolean cascadeSave = associationInfo.getCascades().contains( CascadeType.ALL) 
+						|| associationInfo.getCascades().contains( cascadeType);
 
-					Object inItemChildWithSameId = null;
+				boolean cascadeRemove = associationInfo.getCascades().contains( CascadeType.ALL) 
+						|| associationInfo.getCascades().contains( CascadeType.REMOVE);
 
-					for( Object inItemChild : inItemChildObjList ) {
+				// Bridge rows to be deleted and inserted. Unchanged bridge rows are not modified.
+				List<Map<String,Object>> deleteBridgeDataList = new ArrayList<Map<String,Object>>();
 
-						Object inItemIdValue = getIDValue(inItemChild);
+				List<Map<String,Object>> insertBridgeDataList = new ArrayList<Map<String,Object>>();
 
-						if( existingIdValue.equals(inItemIdValue) ) {
+				List<Object> removedChildList = new ArrayList<Object>();
 
-							inItemChildWithSameId = inItemChild;
-							break;
-						}
-					}
+				List<Object> updatedExistingChildList = new ArrayList<Object>();
+
+				List<Object> updatedInItemChildList = new ArrayList<Object>();
+
+				// Bridge row is changed for the updated child. ( Join column of child or parent is modified )
+				List<Boolean> bridgeChangedList = new ArrayList<Boolean>();
+
+				int childIndex = 0;
+
+				for( Object existingChild : existingChildObjList ) {
+
+					Object inItemChildWithSameId = inItemChildWithSameIdList.get( childIndex++ );
+
+					Map<String,Object> existingBridgeDataMap = generateBridgeDataMap( manyToManyAssociation,
+							inItemDataMap, generateDataMapForTable(childTableMetaInfo, existingChild) );
 
 					if( null == inItemChildWithSameId ) {
 
 						// InItem Child with same id not present.
 						// So DELETE the entry from database if cascade is set
+						deleteBridgeDataList.add( existingBridgeDataMap );
+
+						if( cascadeRemove ) {
+							removedChildList.add( existingChild );
+						}
 
-						// Delete from bridgeTable first. Otherwise, there may be foreign key constraint error.
-						Map<String,Object> existingChildDataMap = generateDataMapForTable(childTableMetaInfo, existingChild);
+					}else if( cascadeSave ) {
 
-						deleteFromBridgeTable(conn, childTableMetaInfo, manyToManyAssociation, inItemDataMap, existingChildDataMap);
+						Map<String,Object> inItemBridgeDataMap = generateBridgeDataMap( manyToManyAssociation,
+								inItemSavedDataMap, generateDataMapForTable(childTableMetaInfo, inItemChildWithSameId) );
 
-						// if cascade is set, delete entity
-						if( associationInfo.getCascades().contains( CascadeType.ALL) 
-								|| associationInfo.getCascades().contains( CascadeType.REMOVE) ) {
+						boolean bridgeChanged = ! isSameBridgeData( existingBridgeDataMap, inItemBridgeDataMap );
 
-							deleteEntitiesRecursive(conn, existingChild);
+						if( bridgeChanged ) {
+							deleteBridgeDataList.add( existingBridgeDataMap );
 						}
 
-					}else {
+						updatedExistingChildList.add( existingChild );
+						updatedInItemChildList.add( inItemChildWithSameId );
+
+						bridgeChangedList.add( bridgeChanged );
+					}
+				}
 
-						// if cascade is set, UPDATE
-						if( associationInfo.getCascades().contains( CascadeType.ALL) 
-								|| associationInfo.getCascades().contains( cascadeType) ) {
+				// Delete from bridgeTable first. Otherwise, there may be foreign key constraint error.
+				deleteFromBridgeTable( conn, manyToManyAssociation, deleteBridgeDataList );
 
-							// Delete from bridgeTable first. Otherwise, there may be foreign key constraint error.
-							Map<String,Object> existingChildDataMap = generateDataMapForTable(childTableMetaInfo, existingChild);
+				// if cascade is set, delete entity
+				for( Object removedChild : removedChildList ) {
 
-							deleteFromBridgeTable(conn, childTableMetaInfo, manyToManyAssociation, inItemDataMap, existingChildDataMap);
+					deleteEntitiesRecursive(conn, removedChild);
+				}
 
-							Map<String,Object> childEntitySavedDataMap 
-							= updateEntityRecursive( conn, childTableMetaInfo, existingChild, inItemChildWithSameId, cascadeType );
+				// if cascade is set, UPDATE
+				for( int i = 0; i < bridgeChangedList.size(); i ++ ) {
 
-							// Insert to bridge table
-							insertToBridgeTable(conn, childTableMetaInfo, manyToManyAssociation, inItemSavedDataMap, childEntitySavedDataMap);
-						}
+					Object updatedInItemChild = updatedInItemChildList.get( i );
+
+					Map<String,Object> childEntitySavedDataMap = EntityReference.isReference( updatedInItemChild )
+							? generateDataMapForTable( childTableMetaInfo, updatedExistingChildList.get( i ) )
+							: updateEntityRecursive( conn, childTableMetaInfo, updatedExistingChildList.get( i ), updatedInItemChild, cascadeType );
+
+					if( bridgeChangedList.get( i ) ) {
 
-						// Remove the item from inItemChildObjList.
-						// Finally, we will save the remaining items from inItemChildObjList as new entries.
-						inItemChildObjList.remove(inItemChildWithSameId);
+						insertBridgeDataList.add( generateBridgeDataMap( manyToManyAssociation, inItemSavedDataMap, childEntitySavedDataMap ) );
 					}
 				}
 
 				// If cascade is set, Save the entry and Insert in to bridge table.
-				if( associationInfo.getCascades().contains( CascadeType.ALL) 
-						|| associationInfo.getCascades().contains( cascadeType) ) {
+				if( cascadeSave ) {
 
 					for( Object inItemChild : inItemChildObjList ) {
 
-						Map<String,Object> childEntitySavedDataMap = updateEntityRecursive( conn, childTableMetaInfo, null, inItemChild, cascadeType );
+						Map<String,Object> childEntitySavedDataMap = EntityReference.isReference( inItemChild )
+								? generateDataMapForTable( childTableMetaInfo, inItemChild )
+								: updateEntityRecursive( conn, childTableMetaInfo, null, inItemChild, cascadeType );
 
-						// insert to bridge table
-						insertToBridgeTable(conn, childTableMetaInfo, manyToManyAssociation, inItemSavedDataMap, childEntitySavedDataMap);
+						insertBridgeDataList.add( generateBridgeDataMap( manyToManyAssociation, inItemSavedDataMap, childEntitySavedDataMap ) );
 					}
 
 				}else {
@@ -1497,56 +4025,154 @@ public class Repository<T,ID> {
 
 						Map<String,Object> childEntityDataMap = generateDataMapForTable(childTableMetaInfo, inItemChild);
 
-						if( isIdPresentInDatabase( conn, childTableMetaInfo, childEntityDataMap.get( childTableMetaInfo.getIdColumnName() ) ) ) {
+						// Reference is an existing entity. No need to check
+						if( EntityReference.isReference( inItemChild )
+								|| isIdPresentInDatabase( conn, childTableMetaInfo, childEntityDataMap.get( childTableMetaInfo.getIdColumnName() ) ) ) {
 
-							// insert to bridge table
-							insertToBridgeTable(conn, childTableMetaInfo, manyToManyAssociation, inItemSavedDataMap, childEntityDataMap);
+							insertBridgeDataList.add( generateBridgeDataMap( manyToManyAssociation, inItemSavedDataMap, childEntityDataMap ) );
 						}
 					}
 				}
+
+				// insert to bridge table
+				insertToBridgeTable( conn, manyToManyAssociation, insertBridgeDataList );
 			}
 		}
 
 		return inItemSavedDataMap;
 	}
 
-	private void deleteFromBridgeTable( Connection conn, TableMetaInfo tableMetaInfo, ManyToManyMetaInfo manyToManyAssociation,
-			Map<String,Object> parentDataMap, Map<String,Object> childDataMap ) throws SQLException {
+	/**
+	 * Get data map of a reference stub, for the join column of SingleTarget association
+	 * 
+	 * @throws IllegalArgumentException If the association is not joined by Id of the referred entity
+	 */
+	private static Map<String,Object> getReferenceDataMap( TableMetaInfo childTableMetaInfo, ColumnJoinInfo columnJoin,
+			Object reference ) throws Exception {
+
+		if( ! columnJoin.getChildColumn().equalsIgnoreCase( childTableMetaInfo.getIdColumnName() ) ) {
+			throw new IllegalArgumentException( "Reference of " + childTableMetaInfo.getTableName()
+					+ " can be used only if joined by Id. Join column : " + columnJoin.getChildColumn() );
+		}
+
+		return generateDataMapForTable( childTableMetaInfo, reference );
+	}
 
-		// DELETE from bridgeTable
-		// where association join from both parent to bridge and bridge to child
+	/** Update only the join columns of the row referred by OneToMany reference stub **/
+	private void updateReferenceJoinColumns( Connection conn, TableMetaInfo childTableMetaInfo,
+			List<ColumnJoinInfo> columnJoinList, Object reference ) throws Exception {
 
-		Map<String,Object> varMap = new HashMap<String,Object>();
+		String tableName = childTableMetaInfo.getTableName();
 
-		for( ColumnJoinInfo columnJoinInfo :  manyToManyAssociation.getParentToBridgeJoinList()) {
+		String idColumnName = childTableMetaInfo.getIdColumnName();
 
-			varMap.put( columnJoinInfo.getChildColumn(), parentDataMap.get( columnJoinInfo.getParentColumn() ));
+		List<String> columnList = new ArrayList<String>();
+
+		List<Object> paramList = new ArrayList<Object>();
+
+		for( ColumnJoinInfo columnJoin : columnJoinList ) {
+
+			columnList.add( columnJoin.getChildColumn() + " = ?" );
+			paramList.add( getEntityFieldValueInSqlType( childTableMetaInfo, columnJoin.getChildColumn(), reference ) );
 		}
 
-		for( ColumnJoinInfo columnJoinInfo :  manyToManyAssociation.getBridgeToChildJoinList()) {
+		Object idValue = getEntityFieldValueInSqlType( childTableMetaInfo, idColumnName, reference );
 
-			varMap.put( columnJoinInfo.getParentColumn(), childDataMap.get( columnJoinInfo.getChildColumn() ));
+		paramList.add( idValue );
+
+		String updateSql = "UPDATE " + tableName + " SET " + String.join( ", ", columnList )
+				+ " WHERE " + tableName + "." + idColumnName + " = ?";
+
+		logger.debug( "updateSql : " + updateSql );
+
+		if( 0 == dbQuery.executeUpdate( conn, updateSql, paramList.toArray() ) ) {
+
+			throw new SQLException( "Referred entity is not present. Table : " + tableName + " ID :" + idValue );
 		}
 
-		List<String> columnList = new ArrayList<String>();
+		// Other columns of the row are not known
+		TableChangeNotifier.fireTableChanged( conn, new TableChangeEvent( tableName, idValue, null, ChangeType.UPDATE ) );
+	}
 
-		varMap.keySet().forEach( (columnName) -> { columnList.add( columnName + "=:" + columnName );} );
+	/**
+	 * Match the existing child entities with inItem child entities by Id.
+	 * Ids are read once for each entity and inItem children are indexed by Id. So matching is linear.
+	 * 
+	 * @param childTableMetaInfo TableMetaInfo of the child entities
+	 * @param existingChildObjList Child entities from database
+	 * @param inItemChildObjList Child entities to be saved. Matched entities are removed, remaining entities are new.
+	 * @return inItem child with same Id for each existing child ( in same order ). null if not present
+	 * @throws IllegalAccessException If the Id field could not be read
+	 */
+	private static List<Object> matchChildEntitiesById( TableMetaInfo childTableMetaInfo,
+			Collection<Object> existingChildObjList, Collection<Object> inItemChildObjList ) throws IllegalAccessException {
 
-		String columnListStr = String.join( " AND ", columnList);
+		List<Object> inItemChildWithSameIdList = new ArrayList<Object>( existingChildObjList.size() );
 
-		String deleteSql = "DELETE FROM " + manyToManyAssociation.getBridgeTableName() + " WHERE " + columnListStr;
+		if( ! existingChildObjList.isEmpty() ) {
 
-		logger.debug( "deleteSql : " + deleteSql );
+			Field idField = childTableMetaInfo.getIdField();
+			idField.setAccessible( true );
+
+			// Id -> inItem child. First entity is used, if Ids are repeated
+			Map<Object,Object> inItemChildMap = new HashMap<Object,Object>( inItemChildObjList.size() * 2 );
+
+			for( Object inItemChild : inItemChildObjList ) {
+
+				Object inItemIdValue = idField.get( inItemChild );
+
+				if( null != inItemIdValue ) {
+					inItemChildMap.putIfAbsent( inItemIdValue, inItemChild );
+				}
+			}
+
+			Set<Object> matchedSet = Collections.newSetFromMap( new IdentityHashMap<Object,Boolean>() );
+
+			for( Object existingChild : existingChildObjList ) {
+
+				// existing is from Database, So ID will be never NULL.
+				Object inItemChildWithSameId = inItemChildMap.remove( idField.get( existingChild ) );
+
+				if( null != inItemChildWithSameId ) {
+					matchedSet.add( inItemChildWithSameId );
+				}
+
+				inItemChildWithSameIdList.add( inItemChildWithSameId );
+			}
+
+			if( ! matchedSet.isEmpty() ) {
+
+				List<Object> remainingList = new ArrayList<Object>( inItemChildObjList.size() - matchedSet.size() );
 
-		dbQuery.update( conn, deleteSql, varMap);
+				for( Object inItemChild : inItemChildObjList ) {
+
+					if( ! matchedSet.contains( inItemChild ) ) {
+						remainingList.add( inItemChild );
+					}
+				}
+
+				inItemChildObjList.clear();
+				inItemChildObjList.addAll( remainingList );
+			}
+		}
+
+		return inItemChildWithSameIdList;
 	}
 
-	private void insertToBridgeTable( Connection conn, TableMetaInfo tableMetaInfo, ManyToManyMetaInfo manyToManyAssociation,
-			Map<String,Object> parentDataMap, Map<String,Object> childDataMap ) throws SQLException {
-		// Insert in to bridgeTable set values, 
-		// association join from both parent to bridge and bridge to child ( new values )
+	/**
+	 * Generate bridge table row, joining parent and child
+	 * 
+	 * @param manyToManyAssociation ManyToMany Association
+	 * @param parentDataMap Column values of parent entity
+	 * @param childDataMap Column values of child entity
+	 * @return Bridge table column -> value
+	 */
+	private static Map<String,Object> generateBridgeDataMap( ManyToManyMetaInfo manyToManyAssociation,
+			Map<String,Object> parentDataMap, Map<String,Object> childDataMap ) {
 
-		Map<String,Object> varMap = new HashMap<String,Object>();
+		// association join from both parent to bridge and bridge to child
+		// Columns are in same order for every row. So a batch can use same SQL for all rows
+		Map<String,Object> varMap = new LinkedHashMap<String,Object>();
 
 		for( ColumnJoinInfo columnJoinInfo :  manyToManyAssociation.getParentToBridgeJoinList()) {
 
@@ -1558,15 +4184,97 @@ public class Repository<T,ID> {
 			varMap.put( columnJoinInfo.getParentColumn(), childDataMap.get( columnJoinInfo.getChildColumn() ));
 		}
 
-		String keysJoined = String.join(", ", varMap.keySet());
+		return varMap;
+	}
 
-		String values = ":" + String.join(", :", varMap.keySet());
+	/** Check whether bridge rows are same. Numbers are compared by value, because database may return other type **/
+	private static boolean isSameBridgeData( Map<String,Object> bridgeDataMap, Map<String,Object> otherBridgeDataMap ) {
 
-		String insertSql = "INSERT INTO " + manyToManyAssociation.getBridgeTableName() + " (" + keysJoined + ") VALUES (" + values + ")";
+		boolean same = true;
 
-		logger.debug( "insertSql : " + insertSql );
+		for( Entry<String,Object> entry : bridgeDataMap.entrySet() ) {
+
+			Object value = entry.getValue();
+
+			Object otherValue = otherBridgeDataMap.get( entry.getKey() );
+
+			if( value instanceof Number && otherValue instanceof Number ) {
+
+				same = new BigDecimal( value.toString() ).compareTo( new BigDecimal( otherValue.toString() ) ) == 0;
+
+			}else {
+
+				same = Objects.equals( value, otherValue );
+			}
+
+			if( ! same ) {
+				break;
+			}
+		}
+
+		return same;
+	}
+
+	private void deleteFromBridgeTable( Connection conn, ManyToManyMetaInfo manyToManyAssociation,
+			List<Map<String,Object>> bridgeDataList ) throws SQLException {
+
+		if( ! bridgeDataList.isEmpty() ) {
+
+			// DELETE from bridgeTable
+			// where association join from both parent to bridge and bridge to child
+			List<String> columnList = new ArrayList<String>();
+
+			bridgeDataList.get(0).keySet().forEach( (columnName) -> { columnList.add( columnName + "=?" );} );
+
+			String columnListStr = String.join( " AND ", columnList);
+
+			String deleteSql = "DELETE FROM " + manyToManyAssociation.getBridgeTableName() + " WHERE " + columnListStr;
+
+			logger.debug( "deleteSql : " + deleteSql + " batch : " + bridgeDataList.size() );
+
+			executeBridgeBatch( conn, deleteSql, manyToManyAssociation, bridgeDataList, ChangeType.DELETE );
+		}
+	}
+
+	private void insertToBridgeTable( Connection conn, ManyToManyMetaInfo manyToManyAssociation,
+			List<Map<String,Object>> bridgeDataList ) throws SQLException {
+
+		if( ! bridgeDataList.isEmpty() ) {
+
+			// Insert in to bridgeTable set values, 
+			// association join from both parent to bridge and bridge to child ( new values )
+			Set<String> columnSet = bridgeDataList.get(0).keySet();
+
+			String keysJoined = String.join(", ", columnSet);
+
+			String values = String.join(", ", Collections.nCopies( columnSet.size(), "?" ));
+
+			String insertSql = "INSERT INTO " + manyToManyAssociation.getBridgeTableName() + " (" + keysJoined + ") VALUES (" + values + ")";
+
+			logger.debug( "insertSql : " + insertSql + " batch : " + bridgeDataList.size() );
+
+			executeBridgeBatch( conn, insertSql, manyToManyAssociation, bridgeDataList, ChangeType.INSERT );
+		}
+	}
 
-		dbQuery.update(conn, insertSql, varMap);
+	/** Execute SQL for all bridge rows in a JDBC batch. SQL is prepared once **/
+	private void executeBridgeBatch( Connection conn, String sql, ManyToManyMetaInfo manyToManyAssociation,
+			List<Map<String,Object>> bridgeDataList, ChangeType changeType ) throws SQLException {
+
+		Object[][] params = new Object[ bridgeDataList.size() ][];
+
+		for( int i = 0; i < params.length; i ++ ) {
+
+			params[i] = bridgeDataList.get(i).values().toArray();
+		}
+
+		dbQuery.executeBatch( conn, sql, params );
+
+		for( Map<String,Object> bridgeDataMap : bridgeDataList ) {
+
+			TableChangeNotifier.fireTableChanged( conn, new TableChangeEvent( manyToManyAssociation.getBridgeTableName(),
+					null, bridgeDataMap, changeType ) );
+		}
 	}
 
 	@SuppressWarnings("unchecked")
@@ -1607,26 +4315,143 @@ public class Repository<T,ID> {
 		}
 	}
 
+	/**
+	 * Insert or update a row of the table, and get the saved values of the row.
+	 *
+	 * For a versioned entity with Id and version, the row is compared with existing ( loaded by save ).
+	 * Same row is not written. Otherwise a single UPDATE checks and increments the version.
+	 * The row is read only if no row is updated, to know whether the version is stale or the row is not present.
+	 *
+	 * @param existing Entity of the row loaded from database. null if not loaded.
+	 * @return Saved values of the row
+	 */
 	private Map<String,Object> saveAndReturnTableDataMap(Connection conn, 
-			TableMetaInfo tableMetaInfo, Map<String,Object> saveDataMap) throws SQLException {
+			TableMetaInfo tableMetaInfo, Object existing, Map<String,Object> saveDataMap) throws Exception {
 
 		Object idValue = null;
 
-		// Check whether entity is present in Database
-		if( isIdPresentInDatabase( conn, tableMetaInfo, saveDataMap.get( tableMetaInfo.getIdColumnName() ) ) ) {
-			idValue = updateTableDataMap( conn, tableMetaInfo, saveDataMap );
+		ChangeType changeType = null;
+
+		String idColumnName = tableMetaInfo.getIdColumnName();
+
+		String versionColumnName = tableMetaInfo.getVersionColumnName();
+
+		// Values of the saved row, if known without reading the row
+		Map<String,Object> tableDataMap = null;
+
+		if( null != versionColumnName && null != saveDataMap.get( idColumnName ) && null != saveDataMap.get( versionColumnName ) ) {
+
+			idValue = saveDataMap.get( idColumnName );
+
+			if( null != existing && isSameAsExisting( tableMetaInfo, existing, saveDataMap ) ) {
+
+				// Not updated, so the version is not incremented
+				logger.debug( "Entity is not modified. Table : " + tableMetaInfo.getTableName() + " ID : " + idValue );
+
+				tableDataMap = new TreeMap<String,Object>( String.CASE_INSENSITIVE_ORDER );
+				tableDataMap.putAll( saveDataMap );
+
+			}else if( updateVersionedTableDataMap( conn, tableMetaInfo, saveDataMap ) ) {
+
+				changeType = ChangeType.UPDATE;
+
+				tableDataMap = new TreeMap<String,Object>( String.CASE_INSENSITIVE_ORDER );
+				tableDataMap.putAll( saveDataMap );
+				tableDataMap.put( versionColumnName, incrementVersion( saveDataMap.get( versionColumnName ) ) );
+
+			}else if( isIdPresentInDatabase( conn, tableMetaInfo, idValue ) ) {
+
+				// Row is present, but version is different
+				throw new OptimisticLockException( "Entity is modified by another transaction. Table : " + tableMetaInfo.getTableName()
+						+ " ID : " + idValue + " Version : " + saveDataMap.get( versionColumnName ) );
+
+			}else {
+
+				idValue = insertTableDataMap( conn, tableMetaInfo, saveDataMap );
+
+				changeType = ChangeType.INSERT;
+			}
+
+		}else if( null != versionColumnName && null != existing ) {
+
+			// Version of the row is not known. Entity should be loaded from database before save
+			throw new OptimisticLockException( "Version should not be null to save an existing entity. Table : " + tableMetaInfo.getTableName()
+					+ " ID : " + saveDataMap.get( idColumnName ) );
+
+		}else if( null == versionColumnName && isIdPresentInDatabase( conn, tableMetaInfo, saveDataMap.get( tableMetaInfo.getIdColumnName() ) ) ) {
+
+			idValue = saveDataMap.get( tableMetaInfo.getIdColumnName() );
+
+			/** Update data only if values are different except updatable fields**/
+			if( ! isEntitySameInDatabase( conn, tableMetaInfo, saveDataMap  ) ) {
+
+				idValue = updateTableDataMap( conn, tableMetaInfo, saveDataMap );
+
+				changeType = ChangeType.UPDATE;
+			}
+
 		}else {
+
 			idValue = insertTableDataMap( conn, tableMetaInfo, saveDataMap );
+
+			changeType = ChangeType.INSERT;
 		}
 
-		// Read Table data to Map
-		String selectSql = " SELECT " +  String.join(", ", tableMetaInfo.getDatabaseColumnList() ) 
-		+ " FROM " + tableMetaInfo.getTableName()
-		+ " WHERE " + tableMetaInfo.getIdColumnName() + " =? ";
+		if( null == tableDataMap ) {
 
-		logger.debug( "selectSql : " + selectSql );
+			// Read Table data to Map
+			String selectSql = " SELECT " +  String.join(", ", tableMetaInfo.getDatabaseColumnList() ) 
+			+ " FROM " + tableMetaInfo.getTableName()
+			+ " WHERE " + tableMetaInfo.getIdColumnName() + " =? ";
+
+			logger.debug( "selectSql : " + selectSql );
+
+			tableDataMap = dbQuery.query(conn, selectSql, toEntityTypeMap(tableMetaInfo), idValue);
+		}
+
+		if( null != changeType && null != tableDataMap ) {
+
+			TableChangeNotifier.fireTableChanged( conn, new TableChangeEvent( tableMetaInfo.getTableName(),
+					tableDataMap.get( tableMetaInfo.getIdColumnName() ), tableDataMap, changeType ) );
+		}
+
+		return tableDataMap;
+	}
+
+	/** Check whether the values to be saved are same as the existing entity, except UpdateTimeStamp columns **/
+	private static boolean isSameAsExisting( TableMetaInfo tableMetaInfo, Object existing, Map<String,Object> saveDataMap ) throws Exception {
+
+		Map<String,Object> existingDataMap = generateDataMapForTable( tableMetaInfo, existing );
+
+		boolean same = true;
+
+		for( Entry<String,Object> entry : saveDataMap.entrySet() ) {
+
+			if( ! tableMetaInfo.getAutoUpdateColumnSet().contains( entry.getKey() )
+					&& ! Objects.deepEquals( entry.getValue(), existingDataMap.get( entry.getKey() ) ) ) {
+
+				same = false;
+				break;
+			}
+		}
+
+		return same;
+	}
+
+	/** Version after update, in the type of the version value **/
+	private static Object incrementVersion( Object version ) {
+
+		Object nextVersion = null;
 
-		return dbQuery.query(conn, selectSql, toEntityTypeMap(tableMetaInfo), idValue);
+		if( version instanceof Long ) {
+			nextVersion = (Long) version + 1;
+		}else if( version instanceof Short ) {
+			nextVersion = (short) ( (Short) version + 1 );
+		}else {
+			nextVersion = ( (Number) version ).intValue() + 1;
+		}
+
+		return nextVersion;
 	}
 
 	protected static ThrowableFunction<ResultSet,Map<String, Object>> toEntityTypeMap( TableMetaInfo tableMetaInfo ){
@@ -1879,6 +4704,38 @@ public class Repository<T,ID> {
 		return getEntityFieldValue( tableMetaInfo, tableMetaInfo.getIdColumnName(), inItem );
 	}
 
+	/**
+	 * Set a new Id from IdGenerator of the table, if the Id of the entity is null
+	 * 
+	 * @param conn SQL Connection
+	 * @param tableMetaInfo TableMetaInfo of the entity
+	 * @param entity Entity Object
+	 * @param dataMap Table data of the entity, to be updated with the Id. May be null
+	 * @return true if a new Id is set
+	 * @throws Exception If the Id could not be generated
+	 */
+	protected static boolean assignGeneratedId( Connection conn, TableMetaInfo tableMetaInfo, Object entity, Map<String,Object> dataMap ) throws Exception {
+
+		boolean generated = false;
+
+		IdGenerator idGenerator = tableMetaInfo.getIdGenerator();
+
+		String idColumnName = tableMetaInfo.getIdColumnName();
+
+		if( null != idGenerator && null == getEntityFieldValue( tableMetaInfo, idColumnName, entity ) ) {
+
+			setEntityFieldValue( tableMetaInfo, idColumnName, entity, idGenerator.generate( conn, tableMetaInfo ) );
+
+			if( null != dataMap ) {
+				dataMap.put( idColumnName, getEntityFieldValueInSqlType( tableMetaInfo, idColumnName, entity ) );
+			}
+
+			generated = true;
+		}
+
+		return generated;
+	}
+
 	protected static Map<String,Object> generateDataMapForTable(TableMetaInfo tableMetaInfo, Object entity ) throws Exception{
 
 		Map<String,Object> dataMap =  new TreeMap<String,Object>( String.CASE_INSENSITIVE_ORDER );
@@ -1929,6 +4786,8 @@ public class Repository<T,ID> {
 	protected Object insertTableDataMap( Connection conn, 
 			TableMetaInfo tableMetaInfo, Map<String,Object> saveDataMap ) throws SQLException {
 
+		setInitialVersion( tableMetaInfo, saveDataMap );
+
 		String[] generatdKeys = new String[] { tableMetaInfo.getIdColumnName() }; 
 
 		String keysJoined = String.join(", ", saveDataMap.keySet());
@@ -1940,7 +4799,7 @@ public class Repository<T,ID> {
 		logger.debug( "insertSql : " + insertSql );
 
 		// Get generated ID
-		Object idValue =  dbQuery.insert(conn, insertSql, generatdKeys, DbQuery.<Object>toID(), saveDataMap);
+		Object idValue =  dbQuery.executeInsert(conn, insertSql, generatdKeys, DbQuery.<Object>toID(), saveDataMap);
 
 		if( null == idValue ) {
 
@@ -1956,48 +4815,110 @@ public class Repository<T,ID> {
 
 		Object idValue = saveDataMap.get( tableMetaInfo.getIdColumnName() );
 
-		/** Update data only if values are different except updatable fields**/
-		if( ! isEntitySameInDatabase( conn, tableMetaInfo, saveDataMap  ) ) {
+		String whereClause = tableMetaInfo.getTableName() + "." + tableMetaInfo.getIdColumnName() 
+		+ " =:" + tableMetaInfo.getIdColumnName();
 
-			String whereClause = tableMetaInfo.getTableName() + "." + tableMetaInfo.getIdColumnName() 
-			+ " =:" + tableMetaInfo.getIdColumnName();
+		Map<String,Object> whereVarMap = new HashMap<String,Object>();
 
-			Map<String,Object> whereVarMap = new HashMap<String,Object>();
+		whereVarMap.put(tableMetaInfo.getIdColumnName(), saveDataMap.get(tableMetaInfo.getIdColumnName()));
 
-			whereVarMap.put(tableMetaInfo.getIdColumnName(), saveDataMap.get(tableMetaInfo.getIdColumnName()));
+		List<String> columnList = new ArrayList<String>();
 
-			List<String> columnList = new ArrayList<String>();
+		saveDataMap.keySet().forEach( (columnName) -> { columnList.add( columnName + "=:" + columnName );} );
 
-			saveDataMap.keySet().forEach( (columnName) -> { columnList.add( columnName + "=:" + columnName );} );
+		String columnListStr = String.join( ",", columnList);
 
-			String columnListStr = String.join( ",", columnList);
+		String updateSql = "UPDATE " + tableMetaInfo.getTableName() + " SET " + columnListStr;
 
-			String updateSql = "UPDATE " + tableMetaInfo.getTableName() + " SET " + columnListStr;
+		// Convert Named Parameter query to '?' query.
+		List<Object> paramList = new ArrayList<Object>();
 
-			// Convert Named Parameter query to '?' query.
-			List<Object> paramList = new ArrayList<Object>();
+		String parameterizedUpdateSql = DbQuery.parseNamedParameterQuery( updateSql, saveDataMap, paramList );
+
+		String parameterizedWhereClause = DbQuery.parseNamedParameterQuery( whereClause, whereVarMap, paramList );
+
+		parameterizedUpdateSql += " WHERE " + parameterizedWhereClause;
+
+		Object[] params = paramList.toArray(new Object[0]);
+
+		logger.debug( "updateSql : " + parameterizedUpdateSql );
+
+		int rowsUpdated = dbQuery.executeUpdate(conn, parameterizedUpdateSql, params );
+
+		if( 0 == rowsUpdated) {
+
+			throw new SQLException( "Update failed for ID :" + idValue );
+		}
 
-			String parameterizedUpdateSql = DbQuery.parseNamedParameterQuery( updateSql, saveDataMap, paramList );
+		return idValue;
+	}	
+
+	/**
+	 * Update the row, only if @Version in database is same as in saveDataMap. Version is incremented.
+	 *
+	 * @return true if updated, false if the row is not present or version is different
+	 */
+	private boolean updateVersionedTableDataMap( Connection conn,
+			TableMetaInfo tableMetaInfo, Map<String,Object> saveDataMap ) throws SQLException {
+
+		String tableName = tableMetaInfo.getTableName();
 
-			String parameterizedWhereClause = DbQuery.parseNamedParameterQuery( whereClause, whereVarMap, paramList );
+		String idColumnName = tableMetaInfo.getIdColumnName();
 
-			parameterizedUpdateSql += " WHERE " + parameterizedWhereClause;
+		String versionColumnName = tableMetaInfo.getVersionColumnName();
 
-			Object[] params = paramList.toArray(new Object[0]);
+		List<String> columnList = new ArrayList<String>();
 
-			logger.debug( "updateSql : " + parameterizedUpdateSql );
+		List<Object> paramList = new ArrayList<Object>();
 
-			int rowsUpdated = dbQuery.update(conn, parameterizedUpdateSql, params );
+		for( Entry<String,Object> entry : saveDataMap.entrySet() ) {
 
-			if( 0 == rowsUpdated) {
+			if( ! entry.getKey().equalsIgnoreCase( idColumnName ) && ! entry.getKey().equalsIgnoreCase( versionColumnName ) ) {
 
-				throw new SQLException( "Update failed for ID :" + idValue );
+				columnList.add( entry.getKey() + " = ?" );
+				paramList.add( entry.getValue() );
 			}
+		}
+
+		columnList.add( versionColumnName + " = " + versionColumnName + " + 1" );
+
+		String updateSql = "UPDATE " + tableName + " SET " + String.join( ", ", columnList )
+				+ " WHERE " + tableName + "." + idColumnName + " = ? AND " + tableName + "." + versionColumnName + " = ?";
+
+		paramList.add( saveDataMap.get( idColumnName ) );
+		paramList.add( saveDataMap.get( versionColumnName ) );
+
+		logger.debug( "updateSql : " + updateSql );
 
+		return 0 < dbQuery.executeUpdate( conn, updateSql, paramList.toArray() );
+	}
+
+	/**
+	 * Reject entities with @Version field, for the operations which do not check the version
+	 *
+	 * @param tableMetaInfo TableMetaInfo of the entity
+	 * @param operation Name of the operation
+	 */
+	protected static void checkNotVersioned( TableMetaInfo tableMetaInfo, String operation ) {
+
+		if( null != tableMetaInfo.getVersionColumnName() ) {
+
+			throw new IllegalArgumentException( "@Version is not checked by " + operation + ". Use save for entity of " + tableMetaInfo.getTableName() );
 		}
+	}
 
-		return idValue;
-	}	
+	/** Set initial value to @Version column, if it is null **/
+	protected static void setInitialVersion( TableMetaInfo tableMetaInfo, Map<String,Object> dataMap ) {
+
+		String versionColumnName = tableMetaInfo.getVersionColumnName();
+
+		if( null != versionColumnName && null == dataMap.get( versionColumnName ) ) {
+
+			Class<?> type = tableMetaInfo.getPrimitiveFieldMap().get( versionColumnName ).getType();
+
+			dataMap.put( versionColumnName, Long.class == type ? (Object) 0L : Short.class == type ? (Object) (short) 0 : (Object) 0 );
+		}
+	}
 
 	/** Check whether entity is present in database **/
 	private boolean isIdPresentInDatabase( Connection conn, TableMetaInfo tableMetaInfo, Object idValue ) throws SQLException {
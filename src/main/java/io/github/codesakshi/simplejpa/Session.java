@@ -0,0 +1,526 @@
+package io.github.codesakshi.simplejpa;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.github.codesakshi.simplejpa.EntityProcessor.AssociationMetaInfo;
+import io.github.codesakshi.simplejpa.EntityProcessor.ColumnJoinInfo;
+import io.github.codesakshi.simplejpa.EntityProcessor.OneToManyMetaInfo;
+import io.github.codesakshi.simplejpa.EntityProcessor.SingleTargetMetaInfo;
+import io.github.codesakshi.simplejpa.EntityProcessor.TableMetaInfo;
+import io.github.codesakshi.simplejpa.TableChangeNotifier.ChangeType;
+import io.github.codesakshi.simplejpa.TableChangeNotifier.TableChangeEvent;
+
+/**
+ * Unit of work. Saves and deletes of several repositories are collected and written together on flush.
+ *
+ * Each registered entity writes the row of its own table. Nested entities are written only if they are registered.
+ * So the statements of a table have the same SQL and are executed in a JDBC batch.
+ *
+ * On flush
+ *
+ * 	1. Tables are sorted by their foreign keys. Table referred by ManyToOne / OneToOne, and parent table of OneToMany, are written first.
+ * 	2. Entities without Id get an Id from IdGenerator of the entity ( if configured ). Otherwise they are inserted one by one,
+ * 	   to read the Id generated by database. The Id is set to the entity.
+ * 	   So the join columns of the entities referring to it ( ManyToOne / OneToOne field or OneToMany collection ) are resolved.
+ * 	3. Entities with Id are written by Repository.upsertAll, ordered by Id. Same lock order in all transactions.
+ * 	4. Deletes are executed in reverse table order, ordered by Id, including nested entities ( if cascade is set ).
+ *
+ * ManyToMany bridge rows are not written by Session. Use Repository.save for those associations.
+ * Entities with @Version field are not supported, because upsertAll does not check the version. Use Repository.save for them.
+ *
+ * <pre>
+ * 	try( Session session = new Session( conn ) ){
+ *
+ * 		session.save( orderRepository, order );
+ *
+ * 		for( OrderLine line : order.getLines() ) {
+ * 			session.save( orderLineRepository, line );
+ * 		}
+ *
+ * 		session.deleteById( cartRepository, cartId );
+ *
+ * 		session.commit();
+ * 	}
+ * </pre>
+ *
+ * @author anilalps
+ *
+ */
+public class Session implements AutoCloseable {
+
+	private static Logger logger  = LoggerFactory.getLogger(Session.class);
+
+	/** Pending writes of a table **/
+	private static class TableWork {
+
+		protected Repository<Object,Object> repository;
+
+		protected TableMetaInfo tableMetaInfo;
+
+		/** Entities to be saved, in registration order. Identity, because entities may override equals **/
+		protected Map<Object,Boolean> saveMap = new IdentityHashMap<Object,Boolean>();
+
+		protected List<Object> saveList = new ArrayList<Object>();
+
+		protected Set<Object> deleteIdSet = new LinkedHashSet<Object>();
+
+		protected TableWork( Repository<Object,Object> repository, TableMetaInfo tableMetaInfo ) {
+			this.repository = repository;
+			this.tableMetaInfo = tableMetaInfo;
+		}
+	}
+
+	/** Parent of a OneToMany child. Join columns of the child are set from parent, after parent is written **/
+	private static class ParentJoin {
+
+		protected OneToManyMetaInfo associationInfo;
+
+		protected Object parentEntity;
+
+		protected ParentJoin( OneToManyMetaInfo associationInfo, Object parentEntity ) {
+			this.associationInfo = associationInfo;
+			this.parentEntity = parentEntity;
+		}
+	}
+
+	protected Connection conn;
+
+	/** Table name -> Pending writes. In registration order **/
+	protected Map<String,TableWork> tableWorkMap = new LinkedHashMap<String,TableWork>();
+
+	/**
+	 * Constructor
+	 *
+	 * @param conn SQL Connection used by flush
+	 */
+	public Session( Connection conn ) {
+		this.conn = conn;
+	}
+
+	/**
+	 * Register an entity to be saved on flush
+	 *
+	 * @param <T> Entity Type
+	 * @param repository Repository of the entity
+	 * @param entity Entity Object. Should not be a reference stub ( See Repository.getReference )
+	 */
+	public <T> void save( Repository<T,?> repository, T entity ) {
+
+		if( EntityReference.isReference( entity ) ) {
+			throw new IllegalArgumentException( "Reference stub can not be saved. Load the entity by findById" );
+		}
+
+		Repository.checkNotVersioned( repository.processor.getTableMetaInfo(), "Session" );
+
+		TableWork tableWork = getTableWork( repository );
+
+		if( null == tableWork.saveMap.put( entity, Boolean.TRUE ) ) {
+			tableWork.saveList.add( entity );
+		}
+	}
+
+	/**
+	 * Register entities to be saved on flush
+	 *
+	 * @param <T> Entity Type
+	 * @param repository Repository of the entities
+	 * @param entities Entity Objects
+	 */
+	public <T> void saveAll( Repository<T,?> repository, Iterable<T> entities ) {
+
+		for( T entity : entities ) {
+			save( repository, entity );
+		}
+	}
+
+	/**
+	 * Register an entity to be deleted on flush
+	 *
+	 * @param <T> Entity Type
+	 * @param repository Repository of the entity
+	 * @param entity Entity Object. @Id should not be null
+	 * @throws Exception If the Id could not be read
+	 */
+	public <T> void delete( Repository<T,?> repository, T entity ) throws Exception {
+
+		TableWork tableWork = getTableWork( repository );
+
+		Object idValue = Repository.getEntityFieldValueInSqlType( tableWork.tableMetaInfo, tableWork.tableMetaInfo.getIdColumnName(), entity );
+
+		if( null == idValue ) {
+			throw new IllegalArgumentException( "Id should not be null for delete of " + tableWork.tableMetaInfo.getTableName() );
+		}
+
+		tableWork.deleteIdSet.add( idValue );
+	}
+
+	/**
+	 * Register an entity to be deleted on flush
+	 *
+	 * @param <T> Entity Type
+	 * @param <ID> ID Type
+	 * @param repository Repository of the entity
+	 * @param inId Id of the entity
+	 */
+	public <T,ID> void deleteById( Repository<T,ID> repository, ID inId ) {
+
+		getTableWork( repository ).deleteIdSet.add( inId );
+	}
+
+	/**
+	 * Write the registered saves and deletes.
+	 * If the Connection is in auto commit mode, all writes are committed together. Otherwise, the caller commits.
+	 *
+	 * @throws Exception If a write fails. Registered writes are discarded.
+	 */
+	public void flush() throws Exception {
+
+		if( ! tableWorkMap.isEmpty() ) {
+
+			try {
+
+				boolean autoCommit = conn.getAutoCommit();
+
+				if( autoCommit ) {
+
+					try {
+
+						// Disable Auto commits
+						conn.setAutoCommit(false);
+
+						flush0();
+
+						conn.commit();
+
+						TableChangeNotifier.afterCommit( conn );
+
+					}catch(Throwable ex ) {
+
+						conn.rollback();
+
+						TableChangeNotifier.afterRollback( conn );
+
+						throw new Exception(ex);
+
+					}finally {
+
+						conn.setAutoCommit(autoCommit);
+					}
+
+				}else {
+
+					// Manual commit is already enabled.
+					flush0();
+				}
+
+			}finally {
+
+				tableWorkMap.clear();
+			}
+		}
+	}
+
+	/**
+	 * Flush and commit the transaction
+	 *
+	 * @throws Exception If a write or commit fails
+	 */
+	public void commit() throws Exception {
+
+		flush();
+
+		if( ! conn.getAutoCommit() ) {
+
+			conn.commit();
+
+			TableChangeNotifier.afterCommit( conn );
+		}
+	}
+
+	/**
+	 * Discard the registered writes and roll back the transaction
+	 *
+	 * @throws Exception If the rollback fails
+	 */
+	public void rollback() throws Exception {
+
+		tableWorkMap.clear();
+
+		if( ! conn.getAutoCommit() ) {
+
+			conn.rollback();
+
+			TableChangeNotifier.afterRollback( conn );
+		}
+	}
+
+	/**
+	 * Discard the registered writes, which are not flushed. Connection is not closed.
+	 */
+	@Override
+	public void close() {
+
+		if( ! tableWorkMap.isEmpty() ) {
+
+			logger.debug( "Discarding writes of tables : " + tableWorkMap.keySet() );
+
+			tableWorkMap.clear();
+		}
+	}
+
+	private void flush0() throws Exception {
+
+		List<String> tableOrder = getTableOrder();
+
+		logger.debug( "flush tableOrder : " + tableOrder );
+
+		Map<Object,List<ParentJoin>> parentJoinMap = getParentJoinMap();
+
+		for( String tableName : tableOrder ) {
+
+			TableWork tableWork = tableWorkMap.get( tableName );
+
+			TableMetaInfo tableMetaInfo = tableWork.tableMetaInfo;
+
+			String idColumnName = tableMetaInfo.getIdColumnName();
+
+			List<Object> upsertList = new ArrayList<Object>();
+
+			for( Object entity : tableWork.saveList ) {
+
+				// Parents are already written. Set join columns from them
+				List<ParentJoin> parentJoinList = parentJoinMap.get( entity );
+
+				if( null != parentJoinList ) {
+
+					for( ParentJoin parentJoin : parentJoinList ) {
+
+						TableMetaInfo parentTableMetaInfo = EntityProcessor.getTableMetaInfo( parentJoin.parentEntity );
+
+						for( ColumnJoinInfo columnJoin : parentJoin.associationInfo.getColumnJoinList() ) {
+
+							Object parentValue = Repository.getEntityFieldValueInSqlType( parentTableMetaInfo, columnJoin.getParentColumn(), parentJoin.parentEntity );
+
+							Repository.setEntityFieldValue( tableMetaInfo, columnJoin.getChildColumn(), entity, parentValue );
+						}
+					}
+				}
+
+				// Id from IdGenerator is known before insert. So the entity is batched
+				Repository.assignGeneratedId( conn, tableMetaInfo, entity, null );
+
+				if( null != Repository.getEntityFieldValue( tableMetaInfo, idColumnName, entity ) ) {
+
+					upsertList.add( entity );
+
+				}else {
+
+					// Generated Id should be read. So not batched
+					Map<String,Object> dataMap = Repository.generateDataMapForTable( tableMetaInfo, entity );
+
+					dataMap.remove( idColumnName );
+
+					Object idValue = tableWork.repository.insertTableDataMap( conn, tableMetaInfo, dataMap );
+
+					Repository.setEntityFieldValue( tableMetaInfo, idColumnName, entity, idValue );
+
+					dataMap.put( idColumnName, idValue );
+
+					TableChangeNotifier.fireTableChanged( conn, new TableChangeEvent( tableName, idValue, dataMap, ChangeType.INSERT ) );
+				}
+			}
+
+			if( ! upsertList.isEmpty() ) {
+
+				sortById( upsertList, tableMetaInfo );
+
+				tableWork.repository.upsertAll( conn, upsertList );
+			}
+		}
+
+		// Delete referring tables first
+		for( int i = tableOrder.size() - 1; i >= 0; i -- ) {
+
+			TableWork tableWork = tableWorkMap.get( tableOrder.get(i) );
+
+			List<Object> idList = new ArrayList<Object>( tableWork.deleteIdSet );
+
+			sortIds( idList );
+
+			for( int start = 0; start < idList.size(); start += Repository.IN_CLAUSE_CHUNK_SIZE ) {
+
+				List<Object> chunkIdList = idList.subList( start, Math.min( idList.size(), start + Repository.IN_CLAUSE_CHUNK_SIZE ) );
+
+				tableWork.repository.deleteWithWhere( conn, tableWork.repository.getIdInClause( chunkIdList.size() ), chunkIdList.toArray() );
+			}
+		}
+
+		for( TableWork tableWork : tableWorkMap.values() ) {
+
+			tableWork.repository.evictFromPersistenceContext( conn );
+		}
+	}
+
+	/**
+	 * Sort the tables, so a table is written after the tables it refers.
+	 * Tables in a cycle are written in registration order.
+	 *
+	 * @return Table names in write order
+	 */
+	private List<String> getTableOrder() {
+
+		// Table -> Tables to be written before it
+		Map<String,Set<String>> dependencyMap = new LinkedHashMap<String,Set<String>>();
+
+		for( String tableName : tableWorkMap.keySet() ) {
+			dependencyMap.put( tableName, new LinkedHashSet<String>() );
+		}
+
+		for( TableWork tableWork : tableWorkMap.values() ) {
+
+			String tableName = tableWork.tableMetaInfo.getTableName();
+
+			for( AssociationMetaInfo associationInfo : tableWork.tableMetaInfo.getAssociations() ) {
+
+				String childTableName = associationInfo.getChildTableName();
+
+				if( dependencyMap.containsKey( childTableName ) && ! childTableName.equals( tableName ) ) {
+
+					if( associationInfo instanceof SingleTargetMetaInfo ) {
+
+						// This table has the join column
+						dependencyMap.get( tableName ).add( childTableName );
+
+					}else if( associationInfo instanceof OneToManyMetaInfo ) {
+
+						// Child table has the join column
+						dependencyMap.get( childTableName ).add( tableName );
+					}
+				}
+			}
+		}
+
+		List<String> tableOrder = new ArrayList<String>();
+
+		boolean added = true;
+
+		while( added ) {
+
+			added = false;
+
+			for( Entry<String,Set<String>> entry : dependencyMap.entrySet() ) {
+
+				if( ! tableOrder.contains( entry.getKey() ) && tableOrder.containsAll( entry.getValue() ) ) {
+
+					tableOrder.add( entry.getKey() );
+
+					added = true;
+				}
+			}
+		}
+
+		// Cycle. Remaining tables in registration order
+		for( String tableName : dependencyMap.keySet() ) {
+
+			if( ! tableOrder.contains( tableName ) ) {
+				tableOrder.add( tableName );
+			}
+		}
+
+		return tableOrder;
+	}
+
+	/** Registered child -> Registered parents having the child in a OneToMany collection **/
+	private Map<Object,List<ParentJoin>> getParentJoinMap() throws Exception {
+
+		Map<Object,List<ParentJoin>> parentJoinMap = new IdentityHashMap<Object,List<ParentJoin>>();
+
+		for( TableWork tableWork : tableWorkMap.values() ) {
+
+			for( AssociationMetaInfo associationInfo : tableWork.tableMetaInfo.getAssociations() ) {
+
+				TableWork childTableWork = tableWorkMap.get( associationInfo.getChildTableName() );
+
+				if( associationInfo instanceof OneToManyMetaInfo && null != childTableWork ) {
+
+					associationInfo.getParentField().setAccessible( true );
+
+					for( Object parentEntity : tableWork.saveList ) {
+
+						Object value = associationInfo.getParentField().get( parentEntity );
+
+						if( value instanceof Collection ) {
+
+							for( Object child : (Collection<?>) value ) {
+
+								if( null != child && childTableWork.saveMap.containsKey( child ) ) {
+
+									parentJoinMap.computeIfAbsent( child, (key)-> new ArrayList<ParentJoin>() )
+										.add( new ParentJoin( (OneToManyMetaInfo) associationInfo, parentEntity ) );
+								}
+							}
+						}
+					}
+				}
+			}
+		}
+
+		return parentJoinMap;
+	}
+
+	@SuppressWarnings("unchecked")
+	private TableWork getTableWork( Repository<?,?> repository ) {
+
+		TableMetaInfo tableMetaInfo = repository.processor.getTableMetaInfo();
+
+		return tableWorkMap.computeIfAbsent( tableMetaInfo.getTableName(),
+				(tableName)-> new TableWork( (Repository<Object,Object>) repository, tableMetaInfo ) );
+	}
+
+	/** Sort the entities by Id, if the Ids are Comparable. Otherwise the order is not changed **/
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static void sortById( List<Object> entityList, TableMetaInfo tableMetaInfo ) throws Exception {
+
+		Map<Object,Comparable> idMap = new IdentityHashMap<Object,Comparable>();
+
+		for( Object entity : entityList ) {
+
+			Object idValue = Repository.getEntityFieldValue( tableMetaInfo, tableMetaInfo.getIdColumnName(), entity );
+
+			if( ! ( idValue instanceof Comparable ) ) {
+				return;
+			}
+
+			idMap.put( entity, (Comparable) idValue );
+		}
+
+		entityList.sort( (first,second)-> idMap.get( first ).compareTo( idMap.get( second ) ) );
+	}
+
+	/** Sort the Ids, if they are Comparable. Otherwise the order is not changed **/
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static void sortIds( List<Object> idList ) {
+
+		for( Object idValue : idList ) {
+
+			if( ! ( idValue instanceof Comparable ) ) {
+				return;
+			}
+		}
+
+		Collections.sort( (List) idList );
+	}
+}
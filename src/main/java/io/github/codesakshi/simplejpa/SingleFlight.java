@@ -0,0 +1,321 @@
+package io.github.codesakshi.simplejpa;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTimeoutException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.github.codesakshi.simplejpa.DbQuery.ThrowableSupplier;
+
+/**
+ * De-duplication of identical concurrent queries.
+ *
+ * When several threads execute the same query ( same database, SQL and parameters ) at the same time,
+ * only the first thread ( leader ) executes it. Other threads wait for the result of the leader.
+ *
+ * 	1. Waiting threads ( and the leader, if any thread waited ) get deep copies of the result ( See EntityCopier ),
+ * 	   or the same instances as unmodifiable list if copyResults is false. Shared entities should not be modified.
+ * 	2. If the leader fails, waiting threads fail with the same cause.
+ * 	3. Waiting threads wait at most timeout, and fail with SQLTimeoutException. Interrupted threads stop waiting.
+ *
+ * Only queries executed in auto commit mode without PersistenceContext are shared. Results of other queries depend on the Connection.
+ * Queries of different databases are not shared. So a SingleFlight can be used by Connections of several DataSources ( See getDatabase ).
+ *
+ * <pre>
+ * 	repository.setSingleFlight( new SingleFlight( new SingleFlight.Configuration().setTimeout( 10, TimeUnit.SECONDS ) ) );
+ * </pre>
+ *
+ * @author anilalps
+ *
+ */
+public class SingleFlight {
+
+	/** Single flight settings **/
+	public static class Configuration {
+
+		private long timeoutMillis = TimeUnit.SECONDS.toMillis( 30 );
+
+		private boolean copyResults = true;
+
+		public Configuration() {
+
+		}
+
+		/** Maximum time to wait for the result of the leader **/
+		public Configuration setTimeout(long duration, TimeUnit unit) {
+			this.timeoutMillis = unit.toMillis( duration );
+			return this;
+		}
+
+		/** true to give deep copies to waiting threads. false to share the entities as unmodifiable list **/
+		public Configuration setCopyResults(boolean copyResults) {
+			this.copyResults = copyResults;
+			return this;
+		}
+
+		public long getTimeoutMillis() {
+			return timeoutMillis;
+		}
+
+		public boolean isCopyResults() {
+			return copyResults;
+		}
+	}
+
+	/** Database, result type, SQL query and parameters **/
+	private static final class FlightKey {
+
+		private String database;
+
+		private Class<?> resultType;
+
+		private String sql;
+
+		private Object[] params;
+
+		private int hash;
+
+		protected FlightKey( String database, Class<?> resultType, String sql, Object[] params ) {
+			this.database = database;
+			this.resultType = resultType;
+			this.sql = sql;
+			this.params = null != params ? params.clone() : new Object[0];
+			this.hash = 31 * ( 31 * ( 31 * database.hashCode() + resultType.hashCode() ) + sql.hashCode() ) + Arrays.deepHashCode( this.params );
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null)
+				return false;
+			if (getClass() != obj.getClass())
+				return false;
+			FlightKey other = (FlightKey) obj;
+			return hash == other.hash && database.equals( other.database ) && resultType == other.resultType && sql.equals( other.sql )
+					&& Arrays.deepEquals( params, other.params );
+		}
+	}
+
+	/** Query in execution **/
+	private static final class Flight {
+
+		protected CompletableFuture<List<?>> future = new CompletableFuture<List<?>>();
+
+		/** Number of threads waiting for the result **/
+		protected int waiters = 0;
+
+		/** Result is available. No more threads can wait **/
+		protected boolean landed = false;
+	}
+
+	protected Configuration configuration;
+
+	/** Queries in execution **/
+	private Map<FlightKey,Flight> flightMap = new ConcurrentHashMap<FlightKey,Flight>();
+
+	private AtomicLong executionCount = new AtomicLong();
+
+	private AtomicLong sharedCount = new AtomicLong();
+
+	/**
+	 * Constructor
+	 *
+	 * @param configuration Single flight settings
+	 */
+	public SingleFlight( Configuration configuration ) {
+		this.configuration = configuration;
+	}
+
+	/**
+	 * Execute the query, or wait for the same query executed by another thread
+	 *
+	 * @param <E> Entity Type
+	 * @param database Identity of the database ( See getDatabase )
+	 * @param resultType Class of the entities
+	 * @param sql SQL query
+	 * @param params Query parameters
+	 * @param query Executes the query
+	 * @return Result of the query
+	 * @throws SQLException If the query fails, the wait times out or the thread is interrupted
+	 */
+	@SuppressWarnings("unchecked")
+	public <E> List<E> execute( String database, Class<?> resultType, String sql, Object[] params, ThrowableSupplier<List<E>> query ) throws SQLException {
+
+		FlightKey key = new FlightKey( database, resultType, sql, params );
+
+		while( true ) {
+
+			Flight flight = new Flight();
+
+			Flight leaderFlight = flightMap.putIfAbsent( key, flight );
+
+			if( null == leaderFlight ) {
+
+				return lead( key, flight, query );
+			}
+
+			synchronized( leaderFlight ) {
+
+				if( leaderFlight.landed ) {
+
+					// Result of the leader is already given. Try again
+					continue;
+				}
+
+				leaderFlight.waiters ++;
+			}
+
+			// Wait for the leader
+			try {
+
+				List<E> leaderResult = (List<E>) leaderFlight.future.get( configuration.getTimeoutMillis(), TimeUnit.MILLISECONDS );
+
+				sharedCount.incrementAndGet();
+
+				return share( leaderResult );
+
+			}catch( TimeoutException ex ) {
+
+				throw new SQLTimeoutException( "Timed out waiting for the same query in another thread : " + sql, ex );
+
+			}catch( InterruptedException ex ) {
+
+				Thread.currentThread().interrupt();
+
+				throw new SQLException( "Interrupted waiting for the same query in another thread : " + sql, ex );
+
+			}catch( ExecutionException ex ) {
+
+				throw toSQLException( ex.getCause() );
+			}
+		}
+	}
+
+	/**
+	 * Identity of the database of the Connection. URL, user, catalog and schema of the Connection.
+	 * Connections with same identity give same results for same query.
+	 *
+	 * @param conn SQL Connection
+	 * @return Identity of the database
+	 * @throws SQLException If the database metadata could not be read
+	 */
+	public static String getDatabase( Connection conn ) throws SQLException {
+
+		DatabaseMetaData metaData = conn.getMetaData();
+
+		String schema = null;
+
+		try {
+
+			schema = conn.getSchema();
+
+		}catch( AbstractMethodError | SQLFeatureNotSupportedException ex ) {
+
+			// JDBC 4.0 driver
+			schema = null;
+		}
+
+		return metaData.getURL() + "|" + metaData.getUserName() + "|" + conn.getCatalog() + "|" + schema;
+	}
+
+	/** Number of queries executed **/
+	public long getExecutionCount() {
+		return executionCount.get();
+	}
+
+	/** Number of queries answered by the result of another thread **/
+	public long getSharedCount() {
+		return sharedCount.get();
+	}
+
+	/** Execute the query and give the result to the waiting threads **/
+	private <E> List<E> lead( FlightKey key, Flight flight, ThrowableSupplier<List<E>> query ) throws SQLException {
+
+		executionCount.incrementAndGet();
+
+		List<E> result = null;
+
+		Throwable error = null;
+
+		try {
+
+			result = query.getThrows();
+
+		}catch( Throwable ex ) {
+
+			error = ex;
+		}
+
+		int waiters = 0;
+
+		synchronized( flight ) {
+
+			flight.landed = true;
+
+			waiters = flight.waiters;
+		}
+
+		flightMap.remove( key, flight );
+
+		if( null != error ) {
+
+			flight.future.completeExceptionally( error );
+
+			throw toSQLException( error );
+		}
+
+		flight.future.complete( result );
+
+		// Waiting threads read the result. So the caller of the leader also gets a copy
+		return 0 < waiters ? share( result ) : result;
+	}
+
+	private <E> List<E> share( List<E> leaderResult ) throws SQLException {
+
+		List<E> result = null;
+
+		if( null == leaderResult ) {
+
+			result = null;
+
+		}else if( configuration.isCopyResults() ) {
+
+			try {
+
+				result = EntityCopier.copyAll( leaderResult );
+
+			}catch( Exception ex ) {
+
+				throw new SQLException( "Could not copy result", ex );
+			}
+
+		}else {
+
+			result = Collections.unmodifiableList( leaderResult );
+		}
+
+		return result;
+	}
+
+	private static SQLException toSQLException( Throwable ex ) {
+
+		return ex instanceof SQLException ? (SQLException) ex : new SQLException( ex );
+	}
+}
@@ -0,0 +1,110 @@
+package io.github.codesakshi.simplejpa;
+
+import java.sql.Connection;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.github.codesakshi.simplejpa.EntityProcessor.TableMetaInfo;
+
+/**
+ * Time based 64 bit Ids, unique across nodes without database access.
+ *
+ * 	1 bit   : 0 ( positive )
+ * 	41 bits : milliseconds from epoch ( 2020-01-01 UTC ). About 69 years.
+ * 	10 bits : node id ( 0 - 1023 ), from configuration
+ * 	12 bits : sequence within the millisecond ( 4096 Ids )
+ *
+ * Ids of a node are increasing. Lock free, with compare and set of the last ( time, sequence ).
+ * If the sequence of a millisecond is exhausted, or the clock moves back, the Ids continue from the last time.
+ * So the time part may be ahead of the clock for a short time, but Ids are never repeated.
+ *
+ * <pre>
+ * 	IdGenerators.register( "snowflake", new SnowflakeIdGenerator( Integer.getInteger( "app.nodeId" ) ) );
+ * </pre>
+ *
+ * @author anilalps
+ *
+ */
+public class SnowflakeIdGenerator implements IdGenerator {
+
+	/** 2020-01-01T00:00:00Z **/
+	public static final long DEFAULT_EPOCH_MILLIS = 1577836800000L;
+
+	private static final int NODE_BITS = 10;
+
+	private static final int SEQUENCE_BITS = 12;
+
+	public static final int MAXIMUM_NODE_ID = ( 1 << NODE_BITS ) - 1;
+
+	private long nodeId;
+
+	private long epochMillis;
+
+	/** ( time << SEQUENCE_BITS ) | sequence, of the last Id **/
+	private AtomicLong lastState = new AtomicLong();
+
+	/**
+	 * Constructor
+	 *
+	 * @param nodeId Id of this node ( 0 - 1023 ). Should be unique for each running instance.
+	 */
+	public SnowflakeIdGenerator( int nodeId ) {
+
+		this( nodeId, DEFAULT_EPOCH_MILLIS );
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param nodeId Id of this node ( 0 - 1023 ). Should be unique for each running instance.
+	 * @param epochMillis Start of the time part, in milliseconds from 1970-01-01 UTC
+	 */
+	public SnowflakeIdGenerator( int nodeId, long epochMillis ) {
+
+		if( nodeId < 0 || nodeId > MAXIMUM_NODE_ID ) {
+			throw new IllegalArgumentException( "nodeId should be between 0 and " + MAXIMUM_NODE_ID + " : " + nodeId );
+		}
+
+		this.nodeId = nodeId;
+		this.epochMillis = epochMillis;
+	}
+
+	@Override
+	public Object generate( Connection conn, TableMetaInfo tableMetaInfo ) {
+
+		return IdGenerators.toIdType( nextId(), tableMetaInfo.getIdField().getType() );
+	}
+
+	/**
+	 * Generate a new Id
+	 *
+	 * @return Id
+	 */
+	public long nextId() {
+
+		long state = 0;
+
+		while( true ) {
+
+			long last = lastState.get();
+
+			long now = System.currentTimeMillis() - epochMillis;
+
+			// New millisecond starts from sequence 0. Otherwise next sequence, which moves to next millisecond on overflow
+			state = now > ( last >>> SEQUENCE_BITS ) ? now << SEQUENCE_BITS : last + 1;
+
+			if( lastState.compareAndSet( last, state ) ) {
+				break;
+			}
+		}
+
+		long time = state >>> SEQUENCE_BITS;
+
+		long sequence = state & ( ( 1L << SEQUENCE_BITS ) - 1 );
+
+		return ( time << ( NODE_BITS + SEQUENCE_BITS ) ) | ( nodeId << SEQUENCE_BITS ) | sequence;
+	}
+
+	public long getNodeId() {
+		return nodeId;
+	}
+}
@@ -0,0 +1,220 @@
+package io.github.codesakshi.simplejpa;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Notify the rows modified by Repository to the listeners ( example: caches ).
+ *
+ * Listeners are notified immediately when a row is modified.
+ * If the Connection is in a transaction, the changes are remembered and notified again on afterCommit.
+ * Because other Connections may load the old values in to a cache before the transaction is committed.
+ *
+ * Repository calls afterCommit for the transactions it manages.
+ * If the transaction is managed by the caller, call afterCommit after Connection.commit
+ *
+ * <pre>
+ * 	conn.setAutoCommit( false );
+ *
+ * 	repository.save( conn, subject );
+ *
+ * 	conn.commit();
+ *
+ * 	TableChangeNotifier.afterCommit( conn );
+ * </pre>
+ *
+ * @author anilalps
+ *
+ */
+public class TableChangeNotifier {
+
+	private static Logger logger  = LoggerFactory.getLogger(TableChangeNotifier.class);
+
+	/** Type of the change **/
+	public enum ChangeType{
+		INSERT,
+		UPDATE,
+		DELETE
+	}
+
+	/** Details of a modified row **/
+	public static class TableChangeEvent {
+
+		private String tableName;
+
+		private Object idValue;
+
+		private Map<String,Object> rowData;
+
+		private ChangeType changeType;
+
+		public TableChangeEvent(String tableName, Object idValue, Map<String,Object> rowData, ChangeType changeType) {
+			super();
+			this.tableName = tableName;
+			this.idValue = idValue;
+			this.rowData = rowData;
+			this.changeType = changeType;
+		}
+
+		/** Name of the modified table. null if the table is not known ( any table may be modified ) **/
+		public String getTableName() {
+			return tableName;
+		}
+
+		/** Id of the modified row. null if the table has no @Id ( bridge table ) or rows are not known **/
+		public Object getIdValue() {
+			return idValue;
+		}
+
+		/** Column values of the modified row. null if not known **/
+		public Map<String,Object> getRowData() {
+			return rowData;
+		}
+
+		public ChangeType getChangeType() {
+			return changeType;
+		}
+
+		@Override
+		public String toString() {
+			return "TableChangeEvent [tableName=" + tableName + ", idValue=" + idValue + ", changeType=" + changeType + "]";
+		}
+	}
+
+	/** Listener for modified rows **/
+	public interface TableChangeListener {
+
+		void tableChanged( TableChangeEvent event );
+	}
+
+	private static List<TableChangeListener> listenerList = new CopyOnWriteArrayList<TableChangeListener>();
+
+	/** Events notified in a transaction, not yet committed. Connection is weakly referenced **/
+	private static Map<Connection,List<TableChangeEvent>> pendingEventMap =
+			Collections.synchronizedMap( new WeakHashMap<Connection,List<TableChangeEvent>>() );
+
+	// Only static methods
+	private TableChangeNotifier() {}
+
+	/**
+	 * Add a listener
+	 *
+	 * @param listener Listener to be added
+	 */
+	public static void addListener( TableChangeListener listener ) {
+
+		listenerList.add( listener );
+	}
+
+	/**
+	 * Remove a listener
+	 *
+	 * @param listener Listener to be removed
+	 */
+	public static void removeListener( TableChangeListener listener ) {
+
+		listenerList.remove( listener );
+	}
+
+	/**
+	 * Check whether any listener is present
+	 *
+	 * @return true if there is at least one listener
+	 */
+	public static boolean hasListeners() {
+
+		return ! listenerList.isEmpty();
+	}
+
+	/**
+	 * Notify a modified row
+	 *
+	 * @param conn SQL Connection used for the modification
+	 * @param event Details of the modified row
+	 * @throws SQLException If the transaction state of the Connection could not be read
+	 */
+	public static void fireTableChanged( Connection conn, TableChangeEvent event ) throws SQLException {
+
+		if( ! listenerList.isEmpty() ) {
+
+			if( ! conn.getAutoCommit() ) {
+
+				synchronized( pendingEventMap ) {
+
+					List<TableChangeEvent> pendingList = pendingEventMap.get( conn );
+
+					if( null == pendingList ) {
+
+						pendingList = new ArrayList<TableChangeEvent>();
+						pendingEventMap.put( conn, pendingList );
+					}
+
+					pendingList.add( event );
+				}
+			}
+
+			notifyListeners( event );
+		}
+	}
+
+	/**
+	 * Notify the changes of the committed transaction again
+	 *
+	 * @param conn SQL Connection
+	 * @return Changes notified again. Empty if there is no change or no listener
+	 */
+	public static List<TableChangeEvent> afterCommit( Connection conn ) {
+
+		List<TableChangeEvent> pendingList = pendingEventMap.remove( conn );
+
+		if( null != pendingList ) {
+
+			for( TableChangeEvent event : pendingList ) {
+
+				notifyListeners( event );
+			}
+
+		}else {
+
+			pendingList = Collections.emptyList();
+		}
+
+		return pendingList;
+	}
+
+	/**
+	 * Discard the changes of the rolled back transaction.
+	 * Listeners were already notified, when the rows were modified.
+	 *
+	 * @param conn SQL Connection
+	 */
+	public static void afterRollback( Connection conn ) {
+
+		pendingEventMap.remove( conn );
+	}
+
+	private static void notifyListeners( TableChangeEvent event ) {
+
+		for( TableChangeListener listener : listenerList ) {
+
+			try {
+
+				listener.tableChanged( event );
+
+			}catch( RuntimeException ex ) {
+
+				// Database operation is already done. Do not fail it for a listener
+				logger.error( "Listener failed for " + event, ex );
+			}
+		}
+	}
+}
@@ -0,0 +1,667 @@
+package io.github.codesakshi.simplejpa;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded cache with W-TinyLFU eviction policy.
+ *
+ * Entries are kept in three LRU queues
+ *
+ * 	1. Window ( 1% of maximum weight ). New entries are added here.
+ * 	2. Probation. Entries evicted from window are moved here.
+ * 	3. Protected ( 80% of main space ). Entries accessed in probation are moved here.
+ *
+ * When the cache is full, entry evicted from window is admitted to main space,
+ * only if it is used more frequently than the LRU entry in probation.
+ * Frequency is estimated with a 4 bit count-min sketch, which is halved periodically. So old popularity ages out.
+ *
+ * Reads do not block. Access order is updated only if the lock is free.
+ *
+ * @author anilalps
+ *
+ * @param <K> Key Type
+ * @param <V> Value Type
+ */
+public class TinyLfuCache<K,V> {
+
+	/** Calculate the weight of an entry **/
+	public interface Weigher<K,V> {
+
+		int weigh( K key, V value );
+	}
+
+	/** Listener for the entries removed from cache **/
+	public interface RemovalListener<K,V> {
+
+		void onRemoval( K key, V value );
+	}
+
+	private static final int WINDOW = 0;
+	private static final int PROBATION = 1;
+	private static final int PROTECTED = 2;
+
+	private static final class Node<K,V> {
+
+		protected final K key;
+
+		protected volatile V value;
+
+		protected volatile long writeTime;
+
+		protected int weight;
+
+		protected int queueType;
+
+		protected Node<K,V> prev;
+
+		protected Node<K,V> next;
+
+		protected Node( K key ) {
+			this.key = key;
+		}
+	}
+
+	/** Doubly linked LRU queue. Head is the least recently used entry **/
+	private static final class AccessOrderQueue<K,V> {
+
+		protected Node<K,V> head;
+
+		protected Node<K,V> tail;
+
+		protected long weight;
+
+		protected void add( Node<K,V> node ) {
+
+			node.prev = tail;
+			node.next = null;
+
+			if( null == tail ) {
+				head = node;
+			}else {
+				tail.next = node;
+			}
+
+			tail = node;
+
+			weight += node.weight;
+		}
+
+		protected void remove( Node<K,V> node ) {
+
+			if( null == node.prev ) {
+				head = node.next;
+			}else {
+				node.prev.next = node.next;
+			}
+
+			if( null == node.next ) {
+				tail = node.prev;
+			}else {
+				node.next.prev = node.prev;
+			}
+
+			node.prev = null;
+			node.next = null;
+
+			weight -= node.weight;
+		}
+
+		protected void moveToTail( Node<K,V> node ) {
+
+			if( tail != node ) {
+
+				remove( node );
+				add( node );
+			}
+		}
+	}
+
+	/** Count-Min sketch with 4 bit counters. 16 counters are packed in a long **/
+	private static final class FrequencySketch {
+
+		private static final long[] SEEDS = new long[] {
+				0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+
+		private static final long RESET_MASK = 0x7777777777777777L;
+
+		private long[] table;
+
+		private int tableMask;
+
+		private int sampleSize;
+
+		private int additions;
+
+		protected FrequencySketch( int maximumSize ) {
+
+			int length = Integer.highestOneBit( Math.max( 16, maximumSize ) - 1 ) << 1;
+
+			table = new long[length];
+			tableMask = length - 1;
+
+			// Halve the counters after 10 * maximumSize additions
+			sampleSize = 10 * length;
+		}
+
+		protected int frequency( int hash ) {
+
+			int start = ( hash & 3 ) << 2;
+
+			int frequency = Integer.MAX_VALUE;
+
+			for( int i = 0; i < 4; i ++ ) {
+
+				int index = indexOf( hash, i );
+
+				int count = (int) ( ( table[index] >>> ( ( start + i ) << 2 ) ) & 0xfL );
+
+				frequency = Math.min( frequency, count );
+			}
+
+			return frequency;
+		}
+
+		protected void increment( int hash ) {
+
+			int start = ( hash & 3 ) << 2;
+
+			boolean added = false;
+
+			for( int i = 0; i < 4; i ++ ) {
+
+				int index = indexOf( hash, i );
+
+				int offset = ( start + i ) << 2;
+
+				long mask = 0xfL << offset;
+
+				// Counter saturates at 15
+				if( mask != ( table[index] & mask ) ) {
+
+					table[index] += 1L << offset;
+					added = true;
+				}
+			}
+
+			if( added && ++additions >= sampleSize ) {
+				reset();
+			}
+		}
+
+		private void reset() {
+
+			for( int i = 0; i < table.length; i ++ ) {
+
+				table[i] = ( table[i] >>> 1 ) & RESET_MASK;
+			}
+
+			additions >>>= 1;
+		}
+
+		private int indexOf( int hash, int i ) {
+
+			long value = ( hash + SEEDS[i] ) * SEEDS[i];
+
+			value += value >>> 32;
+
+			return ( (int) value ) & tableMask;
+		}
+	}
+
+	private Map<K,Node<K,V>> dataMap = new ConcurrentHashMap<K,Node<K,V>>();
+
+	/** Guards the queues and the sketch **/
+	private ReentrantLock lock = new ReentrantLock();
+
+	private AccessOrderQueue<K,V> windowQueue = new AccessOrderQueue<K,V>();
+
+	private AccessOrderQueue<K,V> probationQueue = new AccessOrderQueue<K,V>();
+
+	private AccessOrderQueue<K,V> protectedQueue = new AccessOrderQueue<K,V>();
+
+	private FrequencySketch sketch;
+
+	private long maximumWeight;
+
+	private long windowMaximumWeight;
+
+	private long protectedMaximumWeight;
+
+	private Weigher<K,V> weigher;
+
+	private long expireAfterWriteNanos;
+
+	private RemovalListener<K,V> removalListener;
+
+	private LongAdder hitCount = new LongAdder();
+
+	private LongAdder missCount = new LongAdder();
+
+	private LongAdder evictionCount = new LongAdder();
+
+	/**
+	 * Constructor for a cache bounded by number of entries
+	 *
+	 * @param maximumSize Maximum number of entries
+	 */
+	public TinyLfuCache( long maximumSize ) {
+		this( maximumSize, null, 0, TimeUnit.NANOSECONDS );
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param maximumWeight Maximum total weight of entries. If weigher is null, maximum number of entries
+	 * @param weigher Calculate weight of an entry. null, if each entry weighs 1
+	 * @param expireAfterWrite Entries expire after this duration from last write. 0 to disable expiry
+	 * @param unit Unit of expireAfterWrite
+	 */
+	public TinyLfuCache( long maximumWeight, Weigher<K,V> weigher, long expireAfterWrite, TimeUnit unit ) {
+
+		if( maximumWeight <= 0 ) {
+			throw new IllegalArgumentException( "maximumWeight should be positive : " + maximumWeight );
+		}
+
+		this.maximumWeight = maximumWeight;
+		this.weigher = weigher;
+		this.expireAfterWriteNanos = unit.toNanos( expireAfterWrite );
+
+		this.windowMaximumWeight = Math.max( 1, maximumWeight / 100 );
+		this.protectedMaximumWeight = ( maximumWeight - windowMaximumWeight ) * 80 / 100;
+
+		// For weighted cache, number of entries is not known. Limit the sketch size
+		long sketchSize = null == weigher ? maximumWeight : Math.min( maximumWeight, 1 << 16 );
+
+		this.sketch = new FrequencySketch( (int) Math.min( sketchSize, 1 << 20 ) );
+	}
+
+	/**
+	 * Set listener for the entries removed from cache ( evicted, expired, invalidated or replaced )
+	 *
+	 * @param removalListener Listener. Called while holding the cache lock. It should not access this cache
+	 * @return this cache
+	 */
+	public TinyLfuCache<K,V> setRemovalListener( RemovalListener<K,V> removalListener ) {
+		this.removalListener = removalListener;
+		return this;
+	}
+
+	private static int spread( Object key ) {
+
+		int hash = key.hashCode() * 0x9E3779B9;
+
+		return hash ^ ( hash >>> 16 );
+	}
+
+	private boolean isExpired( Node<K,V> node ) {
+
+		return 0 != expireAfterWriteNanos && System.nanoTime() - node.writeTime >= expireAfterWriteNanos;
+	}
+
+	/**
+	 * Get value from cache
+	 *
+	 * @param key Key
+	 * @return Value if present, null otherwise
+	 */
+	public V get( K key ) {
+
+		V value = null;
+
+		Node<K,V> node = dataMap.get( key );
+
+		if( null != node && isExpired( node ) ) {
+
+			lock.lock();
+
+			try {
+
+				// Check again. Node may be replaced while acquiring lock
+				if( node == dataMap.get( key ) && isExpired( node ) ) {
+
+					removeNode( node );
+					evictionCount.increment();
+				}
+
+			}finally {
+
+				lock.unlock();
+			}
+
+			node = null;
+		}
+
+		if( null != node ) {
+
+			value = node.value;
+
+			hitCount.increment();
+
+		}else {
+
+			missCount.increment();
+		}
+
+		// Record the access, only if the lock is free. Losing few accesses does not affect the policy
+		if( lock.tryLock() ) {
+
+			try {
+
+				sketch.increment( spread( key ) );
+
+				if( null != node && node == dataMap.get( key ) ) {
+					onAccess( node );
+				}
+
+			}finally {
+
+				lock.unlock();
+			}
+		}
+
+		return value;
+	}
+
+	/**
+	 * Put value to cache
+	 *
+	 * @param key Key
+	 * @param value Value
+	 */
+	public void put( K key, V value ) {
+
+		if( null == key || null == value ) {
+			throw new NullPointerException( "Key and value should not be null" );
+		}
+
+		int weight = null != weigher ? weigher.weigh( key, value ) : 1;
+
+		if( weight < 0 ) {
+			throw new IllegalArgumentException( "Weight should not be negative : " + weight );
+		}
+
+		lock.lock();
+
+		try {
+
+			sketch.increment( spread( key ) );
+
+			Node<K,V> node = dataMap.get( key );
+
+			if( null != node ) {
+
+				V oldValue = node.value;
+
+				getQueue( node.queueType ).weight += weight - node.weight;
+
+				node.weight = weight;
+				node.value = value;
+				node.writeTime = System.nanoTime();
+
+				onAccess( node );
+
+				if( null != removalListener ) {
+					removalListener.onRemoval( key, oldValue );
+				}
+
+			}else {
+
+				node = new Node<K,V>( key );
+
+				node.value = value;
+				node.weight = weight;
+				node.writeTime = System.nanoTime();
+				node.queueType = WINDOW;
+
+				windowQueue.add( node );
+
+				dataMap.put( key, node );
+			}
+
+			evictEntries();
+
+		}finally {
+
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Remove an entry
+	 *
+	 * @param key Key
+	 */
+	public void invalidate( K key ) {
+
+		lock.lock();
+
+		try {
+
+			Node<K,V> node = dataMap.get( key );
+
+			if( null != node ) {
+				removeNode( node );
+			}
+
+		}finally {
+
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Remove all entries. Frequency details are retained.
+	 */
+	public void invalidateAll() {
+
+		lock.lock();
+
+		try {
+
+			for( Node<K,V> node : dataMap.values() ) {
+				removeNode( node );
+			}
+
+		}finally {
+
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Get number of entries
+	 *
+	 * @return Number of entries
+	 */
+	public long size() {
+		return dataMap.size();
+	}
+
+	/**
+	 * Get total weight of the entries
+	 *
+	 * @return Total weight
+	 */
+	public long weightedSize() {
+
+		lock.lock();
+
+		try {
+
+			return windowQueue.weight + probationQueue.weight + protectedQueue.weight;
+
+		}finally {
+
+			lock.unlock();
+		}
+	}
+
+	public long getHitCount() {
+		return hitCount.sum();
+	}
+
+	public long getMissCount() {
+		return missCount.sum();
+	}
+
+	/** Number of entries evicted by size or expired **/
+	public long getEvictionCount() {
+		return evictionCount.sum();
+	}
+
+	/**
+	 * Get hit rate
+	 *
+	 * @return Ratio of hits to requests. 1.0 if there is no request
+	 */
+	public double getHitRate() {
+
+		long hits = hitCount.sum();
+		long requests = hits + missCount.sum();
+
+		return 0 == requests ? 1.0 : (double) hits / requests;
+	}
+
+	private AccessOrderQueue<K,V> getQueue( int queueType ) {
+
+		AccessOrderQueue<K,V> queue = null;
+
+		switch( queueType ) {
+		case WINDOW:
+			queue = windowQueue;
+			break;
+		case PROBATION:
+			queue = probationQueue;
+			break;
+		default:
+			queue = protectedQueue;
+			break;
+		}
+
+		return queue;
+	}
+
+	/** Move the accessed node. Called with lock held **/
+	private void onAccess( Node<K,V> node ) {
+
+		if( WINDOW == node.queueType ) {
+
+			windowQueue.moveToTail( node );
+
+		}else if( PROBATION == node.queueType ) {
+
+			// Promote to protected
+			probationQueue.remove( node );
+
+			node.queueType = PROTECTED;
+			protectedQueue.add( node );
+
+			// Demote the LRU entries of protected to probation
+			while( protectedQueue.weight > protectedMaximumWeight && protectedQueue.head != node ) {
+
+				Node<K,V> demoted = protectedQueue.head;
+
+				protectedQueue.remove( demoted );
+
+				demoted.queueType = PROBATION;
+				probationQueue.add( demoted );
+			}
+
+		}else {
+
+			protectedQueue.moveToTail( node );
+		}
+	}
+
+	/** Evict entries until the weight is within maximum. Called with lock held **/
+	private void evictEntries() {
+
+		// Move the overflow of window to probation. These are the candidates for admission
+		int candidates = 0;
+
+		Node<K,V> firstCandidate = null;
+
+		while( windowQueue.weight > windowMaximumWeight && null != windowQueue.head ) {
+
+			Node<K,V> candidate = windowQueue.head;
+
+			windowQueue.remove( candidate );
+
+			candidate.queueType = PROBATION;
+			probationQueue.add( candidate );
+
+			if( 0 == candidates++ ) {
+				firstCandidate = candidate;
+			}
+		}
+
+		while( windowQueue.weight + probationQueue.weight + protectedQueue.weight > maximumWeight ) {
+
+			Node<K,V> evicted = null;
+
+			if( candidates > 0 ) {
+
+				// Candidates are at the tail of probation
+				Node<K,V> candidate = probationQueue.tail;
+
+				Node<K,V> victim = probationQueue.head;
+
+				if( victim == firstCandidate ) {
+
+					// Probation contains only candidates. Compare with protected
+					victim = null != protectedQueue.head ? protectedQueue.head
+							: ( firstCandidate != candidate ? firstCandidate : null );
+				}
+
+				if( null == victim
+						|| sketch.frequency( spread( candidate.key ) ) <= sketch.frequency( spread( victim.key ) ) ) {
+
+					evicted = candidate;
+					candidates--;
+
+				}else {
+
+					evicted = victim;
+
+					if( victim == firstCandidate ) {
+
+						firstCandidate = victim.next;
+						candidates--;
+					}
+				}
+
+			}else if( null != probationQueue.head ) {
+
+				evicted = probationQueue.head;
+
+			}else if( null != protectedQueue.head ) {
+
+				evicted = protectedQueue.head;
+
+			}else {
+
+				evicted = windowQueue.head;
+			}
+
+			removeNode( evicted );
+
+			evictionCount.increment();
+		}
+	}
+
+	/** Remove the node from queue and map. Called with lock held **/
+	private void removeNode( Node<K,V> node ) {
+
+		getQueue( node.queueType ).remove( node );
+
+		dataMap.remove( node.key, node );
+
+		if( null != removalListener ) {
+			removalListener.onRemoval( node.key, node.value );
+		}
+	}
+}
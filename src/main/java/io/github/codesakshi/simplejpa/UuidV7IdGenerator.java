@@ -0,0 +1,69 @@
+package io.github.codesakshi.simplejpa;
+
+import java.sql.Connection;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import io.github.codesakshi.simplejpa.EntityProcessor.TableMetaInfo;
+
+/**
+ * Version 7 UUIDs ( RFC 9562 ). 48 bits of Unix milliseconds, followed by random bits.
+ *
+ * Ids are ordered by creation time. So inserts are appended to the index, unlike random ( version 4 ) UUIDs.
+ * Random bits are from ThreadLocalRandom. So there is no contention between threads.
+ *
+ * Used for @Id fields of type UUID or String.
+ *
+ * <pre>
+ * 	&#64;Id &#64;GeneratedValue( generator = "uuid7" )
+ * 	private UUID id;
+ * </pre>
+ *
+ * @author anilalps
+ *
+ */
+public class UuidV7IdGenerator implements IdGenerator {
+
+	@Override
+	public Object generate( Connection conn, TableMetaInfo tableMetaInfo ) {
+
+		Class<?> idType = tableMetaInfo.getIdField().getType();
+
+		UUID uuid = nextId();
+
+		Object idValue = null;
+
+		if( UUID.class == idType ) {
+
+			idValue = uuid;
+
+		}else if( String.class == idType ) {
+
+			idValue = uuid.toString();
+
+		}else {
+
+			throw new IllegalArgumentException( "UUID can not be set to Id of type " + idType.getName() + " in " + tableMetaInfo.getTableName() );
+		}
+
+		return idValue;
+	}
+
+	/**
+	 * Generate a new UUID
+	 *
+	 * @return Version 7 UUID
+	 */
+	public static UUID nextId() {
+
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+
+		// 48 bits time, 4 bits version, 12 bits random
+		long mostSigBits = ( System.currentTimeMillis() << 16 ) | 0x7000L | ( random.nextLong() & 0x0FFFL );
+
+		// 2 bits variant, 62 bits random
+		long leastSigBits = ( random.nextLong() & 0x3FFFFFFFFFFFFFFFL ) | 0x8000000000000000L;
+
+		return new UUID( mostSigBits, leastSigBits );
+	}
+}
@@ -0,0 +1,641 @@
+package io.github.codesakshi.simplejpa;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.github.codesakshi.simplejpa.EntityProcessor.TableMetaInfo;
+
+/**
+ * Write behind wrapper of a Repository. Saves and deletes are queued in memory and written later, in batches.
+ *
+ * 	1. Repeated writes of the same Id are coalesced. Only the latest state ( save or delete ) is written.
+ * 	2. Queue is flushed by a background thread, when it has maximumBatchSize Ids or after flushInterval.
+ * 	   Saves are written by Repository.upsertAll and deletes by Id, in a transaction of the dedicated Connection.
+ * 	3. Writes of an Id are kept in order. Queue is striped by Id, and a single flush runs at a time.
+ * 	4. If the queue has maximumQueueSize Ids, writes of new Ids wait until a flush completes ( back pressure ).
+ * 	   If the queue is still full after maximumWait, the write fails.
+ * 	5. close stops accepting writes, fails the writes waiting for the queue and flushes the queue.
+ *
+ * Writes are not durable until flushed. If a flush fails, the batch is split to isolate the failing writes and the other writes are written.
+ * Failing writes are queued again, unless a newer write is queued. After maximumAttempts, they are dropped and passed to DeadLetterListener.
+ * Reads through the Repository do not see the queued writes.
+ *
+ * Only the entity table is written, as in upsertAll. @Id should be set before save ( example: SnowflakeIdGenerator.nextId ).
+ * Entities with @Version field are not supported, as in upsertAll.
+ *
+ * <pre>
+ * 	WriteBehindRepository&lt;Metric,Long&gt; writer = new WriteBehindRepository&lt;Metric,Long&gt;( repository, writerConn,
+ * 		new WriteBehindRepository.Configuration().setFlushInterval( 200, TimeUnit.MILLISECONDS ) );
+ *
+ * 	writer.save( metric );
+ *
+ * 	writer.close();
+ * </pre>
+ *
+ * @author anilalps
+ *
+ * @param <T> Entity Type
+ * @param <ID> ID Type
+ */
+public class WriteBehindRepository<T,ID> implements AutoCloseable {
+
+	private static Logger logger  = LoggerFactory.getLogger(WriteBehindRepository.class);
+
+	/** Write behind settings **/
+	public static class Configuration {
+
+		private int maximumQueueSize = 10000;
+
+		private int maximumBatchSize = 1000;
+
+		private long flushIntervalMillis = 200;
+
+		private int lockStripes = 16;
+
+		private long maximumWaitMillis = 30000;
+
+		private int maximumAttempts = 3;
+
+		private DeadLetterListener deadLetterListener;
+
+		public Configuration() {
+
+		}
+
+		/** Maximum number of queued Ids. Writes of new Ids wait, when the queue is full **/
+		public Configuration setMaximumQueueSize(int maximumQueueSize) {
+			this.maximumQueueSize = maximumQueueSize;
+			return this;
+		}
+
+		/** Queue is flushed when it has this number of Ids. Also the rows in a JDBC batch **/
+		public Configuration setMaximumBatchSize(int maximumBatchSize) {
+			this.maximumBatchSize = maximumBatchSize;
+			return this;
+		}
+
+		/** Queue is flushed after this duration from last flush **/
+		public Configuration setFlushInterval(long duration, TimeUnit unit) {
+			this.flushIntervalMillis = unit.toMillis( duration );
+			return this;
+		}
+
+		/** Number of queue stripes. Writes of different stripes do not wait for each other **/
+		public Configuration setLockStripes(int lockStripes) {
+			this.lockStripes = lockStripes;
+			return this;
+		}
+
+		/** Maximum duration a write waits for a full queue **/
+		public Configuration setMaximumWait(long duration, TimeUnit unit) {
+			this.maximumWaitMillis = unit.toMillis( duration );
+			return this;
+		}
+
+		/** Number of failed flushes of a write, after which the write is dropped **/
+		public Configuration setMaximumAttempts(int maximumAttempts) {
+			this.maximumAttempts = maximumAttempts;
+			return this;
+		}
+
+		/** Listener of the dropped writes **/
+		public Configuration setDeadLetterListener(DeadLetterListener deadLetterListener) {
+			this.deadLetterListener = deadLetterListener;
+			return this;
+		}
+
+		public int getMaximumQueueSize() {
+			return maximumQueueSize;
+		}
+
+		public int getMaximumBatchSize() {
+			return maximumBatchSize;
+		}
+
+		public long getFlushIntervalMillis() {
+			return flushIntervalMillis;
+		}
+
+		public int getLockStripes() {
+			return lockStripes;
+		}
+
+		public long getMaximumWaitMillis() {
+			return maximumWaitMillis;
+		}
+
+		public int getMaximumAttempts() {
+			return maximumAttempts;
+		}
+
+		public DeadLetterListener getDeadLetterListener() {
+			return deadLetterListener;
+		}
+	}
+
+	/** Listener of the writes dropped after maximumAttempts, or failed on close **/
+	public interface DeadLetterListener {
+
+		/**
+		 * A write is dropped
+		 *
+		 * @param idValue Id of the entity
+		 * @param entity Entity to be saved. null for delete
+		 * @param ex Failure of the last attempt
+		 */
+		void writeDropped( Object idValue, Object entity, Exception ex );
+	}
+
+	/** Latest state of an Id. entity is null for delete **/
+	private static class PendingWrite<T> {
+
+		protected Object idValue;
+
+		protected T entity;
+
+		/** Failed flushes of this write **/
+		protected int attempts;
+
+		protected PendingWrite( Object idValue, T entity ) {
+			this.idValue = idValue;
+			this.entity = entity;
+		}
+	}
+
+	/** Queued writes of the Ids of a stripe, in the order of first write **/
+	private static class Stripe<T> {
+
+		protected Map<Object,PendingWrite<T>> pendingMap = new LinkedHashMap<Object,PendingWrite<T>>();
+	}
+
+	protected Repository<T,ID> repository;
+
+	protected Connection conn;
+
+	protected Configuration configuration;
+
+	private List<Stripe<T>> stripes;
+
+	/** One permit for each Id, which can be queued **/
+	private Semaphore capacity;
+
+	private AtomicInteger pendingCount = new AtomicInteger();
+
+	private AtomicInteger droppedCount = new AtomicInteger();
+
+	private AtomicBoolean flushRequested = new AtomicBoolean();
+
+	private volatile boolean closed = false;
+
+	/** Only one flush at a time. So the writes of an Id are written in order **/
+	private Object flushLock = new Object();
+
+	private ScheduledExecutorService executor;
+
+	/**
+	 * Constructor
+	 *
+	 * @param repository Repository of the entity
+	 * @param conn Connection dedicated to the writes. Should not be used by others. Not closed by this class.
+	 * @param configuration Write behind settings
+	 * @throws IllegalArgumentException If the entity has @Version field
+	 */
+	public WriteBehindRepository( Repository<T,ID> repository, Connection conn, Configuration configuration ) {
+
+		Repository.checkNotVersioned( repository.processor.getTableMetaInfo(), "WriteBehindRepository" );
+
+		this.repository = repository;
+		this.conn = conn;
+		this.configuration = configuration;
+
+		int stripeCount = Math.max( 1, configuration.getLockStripes() );
+
+		this.stripes = new ArrayList<Stripe<T>>( stripeCount );
+
+		for( int i = 0; i < stripeCount; i ++ ) {
+			stripes.add( new Stripe<T>() );
+		}
+
+		this.capacity = new Semaphore( configuration.getMaximumQueueSize() );
+
+		this.executor = Executors.newSingleThreadScheduledExecutor( (runnable)->{
+
+			Thread thread = new Thread( runnable, "write-behind-" + repository.processor.getTableName() );
+			thread.setDaemon( true );
+			return thread;
+		});
+
+		long interval = Math.max( 1, configuration.getFlushIntervalMillis() );
+
+		executor.scheduleWithFixedDelay( this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS );
+	}
+
+	/**
+	 * Queue the entity to be saved. A copy of the entity is queued. So the caller can modify the entity after save.
+	 *
+	 * @param entity Entity Object. @Id should not be null.
+	 * @throws Exception If the Id is null, the entity could not be copied, the queue is full after maximumWait,
+	 * 			this is closed or the thread is interrupted while waiting
+	 */
+	public void save( T entity ) throws Exception {
+
+		TableMetaInfo tableMetaInfo = repository.processor.getTableMetaInfo();
+
+		Object idValue = Repository.getEntityFieldValue( tableMetaInfo, tableMetaInfo.getIdColumnName(), entity );
+
+		if( null == idValue ) {
+			throw new IllegalArgumentException( "Id should not be null for write behind save of " + tableMetaInfo.getTableName() );
+		}
+
+		enqueue( new PendingWrite<T>( idValue, EntityCopier.copy( entity ) ) );
+	}
+
+	/**
+	 * Queue the entity to be deleted
+	 *
+	 * @param inId Id of the entity
+	 * @throws InterruptedException If the thread is interrupted while waiting for a full queue
+	 * @throws IllegalStateException If the queue is full after maximumWait, or this is closed
+	 */
+	public void deleteById( ID inId ) throws InterruptedException {
+
+		if( null == inId ) {
+			throw new IllegalArgumentException( "Id should not be null for write behind delete of " + repository.processor.getTableName() );
+		}
+
+		enqueue( new PendingWrite<T>( inId, null ) );
+	}
+
+	/**
+	 * Write the queued writes now
+	 *
+	 * @throws Exception If a write fails. Other writes are written. The failing writes are queued again or dropped.
+	 */
+	public void flush() throws Exception {
+
+		synchronized( flushLock ) {
+
+			flushRequested.set( false );
+
+			List<PendingWrite<T>> writeList = drain();
+
+			if( ! writeList.isEmpty() ) {
+
+				Exception failure = writeIsolated( writeList, false );
+
+				if( null != failure ) {
+					throw failure;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Stop accepting writes, flush the queued writes and stop the background thread.
+	 * Writes waiting for a full queue fail. Writes failing in the last flush are dropped.
+	 * Connection is not closed.
+	 */
+	@Override
+	public void close() {
+
+		if( ! closed ) {
+
+			closed = true;
+
+			// Wake the writes waiting for the queue. They see closed, return the permit and fail
+			capacity.release( Math.max( 1, configuration.getMaximumQueueSize() ) );
+
+			executor.shutdown();
+
+			try {
+
+				executor.awaitTermination( 1, TimeUnit.MINUTES );
+
+			}catch( InterruptedException ex ) {
+
+				Thread.currentThread().interrupt();
+			}
+
+			synchronized( flushLock ) {
+
+				List<PendingWrite<T>> writeList = drain();
+
+				if( ! writeList.isEmpty() ) {
+
+					Exception failure = writeIsolated( writeList, true );
+
+					if( null != failure ) {
+
+						// Queued again, because Connection is not valid
+						for( PendingWrite<T> write : drain() ) {
+							drop( write, failure );
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/** Number of queued Ids **/
+	public int getPendingCount() {
+		return pendingCount.get();
+	}
+
+	/** Number of writes dropped after maximumAttempts, or failed on close **/
+	public int getDroppedCount() {
+		return droppedCount.get();
+	}
+
+	public Repository<T,ID> getRepository() {
+		return repository;
+	}
+
+	private void enqueue( PendingWrite<T> write ) throws InterruptedException {
+
+		checkOpen();
+
+		Stripe<T> stripe = getStripe( write.idValue );
+
+		boolean coalesced = false;
+
+		synchronized( stripe ) {
+
+			checkOpen();
+
+			coalesced = null != stripe.pendingMap.computeIfPresent( write.idValue, (key,previous)-> write );
+		}
+
+		if( ! coalesced ) {
+
+			// Back pressure. Wait for a flush, if the queue is full
+			if( ! capacity.tryAcquire() ) {
+
+				requestFlush();
+
+				if( ! capacity.tryAcquire( configuration.getMaximumWaitMillis(), TimeUnit.MILLISECONDS ) ) {
+
+					throw new IllegalStateException( "Write behind queue is full for " + repository.processor.getTableName()
+							+ " after waiting " + configuration.getMaximumWaitMillis() + " ms" );
+				}
+			}
+
+			synchronized( stripe ) {
+
+				// Checked in the stripe lock. So a write is not queued after the last flush of close
+				if( closed ) {
+
+					capacity.release();
+
+					checkOpen();
+				}
+
+				if( null == stripe.pendingMap.put( write.idValue, write ) ) {
+
+					pendingCount.incrementAndGet();
+
+				}else {
+
+					// Queued by another thread meanwhile
+					capacity.release();
+				}
+			}
+		}
+
+		if( pendingCount.get() >= configuration.getMaximumBatchSize() ) {
+			requestFlush();
+		}
+	}
+
+	private void checkOpen() {
+
+		if( closed ) {
+			throw new IllegalStateException( "WriteBehindRepository is closed for " + repository.processor.getTableName() );
+		}
+	}
+
+	private List<PendingWrite<T>> drain() {
+
+		List<PendingWrite<T>> writeList = new ArrayList<PendingWrite<T>>();
+
+		for( Stripe<T> stripe : stripes ) {
+
+			synchronized( stripe ) {
+
+				writeList.addAll( stripe.pendingMap.values() );
+
+				stripe.pendingMap.clear();
+			}
+		}
+
+		pendingCount.addAndGet( - writeList.size() );
+
+		return writeList;
+	}
+
+	/**
+	 * Write the writes in a transaction. If the transaction fails, the writes are split in halves and written again,
+	 * until the failing writes are isolated. So a failing write does not block the other writes.
+	 *
+	 * @param writeList Writes to be written. Each write holds a permit of capacity.
+	 * @param lastAttempt true to drop the failing writes
+	 * @return Failure of the first failing write. null if all writes are written
+	 */
+	private Exception writeIsolated( List<PendingWrite<T>> writeList, boolean lastAttempt ) {
+
+		Exception failure = null;
+
+		try {
+
+			write( writeList );
+
+			capacity.release( writeList.size() );
+
+		}catch( Exception ex ) {
+
+			failure = ex;
+
+			boolean connectionValid = isConnectionValid();
+
+			if( writeList.size() > 1 && connectionValid ) {
+
+				int middle = writeList.size() / 2;
+
+				Exception firstFailure = writeIsolated( writeList.subList( 0, middle ), lastAttempt );
+
+				Exception secondFailure = writeIsolated( writeList.subList( middle, writeList.size() ), lastAttempt );
+
+				failure = null != firstFailure ? firstFailure : secondFailure;
+
+			}else {
+
+				// Failure of a write is counted only if it is isolated. Not for a failed Connection
+				failed( writeList, ex, connectionValid, lastAttempt );
+			}
+		}
+
+		return failure;
+	}
+
+	/**
+	 * Queue the failed writes again, or drop them after maximumAttempts. Newer writes of the same Id are kept.
+	 * Permits of the writes not queued again are released.
+	 */
+	private void failed( List<PendingWrite<T>> writeList, Exception ex, boolean countAttempt, boolean lastAttempt ) {
+
+		for( PendingWrite<T> write : writeList ) {
+
+			if( countAttempt ) {
+				write.attempts ++;
+			}
+
+			boolean requeued = false;
+
+			if( countAttempt && lastAttempt || write.attempts >= configuration.getMaximumAttempts() ) {
+
+				drop( write, ex );
+
+			}else {
+
+				Stripe<T> stripe = getStripe( write.idValue );
+
+				synchronized( stripe ) {
+
+					requeued = null == stripe.pendingMap.putIfAbsent( write.idValue, write );
+				}
+
+				if( requeued ) {
+					pendingCount.incrementAndGet();
+				}
+			}
+
+			// Queued again writes keep their permits
+			if( ! requeued ) {
+				capacity.release();
+			}
+		}
+	}
+
+	private void drop( PendingWrite<T> write, Exception ex ) {
+
+		droppedCount.incrementAndGet();
+
+		logger.error( "Write behind write dropped for " + repository.processor.getTableName() + " Id : " + write.idValue
+				+ " attempts : " + write.attempts, ex );
+
+		DeadLetterListener listener = configuration.getDeadLetterListener();
+
+		if( null != listener ) {
+
+			try {
+
+				listener.writeDropped( write.idValue, write.entity, ex );
+
+			}catch( RuntimeException listenerEx ) {
+
+				logger.error( "DeadLetterListener failed for " + repository.processor.getTableName(), listenerEx );
+			}
+		}
+	}
+
+	private boolean isConnectionValid() {
+
+		boolean valid = false;
+
+		try {
+
+			valid = conn.isValid( 5 );
+
+		}catch( SQLException ex ) {
+
+			logger.debug( "Connection could not be validated", ex );
+		}
+
+		return valid;
+	}
+
+	private Stripe<T> getStripe( Object idValue ) {
+
+		return stripes.get( ( idValue.hashCode() & 0x7FFFFFFF ) % stripes.size() );
+	}
+
+	private void write( List<PendingWrite<T>> writeList ) throws Exception {
+
+		List<T> saveList = new ArrayList<T>();
+
+		List<Object> deleteIdList = new ArrayList<Object>();
+
+		for( PendingWrite<T> write : writeList ) {
+
+			if( null != write.entity ) {
+
+				saveList.add( write.entity );
+
+			}else {
+
+				deleteIdList.add( write.idValue );
+			}
+		}
+
+		logger.debug( "write behind flush : " + repository.processor.getTableName() + " saves : " + saveList.size() + " deletes : " + deleteIdList.size() );
+
+		repository.executeInTransaction( conn, (connection)->{
+
+			int batchSize = Math.max( 1, configuration.getMaximumBatchSize() );
+
+			for( int start = 0; start < saveList.size(); start += batchSize ) {
+
+				repository.upsertAll( connection, saveList.subList( start, Math.min( saveList.size(), start + batchSize ) ) );
+			}
+
+			for( int start = 0; start < deleteIdList.size(); start += Repository.IN_CLAUSE_CHUNK_SIZE ) {
+
+				List<Object> chunkIdList = deleteIdList.subList( start, Math.min( deleteIdList.size(), start + Repository.IN_CLAUSE_CHUNK_SIZE ) );
+
+				repository.deleteWithWhere( connection, repository.getIdInClause( chunkIdList.size() ), chunkIdList.toArray() );
+			}
+
+			return null;
+		});
+	}
+
+	private void requestFlush() {
+
+		if( flushRequested.compareAndSet( false, true ) && ! executor.isShutdown() ) {
+
+			try {
+
+				executor.execute( this::flushQuietly );
+
+			}catch( RuntimeException ex ) {
+
+				// Executor is shut down by close. close flushes the queue
+				flushRequested.set( false );
+			}
+		}
+	}
+
+	private void flushQuietly() {
+
+		try {
+
+			flush();
+
+		}catch( Exception ex ) {
+
+			logger.error( "Write behind flush failed for " + repository.processor.getTableName(), ex );
+		}
+	}
+}
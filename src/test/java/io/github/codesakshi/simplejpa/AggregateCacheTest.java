@@ -0,0 +1,91 @@
+package io.github.codesakshi.simplejpa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.codesakshi.simplejpa.model.School;
+import io.github.codesakshi.simplejpa.model.Student;
+import io.github.codesakshi.simplejpa.model.Subject;
+import io.github.codesakshi.simplejpa.model.Teacher;
+
+public class AggregateCacheTest {
+
+	private static Teacher teacher( String name, Subject subject, Student... students ) {
+
+		Teacher teacher = new Teacher( name );
+		teacher.setSubject( subject );
+		teacher.setStudentSet( new HashSet<Student>( Arrays.asList( students ) ) );
+
+		return teacher;
+	}
+
+	private static School school( String name, Teacher teacher ) {
+
+		School school = new School( name );
+		school.setTeachers( new ArrayList<Teacher>( Arrays.asList( teacher ) ) );
+
+		return school;
+	}
+
+	@Test
+	public void invalidatesOnlyDependentGraphs() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		Repository<School,Long> schoolRepository = new Repository<School,Long>( School.class, Long.class );
+		Repository<Teacher,Integer> teacherRepository = new Repository<Teacher,Integer>( Teacher.class, Integer.class );
+		Repository<Student,Integer> studentRepository = new Repository<Student,Integer>( Student.class, Integer.class );
+		Repository<Subject,Integer> subjectRepository = new Repository<Subject,Integer>( Subject.class, Integer.class );
+
+		try( AggregateCache<School> cache = new AggregateCache<School>( School.class, new EntityCache.Configuration() );
+				Connection conn = database.connect() ){
+
+			schoolRepository.setEntityCache( cache );
+
+			Subject math = subjectRepository.save( conn, new Subject( "math" ) );
+			Subject art = subjectRepository.save( conn, new Subject( "art" ) );
+
+			School schoolA = schoolRepository.save( conn, school( "A", teacher( "ta", math, new Student( "st1" ) ) ) );
+			School schoolB = schoolRepository.save( conn, school( "B", teacher( "tb", art, new Student( "st2" ) ) ) );
+
+			schoolRepository.findById( conn, schoolA.getId() );
+			schoolRepository.findById( conn, schoolB.getId() );
+
+			assertEquals( 2, cache.size() );
+
+			// Student of A
+			Student student = schoolA.getTeachers().get( 0 ).getStudentSet().iterator().next();
+			student.setName( "st1x" );
+			studentRepository.save( conn, student );
+
+			assertEquals( 1, cache.size() );
+			assertEquals( "st1x", schoolRepository.findById( conn, schoolA.getId() ).getTeachers().get( 0 ).getStudentSet().iterator().next().getName() );
+
+			// New teacher in B
+			Teacher newTeacher = teacher( "tb2", math );
+			newTeacher.setSchoolId( schoolB.getId() );
+			teacherRepository.save( conn, newTeacher );
+
+			assertEquals( 1, cache.size() );
+			assertEquals( 2, schoolRepository.findById( conn, schoolB.getId() ).getTeachers().size() );
+
+			// Subject art is used only by B
+			art.setName( "artx" );
+			subjectRepository.save( conn, art );
+
+			assertEquals( 1, cache.size() );
+
+			// Bulk update without known rows
+			new DbQuery().update( conn, "UPDATE STUDENT SET NAME = 'z'" );
+
+			assertEquals( 0, cache.size() );
+			assertEquals( 0, cache.getDependencyKeyCount() );
+		}
+	}
+}
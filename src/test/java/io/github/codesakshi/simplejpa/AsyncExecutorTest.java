@@ -0,0 +1,174 @@
+package io.github.codesakshi.simplejpa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.codesakshi.simplejpa.DbQuery.ThrowableSupplier;
+import io.github.codesakshi.simplejpa.model.Subject;
+
+public class AsyncExecutorTest {
+
+	@Test
+	public void limitsConnectionsInUse() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		AtomicInteger inUse = new AtomicInteger();
+
+		AtomicInteger maxInUse = new AtomicInteger();
+
+		AsyncExecutor asyncExecutor = new AsyncExecutor( database::connect, 2 );
+
+		try {
+
+			List<CompletableFuture<Integer>> futureList = new ArrayList<CompletableFuture<Integer>>();
+
+			for( int i = 0; i < 20; i++ ) {
+
+				int value = i;
+
+				futureList.add( asyncExecutor.submit( (conn)->{
+
+					maxInUse.accumulateAndGet( inUse.incrementAndGet(), Math::max );
+
+					Thread.sleep( 5 );
+
+					inUse.decrementAndGet();
+
+					assertTrue( conn.getAutoCommit() );
+
+					return value;
+				}));
+			}
+
+			for( int i = 0; i < futureList.size(); i++ ) {
+				assertEquals( i, futureList.get( i ).get( 10, TimeUnit.SECONDS ) );
+			}
+
+			assertTrue( maxInUse.get() <= 2 );
+
+		}finally {
+
+			asyncExecutor.close();
+		}
+
+		// Permits are released after the futures complete
+		assertEquals( 2, asyncExecutor.getAvailablePermits() );
+	}
+
+	@Test
+	public void cancelledActionDoesNotTakeConnection() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		AtomicInteger connections = new AtomicInteger();
+
+		ThrowableSupplier<Connection> connectionSupplier = ()->{
+
+			connections.incrementAndGet();
+			return database.connect();
+		};
+
+		ExecutorService executor = Executors.newFixedThreadPool( 2 );
+
+		AsyncExecutor asyncExecutor = new AsyncExecutor( connectionSupplier, executor, 1 );
+
+		CountDownLatch started = new CountDownLatch( 1 );
+
+		CountDownLatch release = new CountDownLatch( 1 );
+
+		CompletableFuture<Integer> first = asyncExecutor.submit( (conn)->{
+
+			started.countDown();
+			release.await();
+			return 1;
+		});
+
+		started.await();
+
+		// Waits for the permit held by the first action
+		CompletableFuture<Integer> second = asyncExecutor.submit( (conn)-> 2 );
+
+		second.cancel( false );
+
+		release.countDown();
+
+		assertEquals( 1, first.get( 10, TimeUnit.SECONDS ) );
+		assertThrows( CancellationException.class, ()-> second.get() );
+
+		executor.shutdown();
+		assertTrue( executor.awaitTermination( 10, TimeUnit.SECONDS ) );
+
+		assertEquals( 1, connections.get() );
+		assertEquals( 1, asyncExecutor.getAvailablePermits() );
+
+		// Executor given to the constructor is not shut down by close
+		asyncExecutor.close();
+	}
+
+	@Test
+	public void completesWithFailure() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		SQLException failure = new SQLException( "failed" );
+
+		try( AsyncExecutor asyncExecutor = new AsyncExecutor( database::connect, 1 ) ){
+
+			CompletableFuture<Integer> future = asyncExecutor.submit( (conn)->{ throw failure; } );
+
+			assertSame( failure, assertThrows( ExecutionException.class, ()-> future.get( 10, TimeUnit.SECONDS ) ).getCause() );
+		}
+	}
+
+	@Test
+	public void runsRepositoryAndRejectsAfterClose() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		Repository<Subject,Integer> repository = new Repository<Subject,Integer>( Subject.class, Integer.class );
+
+		AsyncExecutor asyncExecutor = new AsyncExecutor( database::connect, 2 );
+
+		AsyncRepository<Subject,Integer> subjects = new AsyncRepository<Subject,Integer>( repository, asyncExecutor );
+
+		Subject saved = subjects.save( new Subject( "a" ) ).get( 10, TimeUnit.SECONDS );
+
+		assertEquals( "a", subjects.findById( saved.getId() ).get( 10, TimeUnit.SECONDS ).getName() );
+
+		// Committed by the action
+		assertEquals( 1, database.count( "SUBJECT" ) );
+
+		Thread.currentThread().interrupt();
+
+		try {
+
+			asyncExecutor.close();
+
+			assertTrue( Thread.currentThread().isInterrupted() );
+
+		}finally {
+
+			Thread.interrupted();
+		}
+
+		assertThrows( ExecutionException.class, ()-> subjects.findAll().get( 10, TimeUnit.SECONDS ) );
+	}
+}
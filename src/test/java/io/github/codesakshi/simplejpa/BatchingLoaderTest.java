@@ -0,0 +1,147 @@
+package io.github.codesakshi.simplejpa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.codesakshi.simplejpa.model.Subject;
+
+public class BatchingLoaderTest {
+
+	private static Repository<Subject,Integer> createSubjects( TestDatabase database, int count ) throws Exception {
+
+		Repository<Subject,Integer> repository = new Repository<Subject,Integer>( Subject.class, Integer.class );
+
+		List<Subject> subjects = new ArrayList<Subject>();
+
+		for( int i = 0; i < count; i++ ) {
+			subjects.add( new Subject( "n" + i ) );
+		}
+
+		try( Connection conn = database.connect() ){
+			repository.insertAll( conn, subjects );
+		}
+
+		return repository;
+	}
+
+	@Test
+	public void batchesConcurrentLoads() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		Repository<Subject,Integer> repository = createSubjects( database, 2000 );
+
+		ExecutorService executor = Executors.newFixedThreadPool( 16 );
+
+		try( BatchingLoader<Subject,Integer> loader = new BatchingLoader<Subject,Integer>( repository, database::connect,
+				new BatchingLoader.Configuration().setBatchWindow( 5, TimeUnit.MILLISECONDS ).setMaximumBatchSize( 300 ) ) ){
+
+			List<Future<Subject>> futureList = new ArrayList<Future<Subject>>();
+
+			for( int i = 0; i < 3000; i++ ) {
+
+				int id = ( i % 2100 ) + 1;
+
+				futureList.add( executor.submit( ()-> loader.load( id ).get() ) );
+			}
+
+			int found = 0;
+
+			for( int i = 0; i < futureList.size(); i++ ) {
+
+				Subject subject = futureList.get( i ).get();
+
+				if( null != subject ) {
+
+					assertEquals( ( i % 2100 ) + 1, subject.getId() );
+					found ++;
+				}
+			}
+
+			// Ids above 2000 are not present
+			assertEquals( 3000 - 100, found );
+			assertTrue( loader.getBatchCount() < 3000 / 10 );
+
+			List<Subject> subjects = loader.loadAll( Arrays.asList( 5, 9999, 3 ) ).get();
+
+			assertEquals( 2, subjects.size() );
+			assertEquals( 5, subjects.get( 0 ).getId() );
+			assertEquals( 3, subjects.get( 1 ).getId() );
+
+		}finally {
+
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void sharesEntityOfSameIdInBatch() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		Repository<Subject,Integer> repository = createSubjects( database, 10 );
+
+		try( BatchingLoader<Subject,Integer> loader = new BatchingLoader<Subject,Integer>( repository, database::connect,
+				new BatchingLoader.Configuration().setBatchWindow( 1, TimeUnit.MINUTES ) ) ){
+
+			CompletableFuture<Subject> first = loader.load( 4 );
+
+			assertSame( first, loader.load( 4 ) );
+
+			CompletableFuture<Subject> missing = loader.load( 99 );
+
+			loader.close();
+
+			// Pending batch is read by close
+			assertEquals( 4, first.getNow( null ).getId() );
+			assertTrue( missing.isDone() );
+			assertNull( missing.get() );
+			assertEquals( 1, loader.getBatchCount() );
+
+			assertThrows( IllegalStateException.class, ()-> loader.load( 1 ) );
+		}
+	}
+
+	@Test
+	public void closeRestoresInterrupt() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		Repository<Subject,Integer> repository = createSubjects( database, 10 );
+
+		BatchingLoader<Subject,Integer> loader = new BatchingLoader<Subject,Integer>( repository, database::connect,
+				new BatchingLoader.Configuration().setBatchWindow( 1, TimeUnit.MINUTES ) );
+
+		CompletableFuture<Subject> future = loader.load( 2 );
+
+		Thread.currentThread().interrupt();
+
+		try {
+
+			loader.close();
+
+			assertTrue( Thread.currentThread().isInterrupted() );
+
+		}finally {
+
+			Thread.interrupted();
+		}
+
+		assertEquals( 2, future.get().getId() );
+	}
+}
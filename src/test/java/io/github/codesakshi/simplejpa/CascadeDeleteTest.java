@@ -0,0 +1,113 @@
+package io.github.codesakshi.simplejpa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.codesakshi.simplejpa.model.Invoice;
+import io.github.codesakshi.simplejpa.model.InvoiceLine;
+import io.github.codesakshi.simplejpa.model.Note;
+import io.github.codesakshi.simplejpa.model.School;
+import io.github.codesakshi.simplejpa.model.Student;
+import io.github.codesakshi.simplejpa.model.Teacher;
+
+public class CascadeDeleteTest {
+
+	private static School school( String name ) {
+
+		School school = new School( name );
+		school.setTeachers( new ArrayList<Teacher>() );
+
+		for( int i = 0; i < 20; i++ ) {
+
+			Teacher teacher = new Teacher( "t" + i );
+			teacher.setStudentSet( new HashSet<Student>() );
+
+			for( int j = 0; j < 3; j++ ) {
+				teacher.getStudentSet().add( new Student( "st" + j ) );
+			}
+
+			school.getTeachers().add( teacher );
+		}
+
+		return school;
+	}
+
+	private static void assertCounts( TestDatabase database, int schools, int teachers, int groups, int students ) throws Exception {
+
+		assertEquals( schools, database.count( "SCHOOL" ) );
+		assertEquals( teachers, database.count( "TEACHER" ) );
+		assertEquals( groups, database.count( "TEACHER_STUDENT_GROUP" ) );
+		assertEquals( students, database.count( "STUDENT" ) );
+	}
+
+	@Test
+	public void deletesGraphsBySet() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		Repository<School,Long> schoolRepository = new Repository<School,Long>( School.class, Long.class );
+		LongIdRepository<School> longIdRepository = new LongIdRepository<School>( School.class );
+
+		try( Connection conn = database.connect() ){
+
+			List<Long> ids = new ArrayList<Long>();
+
+			for( int i = 0; i < 3; i++ ) {
+				ids.add( schoolRepository.save( conn, school( "S" + i ) ).getId() );
+			}
+
+			assertCounts( database, 3, 60, 180, 180 );
+
+			assertEquals( 1, schoolRepository.deleteById( conn, ids.get( 0 ) ) );
+			assertCounts( database, 2, 40, 120, 120 );
+
+			Map<String,Object> varMap = new HashMap<String,Object>();
+			varMap.put( "name", "S1" );
+
+			assertEquals( 1, schoolRepository.delete( conn, "SCHOOL.NAME = :name", varMap ) );
+			assertEquals( 1, longIdRepository.deleteAllById( conn, new long[] { ids.get( 2 ), 999 } ) );
+			assertCounts( database, 0, 0, 0, 0 );
+		}
+	}
+
+	@Test
+	public void deletesSingleTargetsOfDatabaseCascadedRows() throws Exception {
+
+		TestDatabase database = TestDatabase.create(
+			"CREATE TABLE INVOICE( ID BIGINT AUTO_INCREMENT PRIMARY KEY, NAME VARCHAR(100) )",
+			"CREATE TABLE NOTE( ID BIGINT AUTO_INCREMENT PRIMARY KEY, TEXT VARCHAR(100) )",
+			"CREATE TABLE INVOICE_LINE( ID BIGINT AUTO_INCREMENT PRIMARY KEY,"
+				+ " INVOICE_ID BIGINT REFERENCES INVOICE(ID) ON DELETE CASCADE, NOTE_ID BIGINT REFERENCES NOTE(ID) )" );
+
+		Repository<Invoice,Long> invoiceRepository = new Repository<Invoice,Long>( Invoice.class, Long.class );
+
+		try( Connection conn = database.connect() ){
+
+			assertEquals( 1, invoiceRepository.detectDatabaseCascades( conn ) );
+
+			Invoice invoice = new Invoice( "I1" );
+			invoice.setLines( new ArrayList<InvoiceLine>() );
+			invoice.getLines().add( new InvoiceLine( new Note( "n1" ) ) );
+			invoice.getLines().add( new InvoiceLine( new Note( "n2" ) ) );
+
+			invoice = invoiceRepository.save( conn, invoice );
+
+			assertEquals( 2, database.count( "NOTE" ) );
+
+			// Lines refer to the notes, so they should be deleted before the notes
+			assertEquals( 1, invoiceRepository.deleteById( conn, invoice.getId() ) );
+
+			assertEquals( 0, database.count( "INVOICE" ) );
+			assertEquals( 0, database.count( "INVOICE_LINE" ) );
+			assertEquals( 0, database.count( "NOTE" ) );
+		}
+	}
+}
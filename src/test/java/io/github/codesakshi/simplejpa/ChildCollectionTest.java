@@ -0,0 +1,59 @@
+package io.github.codesakshi.simplejpa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.codesakshi.simplejpa.model.School;
+import io.github.codesakshi.simplejpa.model.Teacher;
+
+public class ChildCollectionTest {
+
+	@Test
+	public void matchesChildrenById() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		Repository<School,Long> schoolRepository = new Repository<School,Long>( School.class, Long.class );
+
+		try( Connection conn = database.connect() ){
+
+			School school = new School( "A" );
+			school.setTeachers( new ArrayList<Teacher>() );
+
+			for( int i = 0; i < 3000; i++ ) {
+				school.getTeachers().add( new Teacher( "t" + i ) );
+			}
+
+			school = schoolRepository.save( conn, school );
+
+			assertEquals( 3000, database.count( "TEACHER" ) );
+
+			List<Teacher> teachers = school.getTeachers();
+
+			Integer changedId = teachers.get( 1 ).getId();
+
+			teachers.remove( 0 );
+			teachers.get( 0 ).setName( "changed" );
+			teachers.add( new Teacher( "new" ) );
+
+			school = schoolRepository.save( conn, school );
+
+			assertEquals( 3000, database.count( "TEACHER" ) );
+
+			School loaded = schoolRepository.findById( conn, school.getId() );
+
+			assertEquals( 3000, loaded.getTeachers().size() );
+			assertFalse( loaded.getTeachers().stream().anyMatch( (teacher)-> "t0".equals( teacher.getName() ) ) );
+			assertTrue( loaded.getTeachers().stream().anyMatch( (teacher)-> "new".equals( teacher.getName() ) ) );
+			assertTrue( loaded.getTeachers().stream().anyMatch(
+					(teacher)-> changedId.equals( teacher.getId() ) && "changed".equals( teacher.getName() ) ) );
+		}
+	}
+}
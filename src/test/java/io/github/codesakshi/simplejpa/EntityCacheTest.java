@@ -0,0 +1,144 @@
+package io.github.codesakshi.simplejpa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.codesakshi.simplejpa.TableChangeNotifier.TableChangeListener;
+import io.github.codesakshi.simplejpa.model.Subject;
+
+public class EntityCacheTest {
+
+	@Test
+	public void readThroughAndCopyOnRead() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		Repository<Subject,Integer> repository = new Repository<Subject,Integer>( Subject.class, Integer.class );
+
+		try( EntityCache<Subject> cache = new EntityCache<Subject>( Subject.class, new EntityCache.Configuration().setMaximumSize( 100 ) );
+				Connection conn = database.connect() ){
+
+			repository.setEntityCache( cache );
+
+			List<Subject> subjects = repository.saveAll( conn, Arrays.asList( new Subject( "a" ), new Subject( "b" ) ) );
+
+			assertEquals( 2, cache.size() );
+
+			Integer id = subjects.get( 0 ).getId();
+
+			repository.findById( conn, id ).setName( "corrupted" );
+
+			assertEquals( "a", repository.findById( conn, id ).getName() );
+			assertEquals( 2, cache.getHitCount() );
+
+			repository.deleteById( conn, id );
+
+			assertNull( repository.findById( conn, id ) );
+		}
+	}
+
+	@Test
+	public void invalidatesIdReadAsOtherNumberType() throws Exception {
+
+		// BIGINT column is read as Long, for Integer @Id field
+		TestDatabase database = TestDatabase.create( "CREATE TABLE SUBJECT( ID BIGINT AUTO_INCREMENT PRIMARY KEY, NAME VARCHAR(100) )" );
+
+		Repository<Subject,Integer> repository = new Repository<Subject,Integer>( Subject.class, Integer.class );
+
+		try( EntityCache<Subject> cache = new EntityCache<Subject>( Subject.class, new EntityCache.Configuration() );
+				Connection conn = database.connect() ){
+
+			repository.setEntityCache( cache );
+
+			Integer id = repository.save( conn, new Subject( "a" ) ).getId();
+
+			assertNotNull( repository.findById( conn, id ) );
+
+			assertEquals( 1, repository.delete( conn, "SUBJECT.ID = ?", id ) );
+
+			assertNull( repository.findById( conn, id ) );
+		}
+	}
+
+	@Test
+	public void writeThroughDoesNotOverwriteConcurrentInvalidation() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		Repository<Subject,Integer> repository = new Repository<Subject,Integer>( Subject.class, Integer.class );
+
+		try( EntityCache<Subject> cache = new EntityCache<Subject>( Subject.class, new EntityCache.Configuration() );
+				Connection conn = database.connect() ){
+
+			repository.setEntityCache( cache );
+
+			Subject subject = repository.save( conn, new Subject( "a" ) );
+
+			assertNotNull( cache.get( subject.getId() ) );
+
+			// Another Connection changes the row after the commit of save, before the write through
+			List<Object> notifiedList = new ArrayList<Object>();
+
+			TableChangeListener otherWriter = (event)->{
+
+				if( notifiedList.add( event.getIdValue() ) && 2 == notifiedList.size() ) {
+					cache.invalidate( subject.getId() );
+				}
+			};
+
+			TableChangeNotifier.addListener( otherWriter );
+
+			try {
+
+				subject.setName( "b" );
+				repository.save( conn, subject );
+
+			}finally {
+
+				TableChangeNotifier.removeListener( otherWriter );
+			}
+
+			assertNull( cache.get( subject.getId() ) );
+
+			// Without concurrent change, saved entity is written through
+			subject.setName( "c" );
+			repository.save( conn, subject );
+
+			assertEquals( "c", cache.get( subject.getId() ).getName() );
+		}
+	}
+
+	@Test
+	public void replacedCacheStopsListening() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		Repository<Subject,Integer> repository = new Repository<Subject,Integer>( Subject.class, Integer.class );
+
+		EntityCache<Subject> previousCache = new EntityCache<Subject>( Subject.class, new EntityCache.Configuration() );
+
+		try( EntityCache<Subject> cache = new EntityCache<Subject>( Subject.class, new EntityCache.Configuration() );
+				Connection conn = database.connect() ){
+
+			repository.setEntityCache( previousCache );
+			repository.setEntityCache( cache );
+
+			Subject subject = repository.save( conn, new Subject( "a" ) );
+
+			previousCache.put( subject.getId(), subject );
+
+			new DbQuery().update( conn, "UPDATE SUBJECT SET NAME = ? WHERE ID = ?", "b", subject.getId() );
+
+			// Closed cache is not invalidated
+			assertEquals( 1, previousCache.size() );
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package io.github.codesakshi.simplejpa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.codesakshi.simplejpa.model.School;
+import io.github.codesakshi.simplejpa.model.Student;
+import io.github.codesakshi.simplejpa.model.Subject;
+import io.github.codesakshi.simplejpa.model.Teacher;
+
+public class EntityReferenceTest {
+
+	@Test
+	public void setsAssociationsById() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		Repository<Subject,Integer> subjectRepository = new Repository<Subject,Integer>( Subject.class, Integer.class );
+		Repository<Student,Integer> studentRepository = new Repository<Student,Integer>( Student.class, Integer.class );
+		Repository<Teacher,Integer> teacherRepository = new Repository<Teacher,Integer>( Teacher.class, Integer.class );
+		Repository<School,Long> schoolRepository = new Repository<School,Long>( School.class, Long.class );
+
+		try( Connection conn = database.connect() ){
+
+			Subject subject = subjectRepository.save( conn, new Subject( "math" ) );
+			Student student = studentRepository.save( conn, new Student( "stu" ) );
+
+			Teacher teacher = new Teacher( "t" );
+			teacher.setSubject( subjectRepository.getReference( subject.getId() ) );
+			teacher.setStudentSet( new HashSet<Student>( Collections.singleton( studentRepository.getReference( student.getId() ) ) ) );
+
+			teacher = teacherRepository.save( conn, teacher );
+
+			Teacher loaded = teacherRepository.findById( conn, teacher.getId() );
+
+			assertEquals( subject.getId(), loaded.getSubject().getId() );
+			assertEquals( 1, loaded.getStudentSet().size() );
+
+			// Referred rows are not modified
+			assertEquals( "math", subjectRepository.findById( conn, subject.getId() ).getName() );
+			assertEquals( "stu", studentRepository.findById( conn, student.getId() ).getName() );
+
+			School school = new School( "sc" );
+			school.setTeachers( new ArrayList<Teacher>() );
+
+			school = schoolRepository.save( conn, school );
+
+			// OneToMany child by reference
+			school.getTeachers().add( teacherRepository.getReference( teacher.getId() ) );
+
+			schoolRepository.save( conn, school );
+
+			loaded = teacherRepository.findById( conn, teacher.getId() );
+
+			assertEquals( school.getId(), loaded.getSchoolId() );
+			assertEquals( "t", loaded.getName() );
+			assertEquals( subject.getId(), loaded.getSubject().getId() );
+		}
+	}
+
+	@Test
+	public void rejectsSaveOfReference() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		Repository<Subject,Integer> repository = new Repository<Subject,Integer>( Subject.class, Integer.class );
+
+		try( Connection conn = database.connect() ){
+
+			Subject reference = repository.getReference( 1 );
+
+			assertTrue( Repository.isReference( reference ) );
+			assertFalse( Repository.isReference( new Subject( "math" ) ) );
+
+			assertThrows( Exception.class, ()-> repository.save( conn, reference ) );
+
+			assertEquals( 0, database.count( "SUBJECT" ) );
+		}
+	}
+}
@@ -0,0 +1,144 @@
+package io.github.codesakshi.simplejpa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.codesakshi.simplejpa.DbQuery.ThrowableConsumer;
+import io.github.codesakshi.simplejpa.model.School;
+import io.github.codesakshi.simplejpa.model.Subject;
+import io.github.codesakshi.simplejpa.model.Teacher;
+
+public class ForEachChunkTest {
+
+	private static Integer readCheckpoint( TestDatabase database ) throws Exception {
+
+		try( Connection conn = database.connect() ){
+			return new DbQuery().query( conn, "SELECT V FROM CHECKPOINT", (rs)-> rs.next() ? (Integer) rs.getObject( 1 ) : null );
+		}
+	}
+
+	@Test
+	public void resumesAfterCommittedChunks() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		database.execute( "CREATE TABLE CHECKPOINT( V INT )", "INSERT INTO CHECKPOINT VALUES ( NULL )" );
+
+		Repository<Subject,Integer> repository = new Repository<Subject,Integer>( Subject.class, Integer.class );
+
+		List<Subject> subjects = new ArrayList<Subject>();
+
+		for( int i = 0; i < 2000; i++ ) {
+			subjects.add( new Subject( "n" + i ) );
+		}
+
+		try( Connection conn = database.connect() ){
+			repository.insertAll( conn, subjects );
+		}
+
+		DbQuery dbQuery = new DbQuery();
+
+		List<Integer> ids = new ArrayList<Integer>();
+
+		AtomicBoolean fail = new AtomicBoolean( true );
+
+		ThrowableConsumer<Chunk<Subject,Integer>> consumer = (chunk)->{
+
+			// Checkpoint is stored in the chunk transaction
+			dbQuery.update( chunk.getConnection(), "UPDATE CHECKPOINT SET V = ?", chunk.getCheckpoint() );
+
+			if( 3 == chunk.getIndex() && fail.get() ) {
+				throw new IllegalStateException( "failed" );
+			}
+
+			for( Subject subject : chunk.getEntities() ) {
+				ids.add( subject.getId() );
+			}
+
+			assertEquals( ids.get( ids.size() - 1 ), chunk.getCheckpoint() );
+		};
+
+		Exception ex = assertThrows( Exception.class, ()-> repository.forEachChunk( database::connect, " SUBJECT.NAME <> ? ", new Object[] { "n0" }, 300, consumer ) );
+
+		assertTrue( ex.getCause() instanceof IllegalStateException );
+
+		// Failed chunk is rolled back. Checkpoint of the third chunk is kept
+		assertEquals( 900, ids.size() );
+		assertEquals( ids.get( 899 ), readCheckpoint( database ) );
+
+		fail.set( false );
+
+		Integer last = repository.forEachChunk( database::connect, " SUBJECT.NAME <> ? ", new Object[] { "n0" }, 300, readCheckpoint( database ), consumer );
+
+		assertEquals( 1999, ids.size() );
+		assertEquals( 1999, ids.stream().distinct().count() );
+
+		for( int i = 1; i < ids.size(); i++ ) {
+			assertTrue( ids.get( i - 1 ) < ids.get( i ) );
+		}
+
+		assertEquals( ids.get( 1998 ), last );
+		assertEquals( last, readCheckpoint( database ) );
+
+		// Nothing after the last checkpoint
+		assertEquals( last, repository.forEachChunk( database::connect, null, null, 300, last, (chunk)-> ids.clear() ) );
+		assertEquals( 1999, ids.size() );
+	}
+
+	@Test
+	public void readsNestedEntities() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		Repository<School,Long> repository = new Repository<School,Long>( School.class, Long.class );
+
+		try( Connection conn = database.connect() ){
+
+			for( int i = 0; i < 5; i++ ) {
+
+				School school = new School( "s" + i );
+
+				List<Teacher> teachers = new ArrayList<Teacher>();
+
+				for( int j = 0; j < 3; j++ ) {
+					teachers.add( new Teacher( "t" + j ) );
+				}
+
+				school.setTeachers( teachers );
+
+				repository.save( conn, school );
+			}
+		}
+
+		List<Integer> chunkSizes = new ArrayList<Integer>();
+
+		Long last = repository.forEachChunk( database::connect, null, null, 2, (chunk)->{
+
+			assertEquals( chunkSizes.size(), chunk.getIndex() );
+
+			chunkSizes.add( chunk.getEntities().size() );
+
+			for( School school : chunk.getEntities() ) {
+				assertEquals( 3, school.getTeachers().size() );
+			}
+		});
+
+		assertEquals( 2, chunkSizes.get( 0 ) );
+		assertEquals( 2, chunkSizes.get( 1 ) );
+		assertEquals( 1, chunkSizes.get( 2 ) );
+		assertEquals( 3, chunkSizes.size() );
+		assertEquals( Long.valueOf( 5 ), last );
+
+		assertNull( repository.forEachChunk( database::connect, " 1 = 0 ", null, 2, (chunk)-> chunkSizes.clear() ) );
+		assertEquals( 3, chunkSizes.size() );
+	}
+}
@@ -0,0 +1,147 @@
+package io.github.codesakshi.simplejpa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import io.github.codesakshi.simplejpa.model.Document;
+import io.github.codesakshi.simplejpa.model.Event;
+import io.github.codesakshi.simplejpa.model.PurchaseOrder;
+
+public class IdGeneratorTest {
+
+	@BeforeAll
+	public static void registerGenerators() {
+
+		IdGenerators.register( "snowflake", new SnowflakeIdGenerator( 7 ) );
+	}
+
+	private static TestDatabase createDatabase() throws Exception {
+
+		return TestDatabase.create(
+			"CREATE SEQUENCE ORDER_SEQ START WITH 1 INCREMENT BY 5",
+			"CREATE TABLE ORDERS( ID BIGINT PRIMARY KEY, NAME VARCHAR(100) )",
+			"CREATE TABLE EVENTS( ID BIGINT PRIMARY KEY, NAME VARCHAR(100) )",
+			"CREATE TABLE DOCUMENT( ID UUID PRIMARY KEY, NAME VARCHAR(100) )" );
+	}
+
+	@Test
+	public void assignsIdsFromSequenceBlocks() throws Exception {
+
+		TestDatabase database = createDatabase();
+
+		Repository<PurchaseOrder,Long> repository = new Repository<PurchaseOrder,Long>( PurchaseOrder.class, Long.class );
+
+		try( Connection conn = database.connect() ){
+
+			PurchaseOrder order = repository.save( conn, new PurchaseOrder( "o1" ) );
+
+			assertNotNull( order.getId() );
+
+			List<PurchaseOrder> orders = new ArrayList<PurchaseOrder>();
+
+			for( int i = 0; i < 7; i++ ) {
+				orders.add( new PurchaseOrder( "b" + i ) );
+			}
+
+			// upsertAll requires Ids. Assigned by the generator
+			assertEquals( 7, repository.upsertAll( conn, orders ) );
+
+			Set<Long> idSet = new HashSet<Long>();
+
+			for( PurchaseOrder saved : repository.findAll( conn ) ) {
+				idSet.add( saved.getId() );
+			}
+
+			assertEquals( 8, idSet.size() );
+		}
+	}
+
+	@Test
+	public void assignsRegisteredAndUuidIds() throws Exception {
+
+		TestDatabase database = createDatabase();
+
+		Repository<Event,Long> eventRepository = new Repository<Event,Long>( Event.class, Long.class );
+		Repository<Document,UUID> documentRepository = new Repository<Document,UUID>( Document.class, UUID.class );
+
+		try( Connection conn = database.connect() ){
+
+			try( Session session = new Session( conn ) ){
+
+				for( int i = 0; i < 3; i++ ) {
+					session.save( eventRepository, new Event( "e" + i ) );
+				}
+
+				session.commit();
+			}
+
+			assertEquals( 3, eventRepository.findAll( conn ).size() );
+
+			List<Document> documents = new ArrayList<Document>();
+
+			for( int i = 0; i < 3; i++ ) {
+				documents.add( new Document( "d" + i ) );
+			}
+
+			long before = System.currentTimeMillis();
+
+			assertEquals( 3, documentRepository.mergeAll( conn, documents ) );
+
+			long after = System.currentTimeMillis();
+
+			for( Document document : documents ) {
+
+				assertEquals( 7, document.getId().version() );
+
+				// Leading 48 bits are the creation time
+				long millis = document.getId().getMostSignificantBits() >>> 16;
+
+				assertTrue( millis >= before && millis <= after );
+			}
+
+			assertEquals( 3, documentRepository.findAll( conn ).size() );
+		}
+	}
+
+	@Test
+	public void generatesUniqueIncreasingIds() {
+
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator( 1 );
+
+		Set<Long> idSet = new HashSet<Long>();
+
+		long previous = 0;
+
+		for( int i = 0; i < 100000; i++ ) {
+
+			long id = generator.nextId();
+
+			assertTrue( id > previous );
+
+			previous = id;
+
+			idSet.add( id );
+		}
+
+		assertEquals( 100000, idSet.size() );
+
+		assertThrows( IllegalArgumentException.class, ()-> new SnowflakeIdGenerator( SnowflakeIdGenerator.MAXIMUM_NODE_ID + 1 ) );
+
+		UUID uuid = UuidV7IdGenerator.nextId();
+
+		assertEquals( 7, uuid.version() );
+		assertEquals( 2, uuid.variant() );
+	}
+}
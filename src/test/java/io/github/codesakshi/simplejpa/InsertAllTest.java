@@ -0,0 +1,97 @@
+package io.github.codesakshi.simplejpa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.codesakshi.simplejpa.model.Subject;
+
+public class InsertAllTest {
+
+	private static List<Subject> subjects( String prefix, int count ) {
+
+		List<Subject> subjects = new ArrayList<Subject>();
+
+		for( int i = 0; i < count; i++ ) {
+			subjects.add( new Subject( prefix + i ) );
+		}
+
+		return subjects;
+	}
+
+	@Test
+	public void insertsStreamedEntities() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		Repository<Subject,Integer> repository = new Repository<Subject,Integer>( Subject.class, Integer.class );
+
+		// Entities are created while inserting
+		Iterable<Subject> entities = ()-> IntStream.range( 0, 5000 ).mapToObj( (i)-> new Subject( "n" + i ) ).iterator();
+
+		try( Connection conn = database.connect() ){
+
+			assertEquals( 5000, repository.insertAll( conn, entities ) );
+			assertEquals( 5000, repository.insertAll( conn, entities, new InsertOptions().setUseBatch( true ) ) );
+
+			assertEquals( 10000, database.count( "SUBJECT" ) );
+		}
+	}
+
+	@Test
+	public void returnsGeneratedIds() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		Repository<Subject,Integer> repository = new Repository<Subject,Integer>( Subject.class, Integer.class );
+
+		try( Connection conn = database.connect() ){
+
+			List<Subject> subjects = subjects( "r", 2500 );
+
+			assertEquals( 2500, repository.insertAll( conn, subjects, new InsertOptions().setReturnGeneratedIds( true ) ) );
+
+			for( Subject subject : subjects ) {
+				assertEquals( subject.getName(), repository.findById( conn, subject.getId() ).getName() );
+			}
+
+			List<Subject> batchSubjects = subjects( "q", 3 );
+
+			repository.insertAll( conn, batchSubjects, new InsertOptions().setUseBatch( true ).setReturnGeneratedIds( true ) );
+
+			for( Subject subject : batchSubjects ) {
+				assertNotNull( subject.getId() );
+			}
+		}
+	}
+
+	@Test
+	public void rejectsMixedIds() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		Repository<Subject,Integer> repository = new Repository<Subject,Integer>( Subject.class, Integer.class );
+
+		try( Connection conn = database.connect() ){
+
+			List<Subject> subjects = subjects( "m", 3 );
+
+			Subject withId = new Subject( "id" );
+			withId.setId( 1 );
+
+			subjects.add( withId );
+
+			assertThrows( Exception.class, ()-> repository.insertAll( conn, subjects ) );
+
+			// Rows inserted before the failure are rolled back
+			assertEquals( 0, database.count( "SUBJECT" ) );
+		}
+	}
+}
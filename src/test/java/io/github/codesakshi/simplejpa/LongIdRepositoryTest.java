@@ -0,0 +1,132 @@
+package io.github.codesakshi.simplejpa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.codesakshi.simplejpa.model.Tag;
+
+public class LongIdRepositoryTest {
+
+	@Test
+	public void findsAndDeletesByPrimitiveIds() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		LongIdRepository<Tag> repository = new LongIdRepository<Tag>( Tag.class );
+
+		try( Connection conn = database.connect() ){
+
+			List<Tag> tags = new ArrayList<Tag>();
+
+			// More than one IN clause chunk
+			for( int i = 0; i < 1200; i++ ) {
+				tags.add( new Tag( "tag" + i ) );
+			}
+
+			repository.saveAll( conn, tags );
+
+			assertEquals( "tag4", repository.findById( conn, 5L ).getName() );
+			assertNull( repository.findById( conn, 5000L ) );
+
+			List<Tag> found = repository.findAllById( conn, new long[] { 3, 1100, 9999, 3, 700 } );
+
+			assertEquals( 3, found.size() );
+
+			long[] ids = new long[ 1300 ];
+
+			for( int i = 0; i < ids.length; i++ ) {
+				ids[ i ] = i + 1;
+			}
+
+			BitSet present = repository.hasIds( conn, ids );
+
+			assertEquals( 1200, present.cardinality() );
+			assertTrue( present.get( 0 ) );
+			assertFalse( present.get( 1299 ) );
+
+			assertEquals( 3, repository.deleteAllById( conn, new long[] { 1, 2, 3, 4000 } ) );
+			assertEquals( 1197, database.count( "TAG" ) );
+		}
+	}
+
+	/** Proxy of the Connection, counting setLong calls of its PreparedStatements **/
+	private static Connection countSetLong( Connection conn, AtomicInteger setLongCount ) {
+
+		return (Connection) Proxy.newProxyInstance( Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, (proxy, method, args)->{
+
+			try {
+
+				Object result = method.invoke( conn, args );
+
+				if( result instanceof PreparedStatement ) {
+
+					PreparedStatement stmt = (PreparedStatement) result;
+
+					result = Proxy.newProxyInstance( PreparedStatement.class.getClassLoader(), new Class<?>[] { PreparedStatement.class }, (stmtProxy, stmtMethod, stmtArgs)->{
+
+						if( "setLong".equals( stmtMethod.getName() ) ) {
+							setLongCount.incrementAndGet();
+						}
+
+						try {
+							return stmtMethod.invoke( stmt, stmtArgs );
+						}catch( InvocationTargetException ex ) {
+							throw ex.getCause();
+						}
+					});
+				}
+
+				return result;
+
+			}catch( InvocationTargetException ex ) {
+				throw ex.getCause();
+			}
+		});
+	}
+
+	@Test
+	public void deletesByBoundPrimitiveIds() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		LongIdRepository<Tag> repository = new LongIdRepository<Tag>( Tag.class );
+
+		try( Connection conn = database.connect() ){
+
+			List<Tag> tags = new ArrayList<Tag>();
+
+			for( int i = 0; i < 700; i++ ) {
+				tags.add( new Tag( "tag" + i ) );
+			}
+
+			repository.saveAll( conn, tags );
+
+			long[] ids = new long[ 600 ];
+
+			for( int i = 0; i < ids.length; i++ ) {
+				ids[ i ] = i + 1;
+			}
+
+			AtomicInteger setLongCount = new AtomicInteger();
+
+			// Two IN clause chunks. Ids are bound by setLong
+			assertEquals( 600, repository.deleteAllById( countSetLong( conn, setLongCount ), ids ) );
+
+			assertEquals( 600, setLongCount.get() );
+			assertEquals( 100, database.count( "TAG" ) );
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package io.github.codesakshi.simplejpa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.codesakshi.simplejpa.model.School;
+import io.github.codesakshi.simplejpa.model.Student;
+import io.github.codesakshi.simplejpa.model.Subject;
+import io.github.codesakshi.simplejpa.model.Teacher;
+
+public class LongObjectMapTest {
+
+	@Test
+	public void preservesInsertionOrderAcrossResize() {
+
+		LongObjectMap<String> map = new LongObjectMap<String>();
+
+		for( long i = 0; i < 10000; i++ ) {
+			map.put( i * 7919, "v" + i );
+		}
+
+		assertEquals( 10000, map.size() );
+		assertEquals( "v42", map.get( 42L * 7919 ) );
+		assertNull( map.get( 5L ) );
+		assertEquals( 3 * 7919, map.keyAt( 3 ) );
+
+		int index = 0;
+
+		for( String value : map.values() ) {
+			assertEquals( "v" + index++, value );
+		}
+	}
+
+	@Test
+	public void boxedAndPrimitiveKeysAreSame() {
+
+		LongObjectMap<String> map = new LongObjectMap<String>();
+
+		map.put( Integer.valueOf( 7 ), "a" );
+
+		assertEquals( "a", map.get( 7L ) );
+		assertEquals( "a", map.get( Long.valueOf( 7 ) ) );
+		assertTrue( map.containsKey( 7L ) );
+		assertFalse( map.containsKey( 8L ) );
+	}
+
+	@Test
+	public void hydratesNestedGraphWithIntegralIds() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		Repository<School,Long> schoolRepository = new Repository<School,Long>( School.class, Long.class );
+
+		try( Connection conn = database.connect() ){
+
+			Subject subject = new Repository<Subject,Integer>( Subject.class, Integer.class ).save( conn, new Subject( "chemistry" ) );
+
+			School school = new School( "school" );
+			school.setTeachers( new ArrayList<Teacher>() );
+
+			for( int i = 0; i < 3; i++ ) {
+
+				Teacher teacher = new Teacher( "teacher" + i );
+				teacher.setSubject( subject );
+				teacher.setStudentSet( new HashSet<Student>( Arrays.asList( new Student( "a" + i ), new Student( "b" + i ) ) ) );
+
+				school.getTeachers().add( teacher );
+			}
+
+			Long schoolId = schoolRepository.save( conn, school ).getId();
+
+			School loaded = schoolRepository.findById( conn, schoolId );
+
+			List<Teacher> teachers = loaded.getTeachers();
+
+			assertEquals( 3, teachers.size() );
+
+			for( Teacher teacher : teachers ) {
+
+				assertEquals( 2, teacher.getStudentSet().size() );
+				assertEquals( subject.getId(), teacher.getSubject().getId() );
+			}
+
+			// Rows of the same subject are mapped to one instance
+			assertTrue( teachers.get( 0 ).getSubject() == teachers.get( 1 ).getSubject() );
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package io.github.codesakshi.simplejpa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Connection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.codesakshi.simplejpa.TableChangeNotifier.ChangeType;
+import io.github.codesakshi.simplejpa.TableChangeNotifier.TableChangeEvent;
+import io.github.codesakshi.simplejpa.TableChangeNotifier.TableChangeListener;
+import io.github.codesakshi.simplejpa.model.Student;
+import io.github.codesakshi.simplejpa.model.Teacher;
+
+public class ManyToManyBridgeTest {
+
+	@Test
+	public void writesOnlyChangedBridgeRows() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		Repository<Teacher,Integer> teacherRepository = new Repository<Teacher,Integer>( Teacher.class, Integer.class );
+
+		// Events are notified when the rows are modified, and again after commit
+		Set<TableChangeEvent> events = Collections.newSetFromMap( new IdentityHashMap<TableChangeEvent,Boolean>() );
+
+		TableChangeListener listener = (event)->{
+
+			if( "TEACHER_STUDENT_GROUP".equals( event.getTableName() ) ) {
+				events.add( event );
+			}
+		};
+
+		try( Connection conn = database.connect() ){
+
+			Teacher teacher = new Teacher( "t" );
+			teacher.setStudentSet( new HashSet<Student>() );
+
+			for( int i = 0; i < 5; i++ ) {
+				teacher.getStudentSet().add( new Student( "s" + i ) );
+			}
+
+			teacher = teacherRepository.save( conn, teacher );
+
+			TableChangeNotifier.addListener( listener );
+
+			Iterator<Student> itr = teacher.getStudentSet().iterator();
+			itr.next();
+			itr.remove();
+
+			teacher.getStudentSet().add( new Student( "new" ) );
+
+			teacher = teacherRepository.save( conn, teacher );
+
+			assertEquals( 2, events.size() );
+			assertEquals( 1, events.stream().filter( (event)-> ChangeType.DELETE == event.getChangeType() ).count() );
+			assertEquals( 1, events.stream().filter( (event)-> ChangeType.INSERT == event.getChangeType() ).count() );
+
+			assertEquals( 5, database.count( "TEACHER_STUDENT_GROUP" ) );
+			assertEquals( 5, teacherRepository.findById( conn, teacher.getId() ).getStudentSet().size() );
+
+		}finally {
+
+			TableChangeNotifier.removeListener( listener );
+		}
+	}
+}
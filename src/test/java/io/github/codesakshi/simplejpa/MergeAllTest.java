@@ -0,0 +1,89 @@
+package io.github.codesakshi.simplejpa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.codesakshi.simplejpa.model.Subject;
+
+public class MergeAllTest {
+
+	private static Subject subject( int id, String name ) {
+
+		Subject subject = new Subject( name );
+		subject.setId( id );
+
+		return subject;
+	}
+
+	@Test
+	public void mergesAndDeletesMissing() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		Repository<Subject,Integer> repository = new Repository<Subject,Integer>( Subject.class, Integer.class );
+
+		try( Connection conn = database.connect() ){
+
+			List<Subject> subjects = new ArrayList<Subject>();
+
+			for( int i = 1; i <= 1500; i++ ) {
+				subjects.add( subject( i, "s" + i ) );
+			}
+
+			assertEquals( 1500, repository.mergeAll( conn, subjects ) );
+			assertEquals( 1500, database.count( "SUBJECT" ) );
+
+			assertEquals( 2, repository.mergeAll( conn, Arrays.asList( subject( 1, "changed" ), subject( 2000, "new" ) ), true ) );
+
+			assertEquals( 2, database.count( "SUBJECT" ) );
+			assertEquals( "changed", repository.findById( conn, 1 ).getName() );
+			assertEquals( "new", repository.findById( conn, 2000 ).getName() );
+		}
+	}
+
+	@Test
+	public void doesNotCommitOpenTransaction() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		Repository<Subject,Integer> repository = new Repository<Subject,Integer>( Subject.class, Integer.class );
+
+		try( Connection conn = database.connect() ){
+
+			conn.setAutoCommit( false );
+
+			repository.save( conn, subject( 1, "before" ) );
+
+			repository.mergeAll( conn, Arrays.asList( subject( 2, "merged" ) ) );
+
+			// Staging table of the same transaction is reused
+			repository.mergeAll( conn, Arrays.asList( subject( 3, "merged" ) ) );
+
+			assertEquals( 3, repository.findAll( conn ).size() );
+
+			conn.rollback();
+
+			assertEquals( 0, database.count( "SUBJECT" ) );
+
+			repository.mergeAll( conn, Arrays.asList( subject( 4, "merged" ) ) );
+
+			conn.commit();
+
+			assertEquals( 1, database.count( "SUBJECT" ) );
+		}
+	}
+
+	@Test
+	public void stagingTableOfSqlServerHasNoIdentity() {
+
+		String createSql = Dialect.SQLSERVER.getCreateStagingTableSql( "#T_STAGING", "T", "ID", Arrays.asList( "ID", "NAME" ) );
+
+		assertEquals( "SELECT ISNULL(ID, ID) AS ID, NAME INTO #T_STAGING FROM T WHERE 1 = 0", createSql );
+	}
+}
@@ -0,0 +1,228 @@
+package io.github.codesakshi.simplejpa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.persistence.OptimisticLockException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import io.github.codesakshi.simplejpa.model.Basket;
+import io.github.codesakshi.simplejpa.model.Fruit;
+import io.github.codesakshi.simplejpa.model.Item;
+
+public class OptimisticLockTest {
+
+	/** Save failures may be wrapped **/
+	private static void assertOptimisticLock( Executable executable ) {
+
+		Throwable ex = assertThrows( Exception.class, executable );
+
+		while( null != ex.getCause() && ! ( ex instanceof OptimisticLockException ) ) {
+			ex = ex.getCause();
+		}
+
+		assertTrue( ex instanceof OptimisticLockException, String.valueOf( ex ) );
+	}
+
+	private static Item copy( Item item ) {
+
+		Item copy = new Item( item.getName() );
+		copy.setId( item.getId() );
+		copy.setVersion( item.getVersion() );
+
+		return copy;
+	}
+
+	@Test
+	public void checksVersionOnSave() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		Repository<Item,Integer> repository = new Repository<Item,Integer>( Item.class, Integer.class );
+
+		try( Connection conn = database.connect() ){
+
+			Item item = repository.save( conn, new Item( "a" ) );
+
+			assertEquals( 0L, item.getVersion() );
+
+			Item stale = copy( item );
+
+			item.setName( "b" );
+			item = repository.save( conn, item );
+
+			assertEquals( 1L, item.getVersion() );
+
+			// Unchanged. Version is not incremented
+			item = repository.save( conn, item );
+
+			assertEquals( 1L, item.getVersion() );
+
+			stale.setName( "c" );
+
+			assertOptimisticLock( ()-> repository.save( conn, stale ) );
+
+			// Existing Id without version
+			Item withoutVersion = new Item( "d" );
+			withoutVersion.setId( item.getId() );
+
+			assertOptimisticLock( ()-> repository.save( conn, withoutVersion ) );
+
+			assertEquals( "b", repository.findById( conn, item.getId() ).getName() );
+		}
+	}
+
+	/** Proxy of the Connection, collecting the statements prepared by it **/
+	private static Connection collectStatements( Connection conn, List<String> sqlList ) {
+
+		return (Connection) Proxy.newProxyInstance( Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, (proxy, method, args)->{
+
+			if( "prepareStatement".equals( method.getName() ) ) {
+				sqlList.add( ( (String) args[0] ).trim().toUpperCase() );
+			}
+
+			try {
+				return method.invoke( conn, args );
+			}catch( InvocationTargetException ex ) {
+				throw ex.getCause();
+			}
+		});
+	}
+
+	private static long countStatements( List<String> sqlList, String prefix ) {
+		return sqlList.stream().filter( sql -> sql.startsWith( prefix ) ).count();
+	}
+
+	@Test
+	public void updatesVersionedRowByOneStatement() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		Repository<Item,Integer> repository = new Repository<Item,Integer>( Item.class, Integer.class );
+
+		List<String> sqlList = new ArrayList<String>();
+
+		try( Connection conn = collectStatements( database.connect(), sqlList ) ){
+
+			Item item = repository.save( conn, new Item( "a" ) );
+
+			sqlList.clear();
+
+			item.setName( "b" );
+			item = repository.save( conn, item );
+
+			assertEquals( 1L, item.getVersion() );
+
+			// Only the existing entity and the saved entity are read
+			assertEquals( 2, countStatements( sqlList, "SELECT" ), String.valueOf( sqlList ) );
+			assertEquals( 1, countStatements( sqlList, "UPDATE" ), String.valueOf( sqlList ) );
+
+			sqlList.clear();
+
+			// Unchanged
+			item = repository.save( conn, item );
+
+			assertEquals( 1L, item.getVersion() );
+			assertEquals( 2, countStatements( sqlList, "SELECT" ), String.valueOf( sqlList ) );
+			assertEquals( 2, sqlList.size(), String.valueOf( sqlList ) );
+
+			assertEquals( "b", repository.findById( conn, item.getId() ).getName() );
+		}
+	}
+
+	@Test
+	public void doesNotIncrementUnchangedChildren() throws Exception {
+
+		TestDatabase database = TestDatabase.create(
+			"CREATE TABLE BASKET( ID BIGINT AUTO_INCREMENT PRIMARY KEY, NAME VARCHAR(100) )",
+			"CREATE TABLE FRUIT( ID INT AUTO_INCREMENT PRIMARY KEY, NAME VARCHAR(100), BASKET_ID BIGINT, VER INT )" );
+
+		Repository<Basket,Long> repository = new Repository<Basket,Long>( Basket.class, Long.class );
+
+		try( Connection conn = database.connect() ){
+
+			Basket basket = new Basket( "b" );
+			basket.setFruits( new ArrayList<Fruit>() );
+			basket.getFruits().add( new Fruit( "apple" ) );
+			basket.getFruits().add( new Fruit( "pear" ) );
+
+			basket = repository.save( conn, basket );
+
+			basket = repository.findById( conn, basket.getId() );
+
+			for( Fruit fruit : basket.getFruits() ) {
+
+				if( "apple".equals( fruit.getName() ) ) {
+					fruit.setName( "green apple" );
+				}
+			}
+
+			basket = repository.save( conn, basket );
+
+			for( Fruit fruit : repository.findById( conn, basket.getId() ).getFruits() ) {
+				assertEquals( "pear".equals( fruit.getName() ) ? 0 : 1, fruit.getVersion() );
+			}
+		}
+	}
+
+	@Test
+	public void incrementsVersionOnUpdateWhere() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		Repository<Item,Integer> repository = new Repository<Item,Integer>( Item.class, Integer.class );
+
+		try( Connection conn = database.connect() ){
+
+			Item item = repository.save( conn, new Item( "a" ) );
+
+			assertEquals( 1, repository.updateWhere( conn, Collections.singletonMap( "NAME", "b" ), "ID = ?", item.getId() ) );
+
+			assertEquals( 1L, repository.findById( conn, item.getId() ).getVersion() );
+
+			// Loaded before the update
+			item.setName( "c" );
+
+			assertOptimisticLock( ()-> repository.save( conn, item ) );
+
+			assertThrows( IllegalArgumentException.class,
+					()-> repository.updateWhere( conn, Collections.singletonMap( "VER", 5L ), "ID = ?", item.getId() ) );
+		}
+	}
+
+	@Test
+	public void rejectsWritesWithoutVersionCheck() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		Repository<Item,Integer> repository = new Repository<Item,Integer>( Item.class, Integer.class );
+
+		try( Connection conn = database.connect() ){
+
+			Item item = new Item( "a" );
+			item.setId( 1 );
+
+			assertThrows( IllegalArgumentException.class, ()-> repository.upsertAll( conn, Collections.singletonList( item ) ) );
+			assertThrows( IllegalArgumentException.class, ()-> repository.mergeAll( conn, Collections.singletonList( item ) ) );
+
+			try( Session session = new Session( conn ) ){
+				assertThrows( IllegalArgumentException.class, ()-> session.save( repository, item ) );
+			}
+
+			assertThrows( IllegalArgumentException.class, ()-> new WriteBehindRepository<Item,Integer>( repository, conn,
+					new WriteBehindRepository.Configuration() ) );
+
+			assertEquals( 0, database.count( "ITEM" ) );
+		}
+	}
+}
@@ -0,0 +1,65 @@
+package io.github.codesakshi.simplejpa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.codesakshi.simplejpa.model.Subject;
+
+public class ParallelSaveTest {
+
+	@Test
+	public void savesPartitionsAndRetriesFailed() throws Exception {
+
+		TestDatabase database = TestDatabase.create( "CREATE TABLE SUBJECT( ID INT AUTO_INCREMENT PRIMARY KEY, NAME VARCHAR(10) )" );
+
+		Repository<Subject,Integer> repository = new Repository<Subject,Integer>( Subject.class, Integer.class );
+
+		List<Subject> subjects = new ArrayList<Subject>();
+
+		for( int i = 0; i < 2000; i++ ) {
+
+			// Too long for the column
+			Subject subject = new Subject( 7 == i ? "too long name" : "n" + i );
+
+			// Explicit Ids. H2 may generate duplicate auto increment values, when a concurrent transaction fails and rolls back
+			subject.setId( i + 1 );
+
+			subjects.add( subject );
+		}
+
+		ParallelSaveResult<Subject> result = repository.saveAllParallel( database::connect, subjects, 8 );
+
+		assertFalse( result.isSuccess() );
+		assertEquals( 1, result.getFailedPartitions().size() );
+
+		ParallelSaveResult.Partition<Subject> failed = result.getFailedPartitions().get( 0 );
+
+		assertEquals( 2000 - failed.getEntities().size(), result.getSavedEntities().size() );
+
+		// Failed partition is rolled back
+		assertEquals( 2000 - failed.getEntities().size(), database.count( "SUBJECT" ) );
+
+		for( Subject subject : failed.getEntities() ) {
+
+			if( subject.getName().length() > 10 ) {
+				subject.setName( "fixed" );
+			}
+		}
+
+		assertTrue( repository.retryPartition( database::connect, failed ) );
+
+		assertTrue( result.isSuccess() );
+		assertEquals( 2000, result.getSavedEntities().size() );
+
+		try( Connection conn = database.connect() ){
+			assertEquals( 2000, repository.findAll( conn ).size() );
+		}
+	}
+}
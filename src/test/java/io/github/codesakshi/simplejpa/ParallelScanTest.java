@@ -0,0 +1,103 @@
+package io.github.codesakshi.simplejpa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.codesakshi.simplejpa.model.Subject;
+
+public class ParallelScanTest {
+
+	private static Repository<Subject,Integer> createSubjects( TestDatabase database, int count ) throws Exception {
+
+		Repository<Subject,Integer> repository = new Repository<Subject,Integer>( Subject.class, Integer.class );
+
+		List<Subject> subjects = new ArrayList<Subject>();
+
+		for( int i = 0; i < count; i++ ) {
+			subjects.add( new Subject( "n" + i ) );
+		}
+
+		try( Connection conn = database.connect() ){
+			repository.insertAll( conn, subjects );
+		}
+
+		return repository;
+	}
+
+	@Test
+	public void readsEachMatchingRecordOnce() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		Repository<Subject,Integer> repository = createSubjects( database, 2000 );
+
+		Set<Integer> ids = ConcurrentHashMap.newKeySet();
+
+		Set<String> threads = ConcurrentHashMap.newKeySet();
+
+		long count = repository.parallelScan( database::connect, " SUBJECT.NAME <> ? ", new Object[] { "n5" }, 8, (subject)->{
+
+			assertTrue( ids.add( subject.getId() ) );
+
+			threads.add( Thread.currentThread().getName() );
+		});
+
+		assertEquals( 1999, count );
+		assertEquals( 1999, ids.size() );
+		assertTrue( threads.size() > 1 );
+
+		assertEquals( 0, repository.parallelScan( database::connect, " 1 = 0 ", null, 4, (subject)->{} ) );
+	}
+
+	@Test
+	public void pagesPartitionByKeyset() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		Repository<Subject,Integer> repository = createSubjects( database, 2000 );
+
+		int lastId = 2000;
+
+		Set<Integer> ids = ConcurrentHashMap.newKeySet();
+
+		// Single partition. Rows deleted while reading the first page are not read, if later pages are read later
+		long count = repository.parallelScan( database::connect, null, null, 1, (subject)->{
+
+			if( ids.isEmpty() ) {
+				database.execute( "DELETE FROM SUBJECT WHERE ID = " + lastId );
+			}
+
+			ids.add( subject.getId() );
+		});
+
+		assertEquals( 1999, count );
+		assertFalse( ids.contains( lastId ) );
+	}
+
+	@Test
+	public void failsWhenConsumerFails() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		Repository<Subject,Integer> repository = createSubjects( database, 2000 );
+
+		Exception ex = assertThrows( Exception.class, ()-> repository.parallelScan( database::connect, null, null, 4, (subject)->{
+
+			if( "n1500".equals( subject.getName() ) ) {
+				throw new IllegalStateException( "failed" );
+			}
+		}));
+
+		assertTrue( ex.getCause() instanceof IllegalStateException );
+	}
+}
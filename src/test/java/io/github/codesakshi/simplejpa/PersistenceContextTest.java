@@ -0,0 +1,123 @@
+package io.github.codesakshi.simplejpa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.codesakshi.simplejpa.model.Author;
+import io.github.codesakshi.simplejpa.model.Book;
+import io.github.codesakshi.simplejpa.model.Subject;
+import io.github.codesakshi.simplejpa.model.Teacher;
+
+public class PersistenceContextTest {
+
+	@Test
+	public void sharesInstancesWhileOpen() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		Repository<Subject,Integer> subjectRepository = new Repository<Subject,Integer>( Subject.class, Integer.class );
+		Repository<Teacher,Integer> teacherRepository = new Repository<Teacher,Integer>( Teacher.class, Integer.class );
+
+		try( Connection conn = database.connect() ){
+
+			Subject subject = subjectRepository.save( conn, new Subject( "math" ) );
+
+			Teacher teacher = new Teacher( "teacher" );
+			teacher.setSubject( subject );
+			teacher = teacherRepository.save( conn, teacher );
+
+			try( PersistenceContext context = PersistenceContext.open( conn ) ){
+
+				Teacher loaded = teacherRepository.findById( conn, teacher.getId() );
+
+				assertSame( loaded, teacherRepository.findById( conn, teacher.getId() ) );
+
+				// Subject has no associations. So it is fully populated under Teacher
+				assertSame( loaded.getSubject(), subjectRepository.findById( conn, subject.getId() ) );
+
+				loaded.setName( "changed" );
+				teacherRepository.save( conn, loaded );
+
+				Teacher reloaded = teacherRepository.findById( conn, teacher.getId() );
+
+				assertNotSame( loaded, reloaded );
+				assertEquals( "changed", reloaded.getName() );
+
+				assertThrows( IllegalStateException.class, ()-> PersistenceContext.open( conn ) );
+			}
+
+			assertNull( PersistenceContext.get( conn ) );
+		}
+	}
+
+	@Test
+	public void doesNotReusePartiallyPopulatedEntities() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		database.execute(
+			"INSERT INTO AUTHOR( ID, NAME ) VALUES ( 1, 'author' )",
+			"INSERT INTO BOOK( ID, TITLE, AUTHOR_ID ) VALUES ( 1, 'first', 1 )",
+			"INSERT INTO BOOK( ID, TITLE, AUTHOR_ID ) VALUES ( 2, 'second', 1 )" );
+
+		Repository<Author,Integer> authorRepository = new Repository<Author,Integer>( Author.class, Integer.class );
+		Repository<Book,Integer> bookRepository = new Repository<Book,Integer>( Book.class, Integer.class );
+
+		try( Connection conn = database.connect(); PersistenceContext context = PersistenceContext.open( conn ) ){
+
+			// Author.books is cut by the cycle check, when Author is loaded under Book
+			Book book = bookRepository.findById( conn, 1 );
+
+			assertEquals( 0, book.getAuthor().getBooks().size() );
+
+			Author author = authorRepository.findById( conn, 1 );
+
+			assertNotSame( book.getAuthor(), author );
+			assertEquals( 2, author.getBooks().size() );
+
+			// Fully populated author is shared afterwards
+			assertSame( author, authorRepository.findAll( conn ).get( 0 ) );
+			assertSame( author, bookRepository.findById( conn, 2 ).getAuthor() );
+		}
+	}
+
+	@Test
+	public void forgetsContextOfCollectedConnection() throws Exception {
+
+		int openCount = PersistenceContext.getOpenCount();
+
+		openUnclosedContext();
+
+		// Context is not closed. Its Connection is garbage collected
+		for( int i = 0; i < 100 && PersistenceContext.getOpenCount() > openCount; i++ ) {
+
+			System.gc();
+			Thread.sleep( 10 );
+		}
+
+		assertEquals( openCount, PersistenceContext.getOpenCount() );
+	}
+
+	private static void openUnclosedContext() {
+
+		Connection conn = (Connection) Proxy.newProxyInstance( Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+				(proxy, method, args)-> "hashCode".equals( method.getName() ) ? System.identityHashCode( proxy )
+						: "equals".equals( method.getName() ) ? proxy == args[0] : null );
+
+		int openCount = PersistenceContext.getOpenCount();
+
+		PersistenceContext.open( conn );
+
+		assertEquals( openCount + 1, PersistenceContext.getOpenCount() );
+		assertTrue( null != PersistenceContext.get( conn ) );
+	}
+}
@@ -0,0 +1,143 @@
+package io.github.codesakshi.simplejpa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.codesakshi.simplejpa.model.Subject;
+
+public class QueryCacheTest {
+
+	private static final String QUERY = "SELECT * FROM SUBJECT WHERE NAME LIKE ?";
+
+	@Test
+	public void cachesResultsUntilTableChanges() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		Repository<Subject,Integer> repository = new Repository<Subject,Integer>( Subject.class, Integer.class );
+
+		try( QueryCache<Subject> cache = new QueryCache<Subject>( Subject.class, new QueryCache.Configuration() );
+				Connection conn = database.connect() ){
+
+			repository.setQueryCache( cache );
+
+			List<Subject> subjects = new ArrayList<Subject>();
+
+			for( int i = 0; i < 5; i++ ) {
+				subjects.add( new Subject( "s" + i ) );
+			}
+
+			subjects = repository.saveAll( conn, subjects );
+
+			repository.findMultiple( conn, QUERY, "s%" ).get( 0 ).setName( "corrupted" );
+
+			List<Subject> cached = repository.findMultiple( conn, QUERY, "s%" );
+
+			assertEquals( 5, cached.size() );
+			assertEquals( "s0", cached.get( 0 ).getName() );
+			assertEquals( 1, cache.getHitCount() );
+
+			new DbQuery().update( conn, "UPDATE SUBJECT SET NAME = ? WHERE ID = ?", "x", subjects.get( 0 ).getId() );
+
+			assertEquals( 4, repository.findMultiple( conn, QUERY, "s%" ).size() );
+
+			repository.deleteById( conn, subjects.get( 1 ).getId() );
+
+			assertEquals( 3, repository.findMultiple( conn, QUERY, "s%" ).size() );
+
+			long hitCount = cache.getHitCount();
+
+			repository.findMultiple( conn, "SELECT * FROM SUBJECT WHERE NAME LIKE :name", Collections.singletonMap( "name", "s%" ) );
+			repository.findMultiple( conn, "SELECT * FROM SUBJECT WHERE NAME LIKE :name", Collections.singletonMap( "name", "s%" ) );
+
+			// Named parameters are converted to the same positional query
+			assertEquals( hitCount + 2, cache.getHitCount() );
+		}
+	}
+
+	/** Procedure, which renames the subjects. Called by H2 with the Connection of the caller **/
+	public static void renameSubjects( Connection conn, String name ) throws SQLException {
+
+		try( PreparedStatement stmt = conn.prepareStatement( "UPDATE SUBJECT SET NAME = ?" ) ){
+
+			stmt.setString( 1, name );
+			stmt.executeUpdate();
+		}
+	}
+
+	@Test
+	public void invalidatesOnDbQueryInsertAndProcedure() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		database.execute( "CREATE ALIAS RENAME_SUBJECTS FOR \"" + QueryCacheTest.class.getName() + ".renameSubjects\"" );
+
+		Repository<Subject,Integer> repository = new Repository<Subject,Integer>( Subject.class, Integer.class );
+
+		DbQuery dbQuery = new DbQuery();
+
+		try( QueryCache<Subject> cache = new QueryCache<Subject>( Subject.class, new QueryCache.Configuration() );
+				Connection conn = database.connect() ){
+
+			repository.setQueryCache( cache );
+
+			assertEquals( 0, repository.findMultiple( conn, QUERY, "s%" ).size() );
+
+			dbQuery.insert( conn, "INSERT INTO SUBJECT( NAME ) VALUES ( ? )", DbQuery.<Integer>toID(), "s1" );
+
+			assertEquals( 1, repository.findMultiple( conn, QUERY, "s%" ).size() );
+
+			dbQuery.insertBatch( conn, "INSERT INTO SUBJECT( NAME ) VALUES ( ? )", DbQuery.<Integer>toIDList(),
+					new Object[][] { { "s2" }, { "s3" } } );
+
+			assertEquals( 3, repository.findMultiple( conn, QUERY, "s%" ).size() );
+
+			// Tables modified by a procedure are not known
+			dbQuery.executeProcedure( conn, "CALL RENAME_SUBJECTS( ? )", null, "x" );
+
+			assertEquals( 0, repository.findMultiple( conn, QUERY, "s%" ).size() );
+		}
+	}
+
+	@Test
+	public void replacedCacheStopsListening() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		Repository<Subject,Integer> repository = new Repository<Subject,Integer>( Subject.class, Integer.class );
+
+		QueryCache<Subject> previousCache = new QueryCache<Subject>( Subject.class, new QueryCache.Configuration() );
+
+		try( QueryCache<Subject> cache = new QueryCache<Subject>( Subject.class, new QueryCache.Configuration() );
+				Connection conn = database.connect() ){
+
+			repository.setQueryCache( previousCache );
+			repository.findMultiple( conn, QUERY, "s%" );
+
+			repository.setQueryCache( cache );
+
+			// Closed cache is emptied and not used
+			assertEquals( 0, previousCache.size() );
+
+			repository.findMultiple( conn, QUERY, "s%" );
+
+			assertEquals( 0, previousCache.size() );
+			assertEquals( 1, cache.size() );
+		}
+	}
+
+	@Test
+	public void readsModifiedTableName() {
+
+		assertEquals( "SUBJECT", DbQuery.getModifiedTableName( "delete from myschema.\"SUBJECT\" where x = 1" ) );
+		assertEquals( "SUBJECT", DbQuery.getModifiedTableName( "UPDATE SUBJECT SET NAME = ?" ) );
+	}
+}
@@ -0,0 +1,120 @@
+package io.github.codesakshi.simplejpa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.codesakshi.simplejpa.model.School;
+import io.github.codesakshi.simplejpa.model.Subject;
+import io.github.codesakshi.simplejpa.model.Teacher;
+
+public class SessionTest {
+
+	@Test
+	public void writesInForeignKeyOrder() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		Repository<Subject,Integer> subjectRepository = new Repository<Subject,Integer>( Subject.class, Integer.class );
+		Repository<Teacher,Integer> teacherRepository = new Repository<Teacher,Integer>( Teacher.class, Integer.class );
+		Repository<School,Long> schoolRepository = new Repository<School,Long>( School.class, Long.class );
+
+		try( Connection conn = database.connect() ){
+
+			Subject subject = new Subject( "math" );
+
+			School school = new School( "sc" );
+
+			List<Teacher> teachers = new ArrayList<Teacher>();
+
+			for( int i = 0; i < 3; i++ ) {
+
+				Teacher teacher = new Teacher( "t" + i );
+				teacher.setId( 10 - i );
+				teacher.setSubject( subject );
+
+				teachers.add( teacher );
+			}
+
+			school.setTeachers( teachers );
+
+			// Registered before the rows they refer to
+			try( Session session = new Session( conn ) ){
+
+				session.saveAll( teacherRepository, teachers );
+				session.save( schoolRepository, school );
+				session.save( subjectRepository, subject );
+
+				session.commit();
+			}
+
+			assertNotNull( subject.getId() );
+			assertNotNull( school.getId() );
+
+			Teacher loaded = teacherRepository.findById( conn, 9 );
+
+			assertEquals( subject.getId(), loaded.getSubject().getId() );
+			assertEquals( school.getId(), loaded.getSchoolId() );
+
+			conn.setAutoCommit( false );
+
+			// Deletes run after the rows referring to the subject are updated
+			try( Session session = new Session( conn ) ){
+
+				session.deleteById( teacherRepository, 9 );
+				session.delete( subjectRepository, subject );
+
+				teachers.get( 0 ).setSubject( null );
+				teachers.get( 2 ).setSubject( null );
+
+				session.save( teacherRepository, teachers.get( 0 ) );
+				session.save( teacherRepository, teachers.get( 2 ) );
+
+				session.commit();
+			}
+
+			assertEquals( 2, database.count( "TEACHER" ) );
+			assertEquals( 0, database.count( "SUBJECT" ) );
+			assertNull( teacherRepository.findById( conn, 10 ).getSubject() );
+		}
+	}
+
+	@Test
+	public void discardsUnflushedWrites() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		Repository<Subject,Integer> subjectRepository = new Repository<Subject,Integer>( Subject.class, Integer.class );
+
+		try( Connection conn = database.connect() ){
+
+			try( Session session = new Session( conn ) ){
+
+				session.save( subjectRepository, new Subject( "not flushed" ) );
+			}
+
+			assertEquals( 0, database.count( "SUBJECT" ) );
+
+			conn.setAutoCommit( false );
+
+			try( Session session = new Session( conn ) ){
+
+				session.save( subjectRepository, new Subject( "rolled back" ) );
+
+				session.flush();
+
+				assertEquals( 1, subjectRepository.findAll( conn ).size() );
+
+				session.rollback();
+			}
+
+			assertEquals( 0, database.count( "SUBJECT" ) );
+		}
+	}
+}
@@ -0,0 +1,250 @@
+package io.github.codesakshi.simplejpa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.codesakshi.simplejpa.DbQuery.ThrowableSupplier;
+import io.github.codesakshi.simplejpa.model.Subject;
+
+public class SingleFlightTest {
+
+	private static final String DATABASE = "jdbc:h2:mem:flight";
+
+	private static final String SQL = "SELECT ID, NAME FROM SUBJECT WHERE ID > ?";
+
+	/** Query of a thread, which should wait for the leader **/
+	private static final ThrowableSupplier<List<Subject>> NOT_EXECUTED = ()->{
+
+		fail( "Query should be answered by the leader" );
+		return null;
+	};
+
+	/** Run the action on a new thread **/
+	private static <R> CompletableFuture<R> start( ThrowableSupplier<R> action ) {
+
+		CompletableFuture<R> future = new CompletableFuture<R>();
+
+		Thread thread = new Thread( ()->{
+
+			try {
+				future.complete( action.getThrows() );
+			}catch( Throwable ex ) {
+				future.completeExceptionally( ex );
+			}
+		});
+
+		thread.setDaemon( true );
+		thread.start();
+
+		return future;
+	}
+
+	private static CompletableFuture<List<Subject>> startWaiter( SingleFlight singleFlight ) {
+
+		return start( ()-> singleFlight.execute( DATABASE, Subject.class, SQL, new Object[] { 0 }, NOT_EXECUTED ) );
+	}
+
+	@Test
+	public void sharesCopiesOfLeaderResult() throws Exception {
+
+		// Reads the metadata of Subject, used to copy the result
+		new Repository<Subject,Integer>( Subject.class, Integer.class );
+
+		SingleFlight singleFlight = new SingleFlight( new SingleFlight.Configuration() );
+
+		CountDownLatch started = new CountDownLatch( 1 );
+
+		CountDownLatch release = new CountDownLatch( 1 );
+
+		List<Subject> leaderResult = new ArrayList<Subject>( Arrays.asList( new Subject( "a" ), new Subject( "b" ) ) );
+
+		CompletableFuture<List<Subject>> leader = start( ()-> singleFlight.execute( DATABASE, Subject.class, SQL, new Object[] { 0 }, ()->{
+
+			started.countDown();
+			release.await();
+			return leaderResult;
+		}));
+
+		started.await();
+
+		CompletableFuture<List<Subject>> waiter = startWaiter( singleFlight );
+
+		// Waiter is waiting for the leader
+		Thread.sleep( 200 );
+
+		release.countDown();
+
+		List<Subject> waiterResult = waiter.get( 10, TimeUnit.SECONDS );
+
+		assertEquals( 2, waiterResult.size() );
+		assertEquals( "b", waiterResult.get( 1 ).getName() );
+		assertNotSame( leaderResult.get( 0 ), waiterResult.get( 0 ) );
+
+		// Leader also gets a copy, because the result is shared
+		assertNotSame( leaderResult.get( 0 ), leader.get( 10, TimeUnit.SECONDS ).get( 0 ) );
+
+		assertEquals( 1, singleFlight.getExecutionCount() );
+		assertEquals( 1, singleFlight.getSharedCount() );
+
+		// Query is executed again after the leader landed
+		assertSame( leaderResult, singleFlight.execute( DATABASE, Subject.class, SQL, new Object[] { 0 }, ()-> leaderResult ) );
+		assertEquals( 2, singleFlight.getExecutionCount() );
+	}
+
+	@Test
+	public void sharesInstancesWithoutCopy() throws Exception {
+
+		SingleFlight singleFlight = new SingleFlight( new SingleFlight.Configuration().setCopyResults( false ) );
+
+		CountDownLatch started = new CountDownLatch( 1 );
+
+		CountDownLatch release = new CountDownLatch( 1 );
+
+		Subject subject = new Subject( "a" );
+
+		start( ()-> singleFlight.execute( DATABASE, Subject.class, SQL, new Object[] { 0 }, ()->{
+
+			started.countDown();
+			release.await();
+			return new ArrayList<Subject>( Arrays.asList( subject ) );
+		}));
+
+		started.await();
+
+		CompletableFuture<List<Subject>> waiter = startWaiter( singleFlight );
+
+		Thread.sleep( 200 );
+
+		release.countDown();
+
+		List<Subject> waiterResult = waiter.get( 10, TimeUnit.SECONDS );
+
+		assertSame( subject, waiterResult.get( 0 ) );
+		assertThrows( UnsupportedOperationException.class, ()-> waiterResult.add( subject ) );
+	}
+
+	@Test
+	public void failsWaitersWithLeaderFailure() throws Exception {
+
+		SingleFlight singleFlight = new SingleFlight( new SingleFlight.Configuration() );
+
+		CountDownLatch started = new CountDownLatch( 1 );
+
+		CountDownLatch release = new CountDownLatch( 1 );
+
+		SQLException failure = new SQLException( "failed" );
+
+		CompletableFuture<List<Subject>> leader = start( ()-> singleFlight.execute( DATABASE, Subject.class, SQL, new Object[] { 0 }, ()->{
+
+			started.countDown();
+			release.await();
+			throw failure;
+		}));
+
+		started.await();
+
+		CompletableFuture<List<Subject>> waiter = startWaiter( singleFlight );
+
+		Thread.sleep( 200 );
+
+		release.countDown();
+
+		assertSame( failure, assertThrows( Exception.class, ()-> waiter.get( 10, TimeUnit.SECONDS ) ).getCause() );
+		assertSame( failure, assertThrows( Exception.class, ()-> leader.get( 10, TimeUnit.SECONDS ) ).getCause() );
+	}
+
+	@Test
+	public void waiterTimesOut() throws Exception {
+
+		SingleFlight singleFlight = new SingleFlight( new SingleFlight.Configuration().setTimeout( 100, TimeUnit.MILLISECONDS ) );
+
+		CountDownLatch started = new CountDownLatch( 1 );
+
+		CountDownLatch release = new CountDownLatch( 1 );
+
+		CompletableFuture<List<Subject>> leader = start( ()-> singleFlight.execute( DATABASE, Subject.class, SQL, new Object[] { 0 }, ()->{
+
+			started.countDown();
+			release.await();
+			return new ArrayList<Subject>();
+		}));
+
+		started.await();
+
+		try {
+
+			assertThrows( SQLTimeoutException.class, ()-> singleFlight.execute( DATABASE, Subject.class, SQL, new Object[] { 0 }, NOT_EXECUTED ) );
+
+			// Different parameters are not shared
+			assertEquals( 0, singleFlight.execute( DATABASE, Subject.class, SQL, new Object[] { 1 }, ()-> new ArrayList<Subject>() ).size() );
+
+			// Same query of a different database is not shared
+			assertEquals( 0, singleFlight.execute( DATABASE + "2", Subject.class, SQL, new Object[] { 0 }, ()-> new ArrayList<Subject>() ).size() );
+
+		}finally {
+
+			release.countDown();
+		}
+
+		assertEquals( 0, leader.get( 10, TimeUnit.SECONDS ).size() );
+		assertEquals( 0, singleFlight.getSharedCount() );
+	}
+
+	@Test
+	public void sharesOnlyAutoCommitQueries() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		database.execute( "INSERT INTO SUBJECT( NAME ) VALUES ( 'a' )", "INSERT INTO SUBJECT( NAME ) VALUES ( 'b' )" );
+
+		Repository<Subject,Integer> repository = new Repository<Subject,Integer>( Subject.class, Integer.class );
+
+		SingleFlight singleFlight = new SingleFlight( new SingleFlight.Configuration() );
+
+		repository.setSingleFlight( singleFlight );
+
+		try( Connection conn = database.connect() ){
+
+			assertEquals( 2, repository.findAll( conn ).size() );
+			assertEquals( 1, singleFlight.getExecutionCount() );
+
+			conn.setAutoCommit( false );
+
+			// Result depends on the transaction
+			assertEquals( 2, repository.findAll( conn ).size() );
+			assertEquals( 1, singleFlight.getExecutionCount() );
+
+			conn.rollback();
+		}
+	}
+
+	@Test
+	public void identifiesDatabaseOfConnection() throws Exception {
+
+		TestDatabase first = TestDatabase.create();
+
+		TestDatabase second = TestDatabase.create();
+
+		try( Connection firstConn = first.connect(); Connection otherFirstConn = first.connect(); Connection secondConn = second.connect() ){
+
+			assertEquals( SingleFlight.getDatabase( firstConn ), SingleFlight.getDatabase( otherFirstConn ) );
+			assertNotEquals( SingleFlight.getDatabase( firstConn ), SingleFlight.getDatabase( secondConn ) );
+		}
+	}
+}
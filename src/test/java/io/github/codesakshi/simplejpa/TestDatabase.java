@@ -0,0 +1,78 @@
+package io.github.codesakshi.simplejpa;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In memory H2 databases for tests. Each call of create gives a new empty database.
+ */
+final class TestDatabase {
+
+	private static AtomicInteger databaseCount = new AtomicInteger();
+
+	private final String url;
+
+	private TestDatabase( String url ) {
+		this.url = url;
+	}
+
+	/** Create a new database with the tables of the test model **/
+	static TestDatabase create() throws SQLException {
+
+		TestDatabase database = new TestDatabase( "jdbc:h2:mem:test" + databaseCount.incrementAndGet() + ";DB_CLOSE_DELAY=-1;MODE=MySQL" );
+
+		database.execute(
+			"CREATE TABLE SUBJECT( ID INT AUTO_INCREMENT PRIMARY KEY, NAME VARCHAR(100) )",
+			"CREATE TABLE STUDENT( ID INT AUTO_INCREMENT PRIMARY KEY, NAME VARCHAR(100) )",
+			"CREATE TABLE SCHOOL( ID BIGINT AUTO_INCREMENT PRIMARY KEY, NAME VARCHAR(100) )",
+			"CREATE TABLE TEACHER( ID INT AUTO_INCREMENT PRIMARY KEY, NAME VARCHAR(100),"
+				+ " SUBJECT_ID INT REFERENCES SUBJECT(ID), SCHOOL_ID BIGINT REFERENCES SCHOOL(ID) )",
+			"CREATE TABLE TEACHER_STUDENT_GROUP( TEACHER_ID INT REFERENCES TEACHER(ID), STUDENT_ID INT REFERENCES STUDENT(ID) )",
+			"CREATE TABLE TAG( ID BIGINT AUTO_INCREMENT PRIMARY KEY, NAME VARCHAR(100) )",
+			"CREATE TABLE ITEM( ID INT AUTO_INCREMENT PRIMARY KEY, NAME VARCHAR(100), VER BIGINT )",
+			"CREATE TABLE AUTHOR( ID INT AUTO_INCREMENT PRIMARY KEY, NAME VARCHAR(100) )",
+			"CREATE TABLE BOOK( ID INT AUTO_INCREMENT PRIMARY KEY, TITLE VARCHAR(100), AUTHOR_ID INT REFERENCES AUTHOR(ID) )" );
+
+		return database;
+	}
+
+	/** Create a new database with the given tables **/
+	static TestDatabase create( String... ddl ) throws SQLException {
+
+		TestDatabase database = new TestDatabase( "jdbc:h2:mem:test" + databaseCount.incrementAndGet() + ";DB_CLOSE_DELAY=-1;MODE=MySQL" );
+
+		database.execute( ddl );
+
+		return database;
+	}
+
+	/** Open a new Connection in auto commit mode **/
+	Connection connect() throws SQLException {
+		return DriverManager.getConnection( url );
+	}
+
+	void execute( String... sqlList ) throws SQLException {
+
+		try( Connection conn = connect(); Statement stmt = conn.createStatement() ){
+
+			for( String sql : sqlList ) {
+				stmt.execute( sql );
+			}
+		}
+	}
+
+	long count( String tableName ) throws SQLException {
+
+		try( Connection conn = connect(); Statement stmt = conn.createStatement();
+				ResultSet rs = stmt.executeQuery( "SELECT COUNT(*) FROM " + tableName ) ){
+
+			rs.next();
+
+			return rs.getLong( 1 );
+		}
+	}
+}
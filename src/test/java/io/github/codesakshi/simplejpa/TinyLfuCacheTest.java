@@ -0,0 +1,60 @@
+package io.github.codesakshi.simplejpa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class TinyLfuCacheTest {
+
+	@Test
+	public void keepsFrequentKeysUnderScan() {
+
+		TinyLfuCache<Integer,Integer> cache = new TinyLfuCache<Integer,Integer>( 100 );
+
+		// Hot keys
+		for( int round = 0; round < 10; round++ ) {
+			for( int key = 0; key < 50; key++ ) {
+
+				if( null == cache.get( key ) ) {
+					cache.put( key, key );
+				}
+			}
+		}
+
+		// One time scan should not evict the hot keys
+		for( int key = 1000; key < 11000; key++ ) {
+			cache.put( key, key );
+		}
+
+		int hotHits = 0;
+
+		for( int key = 0; key < 50; key++ ) {
+
+			if( null != cache.get( key ) ) {
+				hotHits++;
+			}
+		}
+
+		assertTrue( cache.size() <= 100 );
+		assertTrue( hotHits >= 40, "hot keys retained " + hotHits );
+		assertTrue( cache.getEvictionCount() > 0 );
+	}
+
+	@Test
+	public void expiresAfterWrite() throws Exception {
+
+		TinyLfuCache<Integer,Integer> cache = new TinyLfuCache<Integer,Integer>( 10, null, 50, TimeUnit.MILLISECONDS );
+
+		cache.put( 1, 1 );
+
+		assertEquals( Integer.valueOf( 1 ), cache.get( 1 ) );
+
+		Thread.sleep( 80 );
+
+		assertNull( cache.get( 1 ) );
+	}
+}
@@ -0,0 +1,116 @@
+package io.github.codesakshi.simplejpa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.codesakshi.simplejpa.TableChangeNotifier.TableChangeEvent;
+import io.github.codesakshi.simplejpa.TableChangeNotifier.TableChangeListener;
+import io.github.codesakshi.simplejpa.model.Subject;
+
+public class UpdateWhereTest {
+
+	@Test
+	public void updatesMatchingRows() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		Repository<Subject,Integer> repository = new Repository<Subject,Integer>( Subject.class, Integer.class );
+
+		try( Connection conn = database.connect() ){
+
+			List<Subject> subjects = new ArrayList<Subject>();
+
+			for( int i = 1; i <= 5; i++ ) {
+				subjects.add( new Subject( "s" + i ) );
+			}
+
+			repository.saveAll( conn, subjects );
+
+			// Single statement, no listener
+			assertEquals( 2, repository.updateWhere( conn, Collections.singletonMap( "NAME", "x" ), "ID <= ?", 2 ) );
+
+			assertEquals( "x", repository.findById( conn, 2 ).getName() );
+			assertEquals( "s3", repository.findById( conn, 3 ).getName() );
+
+			// Invalid columns
+			assertThrows( IllegalArgumentException.class,
+					()-> repository.updateWhere( conn, Collections.singletonMap( "ID", 9 ), "1 = 1" ) );
+
+			assertThrows( IllegalArgumentException.class,
+					()-> repository.updateWhere( conn, Collections.singletonMap( "NO_SUCH_COLUMN", 9 ), "1 = 1" ) );
+		}
+	}
+
+	@Test
+	public void invalidatesCachedRows() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		Repository<Subject,Integer> repository = new Repository<Subject,Integer>( Subject.class, Integer.class );
+
+		try( EntityCache<Subject> cache = new EntityCache<Subject>( Subject.class, new EntityCache.Configuration() );
+				Connection conn = database.connect() ){
+
+			List<Subject> subjects = new ArrayList<Subject>();
+
+			for( int i = 1; i <= 5; i++ ) {
+				subjects.add( new Subject( "s" + i ) );
+			}
+
+			repository.saveAll( conn, subjects );
+
+			repository.setEntityCache( cache );
+
+			repository.findById( conn, 1 );
+			repository.findById( conn, 4 );
+
+			assertEquals( 2, cache.size() );
+
+			Map<String,Object> varMap = new HashMap<String,Object>();
+			varMap.put( "id", 3 );
+
+			Set<TableChangeEvent> events = Collections.newSetFromMap( new IdentityHashMap<TableChangeEvent,Boolean>() );
+
+			TableChangeListener listener = (event)-> events.add( event );
+
+			TableChangeNotifier.addListener( listener );
+
+			try {
+
+				assertEquals( 3, repository.updateWhere( conn, Collections.singletonMap( "NAME", "y" ), "ID >= :id", varMap ) );
+
+			}finally {
+
+				TableChangeNotifier.removeListener( listener );
+			}
+
+			// Single change of the table. Updated rows are not read
+			assertEquals( 1, events.size() );
+
+			TableChangeEvent event = events.iterator().next();
+
+			assertEquals( "SUBJECT", event.getTableName() );
+			assertNull( event.getIdValue() );
+
+			assertEquals( 0, cache.size() );
+			assertEquals( "y", repository.findById( conn, 4 ).getName() );
+			assertEquals( "s1", repository.findById( conn, 1 ).getName() );
+
+			// Without parameters
+			assertEquals( 5, repository.updateWhere( conn, Collections.singletonMap( "NAME", "z" ), "1 = 1", (Object[]) null ) );
+			assertEquals( "z", repository.findById( conn, 1 ).getName() );
+		}
+	}
+}
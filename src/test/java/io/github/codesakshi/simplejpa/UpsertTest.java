@@ -0,0 +1,80 @@
+package io.github.codesakshi.simplejpa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.codesakshi.simplejpa.model.Subject;
+
+public class UpsertTest {
+
+	@Test
+	public void insertsOrUpdatesById() throws Exception {
+
+		TestDatabase database = TestDatabase.create();
+
+		Repository<Subject,Integer> repository = new Repository<Subject,Integer>( Subject.class, Integer.class );
+
+		try( EntityCache<Subject> cache = new EntityCache<Subject>( Subject.class, new EntityCache.Configuration() );
+				Connection conn = database.connect() ){
+
+			repository.setEntityCache( cache );
+
+			Subject subject = repository.save( conn, new Subject( "a" ) );
+
+			repository.findById( conn, subject.getId() );
+
+			assertEquals( 1, cache.size() );
+
+			Subject changed = new Subject( "changed" );
+			changed.setId( subject.getId() );
+
+			Subject added = new Subject( "new" );
+			added.setId( 100 );
+
+			assertEquals( 2, repository.upsertAll( conn, Arrays.asList( changed, added ) ) );
+
+			// Cached entity is evicted
+			assertEquals( 0, cache.size() );
+
+			assertEquals( "changed", repository.findById( conn, subject.getId() ).getName() );
+			assertEquals( "new", repository.findById( conn, 100 ).getName() );
+			assertEquals( 2, database.count( "SUBJECT" ) );
+
+			assertThrows( IllegalArgumentException.class, ()-> repository.upsert( conn, new Subject( "no id" ) ) );
+		}
+	}
+
+	@Test
+	public void buildsUpsertSqlOfEachDialect() {
+
+		assertEquals( "INSERT INTO T (ID, NAME) VALUES (?, ?) ON CONFLICT (ID) DO UPDATE SET NAME = EXCLUDED.NAME",
+				Dialect.POSTGRESQL.getUpsertSql( "T", "ID", Arrays.asList( "ID", "NAME" ) ) );
+		assertEquals( "INSERT INTO T (ID) VALUES (?) ON CONFLICT (ID) DO NOTHING",
+				Dialect.POSTGRESQL.getUpsertSql( "T", "ID", Collections.singletonList( "ID" ) ) );
+
+		assertEquals( "INSERT INTO T (ID, NAME) VALUES (?, ?) ON DUPLICATE KEY UPDATE NAME = VALUES(NAME)",
+				Dialect.MYSQL.getUpsertSql( "T", "ID", Arrays.asList( "ID", "NAME" ) ) );
+		assertEquals( "INSERT INTO T (ID) VALUES (?) ON DUPLICATE KEY UPDATE ID = ID",
+				Dialect.MYSQL.getUpsertSql( "T", "ID", Collections.singletonList( "ID" ) ) );
+
+		assertEquals( "MERGE INTO T (ID, NAME) KEY (ID) VALUES (?, ?)",
+				Dialect.H2.getUpsertSql( "T", "ID", Arrays.asList( "ID", "NAME" ) ) );
+
+		String oracleSql = Dialect.ORACLE.getUpsertSql( "T", "ID", Arrays.asList( "ID", "NAME" ) );
+
+		assertTrue( oracleSql.startsWith( "MERGE INTO T t USING ( SELECT ? ID, ? NAME FROM DUAL ) s ON ( t.ID = s.ID )" ), oracleSql );
+		assertTrue( oracleSql.contains( "UPDATE SET t.NAME = s.NAME" ), oracleSql );
+
+		String sqlServerSql = Dialect.SQLSERVER.getUpsertSql( "T", "ID", Arrays.asList( "ID", "NAME" ) );
+
+		assertTrue( sqlServerSql.startsWith( "MERGE INTO T WITH (HOLDLOCK) t USING ( VALUES (?, ?) ) s (ID, NAME) ON ( t.ID = s.ID )" ), sqlServerSql );
+		assertTrue( sqlServerSql.endsWith( ";" ), sqlServerSql );
+	}
+}
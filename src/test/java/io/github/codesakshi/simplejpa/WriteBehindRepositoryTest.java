@@ -0,0 +1,207 @@
+package io.github.codesakshi.simplejpa;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.codesakshi.simplejpa.model.Subject;
+
+public class WriteBehindRepositoryTest {
+
+	/** Rows named 'bad' fail **/
+	private static TestDatabase createDatabase() throws Exception {
+
+		return TestDatabase.create( "CREATE TABLE SUBJECT( ID INT PRIMARY KEY, NAME VARCHAR(100) CHECK ( NAME <> 'bad' ) )" );
+	}
+
+	private static Subject subject( int id, String name ) {
+
+		Subject subject = new Subject( name );
+		subject.setId( id );
+
+		return subject;
+	}
+
+	@Test
+	public void coalescesAndFlushes() throws Exception {
+
+		TestDatabase database = createDatabase();
+
+		Repository<Subject,Integer> repository = new Repository<Subject,Integer>( Subject.class, Integer.class );
+
+		ExecutorService executor = Executors.newFixedThreadPool( 4 );
+
+		try( Connection conn = database.connect(); Connection writerConn = database.connect() ){
+
+			WriteBehindRepository<Subject,Integer> writer = new WriteBehindRepository<Subject,Integer>( repository, writerConn,
+					new WriteBehindRepository.Configuration().setFlushInterval( 50, TimeUnit.MILLISECONDS )
+						.setMaximumQueueSize( 50 ).setMaximumBatchSize( 20 ) );
+
+			for( int i = 0; i < 10; i++ ) {
+				writer.save( subject( 1, "v" + i ) );
+			}
+
+			assertEquals( 1, writer.getPendingCount() );
+
+			writer.flush();
+
+			assertEquals( "v9", repository.findById( conn, 1 ).getName() );
+
+			List<Future<?>> futures = new ArrayList<Future<?>>();
+
+			for( int t = 0; t < 4; t++ ) {
+
+				int offset = 1000 * ( t + 1 );
+
+				futures.add( executor.submit( ()->{
+
+					for( int i = 0; i < 500; i++ ) {
+						writer.save( subject( offset + i, "x" + i ) );
+					}
+
+					return null;
+				}));
+			}
+
+			for( Future<?> future : futures ) {
+				future.get();
+			}
+
+			writer.deleteById( 1 );
+
+			writer.close();
+
+			assertEquals( 0, writer.getPendingCount() );
+			assertEquals( 2000, database.count( "SUBJECT" ) );
+			assertNull( repository.findById( conn, 1 ) );
+
+			assertThrows( IllegalStateException.class, ()-> writer.save( subject( 2, "closed" ) ) );
+
+		}finally {
+
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void isolatesAndDropsFailingWrites() throws Exception {
+
+		TestDatabase database = createDatabase();
+
+		Repository<Subject,Integer> repository = new Repository<Subject,Integer>( Subject.class, Integer.class );
+
+		List<Object> droppedIds = new ArrayList<Object>();
+
+		try( Connection writerConn = database.connect() ){
+
+			WriteBehindRepository<Subject,Integer> writer = new WriteBehindRepository<Subject,Integer>( repository, writerConn,
+					new WriteBehindRepository.Configuration().setFlushInterval( 1, TimeUnit.HOURS ).setMaximumAttempts( 2 )
+						.setDeadLetterListener( (idValue, entity, ex)-> droppedIds.add( idValue ) ) );
+
+			for( int i = 1; i <= 10; i++ ) {
+				writer.save( subject( i, 5 == i ? "bad" : "s" + i ) );
+			}
+
+			assertThrows( Exception.class, ()-> writer.flush() );
+
+			// Other writes are written. Failing write is queued again
+			assertEquals( 9, database.count( "SUBJECT" ) );
+			assertEquals( 1, writer.getPendingCount() );
+
+			writer.save( subject( 11, "s11" ) );
+
+			assertThrows( Exception.class, ()-> writer.flush() );
+
+			assertEquals( 10, database.count( "SUBJECT" ) );
+			assertEquals( 0, writer.getPendingCount() );
+			assertEquals( 1, writer.getDroppedCount() );
+			assertEquals( 5, droppedIds.get( 0 ) );
+
+			writer.close();
+		}
+	}
+
+	@Test
+	public void failsWritesWaitingForFullQueue() throws Exception {
+
+		TestDatabase database = createDatabase();
+
+		Repository<Subject,Integer> repository = new Repository<Subject,Integer>( Subject.class, Integer.class );
+
+		try( Connection writerConn = database.connect() ){
+
+			WriteBehindRepository<Subject,Integer> writer = new WriteBehindRepository<Subject,Integer>( repository, writerConn,
+					new WriteBehindRepository.Configuration().setFlushInterval( 1, TimeUnit.HOURS ).setMaximumQueueSize( 1 )
+						.setMaximumAttempts( 100 ).setMaximumWait( 200, TimeUnit.MILLISECONDS ) );
+
+			// Failing write holds the only permit of the queue
+			writer.save( subject( 1, "bad" ) );
+
+			long start = System.nanoTime();
+
+			assertThrows( IllegalStateException.class, ()-> writer.save( subject( 2, "s2" ) ) );
+
+			assertTrue( TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - start ) >= 200 );
+
+			writer.close();
+
+			// Failing write is dropped on close
+			assertEquals( 1, writer.getDroppedCount() );
+			assertEquals( 0, database.count( "SUBJECT" ) );
+		}
+	}
+
+	@Test
+	public void closeFailsBlockedWrites() throws Exception {
+
+		TestDatabase database = createDatabase();
+
+		Repository<Subject,Integer> repository = new Repository<Subject,Integer>( Subject.class, Integer.class );
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+
+		try( Connection writerConn = database.connect() ){
+
+			WriteBehindRepository<Subject,Integer> writer = new WriteBehindRepository<Subject,Integer>( repository, writerConn,
+					new WriteBehindRepository.Configuration().setFlushInterval( 1, TimeUnit.HOURS ).setMaximumQueueSize( 1 )
+						.setMaximumAttempts( 100 ).setMaximumWait( 1, TimeUnit.HOURS ) );
+
+			writer.save( subject( 1, "bad" ) );
+
+			Future<?> blocked = executor.submit( ()->{
+
+				writer.save( subject( 2, "s2" ) );
+
+				return null;
+			});
+
+			Thread.sleep( 200 );
+
+			writer.close();
+
+			ExecutionException ex = assertThrows( ExecutionException.class, ()-> blocked.get( 10, TimeUnit.SECONDS ) );
+
+			assertTrue( ex.getCause() instanceof IllegalStateException );
+
+			// Blocked write is not queued after the last flush
+			assertEquals( 0, writer.getPendingCount() );
+			assertEquals( 0, database.count( "SUBJECT" ) );
+
+		}finally {
+
+			executor.shutdown();
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package io.github.codesakshi.simplejpa.model;
+
+import java.util.List;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.OneToMany;
+import javax.persistence.Table;
+
+@Entity
+@Table(name = "AUTHOR")
+public class Author {
+
+	@Id
+	@Column(name = "ID")
+	private Integer id;
+
+	@Column(name = "NAME")
+	private String name;
+
+	@OneToMany
+	@JoinColumn(name = "AUTHOR_ID")
+	private List<Book> books;
+
+	public Integer getId() {
+		return id;
+	}
+
+	public void setId(Integer id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public List<Book> getBooks() {
+		return books;
+	}
+
+	public void setBooks(List<Book> books) {
+		this.books = books;
+	}
+}
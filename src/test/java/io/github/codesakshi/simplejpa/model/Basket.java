@@ -0,0 +1,59 @@
+package io.github.codesakshi.simplejpa.model;
+
+import java.util.List;
+
+import javax.persistence.CascadeType;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.OneToMany;
+import javax.persistence.Table;
+
+@Entity
+@Table(name = "BASKET")
+public class Basket {
+
+	@Id
+	@Column(name = "ID")
+	private Long id;
+
+	@Column(name = "NAME")
+	private String name;
+
+	@OneToMany(cascade = { CascadeType.ALL })
+	@JoinColumn(name = "BASKET_ID")
+	private List<Fruit> fruits;
+
+	public Basket() {
+
+	}
+
+	public Basket(String name) {
+		this.name = name;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public List<Fruit> getFruits() {
+		return fruits;
+	}
+
+	public void setFruits(List<Fruit> fruits) {
+		this.fruits = fruits;
+	}
+}
@@ -0,0 +1,48 @@
+package io.github.codesakshi.simplejpa.model;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+
+@Entity
+@Table(name = "BOOK")
+public class Book {
+
+	@Id
+	@Column(name = "ID")
+	private Integer id;
+
+	@Column(name = "TITLE")
+	private String title;
+
+	@ManyToOne
+	@JoinColumn(name = "AUTHOR_ID")
+	private Author author;
+
+	public Integer getId() {
+		return id;
+	}
+
+	public void setId(Integer id) {
+		this.id = id;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	public void setTitle(String title) {
+		this.title = title;
+	}
+
+	public Author getAuthor() {
+		return author;
+	}
+
+	public void setAuthor(Author author) {
+		this.author = author;
+	}
+}
@@ -0,0 +1,46 @@
+package io.github.codesakshi.simplejpa.model;
+
+import java.util.UUID;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+@Entity
+@Table(name = "DOCUMENT")
+public class Document {
+
+	@Id
+	@GeneratedValue
+	@Column(name = "ID")
+	private UUID id;
+
+	@Column(name = "NAME")
+	private String name;
+
+	public Document() {
+
+	}
+
+	public Document(String name) {
+		this.name = name;
+	}
+
+	public UUID getId() {
+		return id;
+	}
+
+	public void setId(UUID id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+}
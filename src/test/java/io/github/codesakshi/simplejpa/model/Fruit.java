@@ -0,0 +1,66 @@
+package io.github.codesakshi.simplejpa.model;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Version;
+
+@Entity
+@Table(name = "FRUIT")
+public class Fruit {
+
+	@Id
+	@Column(name = "ID")
+	private Integer id;
+
+	@Column(name = "NAME")
+	private String name;
+
+	@Column(name = "BASKET_ID")
+	private Long basketId;
+
+	@Version
+	@Column(name = "VER")
+	private Integer version;
+
+	public Fruit() {
+
+	}
+
+	public Fruit(String name) {
+		this.name = name;
+	}
+
+	public Integer getId() {
+		return id;
+	}
+
+	public void setId(Integer id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public Long getBasketId() {
+		return basketId;
+	}
+
+	public void setBasketId(Long basketId) {
+		this.basketId = basketId;
+	}
+
+	public Integer getVersion() {
+		return version;
+	}
+
+	public void setVersion(Integer version) {
+		this.version = version;
+	}
+}
@@ -0,0 +1,59 @@
+package io.github.codesakshi.simplejpa.model;
+
+import java.util.List;
+
+import javax.persistence.CascadeType;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.OneToMany;
+import javax.persistence.Table;
+
+@Entity
+@Table(name = "INVOICE")
+public class Invoice {
+
+	@Id
+	@Column(name = "ID")
+	private Long id;
+
+	@Column(name = "NAME")
+	private String name;
+
+	@OneToMany(cascade = { CascadeType.ALL })
+	@JoinColumn(name = "INVOICE_ID")
+	private List<InvoiceLine> lines;
+
+	public Invoice() {
+
+	}
+
+	public Invoice(String name) {
+		this.name = name;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public List<InvoiceLine> getLines() {
+		return lines;
+	}
+
+	public void setLines(List<InvoiceLine> lines) {
+		this.lines = lines;
+	}
+}
@@ -0,0 +1,57 @@
+package io.github.codesakshi.simplejpa.model;
+
+import javax.persistence.CascadeType;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+
+@Entity
+@Table(name = "INVOICE_LINE")
+public class InvoiceLine {
+
+	@Id
+	@Column(name = "ID")
+	private Long id;
+
+	@Column(name = "INVOICE_ID")
+	private Long invoiceId;
+
+	@ManyToOne(cascade = { CascadeType.ALL })
+	@JoinColumn(name = "NOTE_ID")
+	private Note note;
+
+	public InvoiceLine() {
+
+	}
+
+	public InvoiceLine(Note note) {
+		this.note = note;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public Long getInvoiceId() {
+		return invoiceId;
+	}
+
+	public void setInvoiceId(Long invoiceId) {
+		this.invoiceId = invoiceId;
+	}
+
+	public Note getNote() {
+		return note;
+	}
+
+	public void setNote(Note note) {
+		this.note = note;
+	}
+}
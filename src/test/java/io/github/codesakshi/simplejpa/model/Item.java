@@ -0,0 +1,55 @@
+package io.github.codesakshi.simplejpa.model;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Version;
+
+@Entity
+@Table(name = "ITEM")
+public class Item {
+
+	@Id
+	@Column(name = "ID")
+	private Integer id;
+
+	@Column(name = "NAME")
+	private String name;
+
+	@Version
+	@Column(name = "VER")
+	private Long version;
+
+	public Item() {
+
+	}
+
+	public Item(String name) {
+		this.name = name;
+	}
+
+	public Integer getId() {
+		return id;
+	}
+
+	public void setId(Integer id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+}
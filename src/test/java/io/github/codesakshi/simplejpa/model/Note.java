@@ -0,0 +1,42 @@
+package io.github.codesakshi.simplejpa.model;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+@Entity
+@Table(name = "NOTE")
+public class Note {
+
+	@Id
+	@Column(name = "ID")
+	private Long id;
+
+	@Column(name = "TEXT")
+	private String text;
+
+	public Note() {
+
+	}
+
+	public Note(String text) {
+		this.text = text;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getText() {
+		return text;
+	}
+
+	public void setText(String text) {
+		this.text = text;
+	}
+}
@@ -0,0 +1,47 @@
+package io.github.codesakshi.simplejpa.model;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+
+@Entity
+@Table(name = "ORDERS")
+public class PurchaseOrder {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orderSequence")
+	@SequenceGenerator(name = "orderSequence", sequenceName = "ORDER_SEQ", allocationSize = 5)
+	@Column(name = "ID")
+	private Long id;
+
+	@Column(name = "NAME")
+	private String name;
+
+	public PurchaseOrder() {
+
+	}
+
+	public PurchaseOrder(String name) {
+		this.name = name;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+}
@@ -0,0 +1,86 @@
+package io.github.codesakshi.simplejpa.model;
+
+import java.util.Set;
+
+import javax.persistence.CascadeType;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.JoinTable;
+import javax.persistence.ManyToMany;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+
+@Entity
+@Table(name = "TEACHER")
+public class Teacher {
+
+	@Id
+	@Column(name = "ID")
+	private Integer id;
+
+	@Column(name = "NAME")
+	private String name;
+
+	@ManyToOne
+	@JoinColumn(name = "SUBJECT_ID")
+	private Subject subject;
+
+	@Column(name = "SCHOOL_ID")
+	private Long schoolId;
+
+	@ManyToMany(cascade = { CascadeType.ALL })
+	@JoinTable(name = "TEACHER_STUDENT_GROUP",
+		joinColumns = @JoinColumn(name = "TEACHER_ID"),
+		inverseJoinColumns = @JoinColumn(name = "STUDENT_ID"))
+	private Set<Student> studentSet;
+
+	public Teacher() {
+
+	}
+
+	public Teacher(String name) {
+		this.name = name;
+	}
+
+	public Integer getId() {
+		return id;
+	}
+
+	public void setId(Integer id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public Subject getSubject() {
+		return subject;
+	}
+
+	public void setSubject(Subject subject) {
+		this.subject = subject;
+	}
+
+	public Long getSchoolId() {
+		return schoolId;
+	}
+
+	public void setSchoolId(Long schoolId) {
+		this.schoolId = schoolId;
+	}
+
+	public Set<Student> getStudentSet() {
+		return studentSet;
+	}
+
+	public void setStudentSet(Set<Student> studentSet) {
+		this.studentSet = studentSet;
+	}
+}